@@ -31,19 +31,27 @@ import com.osgifx.console.agent.dto.ConfigValue;
 import com.osgifx.console.agent.dto.DmtDataType;
 import com.osgifx.console.agent.dto.RuntimeDTO;
 import com.osgifx.console.agent.dto.XBundleDTO;
+import com.osgifx.console.agent.dto.XBundleDeltaDTO;
 import com.osgifx.console.agent.dto.XBundleLoggerContextDTO;
+import com.osgifx.console.agent.dto.XBundleStartHistoryDTO;
+import com.osgifx.console.agent.dto.XCommandResultDTO;
 import com.osgifx.console.agent.dto.XComponentDTO;
 import com.osgifx.console.agent.dto.XConfigurationDTO;
 import com.osgifx.console.agent.dto.XDmtNodeDTO;
+import com.osgifx.console.agent.dto.XEventSubscriptionDTO;
 import com.osgifx.console.agent.dto.XHealthCheckDTO;
 import com.osgifx.console.agent.dto.XHealthCheckResultDTO;
 import com.osgifx.console.agent.dto.XHeapUsageDTO;
+import com.osgifx.console.agent.dto.XHeapdumpDTO;
 import com.osgifx.console.agent.dto.XHttpComponentDTO;
+import com.osgifx.console.agent.dto.XLogSubscriptionDTO;
 import com.osgifx.console.agent.dto.XMemoryInfoDTO;
+import com.osgifx.console.agent.dto.XPackageIndexDTO;
 import com.osgifx.console.agent.dto.XPropertyDTO;
 import com.osgifx.console.agent.dto.XResultDTO;
 import com.osgifx.console.agent.dto.XRoleDTO;
 import com.osgifx.console.agent.dto.XServiceDTO;
+import com.osgifx.console.agent.dto.XServicePageDTO;
 import com.osgifx.console.agent.dto.XThreadDTO;
 import com.osgifx.console.agent.extension.AgentExtension;
 import com.osgifx.console.agent.extension.AgentExtensionName;
@@ -77,6 +85,20 @@ public interface Agent {
      */
     String AGENT_SOCKET_SECURE_COMMUNICATION_SSL_CONTEXT_FILTER_KEY = "osgi.fx.agent.socket.secure.sslcontext.filter";
 
+    /**
+     * The property key to specify the maximum number of concurrent socket
+     * sessions (default: {@code 8}). Further connections are rejected as long as
+     * the maximum number of sessions is open.
+     */
+    String AGENT_SOCKET_MAX_SESSIONS_KEY = "osgi.fx.agent.socket.max.sessions";
+
+    /**
+     * The property key to specify the time in seconds after which a socket session
+     * which has not received any request is closed (default: {@code 300}). A
+     * non-positive value keeps idle sessions open.
+     */
+    String AGENT_SOCKET_IDLE_TIMEOUT_KEY = "osgi.fx.agent.socket.idle.timeout";
+
     /**
      * The property key to specify the MQTT implementation type to use
      * <p>
@@ -107,11 +129,51 @@ public interface Agent {
      */
     String AGENT_MQTT_SUB_TOPIC_KEY = "osgi.fx.agent.mqtt.subtopic";
 
+    /**
+     * The property key to specify the maximum size in bytes of a single MQTT RPC
+     * frame (default: {@code 131072}). Larger messages are split into several
+     * frames which must fit into the maximum packet size of the broker.
+     */
+    String AGENT_MQTT_FRAME_SIZE_KEY = "osgi.fx.agent.mqtt.frame.size";
+
     /**
      * The property key to enable agent RPC logs
      */
     String AGENT_RPC_TRACE_LOG_KEY = "osgi.fx.agent.rpc.logs.enabled";
 
+    /**
+     * The property key to restrict the codecs to negotiate for the agent RPC
+     * communication (comma-separated codec names in the order of preference, for
+     * example, {@code binary,json})
+     */
+    String AGENT_RPC_CODEC_KEY = "osgi.fx.agent.rpc.codec";
+
+    /**
+     * The property key to specify the maximum number of logs or events to buffer
+     * until they are pushed to the supervisor (default: {@code 8192}). The
+     * subsequent entries are dropped as long as the buffer is full.
+     */
+    String AGENT_PUSH_BUFFER_CAPACITY_KEY = "osgi.fx.agent.push.buffer.capacity";
+
+    /**
+     * The property key to specify the maximum number of logs or events to push to
+     * the supervisor in a single batch (default: {@code 256})
+     */
+    String AGENT_PUSH_BATCH_SIZE_KEY = "osgi.fx.agent.push.batch.size";
+
+    /**
+     * The property key to specify the interval in milliseconds in which the
+     * buffered logs or events are pushed to the supervisor (default: {@code 200})
+     */
+    String AGENT_PUSH_FLUSH_INTERVAL_KEY = "osgi.fx.agent.push.flush.interval";
+
+    /**
+     * The property key to attach the complete bundle details to every pushed log
+     * entry. By default, the log entries only refer to the bundle using its
+     * identifier, symbolic name and version.
+     */
+    String AGENT_LOG_BUNDLE_DETAILS_KEY = "osgi.fx.agent.logs.bundle.details";
+
     /**
      * The port for attaching to a remote Gogo CommandSession
      */
@@ -267,6 +329,55 @@ public interface Agent {
      */
     void disableReceivingEvent();
 
+    /**
+     * Restricts the logs pushed by the agent to the entries matching the specified
+     * subscription. The entries are matched before they are converted to DTOs,
+     * hence, the non-matching entries cost the agent almost nothing.
+     * <p>
+     * An entry matches if its level is at least as severe as the minimum level
+     * ({@code AUDIT}, {@code ERROR}, {@code WARN}, {@code INFO}, {@code DEBUG} or
+     * {@code TRACE}), its bundle symbolic name matches any of the bundle patterns
+     * and its logger name matches any of the logger patterns. The patterns are
+     * globs supporting {@code *} and {@code ?}. Absent criteria match all entries.
+     * <p>
+     * The matching entries can further be limited to a maximum number per second
+     * and to a sampling ratio between {@code 0} and {@code 1}. A maximum rate of
+     * {@code 0} and a ratio of {@code 0} or {@code 1} disable the respective
+     * limit.
+     *
+     * @param subscription the subscription or {@code null} to push all logs
+     * @return the detailed information about the operation whether it succeeded or
+     *         failed
+     */
+    XResultDTO updateLogSubscription(XLogSubscriptionDTO subscription);
+
+    /**
+     * Restricts the events pushed by the agent to the events matching the
+     * specified subscription. The topics and the LDAP filter are handed over to
+     * the Event Admin as the handler's {@code event.topics} and
+     * {@code event.filter} whenever possible, so that the non-matching events are
+     * not even delivered to the agent.
+     * <p>
+     * The topic patterns are globs supporting {@code *} and {@code ?}. The
+     * maximum rate and the sampling ratio behave as described in
+     * {@link #updateLogSubscription(XLogSubscriptionDTO)}.
+     *
+     * @param subscription the subscription or {@code null} to push all events
+     * @return the detailed information about the operation whether it succeeded or
+     *         failed
+     */
+    XResultDTO updateEventSubscription(XEventSubscriptionDTO subscription);
+
+    /**
+     * Instructs the agent to push the logs and events in batches instead of a
+     * remote call per entry. The supervisor invokes this as soon as the connection
+     * is established, since older supervisors do not support the batches.
+     *
+     * @see com.osgifx.console.supervisor.Supervisor#loggedBatch(List, long)
+     * @see com.osgifx.console.supervisor.Supervisor#onOSGiEventBatch(List, long)
+     */
+    void enableBatchedPush();
+
     /**
      * Executes the specified terminal (CLI) command in a separate process.
      *
@@ -275,6 +386,48 @@ public interface Agent {
      */
     String execCliCommand(String command);
 
+    /**
+     * Executes the specified terminal (CLI) command in a separate process and
+     * streams its output. This method returns as soon as the process has been
+     * started. The output is pushed in chunks as it is produced using
+     * {@link com.osgifx.console.supervisor.Supervisor#onCommandOutput(long, long, String)}
+     * and the completion is reported using
+     * {@link com.osgifx.console.supervisor.Supervisor#onCommandCompleted(XCommandResultDTO)}.
+     * <p>
+     * The process is stopped as soon as it exceeds the specified number of output
+     * bytes or it gets cancelled using {@link #cancelCommand(long)}.
+     *
+     * @param id the identifier of the execution chosen by the supervisor
+     * @param command the command to execute
+     * @param maxBytes the maximum number of output bytes or a non-positive value
+     *            to use the default limit of the agent
+     * @return the result of starting the execution
+     */
+    XResultDTO execCliCommandStreamed(long id, String command, long maxBytes);
+
+    /**
+     * Executes the specified command on Gogo shell (if present) and streams its
+     * output in the same way as {@link #execCliCommandStreamed(long, String, long)}.
+     * The exit code is {@code 0} if the command completed normally and {@code 1}
+     * otherwise.
+     *
+     * @param id the identifier of the execution chosen by the supervisor
+     * @param command the command to execute
+     * @param maxBytes the maximum number of output bytes or a non-positive value
+     *            to use the default limit of the agent
+     * @return the result of starting the execution
+     */
+    XResultDTO execGogoCommandStreamed(long id, String command, long maxBytes);
+
+    /**
+     * Cancels the specified streamed command execution. The completion of the
+     * cancelled execution is still reported to the supervisor.
+     *
+     * @param id the identifier of the execution
+     * @return {@code true} if the execution was running, otherwise {@code false}
+     */
+    boolean cancelCommand(long id);
+
     /**
      * Disconnects the remote agent. The agent should send an event back and die. This is
      * an async method.
@@ -286,6 +439,15 @@ public interface Agent {
      */
     boolean ping();
 
+    /**
+     * Returns the names of the methods this agent supports. The supervisor uses
+     * them to avoid calling the methods an agent does not know as such calls are
+     * silently ignored.
+     *
+     * @return the names of the supported methods
+     */
+    Set<String> getSupportedMethods();
+
     /**
      * Returns the detailed information of all the installed bundles
      *
@@ -293,6 +455,34 @@ public interface Agent {
      */
     List<XBundleDTO> getAllBundles();
 
+    /**
+     * Returns the detailed information of the bundles which have been installed or
+     * changed as well as the identifiers of the bundles which have been uninstalled
+     * after the specified sequence number. If the agent cannot determine the
+     * changes (for example, the sequence number is from an earlier run of the
+     * agent), the returned delta is complete, that is, it contains all the
+     * installed bundles.
+     *
+     * @param sequence the sequence number of the previously retrieved delta or
+     *            {@code -1} to retrieve all the installed bundles
+     * @return the changes since the specified sequence number
+     */
+    XBundleDeltaDTO getBundleDelta(long sequence);
+
+    /**
+     * Returns the start histories of the bundles sorted by their slowest start
+     * in descending order. Every history contains the most recent starts of the
+     * bundle together with the minimum, average and maximum start durations of
+     * all the starts observed by the agent. If SCR is available, the number of
+     * DS components of the bundle and the time it took until their services
+     * had been registered after the start of the bundle are reported as well.
+     *
+     * @param limit the maximum number of histories to return or a non-positive
+     *            number to return the histories of all bundles
+     * @return the start histories of the slowest bundles
+     */
+    List<XBundleStartHistoryDTO> getBundleStartHistories(int limit);
+
     /**
      * Get the detailed information of all the registered DS service components
      * <p>
@@ -334,6 +524,35 @@ public interface Agent {
      */
     List<XServiceDTO> getAllServices();
 
+    /**
+     * Get the detailed information of the services matching the specified
+     * filter. The matching services are ordered by their service IDs.
+     * <p>
+     * Services can be filtered by their object classes, for example
+     * {@code (objectClass=org.osgi.service.event.EventHandler)}, or by their
+     * registering bundle, for example {@code (service.bundleid=12)}.
+     *
+     * @param filter the LDAP filter to match the service properties against or
+     *            {@code null} to match all services
+     * @param offset the number of matching services to skip
+     * @param limit the maximum number of services to return or a non-positive
+     *            value to return all remaining services
+     * @return the requested page of the matching services
+     * @throws IllegalArgumentException if the filter is invalid or the offset is
+     *             negative
+     */
+    XServicePageDTO getServices(String filter, int offset, int limit);
+
+    /**
+     * Get the index of all the wired packages of the remote runtime. Every
+     * package is identified by its name and version and refers to its exporting
+     * and importing bundles by their IDs. The referenced bundles are listed once
+     * in the index.
+     *
+     * @return the index of all the wired packages
+     */
+    XPackageIndexDTO getPackageIndex();
+
     /**
      * Get the detailed information of all the threads
      *
@@ -341,6 +560,16 @@ public interface Agent {
      */
     List<XThreadDTO> getAllThreads();
 
+    /**
+     * Get the detailed information of all the threads including their CPU times,
+     * contention statistics, locks and stack traces. As this is more expensive
+     * than {@link #getAllThreads()}, it is only meant to be requested on demand.
+     *
+     * @param maxStackDepth the maximum number of stack frames to capture per thread
+     * @return the detailed information of all the threads
+     */
+    List<XThreadDTO> getThreadDetails(int maxStackDepth);
+
     /**
      * Returns all the children of the specified DMT node URI
      *
@@ -349,6 +578,25 @@ public interface Agent {
      */
     XDmtNodeDTO readDmtNode(String rootURI);
 
+    /**
+     * Returns the specified DMT node together with its descendants up to the
+     * specified depth. Only the children of the specified node are paged, that
+     * is, the returned node contains at most {@code limit} children starting from
+     * {@code offset} whereas {@link XDmtNodeDTO#childCount} denotes the total
+     * number of its children. The children are ordered by their names.
+     *
+     * @param rootURI the URI of the DMT node to read
+     * @param depth the number of levels of descendants to read ({@code 0} to only
+     *            read the node itself and a negative value to read all the
+     *            descendants)
+     * @param offset the number of children of the node to skip
+     * @param limit the maximum number of children of the node to read or a
+     *            non-positive value to read all remaining children
+     * @return the DMT node or {@code null} if it does not exist
+     * @throws IllegalArgumentException if the offset is negative
+     */
+    XDmtNodeDTO readDmtNode(String rootURI, int depth, int offset, int limit);
+
     /**
      * Update the specified DMT leaf node with the specified value
      *
@@ -611,9 +859,51 @@ public interface Agent {
      * Performs a heap dump in the remote machine
      *
      * @return the heap dump information
+     * @deprecated the complete heap dump is kept in memory on both sides, use
+     *             {@link #prepareHeapdump()} and {@link #readHeapdumpChunk(String, long, int)}
+     *             to transfer the heap dump in chunks instead
      */
+    @Deprecated
     byte[] heapdump() throws Exception;
 
+    /**
+     * Performs a heap dump in the remote machine and keeps it available for a
+     * chunked transfer. The heap dump can be read by invoking
+     * {@link #readHeapdumpChunk(String, long, int)} with the returned identifier
+     * and must be released using {@link #releaseHeapdump(String)} once the
+     * transfer is complete.
+     * <p>
+     * <b>Note that,</b> heap dumps which are not read for a while get released
+     * automatically.
+     *
+     * @return the transfer information of the heap dump, or {@code null} if the
+     *         heap dump cannot be performed
+     */
+    XHeapdumpDTO prepareHeapdump() throws Exception;
+
+    /**
+     * Reads the chunk of the specified heap dump starting at the specified
+     * offset. Since the chunks are read by offset, a failed transfer can be
+     * resumed from the last successfully received chunk.
+     *
+     * @param id the identifier of the heap dump
+     * @param offset the offset to start reading from
+     * @param length the maximum number of bytes to read (capped to the
+     *            {@code maxChunkSize} of the heap dump)
+     * @return the chunk which is empty if the offset is at the end of the heap
+     *         dump, or {@code null} if no such heap dump exists
+     */
+    byte[] readHeapdumpChunk(String id, long offset, int length) throws Exception;
+
+    /**
+     * Releases the resources associated with the specified heap dump
+     *
+     * @param id the identifier of the heap dump
+     * @return {@code true} if the heap dump has been released, otherwise
+     *         {@code false}
+     */
+    boolean releaseHeapdump(String id);
+
     /**
      * Performs a garbage collection
      */
@@ -0,0 +1,190 @@
+/*******************************************************************************
+ * Copyright 2021-2023 Amit Kumar Mondal
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package com.osgifx.console.agent;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import org.osgi.annotation.versioning.ProviderType;
+
+import com.osgifx.console.agent.dto.RuntimeDTO;
+import com.osgifx.console.agent.dto.XBundleDTO;
+import com.osgifx.console.agent.dto.XBundleDeltaDTO;
+import com.osgifx.console.agent.dto.XBundleLoggerContextDTO;
+import com.osgifx.console.agent.dto.XBundleStartHistoryDTO;
+import com.osgifx.console.agent.dto.XComponentDTO;
+import com.osgifx.console.agent.dto.XConfigurationDTO;
+import com.osgifx.console.agent.dto.XDmtNodeDTO;
+import com.osgifx.console.agent.dto.XEventSubscriptionDTO;
+import com.osgifx.console.agent.dto.XHealthCheckDTO;
+import com.osgifx.console.agent.dto.XHeapUsageDTO;
+import com.osgifx.console.agent.dto.XHttpComponentDTO;
+import com.osgifx.console.agent.dto.XMemoryInfoDTO;
+import com.osgifx.console.agent.dto.XPackageIndexDTO;
+import com.osgifx.console.agent.dto.XPropertyDTO;
+import com.osgifx.console.agent.dto.XResultDTO;
+import com.osgifx.console.agent.dto.XRoleDTO;
+import com.osgifx.console.agent.dto.XServiceDTO;
+import com.osgifx.console.agent.dto.XServicePageDTO;
+import com.osgifx.console.agent.dto.XThreadDTO;
+
+/**
+ * An asynchronous view of the {@link Agent} which does not block the calling
+ * thread while the remote agent processes the request. Every method is
+ * dispatched to the {@link Agent} method with the same name and parameters.
+ * <p>
+ * The returned futures are completed as soon as the responses arrive. Any
+ * future which is not completed within the default RPC deadline completes
+ * exceptionally with a {@link java.util.concurrent.TimeoutException}. A shorter
+ * deadline can be applied per call, for example, using
+ * {@code CompletableFuture#orTimeout}.
+ * <p>
+ * <b>Note that,</b> cancelling a future (or letting it time out) also cancels
+ * the processing of the request in the remote agent if it has not been
+ * finished yet.
+ *
+ * @see Agent
+ */
+@ProviderType
+public interface AsyncAgent {
+
+    /**
+     * @see Agent#ping()
+     */
+    CompletableFuture<Boolean> ping();
+
+    /**
+     * @see Agent#getSupportedMethods()
+     */
+    CompletableFuture<Set<String>> getSupportedMethods();
+
+    /**
+     * @see Agent#getAllBundles()
+     */
+    CompletableFuture<List<XBundleDTO>> getAllBundles();
+
+    /**
+     * @see Agent#getBundleDelta(long)
+     */
+    CompletableFuture<XBundleDeltaDTO> getBundleDelta(long sequence);
+
+    /**
+     * @see Agent#getBundleStartHistories(int)
+     */
+    CompletableFuture<List<XBundleStartHistoryDTO>> getBundleStartHistories(int limit);
+
+    /**
+     * @see Agent#getAllComponents()
+     */
+    CompletableFuture<List<XComponentDTO>> getAllComponents();
+
+    /**
+     * @see Agent#getAllConfigurations()
+     */
+    CompletableFuture<List<XConfigurationDTO>> getAllConfigurations();
+
+    /**
+     * @see Agent#getAllProperties()
+     */
+    CompletableFuture<List<XPropertyDTO>> getAllProperties();
+
+    /**
+     * @see Agent#getAllServices()
+     */
+    CompletableFuture<List<XServiceDTO>> getAllServices();
+
+    /**
+     * @see Agent#getServices(String, int, int)
+     */
+    CompletableFuture<XServicePageDTO> getServices(String filter, int offset, int limit);
+
+    /**
+     * @see Agent#getPackageIndex()
+     */
+    CompletableFuture<XPackageIndexDTO> getPackageIndex();
+
+    /**
+     * @see Agent#getAllThreads()
+     */
+    CompletableFuture<List<XThreadDTO>> getAllThreads();
+
+    /**
+     * @see Agent#getThreadDetails(int)
+     */
+    CompletableFuture<List<XThreadDTO>> getThreadDetails(int maxStackDepth);
+
+    /**
+     * @see Agent#readDmtNode(String)
+     */
+    CompletableFuture<XDmtNodeDTO> readDmtNode(String rootURI);
+
+    /**
+     * @see Agent#readDmtNode(String, int, int, int)
+     */
+    CompletableFuture<XDmtNodeDTO> readDmtNode(String rootURI, int depth, int offset, int limit);
+
+    /**
+     * @see Agent#getMemoryInfo()
+     */
+    CompletableFuture<XMemoryInfoDTO> getMemoryInfo();
+
+    /**
+     * @see Agent#getGogoCommands()
+     */
+    CompletableFuture<Set<String>> getGogoCommands();
+
+    /**
+     * @see Agent#updateEventSubscription(XEventSubscriptionDTO)
+     */
+    CompletableFuture<XResultDTO> updateEventSubscription(XEventSubscriptionDTO subscription);
+
+    /**
+     * @see Agent#getAllRoles()
+     */
+    CompletableFuture<List<XRoleDTO>> getAllRoles();
+
+    /**
+     * @see Agent#getAllHealthChecks()
+     */
+    CompletableFuture<List<XHealthCheckDTO>> getAllHealthChecks();
+
+    /**
+     * @see Agent#getClassloaderLeaks()
+     */
+    CompletableFuture<Set<XBundleDTO>> getClassloaderLeaks();
+
+    /**
+     * @see Agent#getHttpComponents()
+     */
+    CompletableFuture<List<XHttpComponentDTO>> getHttpComponents();
+
+    /**
+     * @see Agent#getBundleLoggerContexts()
+     */
+    CompletableFuture<List<XBundleLoggerContextDTO>> getBundleLoggerContexts();
+
+    /**
+     * @see Agent#getHeapUsage()
+     */
+    CompletableFuture<XHeapUsageDTO> getHeapUsage();
+
+    /**
+     * @see Agent#getRuntimeDTO()
+     */
+    CompletableFuture<RuntimeDTO> getRuntimeDTO();
+
+}
@@ -0,0 +1,34 @@
+/*******************************************************************************
+ * Copyright 2021-2023 Amit Kumar Mondal
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package com.osgifx.console.agent.dto;
+
+import java.util.List;
+
+import org.osgi.dto.DTO;
+
+public class XBundleStartHistoryDTO extends DTO {
+
+    public long                  id;
+    public String                symbolicName;
+    public long                  startCount;
+    public long                  minStartDurationInMillis;
+    public long                  avgStartDurationInMillis;
+    public long                  maxStartDurationInMillis;
+    public int                   components;
+    public int                   activeComponents;
+    public List<XBundleStartDTO> starts;
+
+}
@@ -25,6 +25,7 @@ public class XDmtNodeDTO extends DTO {
     public String            value;
     public DmtDataType       format;
     public String            createdAt;
+    public int               childCount;
     public List<XDmtNodeDTO> children;
 
 }
@@ -15,17 +15,31 @@
  ******************************************************************************/
 package com.osgifx.console.agent.dto;
 
+import java.util.List;
+
 import org.osgi.dto.DTO;
 
 public class XThreadDTO extends DTO {
 
-    public String  name;
-    public long    id;
-    public int     priority;
-    public String  state;
-    public boolean isInterrupted;
-    public boolean isAlive;
-    public boolean isDaemon;
-    public boolean isDeadlocked;
+    public String       name;
+    public long         id;
+    public int          priority;
+    public String       state;
+    public boolean      isInterrupted;
+    public boolean      isAlive;
+    public boolean      isDaemon;
+    public boolean      isDeadlocked;
+
+    // only captured by Agent#getThreadDetails(int), negative if not supported
+    public long         cpuTimeInNanos;
+    public long         userTimeInNanos;
+    public long         blockedCount;
+    public long         blockedTimeInMillis;
+    public long         waitedCount;
+    public long         waitedTimeInMillis;
+    public String       lockName;
+    public long         lockOwnerId;
+    public String       lockOwnerName;
+    public List<String> stackTrace;
 
 }
@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright 2021-2023 Amit Kumar Mondal
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package com.osgifx.console.agent.rpc;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.util.function.Consumer;
+
+/**
+ * Coalesces the text appended in quick succession so that it can be handed
+ * over to a sink in as few calls as possible. The pending text is released as
+ * soon as it contains a line break or exceeds the maximum size, otherwise after
+ * the flush delay. The text appended while the sink is busy is coalesced into
+ * the next call.
+ */
+public final class CoalescingBuffer {
+
+    @FunctionalInterface
+    public interface Sink {
+        void send(String text) throws Exception;
+    }
+
+    private final long          flushDelayNanos;
+    private final int           maxSize;
+    private final StringBuilder pending = new StringBuilder();
+
+    private long    firstPendingAt;
+    private boolean flushNow;
+    private boolean running = true;
+
+    public CoalescingBuffer(final long flushDelayMillis, final int maxSize) {
+        this.flushDelayNanos = MILLISECONDS.toNanos(flushDelayMillis);
+        this.maxSize         = maxSize;
+    }
+
+    /**
+     * Appends the specified text to the pending text
+     *
+     * @param text the text to append
+     * @return {@code false} if the buffer has already been closed, otherwise {@code true}
+     */
+    public boolean append(final CharSequence text) {
+        synchronized (pending) {
+            if (!running) {
+                return false;
+            }
+            if (text.length() == 0) {
+                return true;
+            }
+            if (pending.length() == 0) {
+                firstPendingAt = System.nanoTime();
+            }
+            pending.append(text);
+            if (pending.length() >= maxSize || containsLineBreak(text)) {
+                flushNow = true;
+            }
+            pending.notifyAll();
+            return true;
+        }
+    }
+
+    /**
+     * Hands the pending text over to the specified sink until the buffer is
+     * closed and the remaining text has been sent. This blocks the calling
+     * thread and hence, is meant to be called from a dedicated sender thread.
+     *
+     * @param sink the sink to send the coalesced text to
+     * @param errorHandler the handler of the errors thrown by the sink
+     */
+    public void drainTo(final Sink sink, final Consumer<Exception> errorHandler) {
+        while (true) {
+            final String text;
+            try {
+                text = awaitPending();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (text == null) {
+                return;
+            }
+            try {
+                sink.send(text);
+            } catch (final Exception e) {
+                errorHandler.accept(e);
+            }
+        }
+    }
+
+    /**
+     * Closes the buffer such that the pending text is sent right away and the
+     * text appended afterwards is discarded
+     */
+    public void close() {
+        synchronized (pending) {
+            running  = false;
+            flushNow = true;
+            pending.notifyAll();
+        }
+    }
+
+    private String awaitPending() throws InterruptedException {
+        synchronized (pending) {
+            while (pending.length() == 0) {
+                if (!running) {
+                    return null;
+                }
+                pending.wait();
+            }
+            long remaining;
+            while (!flushNow && (remaining = firstPendingAt + flushDelayNanos - System.nanoTime()) > 0) {
+                pending.wait(Math.max(1, NANOSECONDS.toMillis(remaining)));
+            }
+            final String text = pending.toString();
+            pending.setLength(0);
+            flushNow = false;
+            return text;
+        }
+    }
+
+    private static boolean containsLineBreak(final CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            if (c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
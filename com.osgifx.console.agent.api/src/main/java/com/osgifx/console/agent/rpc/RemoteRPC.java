@@ -45,6 +45,18 @@ public interface RemoteRPC<L, R> {
      */
     R getRemote();
 
+    /**
+     * Returns the asynchronous proxy of the remote agent. Every method of the
+     * specified interface must return a {@link java.util.concurrent.CompletableFuture}
+     * and is dispatched to the remote method with the same name and number of
+     * parameters.
+     *
+     * @param <A> the type of the asynchronous view
+     * @param asyncClass the asynchronous view of the remote agent
+     * @return the asynchronous remote agent proxy
+     */
+    <A> A getAsyncRemote(Class<A> asyncClass);
+
     /**
      * Checks if the RPC communication link is already open
      *
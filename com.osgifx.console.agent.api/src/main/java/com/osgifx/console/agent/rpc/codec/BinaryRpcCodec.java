@@ -0,0 +1,731 @@
+/*******************************************************************************
+ * Copyright 2021-2023 Amit Kumar Mondal
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package com.osgifx.console.agent.rpc.codec;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * A compact, self-describing binary codec for the DTOs exchanged between the
+ * agent and the supervisor.
+ * <p>
+ * Every value is prefixed with a one byte tag. Integral numbers are written as
+ * zig-zag encoded variable length integers and strings up to
+ * {@value #MAX_INTERNED_STRING_LENGTH} characters are interned per message,
+ * i.e. repeating field names, symbolic names, versions or package names are
+ * written only once and referenced by index afterwards.
+ * <p>
+ * Objects are written as a sequence of {@code name/value} pairs of their public
+ * instance fields. The accessors of the fields are resolved only once per class
+ * and cached as {@link MethodHandle}s. Since the fields are identified by name,
+ * peers with different versions of the same DTO can still communicate as the
+ * unknown fields are skipped while decoding.
+ * <p>
+ * The codec is registered twice, once as is and once with an additional
+ * (fastest level) deflate pass for low bandwidth links.
+ */
+public final class BinaryRpcCodec implements RpcCodec {
+
+    public static final String NAME            = "binary";
+    public static final String COMPRESSED_NAME = "binary-deflate";
+
+    private static final int MAX_INTERNED_STRING_LENGTH = 256;
+    private static final int INITIAL_BUFFER_SIZE        = 512;
+    private static final int DEFLATE_CHUNK_SIZE         = 8192;
+
+    private static final byte NULL       = 0;
+    private static final byte TRUE       = 1;
+    private static final byte FALSE      = 2;
+    private static final byte BYTE       = 3;
+    private static final byte SHORT      = 4;
+    private static final byte CHAR       = 5;
+    private static final byte INT        = 6;
+    private static final byte LONG       = 7;
+    private static final byte FLOAT      = 8;
+    private static final byte DOUBLE     = 9;
+    private static final byte STRING     = 10;
+    private static final byte STRING_DEF = 11;
+    private static final byte STRING_REF = 12;
+    private static final byte BYTES      = 13;
+    private static final byte ARRAY      = 14;
+    private static final byte COLLECTION = 15;
+    private static final byte MAP        = 16;
+    private static final byte OBJECT     = 17;
+    private static final byte ENUM       = 18;
+
+    private static final MethodType GETTER_TYPE      = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE      = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+
+    private static final Map<Class<?>, Schema> SCHEMAS = new ConcurrentHashMap<>();
+
+    private final boolean compressed;
+
+    public BinaryRpcCodec(final boolean compressed) {
+        this.compressed = compressed;
+    }
+
+    @Override
+    public String name() {
+        return compressed ? COMPRESSED_NAME : NAME;
+    }
+
+    @Override
+    public byte[] encode(final Object value) throws Exception {
+        final Encoder encoder = new Encoder();
+        encoder.write(value);
+        final byte[] data = encoder.toByteArray();
+        return compressed ? deflate(data) : data;
+    }
+
+    @Override
+    public Object decode(final byte[] data, final Type type) throws Exception {
+        return new Decoder(compressed ? inflate(data) : data).read(type);
+    }
+
+    private static Schema schema(final Class<?> clazz) {
+        return SCHEMAS.computeIfAbsent(clazz, Schema::new);
+    }
+
+    private static final class Property {
+        final String       name;
+        final Type         type;
+        final boolean      primitive;
+        final MethodHandle getter;
+        final MethodHandle setter;
+
+        Property(final Field field) throws IllegalAccessException {
+            name      = field.getName();
+            type      = field.getGenericType();
+            primitive = field.getType().isPrimitive();
+            try {
+                field.setAccessible(true);
+            } catch (final Exception e) {
+                // the public fields are still accessible
+            }
+            final MethodHandles.Lookup lookup = MethodHandles.lookup();
+            getter = lookup.unreflectGetter(field).asType(GETTER_TYPE);
+            setter = Modifier.isFinal(field.getModifiers()) ? null
+                    : lookup.unreflectSetter(field).asType(SETTER_TYPE);
+        }
+    }
+
+    private static final class Schema {
+        final Property[]            properties;
+        final Map<String, Property> byName;
+        final MethodHandle          constructor;
+
+        Schema(final Class<?> clazz) {
+            final List<Property> props = new ArrayList<>();
+            for (final Field field : clazz.getFields()) {
+                final int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers)) {
+                    continue;
+                }
+                try {
+                    props.add(new Property(field));
+                } catch (final IllegalAccessException e) {
+                    // inaccessible fields are not part of the schema
+                }
+            }
+            properties = props.toArray(new Property[0]);
+            byName     = new HashMap<>(properties.length * 2);
+            for (final Property property : properties) {
+                byName.put(property.name, property);
+            }
+            MethodHandle ctor = null;
+            try {
+                final Constructor<?> c = clazz.getConstructor();
+                ctor = MethodHandles.lookup().unreflectConstructor(c).asType(CONSTRUCTOR_TYPE);
+            } catch (final Exception e) {
+                // the type cannot be decoded but can still be encoded
+            }
+            constructor = ctor;
+        }
+
+        Object newInstance() throws Exception {
+            if (constructor == null) {
+                throw new IllegalArgumentException("No public default constructor found");
+            }
+            try {
+                return constructor.invokeExact();
+            } catch (final Throwable t) {
+                throw rethrow(t);
+            }
+        }
+    }
+
+    private final class Encoder {
+
+        private byte[]                     buffer  = new byte[INITIAL_BUFFER_SIZE];
+        private int                        position;
+        private final Map<String, Integer> strings = new HashMap<>();
+
+        void write(final Object value) throws Exception {
+            if (value == null) {
+                writeByte(NULL);
+                return;
+            }
+            final Class<?> clazz = value.getClass();
+            if (clazz == String.class) {
+                writeString((String) value);
+            } else if (clazz == Integer.class) {
+                writeByte(INT);
+                writeVarInt(zigzag((Integer) value));
+            } else if (clazz == Long.class) {
+                writeByte(LONG);
+                writeVarLong(zigzag((Long) value));
+            } else if (clazz == Boolean.class) {
+                writeByte((Boolean) value ? TRUE : FALSE);
+            } else if (clazz == Double.class) {
+                writeByte(DOUBLE);
+                writeFixedLong(Double.doubleToLongBits((Double) value));
+            } else if (clazz == Float.class) {
+                writeByte(FLOAT);
+                writeVarInt(Float.floatToIntBits((Float) value));
+            } else if (clazz == Short.class) {
+                writeByte(SHORT);
+                writeVarInt(zigzag((Short) value));
+            } else if (clazz == Byte.class) {
+                writeByte(BYTE);
+                writeByte((Byte) value);
+            } else if (clazz == Character.class) {
+                writeByte(CHAR);
+                writeVarInt((Character) value);
+            } else if (clazz == byte[].class) {
+                final byte[] bytes = (byte[]) value;
+                writeByte(BYTES);
+                writeVarInt(bytes.length);
+                writeBytes(bytes);
+            } else if (clazz.isArray()) {
+                writeArray(value);
+            } else if (value instanceof Enum<?>) {
+                writeByte(ENUM);
+                writeString(((Enum<?>) value).name());
+            } else if (value instanceof Collection<?>) {
+                final Collection<?> collection = (Collection<?>) value;
+                writeByte(COLLECTION);
+                writeVarInt(collection.size());
+                for (final Object element : collection) {
+                    write(element);
+                }
+            } else if (value instanceof Map<?, ?>) {
+                final Map<?, ?> map = (Map<?, ?>) value;
+                writeByte(MAP);
+                writeVarInt(map.size());
+                for (final Map.Entry<?, ?> entry : map.entrySet()) {
+                    write(entry.getKey());
+                    write(entry.getValue());
+                }
+            } else if (value instanceof Number) {
+                writeString(value.toString());
+            } else {
+                writeObject(value, schema(clazz));
+            }
+        }
+
+        private void writeArray(final Object array) throws Exception {
+            final int length = Array.getLength(array);
+            writeByte(ARRAY);
+            writeVarInt(length);
+            if (array instanceof long[]) {
+                for (final long element : (long[]) array) {
+                    writeByte(LONG);
+                    writeVarLong(zigzag(element));
+                }
+            } else if (array instanceof int[]) {
+                for (final int element : (int[]) array) {
+                    writeByte(INT);
+                    writeVarInt(zigzag(element));
+                }
+            } else if (array instanceof Object[]) {
+                for (final Object element : (Object[]) array) {
+                    write(element);
+                }
+            } else {
+                for (int i = 0; i < length; i++) {
+                    write(Array.get(array, i));
+                }
+            }
+        }
+
+        private void writeObject(final Object value, final Schema schema) throws Exception {
+            if (schema.properties.length == 0) {
+                writeString(value.toString());
+                return;
+            }
+            writeByte(OBJECT);
+            for (final Property property : schema.properties) {
+                final Object fieldValue;
+                try {
+                    fieldValue = property.getter.invokeExact(value);
+                } catch (final Throwable t) {
+                    throw rethrow(t);
+                }
+                if (fieldValue == null) {
+                    continue;
+                }
+                writeString(property.name);
+                write(fieldValue);
+            }
+            // the end of the fields is marked with a null tag as a field name is always a string
+            writeByte(NULL);
+        }
+
+        private void writeString(final String value) {
+            if (value.length() > MAX_INTERNED_STRING_LENGTH) {
+                writeByte(STRING);
+                writeUtf8(value);
+                return;
+            }
+            final Integer index = strings.get(value);
+            if (index != null) {
+                writeByte(STRING_REF);
+                writeVarInt(index);
+                return;
+            }
+            strings.put(value, strings.size());
+            writeByte(STRING_DEF);
+            writeUtf8(value);
+        }
+
+        private void writeUtf8(final String value) {
+            final byte[] bytes = value.getBytes(UTF_8);
+            writeVarInt(bytes.length);
+            writeBytes(bytes);
+        }
+
+        private void writeVarInt(int value) {
+            ensureCapacity(5);
+            while ((value & ~0x7F) != 0) {
+                buffer[position++] = (byte) (value & 0x7F | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        private void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) (value & 0x7F | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        private void writeFixedLong(final long value) {
+            ensureCapacity(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[position++] = (byte) (value >>> shift);
+            }
+        }
+
+        private void writeByte(final int value) {
+            ensureCapacity(1);
+            buffer[position++] = (byte) value;
+        }
+
+        private void writeBytes(final byte[] bytes) {
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        private void ensureCapacity(final int required) {
+            if (position + required > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, position + required));
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+    }
+
+    private final class Decoder {
+
+        private final byte[]       data;
+        private int                position;
+        private final List<String> strings = new ArrayList<>();
+
+        Decoder(final byte[] data) {
+            this.data = data;
+        }
+
+        Object read(final Type type) throws Exception {
+            final byte     tag   = data[position++];
+            final Class<?> clazz = rawClass(type);
+            switch (tag) {
+                case NULL:
+                    return null;
+                case TRUE:
+                    return Boolean.TRUE;
+                case FALSE:
+                    return Boolean.FALSE;
+                case BYTE:
+                    return coerce(data[position++], clazz);
+                case SHORT:
+                    return coerce((short) unzigzag(readVarInt()), clazz);
+                case INT:
+                    return coerce(unzigzag(readVarInt()), clazz);
+                case LONG:
+                    return coerce(unzigzag(readVarLong()), clazz);
+                case FLOAT:
+                    return coerce(Float.intBitsToFloat(readVarInt()), clazz);
+                case DOUBLE:
+                    return coerce(Double.longBitsToDouble(readFixedLong()), clazz);
+                case CHAR:
+                    final char c = (char) readVarInt();
+                    return clazz == String.class ? String.valueOf(c) : c;
+                case STRING:
+                case STRING_DEF:
+                case STRING_REF:
+                    return coerce(readString(tag), clazz);
+                case ENUM:
+                    return coerce(readString(data[position++]), clazz);
+                case BYTES:
+                    final int length = readVarInt();
+                    final byte[] bytes = Arrays.copyOfRange(data, position, position + length);
+                    position += length;
+                    return bytes;
+                case ARRAY:
+                case COLLECTION:
+                    return readSequence(type, clazz);
+                case MAP:
+                    return readMap(type, clazz);
+                case OBJECT:
+                    return readObject(clazz);
+                default:
+                    throw new IllegalArgumentException("Unknown tag '" + tag + "' at position " + (position - 1));
+            }
+        }
+
+        private Object readSequence(final Type type, final Class<?> clazz) throws Exception {
+            final int size = readVarInt();
+            if (clazz.isArray()) {
+                final Type   componentType = componentType(type, clazz);
+                final Object array         = Array.newInstance(rawClass(componentType), size);
+                for (int i = 0; i < size; i++) {
+                    final Object element = read(componentType);
+                    if (element != null) {
+                        Array.set(array, i, element);
+                    }
+                }
+                return array;
+            }
+            final Collection<Object> collection  = newCollection(clazz, size);
+            final Type               elementType = typeArgument(type, 0);
+            for (int i = 0; i < size; i++) {
+                collection.add(read(elementType));
+            }
+            return collection;
+        }
+
+        private Object readMap(final Type type, final Class<?> clazz) throws Exception {
+            final int                 size      = readVarInt();
+            final Map<Object, Object> map       = newMap(clazz, size);
+            final Type                keyType   = typeArgument(type, 0);
+            final Type                valueType = typeArgument(type, 1);
+            for (int i = 0; i < size; i++) {
+                final Object key = read(keyType);
+                map.put(key, read(valueType));
+            }
+            return map;
+        }
+
+        private Object readObject(final Class<?> clazz) throws Exception {
+            if (clazz == Object.class || Map.class.isAssignableFrom(clazz)) {
+                final Map<Object, Object> map = newMap(clazz, 16);
+                byte                      tag;
+                while ((tag = data[position++]) != NULL) {
+                    final String name = readString(tag);
+                    map.put(name, read(Object.class));
+                }
+                return map;
+            }
+            final Schema schema = schema(clazz);
+            final Object target = schema.newInstance();
+            byte         tag;
+            while ((tag = data[position++]) != NULL) {
+                final String   name     = readString(tag);
+                final Property property = schema.byName.get(name);
+                if (property == null || property.setter == null) {
+                    // skip the values of the fields unknown to this side
+                    read(Object.class);
+                    continue;
+                }
+                final Object value = read(property.type);
+                if (value == null && property.primitive) {
+                    continue;
+                }
+                try {
+                    property.setter.invokeExact(target, value);
+                } catch (final Throwable t) {
+                    throw rethrow(t);
+                }
+            }
+            return target;
+        }
+
+        private String readString(final byte tag) {
+            if (tag == STRING_REF) {
+                return strings.get(readVarInt());
+            }
+            final int    length = readVarInt();
+            final String value  = new String(data, position, length, UTF_8);
+            position += length;
+            if (tag == STRING_DEF) {
+                strings.add(value);
+            } else if (tag != STRING) {
+                throw new IllegalArgumentException("Expected string but found tag '" + tag + "'");
+            }
+            return value;
+        }
+
+        private int readVarInt() {
+            int result = 0;
+            for (int shift = 0;; shift += 7) {
+                final byte b = data[position++];
+                result |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+        }
+
+        private long readVarLong() {
+            long result = 0;
+            for (int shift = 0;; shift += 7) {
+                final byte b = data[position++];
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+        }
+
+        private long readFixedLong() {
+            long result = 0;
+            for (int i = 0; i < 8; i++) {
+                result = result << 8 | data[position++] & 0xFF;
+            }
+            return result;
+        }
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static Object coerce(final Object value, final Class<?> clazz) {
+        if (clazz.isInstance(value)) {
+            return value;
+        }
+        if (value instanceof Number) {
+            final Number number = (Number) value;
+            if (clazz == long.class || clazz == Long.class) {
+                return number.longValue();
+            }
+            if (clazz == int.class || clazz == Integer.class) {
+                return number.intValue();
+            }
+            if (clazz == double.class || clazz == Double.class) {
+                return number.doubleValue();
+            }
+            if (clazz == float.class || clazz == Float.class) {
+                return number.floatValue();
+            }
+            if (clazz == short.class || clazz == Short.class) {
+                return number.shortValue();
+            }
+            if (clazz == byte.class || clazz == Byte.class) {
+                return number.byteValue();
+            }
+            if (clazz == String.class) {
+                return number.toString();
+            }
+            return value;
+        }
+        if (value instanceof String) {
+            final String string = (String) value;
+            if (clazz.isEnum()) {
+                return Enum.valueOf((Class<? extends Enum>) clazz, string);
+            }
+            if ((clazz == char.class || clazz == Character.class) && string.length() == 1) {
+                return string.charAt(0);
+            }
+        }
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Collection<Object> newCollection(final Class<?> clazz, final int size) throws Exception {
+        if (!clazz.isInterface() && !Modifier.isAbstract(clazz.getModifiers())
+                && Collection.class.isAssignableFrom(clazz)) {
+            return (Collection<Object>) clazz.getConstructor().newInstance();
+        }
+        if (SortedSet.class.isAssignableFrom(clazz)) {
+            return new TreeSet<>();
+        }
+        if (Set.class.isAssignableFrom(clazz)) {
+            return new LinkedHashSet<>(size * 2);
+        }
+        if (Queue.class.isAssignableFrom(clazz)) {
+            return new ArrayDeque<>(size);
+        }
+        return new ArrayList<>(size);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<Object, Object> newMap(final Class<?> clazz, final int size) throws Exception {
+        if (!clazz.isInterface() && !Modifier.isAbstract(clazz.getModifiers()) && Map.class.isAssignableFrom(clazz)) {
+            return (Map<Object, Object>) clazz.getConstructor().newInstance();
+        }
+        if (SortedMap.class.isAssignableFrom(clazz)) {
+            return new TreeMap<>();
+        }
+        return new LinkedHashMap<>(size * 2);
+    }
+
+    private static Class<?> rawClass(final Type type) {
+        if (type instanceof Class<?>) {
+            return (Class<?>) type;
+        }
+        if (type instanceof ParameterizedType) {
+            return rawClass(((ParameterizedType) type).getRawType());
+        }
+        if (type instanceof GenericArrayType) {
+            final Class<?> component = rawClass(((GenericArrayType) type).getGenericComponentType());
+            return Array.newInstance(component, 0).getClass();
+        }
+        if (type instanceof WildcardType) {
+            return rawClass(((WildcardType) type).getUpperBounds()[0]);
+        }
+        if (type instanceof TypeVariable<?>) {
+            return rawClass(((TypeVariable<?>) type).getBounds()[0]);
+        }
+        return Object.class;
+    }
+
+    private static Type componentType(final Type type, final Class<?> clazz) {
+        if (type instanceof GenericArrayType) {
+            return ((GenericArrayType) type).getGenericComponentType();
+        }
+        return clazz.getComponentType();
+    }
+
+    private static Type typeArgument(final Type type, final int index) {
+        if (type instanceof ParameterizedType) {
+            final Type[] arguments = ((ParameterizedType) type).getActualTypeArguments();
+            if (index < arguments.length) {
+                return arguments[index];
+            }
+        }
+        return Object.class;
+    }
+
+    private static byte[] deflate(final byte[] data) {
+        final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            final ByteArrayOutputStream out   = new ByteArrayOutputStream(Math.max(64, data.length >> 2));
+            final byte[]                chunk = new byte[DEFLATE_CHUNK_SIZE];
+            while (!deflater.finished()) {
+                final int length = deflater.deflate(chunk);
+                out.write(chunk, 0, length);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(final byte[] data) throws DataFormatException {
+        final Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            final ByteArrayOutputStream out   = new ByteArrayOutputStream(data.length << 2);
+            final byte[]                chunk = new byte[DEFLATE_CHUNK_SIZE];
+            while (!inflater.finished()) {
+                final int length = inflater.inflate(chunk);
+                if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new DataFormatException("Truncated binary RPC payload");
+                }
+                out.write(chunk, 0, length);
+            }
+            return out.toByteArray();
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static int zigzag(final int value) {
+        return value << 1 ^ value >> 31;
+    }
+
+    private static long zigzag(final long value) {
+        return value << 1 ^ value >> 63;
+    }
+
+    private static int unzigzag(final int value) {
+        return value >>> 1 ^ -(value & 1);
+    }
+
+    private static long unzigzag(final long value) {
+        return value >>> 1 ^ -(value & 1);
+    }
+
+    private static Exception rethrow(final Throwable t) {
+        if (t instanceof Error) {
+            throw (Error) t;
+        }
+        if (t instanceof Exception) {
+            return (Exception) t;
+        }
+        return new RuntimeException(t);
+    }
+
+}
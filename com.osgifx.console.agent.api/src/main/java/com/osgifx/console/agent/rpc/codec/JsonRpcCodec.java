@@ -0,0 +1,48 @@
+/*******************************************************************************
+ * Copyright 2021-2023 Amit Kumar Mondal
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package com.osgifx.console.agent.rpc.codec;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Type;
+
+import aQute.lib.json.JSONCodec;
+
+/**
+ * The default codec which encodes every value as deflated JSON. This is used
+ * as the fallback if the peer does not support any other codec.
+ */
+public final class JsonRpcCodec implements RpcCodec {
+
+    public static final String NAME = "json";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public byte[] encode(final Object value) throws Exception {
+        final ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        new JSONCodec().enc().deflate().to(bout).put(value);
+        return bout.toByteArray();
+    }
+
+    @Override
+    public Object decode(final byte[] data, final Type type) throws Exception {
+        return new JSONCodec().dec().inflate().from(data).get(type);
+    }
+
+}
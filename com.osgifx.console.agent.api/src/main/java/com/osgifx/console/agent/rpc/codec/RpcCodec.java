@@ -0,0 +1,56 @@
+/*******************************************************************************
+ * Copyright 2021-2023 Amit Kumar Mondal
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package com.osgifx.console.agent.rpc.codec;
+
+import java.lang.reflect.Type;
+
+/**
+ * A codec is used to encode the RPC arguments and the RPC results to the wire
+ * format and decode them back on the other side of the communication link.
+ * <p>
+ * The codec to use for a link is negotiated by the peers during the connection
+ * setup. Hence, every codec must be registered with a unique name using
+ * {@link RpcCodecs#register(RpcCodec)}.
+ */
+public interface RpcCodec {
+
+    /**
+     * Returns the unique name of the codec that is used during negotiation
+     *
+     * @return the name of the codec
+     */
+    String name();
+
+    /**
+     * Encodes the specified value
+     *
+     * @param value the value to encode (can be {@code null})
+     * @return the encoded value
+     * @throws Exception if the value cannot be encoded
+     */
+    byte[] encode(Object value) throws Exception;
+
+    /**
+     * Decodes the specified data to the specified type
+     *
+     * @param data the data to decode
+     * @param type the type to decode to
+     * @return the decoded value
+     * @throws Exception if the data cannot be decoded
+     */
+    Object decode(byte[] data, Type type) throws Exception;
+
+}
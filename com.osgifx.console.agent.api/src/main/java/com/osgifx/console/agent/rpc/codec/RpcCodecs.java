@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * Copyright 2021-2023 Amit Kumar Mondal
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package com.osgifx.console.agent.rpc.codec;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.osgifx.console.agent.Agent;
+
+/**
+ * The registry of all the available RPC codecs.
+ * <p>
+ * The codecs are kept in the order of preference, i.e., the codec registered
+ * first is preferred during negotiation. The set of codecs a peer is allowed to
+ * negotiate can be restricted using the {@link Agent#AGENT_RPC_CODEC_KEY}
+ * system property.
+ */
+public final class RpcCodecs {
+
+    /** The codec to use until the peers have agreed on a different one */
+    public static final RpcCodec DEFAULT = new JsonRpcCodec();
+
+    private static final List<RpcCodec> CODECS = new CopyOnWriteArrayList<>();
+
+    static {
+        register(new BinaryRpcCodec(true));
+        register(new BinaryRpcCodec(false));
+        register(DEFAULT);
+    }
+
+    private RpcCodecs() {
+        throw new IllegalAccessError("Cannot be instantiated");
+    }
+
+    /**
+     * Registers the specified codec (an already registered codec with the same name
+     * gets replaced)
+     *
+     * @param codec the codec to register (cannot be {@code null})
+     */
+    public static synchronized void register(final RpcCodec codec) {
+        final RpcCodec existing = get(codec.name());
+        if (existing != null) {
+            CODECS.set(CODECS.indexOf(existing), codec);
+        } else {
+            CODECS.add(codec);
+        }
+    }
+
+    /**
+     * Returns the codec registered with the specified name
+     *
+     * @param name the name of the codec
+     * @return the codec or {@code null} if no codec is registered with the name
+     */
+    public static RpcCodec get(final String name) {
+        for (final RpcCodec codec : CODECS) {
+            if (codec.name().equals(name)) {
+                return codec;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the names of the codecs that are allowed to be negotiated in the
+     * order of preference
+     *
+     * @return the names of the enabled codecs
+     */
+    public static List<String> enabled() {
+        final List<String> names    = new ArrayList<>();
+        final String       property = System.getProperty(Agent.AGENT_RPC_CODEC_KEY);
+        if (property == null || property.trim().isEmpty()) {
+            for (final RpcCodec codec : CODECS) {
+                names.add(codec.name());
+            }
+            return Collections.unmodifiableList(names);
+        }
+        for (final String name : property.split(",")) {
+            final String trimmed = name.trim();
+            if (get(trimmed) != null) {
+                names.add(trimmed);
+            }
+        }
+        if (!names.contains(DEFAULT.name())) {
+            // the default codec is always supported as it is required during negotiation
+            names.add(DEFAULT.name());
+        }
+        return Collections.unmodifiableList(names);
+    }
+
+    /**
+     * Selects the first of the offered codecs that is also enabled locally
+     *
+     * @param offered the names of the codecs offered by the peer in the order of
+     *            preference
+     * @return the selected codec (falls back to {@link #DEFAULT})
+     */
+    public static RpcCodec select(final List<String> offered) {
+        final List<String> enabled = enabled();
+        for (final String name : offered) {
+            if (enabled.contains(name)) {
+                return get(name);
+            }
+        }
+        return DEFAULT;
+    }
+
+}
@@ -0,0 +1,229 @@
+/*******************************************************************************
+ * Copyright 2021-2023 Amit Kumar Mondal
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package com.osgifx.console.agent.rpc.mqtt;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Encodes and decodes the binary MQTT RPC frames.
+ * <p>
+ * A message is encoded as its ID, its method name and its length-prefixed
+ * arguments. The encoded message is split into chunks which fit into the
+ * maximum frame size and each chunk is prefixed with the following header:
+ *
+ * <pre>
+ * int magic        - identifies a binary frame
+ * int frame ID     - identifies the chunks of the same message
+ * int chunk index  - the position of the chunk in the message
+ * int chunk count  - the number of chunks of the message
+ * </pre>
+ *
+ * Chunks of messages which are not completely received within
+ * {@link #INCOMPLETE_MESSAGE_TIMEOUT} are discarded.
+ */
+final class MqttFrames {
+
+    /**
+     * The magic number of the binary frames ({@code OFXF}) which never clashes
+     * with the zlib header of the deflated JSON messages
+     */
+    static final int MAGIC = 0x4F465846;
+
+    static final int HEADER_SIZE            = 16;
+    static final int MIN_FRAME_SIZE         = HEADER_SIZE + 1024;
+    static final int DEFAULT_MAX_FRAME_SIZE = 128 * 1024;
+
+    private static final long INCOMPLETE_MESSAGE_TIMEOUT = TimeUnit.SECONDS.toNanos(30);
+
+    static final class Message {
+        final int          id;
+        final String       methodName;
+        final List<byte[]> args;
+
+        Message(final int id, final String methodName, final List<byte[]> args) {
+            this.id         = id;
+            this.methodName = methodName;
+            this.args       = args;
+        }
+
+        @Override
+        public String toString() {
+            return "[id=" + id + ", methodName=" + methodName + "]";
+        }
+    }
+
+    private static final class Chunks {
+        final byte[][] parts;
+        final long     created = System.nanoTime();
+        int            received;
+        int            length;
+
+        Chunks(final int count) {
+            parts = new byte[count][];
+        }
+    }
+
+    private final int                  maxFrameSize;
+    private final AtomicInteger        frameId    = new AtomicInteger();
+    private final Map<Integer, Chunks> incomplete = new ConcurrentHashMap<>();
+
+    MqttFrames(final int maxFrameSize) {
+        this.maxFrameSize = Math.max(maxFrameSize, MIN_FRAME_SIZE);
+    }
+
+    static boolean isFrame(final byte[] payload) {
+        return payload.length >= HEADER_SIZE && readInt(payload, 0) == MAGIC;
+    }
+
+    List<byte[]> encode(final Message message) throws IOException {
+        final ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        final DataOutputStream      out  = new DataOutputStream(bout);
+
+        out.writeInt(message.id);
+        out.writeUTF(message.methodName);
+        out.writeShort(message.args.size());
+        for (final byte[] arg : message.args) {
+            out.writeInt(arg.length);
+            out.write(arg);
+        }
+        out.flush();
+
+        final byte[] body      = bout.toByteArray();
+        final int    chunkSize = maxFrameSize - HEADER_SIZE;
+        final int    count     = Math.max(1, (body.length + chunkSize - 1) / chunkSize);
+        final int    id        = frameId.incrementAndGet();
+
+        if (count == 1) {
+            return Collections.singletonList(frame(id, 0, 1, body, 0, body.length));
+        }
+        final List<byte[]> frames = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final int offset = i * chunkSize;
+            frames.add(frame(id, i, count, body, offset, Math.min(chunkSize, body.length - offset)));
+        }
+        return frames;
+    }
+
+    /**
+     * Decodes the specified frame
+     *
+     * @param frame the binary frame
+     * @return the decoded message or {@code null} if the message still misses
+     *         some of its chunks
+     * @throws IOException if the frame is malformed
+     */
+    Message decode(final byte[] frame) throws IOException {
+        final int id    = readInt(frame, 4);
+        final int index = readInt(frame, 8);
+        final int count = readInt(frame, 12);
+
+        if (count < 1 || index < 0 || index >= count) {
+            throw new IOException("Malformed MQTT RPC frame (chunk " + index + " of " + count + ")");
+        }
+        if (count == 1) {
+            return decodeBody(frame, HEADER_SIZE, frame.length - HEADER_SIZE);
+        }
+        discardIncompleteMessages();
+
+        final Chunks chunks = incomplete.computeIfAbsent(id, k -> new Chunks(count));
+        final byte[] body;
+        synchronized (chunks) {
+            if (chunks.parts.length != count || chunks.parts[index] != null) {
+                throw new IOException("Malformed MQTT RPC frame (chunk " + index + " of " + count + ")");
+            }
+            final byte[] part = new byte[frame.length - HEADER_SIZE];
+            System.arraycopy(frame, HEADER_SIZE, part, 0, part.length);
+            chunks.parts[index] = part;
+            chunks.length += part.length;
+            if (++chunks.received < count) {
+                return null;
+            }
+            incomplete.remove(id);
+            body = new byte[chunks.length];
+            int offset = 0;
+            for (final byte[] p : chunks.parts) {
+                System.arraycopy(p, 0, body, offset, p.length);
+                offset += p.length;
+            }
+        }
+        return decodeBody(body, 0, body.length);
+    }
+
+    private static Message decodeBody(final byte[] data, final int offset, final int length) throws IOException {
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(data, offset, length));
+
+        final int          id         = in.readInt();
+        final String       methodName = in.readUTF();
+        final int          count      = in.readUnsignedShort();
+        final List<byte[]> args       = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final byte[] arg = new byte[in.readInt()];
+            in.readFully(arg);
+            args.add(arg);
+        }
+        return new Message(id, methodName, args);
+    }
+
+    private void discardIncompleteMessages() {
+        final long now = System.nanoTime();
+        for (final Iterator<Entry<Integer, Chunks>> it = incomplete.entrySet().iterator(); it.hasNext();) {
+            if (now - it.next().getValue().created > INCOMPLETE_MESSAGE_TIMEOUT) {
+                it.remove();
+            }
+        }
+    }
+
+    private static byte[] frame(final int id,
+                                final int index,
+                                final int count,
+                                final byte[] body,
+                                final int offset,
+                                final int length) {
+        final byte[] frame = new byte[HEADER_SIZE + length];
+        writeInt(frame, 0, MAGIC);
+        writeInt(frame, 4, id);
+        writeInt(frame, 8, index);
+        writeInt(frame, 12, count);
+        System.arraycopy(body, offset, frame, HEADER_SIZE, length);
+        return frame;
+    }
+
+    private static int readInt(final byte[] data, final int offset) {
+        return (data[offset] & 0xFF) << 24 | (data[offset + 1] & 0xFF) << 16 | (data[offset + 2] & 0xFF) << 8
+                | data[offset + 3] & 0xFF;
+    }
+
+    private static void writeInt(final byte[] data, final int offset, final int value) {
+        data[offset]     = (byte) (value >>> 24);
+        data[offset + 1] = (byte) (value >>> 16);
+        data[offset + 2] = (byte) (value >>> 8);
+        data[offset + 3] = (byte) value;
+    }
+
+}
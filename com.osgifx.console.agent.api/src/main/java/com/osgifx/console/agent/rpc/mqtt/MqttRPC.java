@@ -15,22 +15,31 @@
  ******************************************************************************/
 package com.osgifx.console.agent.rpc.mqtt;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
 import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Proxy;
 import java.lang.reflect.Type;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -40,6 +49,7 @@ import com.j256.simplelogging.FluentLogger;
 import com.j256.simplelogging.LoggerFactory;
 import com.osgifx.console.agent.Agent;
 import com.osgifx.console.agent.rpc.RemoteRPC;
+import com.osgifx.console.agent.rpc.mqtt.MqttFrames.Message;
 import com.osgifx.console.agent.rpc.mqtt.api.Mqtt5Message;
 import com.osgifx.console.agent.rpc.mqtt.api.Mqtt5Publisher;
 
@@ -48,22 +58,52 @@ import aQute.lib.json.JSONCodec;
 
 public class MqttRPC<L, R> implements Closeable, RemoteRPC<L, R> {
 
-    private MqttClient                    mqttClient;
-    private final String                  pubTopic;
-    private final String                  subTopic;
-    private final BundleContext           bundleContext;
-    private final AtomicInteger           id       = new AtomicInteger(10_000);
-    private final Map<Integer, RpcResult> promises = new ConcurrentHashMap<>();
-    private final AtomicBoolean           started  = new AtomicBoolean();
-    private final AtomicBoolean           stopped  = new AtomicBoolean();
-    private final ThreadLocal<Integer>    msgId    = new ThreadLocal<>();
-    private final FluentLogger            logger   = LoggerFactory.getFluentLogger(getClass());
+    /**
+     * The control command to cancel the processing of the request with the
+     * specified message ID in the remote peer
+     */
+    private static final String RPC_CANCEL_COMMAND = "$rpc.cancel";
+
+    /**
+     * The control command sent by the initiator to offer the binary frames
+     */
+    private static final String FRAME_OFFER_COMMAND = "$frame.offer";
+
+    /**
+     * The control command announcing that all subsequent messages of the sender
+     * are encoded as binary frames
+     */
+    private static final String FRAME_ACCEPT_COMMAND = "$frame.accept";
+
+    private static final String CONTROL_PREFIX = "$";
+
+    private static final long RESULT_DEADLINE_IN_MILLIS = 10_000L;
+
+    private MqttClient                        mqttClient;
+    private final String                      pubTopic;
+    private final String                      subTopic;
+    private final BundleContext               bundleContext;
+    private final AtomicInteger               id           = new AtomicInteger(10_000);
+    private final Map<Integer, RpcResult>     promises     = new ConcurrentHashMap<>();
+    private final Map<Integer, FutureTask<?>> running      = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Object>       asyncRemotes = new ConcurrentHashMap<>();
+    private final AtomicBoolean               started      = new AtomicBoolean();
+    private final AtomicBoolean               stopped      = new AtomicBoolean();
+    private final ThreadLocal<Integer>        msgId        = new ThreadLocal<>();
+    private final FluentLogger                logger       = LoggerFactory.getFluentLogger(getClass());
+    private final MqttFrames                  frames       = new MqttFrames(
+            Integer.getInteger(Agent.AGENT_MQTT_FRAME_SIZE_KEY, MqttFrames.DEFAULT_MAX_FRAME_SIZE));
+
+    // messages are only sent as binary frames once the remote peer is known to support them
+    private volatile boolean binaryFrames;
+    private volatile boolean framesOffered;
 
     private final L        local;
     private R              remote;
     private final Class<R> remoteClass;
 
-    private final ExecutorService executor;
+    private final ExecutorService       executor;
+    private ScheduledThreadPoolExecutor timeouts;
 
     public static class RpcMessage {
         public int      id;
@@ -80,6 +120,9 @@ public class MqttRPC<L, R> implements Closeable, RemoteRPC<L, R> {
         public boolean resolved;
         public byte[]  value;
         public boolean exception;
+        // only set for asynchronous calls
+        Type                      type;
+        CompletableFuture<Object> future;
     }
 
     @SuppressWarnings("unchecked")
@@ -105,24 +148,30 @@ public class MqttRPC<L, R> implements Closeable, RemoteRPC<L, R> {
         mqttClient = new MqttClient(bundleContext, subscriber -> {
             subscriber.subscribe(subTopic).forEach(msg -> {
                 try {
-                    final ByteBuffer   payload    = msg.payload;
-                    final RpcMessage   message    = decodeMessage(payload);
-                    final List<byte[]> methodArgs = new ArrayList<>();
-                    if (message.methodArgs != null) {
-                        for (final String arg : message.methodArgs) {
-                            methodArgs.add(Base64.getDecoder().decode(arg));
-                        }
+                    final byte[]  payload = toBytes(msg.payload);
+                    final Message message = MqttFrames.isFrame(payload) ? frames.decode(payload)
+                            : decodeMessage(payload);
+                    if (message == null) {
+                        // waiting for the remaining chunks of the message
+                        return;
+                    }
+                    if (message.methodName.startsWith(CONTROL_PREFIX)) {
+                        handleControl(message);
+                        return;
                     }
-                    final Runnable r = () -> {
+                    final FutureTask<Void> task = new FutureTask<>(() -> {
                         try {
                             msgId.set(message.id);
-                            executeCommand(message.methodName, message.id, methodArgs);
+                            executeCommand(message.methodName, message.id, message.args);
                         } catch (final Exception e) {
                             // nothing to do
+                        } finally {
+                            msgId.remove();
+                            running.remove(message.id);
                         }
-                        msgId.remove();
-                    };
-                    executor.execute(r);
+                    }, null);
+                    running.put(message.id, task);
+                    executor.execute(task);
                 } catch (final Exception e) {
                     return;
                 }
@@ -131,8 +180,73 @@ public class MqttRPC<L, R> implements Closeable, RemoteRPC<L, R> {
         mqttClient.open();
     }
 
-    private RpcMessage decodeMessage(final ByteBuffer payload) throws Exception {
-        return new JSONCodec().dec().inflate().from(payload.array()).get(RpcMessage.class);
+    /**
+     * Offers the binary frames to the remote peer. If the remote peer supports
+     * them, both peers switch to the binary frames. Otherwise, the communication
+     * continues to use the JSON messages, i.e. remote peers that do not know about
+     * the binary frames simply ignore the offer.
+     * <p>
+     * This must only be invoked by the initiating side of the link after the link
+     * has been opened.
+     */
+    public void offerBinaryFrames() {
+        framesOffered = true;
+        try {
+            send(new Message(0, FRAME_OFFER_COMMAND, Collections.emptyList()));
+        } catch (final Exception e) {
+            trace("Cannot offer binary frames");
+        }
+    }
+
+    private void handleControl(final Message message) throws Exception {
+        if (RPC_CANCEL_COMMAND.equals(message.methodName)) {
+            cancelLocal(message.id);
+        } else if (FRAME_OFFER_COMMAND.equals(message.methodName)) {
+            // the acceptance is still sent as JSON message as the initiator might not have switched yet
+            send(new Message(0, FRAME_ACCEPT_COMMAND, Collections.emptyList()));
+            binaryFrames = true;
+            trace("Switched to binary MQTT RPC frames");
+        } else if (FRAME_ACCEPT_COMMAND.equals(message.methodName) && framesOffered) {
+            binaryFrames = true;
+            trace("Switched to binary MQTT RPC frames");
+        }
+    }
+
+    private static byte[] toBytes(final ByteBuffer payload) {
+        if (payload.hasArray() && payload.arrayOffset() == 0 && payload.position() == 0
+                && payload.remaining() == payload.array().length) {
+            return payload.array();
+        }
+        final byte[] data = new byte[payload.remaining()];
+        payload.duplicate().get(data);
+        return data;
+    }
+
+    private Message decodeMessage(final byte[] payload) throws Exception {
+        final RpcMessage   message = new JSONCodec().dec().inflate().from(payload).get(RpcMessage.class);
+        final List<byte[]> args    = new ArrayList<>();
+        if (message.methodArgs != null) {
+            for (final String arg : message.methodArgs) {
+                args.add(Base64.getDecoder().decode(arg));
+            }
+        }
+        return new Message(message.id, message.methodName == null ? "" : message.methodName, args);
+    }
+
+    private byte[] encodeMessage(final Message message) throws Exception {
+        final RpcMessage msg = new RpcMessage();
+        msg.id         = message.id;
+        msg.methodName = message.methodName;
+
+        final String[] args = new String[message.args.size()];
+        for (int i = 0; i < args.length; i++) {
+            args[i] = Base64.getEncoder().encodeToString(message.args.get(i));
+        }
+        msg.methodArgs = args;
+
+        final ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        new JSONCodec().enc().deflate().to(bout).put(msg);
+        return bout.toByteArray();
     }
 
     @Override
@@ -149,6 +263,16 @@ public class MqttRPC<L, R> implements Closeable, RemoteRPC<L, R> {
         }
         mqttClient.close();
         executor.shutdownNow();
+        shutdownTimeouts();
+
+        running.values().forEach(task -> task.cancel(true));
+        running.clear();
+        for (final Integer pendingId : promises.keySet()) {
+            final RpcResult result = promises.get(pendingId);
+            if (result != null && result.future != null && promises.remove(pendingId, result)) {
+                result.future.completeExceptionally(new IOException("MQTT RPC link has been closed"));
+            }
+        }
     }
 
     @Override
@@ -187,6 +311,26 @@ public class MqttRPC<L, R> implements Closeable, RemoteRPC<L, R> {
         return remote;
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public <A> A getAsyncRemote(final Class<A> asyncClass) {
+        if (stopped.get()) {
+            return null;
+        }
+        return (A) asyncRemotes.computeIfAbsent(asyncClass, c -> Proxy.newProxyInstance(c.getClassLoader(),
+                new Class<?>[] { c }, (target, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class) {
+                        final Object hash = new Object();
+                        return method.invoke(hash, args);
+                    }
+                    if (!method.getReturnType().isAssignableFrom(CompletableFuture.class)) {
+                        throw new UnsupportedOperationException(
+                                "Asynchronous remote method must return a CompletableFuture: " + method);
+                    }
+                    return sendAsync(method, args);
+                }));
+    }
+
     @Override
     public boolean isOpen() {
         return !stopped.get();
@@ -212,34 +356,114 @@ public class MqttRPC<L, R> implements Closeable, RemoteRPC<L, R> {
         return null;
     }
 
-    private int send(final RpcMessage msg) throws Exception {
-        if (msg.methodName != null) {
-            promises.put(msg.id, new RpcResult());
+    private int send(final Message msg) throws Exception {
+        if (!msg.methodName.isEmpty() && !msg.methodName.startsWith(CONTROL_PREFIX)) {
+            promises.putIfAbsent(msg.id, new RpcResult());
         }
         trace("Sending MQTT RPC: " + msg);
         final Optional<Mqtt5Publisher> msgPublisher = mqttClient.pub();
         if (msgPublisher.isPresent()) {
             final Mqtt5Publisher publisher = msgPublisher.get();
+            final List<byte[]>   payloads;
+            try {
+                payloads = binaryFrames ? frames.encode(msg) : Collections.singletonList(encodeMessage(msg));
+            } catch (final Exception e) {
+                throw new RuntimeException("Message cannot be encoded");
+            }
             synchronized (publisher) {
-                final ByteArrayOutputStream bout = new ByteArrayOutputStream();
-                try {
-                    new JSONCodec().enc().deflate().to(bout).put(msg);
-
-                    final ByteBuffer   data    = ByteBuffer.wrap(bout.toByteArray());
+                for (final byte[] payload : payloads) {
                     final Mqtt5Message message = new Mqtt5Message();
                     message.channel = pubTopic;
-                    message.payload = data;
+                    message.payload = ByteBuffer.wrap(payload);
 
                     publisher.publish(message);
-                    trace("Sent MQTT RPC: " + msg);
-                } catch (final Exception e) {
-                    throw new RuntimeException("Message cannot be encoded");
                 }
+                trace("Sent MQTT RPC: " + msg + " in " + payloads.size() + " frame(s)");
             }
         }
         return msg.id;
     }
 
+    private CompletableFuture<Object> sendAsync(final Method method, final Object[] args) {
+        final int       msgId  = id.getAndIncrement();
+        final RpcResult result = new RpcResult();
+        result.type   = resultType(method);
+        result.future = new CompletableFuture<>();
+
+        promises.put(msgId, result);
+        try {
+            send(msg(msgId, method, args));
+        } catch (final Exception e) {
+            promises.remove(msgId);
+            terminate();
+            result.future.completeExceptionally(e);
+            return result.future;
+        }
+        // remote void methods never respond
+        if (result.type == Void.class) {
+            promises.remove(msgId);
+            result.future.complete(null);
+            return result.future;
+        }
+        final ScheduledFuture<?> timeout = timeouts().schedule(
+                () -> result.future.completeExceptionally(new TimeoutException("No response received for '"
+                        + method.getName() + "' within " + RESULT_DEADLINE_IN_MILLIS + " ms")),
+                RESULT_DEADLINE_IN_MILLIS, MILLISECONDS);
+        result.future.whenComplete((value, error) -> {
+            timeout.cancel(false);
+            // the call is still pending if the future got cancelled or timed out before receiving the response
+            if (promises.remove(msgId) != null) {
+                cancelRemote(msgId);
+            }
+        });
+        return result.future;
+    }
+
+    private static Type resultType(final Method method) {
+        final Type type = method.getGenericReturnType();
+        if (type instanceof ParameterizedType) {
+            return ((ParameterizedType) type).getActualTypeArguments()[0];
+        }
+        return Object.class;
+    }
+
+    private synchronized ScheduledThreadPoolExecutor timeouts() {
+        if (timeouts == null) {
+            timeouts = new ScheduledThreadPoolExecutor(1, r -> {
+                final Thread thread = new Thread(r, "fx-agent-mqtt-rpc-timeouts::" + remoteClass.getName());
+                thread.setDaemon(true);
+                return thread;
+            });
+            timeouts.setRemoveOnCancelPolicy(true);
+        }
+        return timeouts;
+    }
+
+    private synchronized void shutdownTimeouts() {
+        if (timeouts != null) {
+            timeouts.shutdownNow();
+        }
+    }
+
+    private void cancelRemote(final int msgId) {
+        if (stopped.get()) {
+            return;
+        }
+        try {
+            send(new Message(msgId, RPC_CANCEL_COMMAND, Collections.emptyList()));
+        } catch (final Exception e) {
+            trace("Cannot cancel MQTT RPC " + msgId);
+        }
+    }
+
+    private void cancelLocal(final int msgId) {
+        final FutureTask<?> task = running.remove(msgId);
+        if (task != null) {
+            task.cancel(true);
+            trace("Cancelled MQTT RPC " + msgId);
+        }
+    }
+
     private void response(int msgId, final byte[] data) {
         boolean exception = false;
         if (msgId < 0) {
@@ -247,7 +471,15 @@ public class MqttRPC<L, R> implements Closeable, RemoteRPC<L, R> {
             exception = true;
         }
         final RpcResult result = promises.get(msgId);
-        if (result != null) {
+        if (result != null && result.future != null) {
+            promises.remove(msgId);
+            // responses are already processed in the executor threads
+            try {
+                result.future.complete(decodeResult(data, exception, result.type));
+            } catch (final Exception e) {
+                result.future.completeExceptionally(e);
+            }
+        } else if (result != null) {
             synchronized (result) {
                 trace("Resolved RPC");
                 result.value     = data;
@@ -258,27 +490,31 @@ public class MqttRPC<L, R> implements Closeable, RemoteRPC<L, R> {
         }
     }
 
+    private Object decodeResult(final byte[] value, final boolean exception, final Type type) throws Exception {
+        if (value == null) {
+            return null;
+        }
+        if (exception) {
+            final String msg = new JSONCodec().dec().inflate().from(value).get(String.class);
+            trace("Exception during agent communication: " + msg);
+            throw new RuntimeException(msg);
+        }
+        if (type == byte[].class) {
+            return value;
+        }
+        return new JSONCodec().dec().inflate().from(value).get(type);
+    }
+
     @SuppressWarnings("unchecked")
     private <T> T waitForResult(final int id, final Type type) throws Exception {
-        final long      deadlineInMillis = 10_000L;
+        final long      deadlineInMillis = RESULT_DEADLINE_IN_MILLIS;
         final long      startInNanos     = System.nanoTime();
         final RpcResult result           = promises.get(id);
         try {
             do {
                 synchronized (result) {
                     if (result.resolved) {
-                        if (result.value == null) {
-                            return null;
-                        }
-                        if (result.exception) {
-                            final String msg = new JSONCodec().dec().inflate().from(result.value).get(String.class);
-                            trace("Exception during agent communication: " + msg);
-                            throw new RuntimeException(msg);
-                        }
-                        if (type == byte[].class) {
-                            return (T) result.value;
-                        }
-                        return (T) new JSONCodec().dec().inflate().from(result.value).get(type);
+                        return (T) decodeResult(result.value, result.exception, type);
                     }
                     long elapsedInNanos = System.nanoTime() - startInNanos;
                     long delayInMillis  = deadlineInMillis - TimeUnit.NANOSECONDS.toMillis(elapsedInNanos);
@@ -346,28 +582,20 @@ public class MqttRPC<L, R> implements Closeable, RemoteRPC<L, R> {
         }
     }
 
-    private RpcMessage msg(final int msgId, final Method method, final Object[] args) throws Exception {
-        final RpcMessage msg = new RpcMessage();
-        msg.methodName = method == null ? "" : method.getName();
-        msg.id         = msgId;
-
-        final List<String> methodArgs = new ArrayList<>();
+    private Message msg(final int msgId, final Method method, final Object[] args) throws Exception {
+        final List<byte[]> methodArgs = new ArrayList<>(args == null ? 0 : args.length);
         if (args != null) {
             for (final Object arg : args) {
-                byte[] argValue;
                 if (arg instanceof byte[]) {
-                    argValue = (byte[]) arg;
+                    methodArgs.add((byte[]) arg);
                 } else {
                     final ByteArrayOutputStream bout = new ByteArrayOutputStream();
                     new JSONCodec().enc().deflate().to(bout).put(arg);
-                    argValue = bout.toByteArray();
+                    methodArgs.add(bout.toByteArray());
                 }
-                final String encodedValue = Base64.getEncoder().encodeToString(argValue);
-                methodArgs.add(encodedValue);
             }
         }
-        msg.methodArgs = methodArgs.toArray(new String[0]);
-        return msg;
+        return new Message(msgId, method == null ? "" : method.getName(), methodArgs);
     }
 
 }
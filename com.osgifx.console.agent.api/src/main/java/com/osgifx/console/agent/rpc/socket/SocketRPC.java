@@ -15,7 +15,9 @@
  ******************************************************************************/
 package com.osgifx.console.agent.rpc.socket;
 
-import java.io.ByteArrayOutputStream;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
 import java.io.Closeable;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
@@ -24,16 +26,25 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Proxy;
 import java.lang.reflect.Type;
 import java.net.Socket;
 import java.net.SocketTimeoutException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -41,30 +52,67 @@ import com.j256.simplelogging.FluentLogger;
 import com.j256.simplelogging.LoggerFactory;
 import com.osgifx.console.agent.Agent;
 import com.osgifx.console.agent.rpc.RemoteRPC;
+import com.osgifx.console.agent.rpc.codec.RpcCodec;
+import com.osgifx.console.agent.rpc.codec.RpcCodecs;
 
 import aQute.bnd.exceptions.Exceptions;
-import aQute.lib.json.JSONCodec;
 
 public class SocketRPC<L, R> extends Thread implements Closeable, RemoteRPC<L, R> {
 
-    private final DataInputStream         in;
-    private final DataOutputStream        out;
-    private final AtomicInteger           id       = new AtomicInteger(10_000);
-    private final Map<Integer, RpcResult> promises = new ConcurrentHashMap<>();
-    private final AtomicBoolean           stopped  = new AtomicBoolean();
-    private final ThreadLocal<Integer>    msgId    = new ThreadLocal<>();
-    private final FluentLogger            logger   = LoggerFactory.getFluentLogger(getClass());
+    /**
+     * The control command sent by the initiator to offer the codecs it supports
+     * in the order of preference
+     */
+    private static final String CODEC_OFFER_COMMAND = "$codec.offer";
+
+    /**
+     * The control command announcing that all subsequent messages of the sender
+     * are encoded with the specified codec
+     */
+    private static final String CODEC_SWITCH_COMMAND = "$codec.switch";
+
+    /**
+     * The control command to cancel the processing of the request with the
+     * specified message ID in the remote peer
+     */
+    private static final String RPC_CANCEL_COMMAND = "$rpc.cancel";
+
+    private static final String CONTROL_PREFIX = "$";
+
+    private static final long RESULT_DEADLINE_IN_MILLIS = 300_000L;
+
+    private final DataInputStream             in;
+    private final DataOutputStream            out;
+    private final AtomicInteger               id           = new AtomicInteger(10_000);
+    private final Map<Integer, RpcResult>     promises     = new ConcurrentHashMap<>();
+    private final Map<Integer, FutureTask<?>> running      = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Object>       asyncRemotes = new ConcurrentHashMap<>();
+    private final AtomicBoolean               stopped      = new AtomicBoolean();
+    private final ThreadLocal<Integer>        msgId        = new ThreadLocal<>();
+    private final FluentLogger                logger       = LoggerFactory.getFluentLogger(getClass());
+
+    // the codec of the outgoing messages must only be changed while holding the lock on the output stream
+    private volatile RpcCodec outCodec     = RpcCodecs.DEFAULT;
+    // the codec of the incoming messages is only accessed by the reader thread
+    private RpcCodec          inCodec      = RpcCodecs.DEFAULT;
+    private volatile boolean  codecOffered;
+    private volatile long     lastActivity = System.nanoTime();
 
     private L              local;
     private R              remote;
     private final Class<R> remoteClass;
 
-    private ExecutorService executor;
+    private ExecutorService             executor;
+    private ScheduledThreadPoolExecutor timeouts;
 
     private static class RpcResult {
-        boolean resolved;
-        byte[]  value;
-        boolean exception;
+        boolean                   resolved;
+        byte[]                    value;
+        boolean                   exception;
+        RpcCodec                  codec;
+        // only set for asynchronous calls
+        Type                      type;
+        CompletableFuture<Object> future;
     }
 
     public SocketRPC(final Class<R> remoteClass,
@@ -135,6 +183,16 @@ public class SocketRPC<L, R> extends Thread implements Closeable, RemoteRPC<L, R
             }
         }
         executor.shutdownNow();
+        shutdownTimeouts();
+
+        running.values().forEach(task -> task.cancel(true));
+        running.clear();
+        for (final Integer pendingId : promises.keySet()) {
+            final RpcResult result = promises.get(pendingId);
+            if (result != null && result.future != null && promises.remove(pendingId, result)) {
+                result.future.completeExceptionally(new IOException("Socket RPC link has been closed"));
+            }
+        }
     }
 
     @Override
@@ -176,11 +234,62 @@ public class SocketRPC<L, R> extends Thread implements Closeable, RemoteRPC<L, R
         return remote;
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public <A> A getAsyncRemote(final Class<A> asyncClass) {
+        if (stopped.get()) {
+            return null;
+        }
+        return (A) asyncRemotes.computeIfAbsent(asyncClass, c -> Proxy.newProxyInstance(c.getClassLoader(),
+                new Class<?>[] { c }, (target, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class) {
+                        final Object hash = new Object();
+                        return method.invoke(hash, args);
+                    }
+                    if (!method.getReturnType().isAssignableFrom(CompletableFuture.class)) {
+                        throw new UnsupportedOperationException(
+                                "Asynchronous remote method must return a CompletableFuture: " + method);
+                    }
+                    return sendAsync(method, args);
+                }));
+    }
+
     @Override
     public boolean isOpen() {
         return !stopped.get();
     }
 
+    /**
+     * Returns the time when the last message has been received from the remote
+     * peer or when the link has been created if no message has been received yet
+     *
+     * @return the time of the last received message as returned by
+     *         {@link System#nanoTime()}
+     */
+    public long getLastActivity() {
+        return lastActivity;
+    }
+
+    /**
+     * Offers the locally enabled codecs to the remote peer. If the remote peer
+     * supports any of the offered codecs, both peers switch to the codec chosen by
+     * the remote peer. Otherwise, the communication continues to use the default
+     * codec, i.e. remote peers that do not know about codec negotiation simply
+     * ignore the offer.
+     * <p>
+     * This must only be invoked by the initiating side of the link after the link
+     * has been opened.
+     *
+     * @throws IOException if the offer cannot be sent
+     */
+    public void offerCodecs() throws IOException {
+        codecOffered = true;
+        final String offer = String.join(",", RpcCodecs.enabled());
+        synchronized (out) {
+            sendControl(CODEC_OFFER_COMMAND, 0, offer);
+        }
+    }
+
     @Override
     public void run() {
         while (!isInterrupted() && !stopped.get()) {
@@ -195,16 +304,31 @@ public class SocketRPC<L, R> extends Thread implements Closeable, RemoteRPC<L, R
                     in.readFully(data);
                     args.add(data);
                 }
-                final Runnable r = () -> {
+                lastActivity = System.nanoTime();
+                if (cmd.startsWith(CONTROL_PREFIX)) {
+                    // control messages are processed in order as they affect the decoding of the next messages
+                    handleControl(cmd, id, args);
+                    continue;
+                }
+                final RpcCodec codec = inCodec;
+                if (cmd.isEmpty()) {
+                    // responses only resolve the pending calls and hence, can be processed without any thread hop
+                    response(id, args.get(0), codec);
+                    continue;
+                }
+                final FutureTask<Void> task = new FutureTask<>(() -> {
                     try {
                         msgId.set(id);
-                        executeCommand(cmd, id, args);
+                        executeCommand(cmd, id, args, codec);
                     } catch (final Exception e) {
                         // nothing to do
+                    } finally {
+                        msgId.remove();
+                        running.remove(id);
                     }
-                    msgId.remove();
-                };
-                executor.execute(r);
+                }, null);
+                running.put(id, task);
+                executor.execute(task);
             } catch (final SocketTimeoutException ee) {
                 // Ignore, just to allow polling the actors again
             } catch (final Exception ee) {
@@ -236,7 +360,7 @@ public class SocketRPC<L, R> extends Thread implements Closeable, RemoteRPC<L, R
 
     private int send(final int msgId, final Method m, Object[] values) throws Exception {
         if (m != null) {
-            promises.put(msgId, new RpcResult());
+            promises.putIfAbsent(msgId, new RpcResult());
         }
         trace("Sending Socket RPC");
         synchronized (out) {
@@ -247,17 +371,9 @@ public class SocketRPC<L, R> extends Thread implements Closeable, RemoteRPC<L, R
             }
             out.writeShort(values.length);
             for (final Object value : values) {
-                if (value instanceof byte[]) {
-                    final byte[] data = (byte[]) value;
-                    out.writeInt(data.length);
-                    out.write(data);
-                } else {
-                    final ByteArrayOutputStream bout = new ByteArrayOutputStream();
-                    new JSONCodec().enc().deflate().to(bout).put(value);
-                    final byte[] data = bout.toByteArray();
-                    out.writeInt(data.length);
-                    out.write(data);
-                }
+                final byte[] data = value instanceof byte[] ? (byte[]) value : outCodec.encode(value);
+                out.writeInt(data.length);
+                out.write(data);
             }
             out.flush();
             trace("Sent Socket RPC");
@@ -265,17 +381,145 @@ public class SocketRPC<L, R> extends Thread implements Closeable, RemoteRPC<L, R
         return msgId;
     }
 
-    private void response(int msgId, final byte[] data) {
+    private CompletableFuture<Object> sendAsync(final Method method, final Object[] args) {
+        final int       msgId  = id.getAndIncrement();
+        final RpcResult result = new RpcResult();
+        result.type   = resultType(method);
+        result.future = new CompletableFuture<>();
+
+        promises.put(msgId, result);
+        try {
+            send(msgId, method, args);
+        } catch (final Exception e) {
+            promises.remove(msgId);
+            terminate();
+            result.future.completeExceptionally(e);
+            return result.future;
+        }
+        // remote void methods never respond
+        if (result.type == Void.class) {
+            promises.remove(msgId);
+            result.future.complete(null);
+            return result.future;
+        }
+        final ScheduledFuture<?> timeout = timeouts().schedule(
+                () -> result.future.completeExceptionally(new TimeoutException("No response received for '"
+                        + method.getName() + "' within " + RESULT_DEADLINE_IN_MILLIS + " ms")),
+                RESULT_DEADLINE_IN_MILLIS, MILLISECONDS);
+        result.future.whenComplete((value, error) -> {
+            timeout.cancel(false);
+            // the call is still pending if the future got cancelled or timed out before receiving the response
+            if (promises.remove(msgId) != null) {
+                cancelRemote(msgId);
+            }
+        });
+        return result.future;
+    }
+
+    private static Type resultType(final Method method) {
+        final Type type = method.getGenericReturnType();
+        if (type instanceof ParameterizedType) {
+            return ((ParameterizedType) type).getActualTypeArguments()[0];
+        }
+        return Object.class;
+    }
+
+    private synchronized ScheduledThreadPoolExecutor timeouts() {
+        if (timeouts == null) {
+            timeouts = new ScheduledThreadPoolExecutor(1, r -> {
+                final Thread thread = new Thread(r, "fx-agent-rpc-timeouts::" + remoteClass.getName());
+                thread.setDaemon(true);
+                return thread;
+            });
+            timeouts.setRemoveOnCancelPolicy(true);
+        }
+        return timeouts;
+    }
+
+    private synchronized void shutdownTimeouts() {
+        if (timeouts != null) {
+            timeouts.shutdownNow();
+        }
+    }
+
+    private void cancelRemote(final int msgId) {
+        if (stopped.get()) {
+            return;
+        }
+        try {
+            synchronized (out) {
+                sendControl(RPC_CANCEL_COMMAND, msgId, "");
+            }
+        } catch (final IOException e) {
+            trace("Cannot cancel Socket RPC " + msgId);
+        }
+    }
+
+    private void sendControl(final String command, final int msgId, final String value) throws IOException {
+        trace("Sending Socket RPC control message: " + command + " " + value);
+        out.writeUTF(command);
+        out.writeInt(msgId);
+        out.writeShort(1);
+        final byte[] data = value.getBytes(UTF_8);
+        out.writeInt(data.length);
+        out.write(data);
+        out.flush();
+    }
+
+    private void handleControl(final String cmd, final int id, final List<byte[]> args) throws IOException {
+        if (RPC_CANCEL_COMMAND.equals(cmd)) {
+            final FutureTask<?> task = running.remove(id);
+            if (task != null) {
+                task.cancel(true);
+                trace("Cancelled Socket RPC " + id);
+            }
+            return;
+        }
+        handleCodecControl(cmd, args);
+    }
+
+    private void handleCodecControl(final String cmd, final List<byte[]> args) throws IOException {
+        final List<String> values = args.isEmpty() ? Collections.emptyList()
+                : Arrays.asList(new String(args.get(0), UTF_8).split(","));
+        if (CODEC_OFFER_COMMAND.equals(cmd)) {
+            final RpcCodec selected = RpcCodecs.select(values);
+            switchOutgoingCodec(selected);
+        } else if (CODEC_SWITCH_COMMAND.equals(cmd) && !values.isEmpty()) {
+            final RpcCodec codec = RpcCodecs.get(values.get(0));
+            if (codec == null) {
+                throw new IOException("Remote peer switched to an unknown codec: " + values.get(0));
+            }
+            inCodec = codec;
+            // the initiator follows the choice of the remote peer
+            if (codecOffered && outCodec != codec) {
+                switchOutgoingCodec(codec);
+            }
+        }
+        trace("Negotiated Socket RPC codec: " + inCodec.name());
+    }
+
+    private void switchOutgoingCodec(final RpcCodec codec) throws IOException {
+        synchronized (out) {
+            sendControl(CODEC_SWITCH_COMMAND, 0, codec.name());
+            outCodec = codec;
+        }
+    }
+
+    private void response(int msgId, final byte[] data, final RpcCodec codec) {
         boolean exception = false;
         if (msgId < 0) {
             msgId     = -msgId;
             exception = true;
         }
         final RpcResult result = promises.get(msgId);
-        if (result != null) {
+        if (result != null && result.future != null) {
+            promises.remove(msgId);
+            completeAsync(result, data, codec, exception);
+        } else if (result != null) {
             synchronized (result) {
                 trace("Resolved Socket RPC");
                 result.value     = data;
+                result.codec     = codec;
                 result.exception = exception;
                 result.resolved  = true;
                 result.notifyAll();
@@ -283,27 +527,53 @@ public class SocketRPC<L, R> extends Thread implements Closeable, RemoteRPC<L, R
         }
     }
 
+    private void completeAsync(final RpcResult result,
+                               final byte[] data,
+                               final RpcCodec codec,
+                               final boolean exception) {
+        // decoding is offloaded so that the reader thread can continue with the next message
+        final Runnable completion = () -> {
+            try {
+                result.future.complete(decodeResult(data, codec, exception, result.type));
+            } catch (final Exception e) {
+                result.future.completeExceptionally(e);
+            }
+        };
+        try {
+            executor.execute(completion);
+        } catch (final RejectedExecutionException e) {
+            completion.run();
+        }
+    }
+
+    private Object decodeResult(final byte[] value,
+                                final RpcCodec codec,
+                                final boolean exception,
+                                final Type type) throws Exception {
+        if (value == null) {
+            return null;
+        }
+        if (exception) {
+            final String msg = (String) codec.decode(value, String.class);
+            trace("Exception during agent communication: " + msg);
+            throw new RuntimeException(msg);
+        }
+        if (type == byte[].class) {
+            return value;
+        }
+        return codec.decode(value, type);
+    }
+
     @SuppressWarnings("unchecked")
     private <T> T waitForResult(final int id, final Type type) throws Exception {
-        final long      deadlineInMillis = 300_000L;
+        final long      deadlineInMillis = RESULT_DEADLINE_IN_MILLIS;
         final long      startInNanos     = System.nanoTime();
         final RpcResult result           = promises.get(id);
         try {
             do {
                 synchronized (result) {
                     if (result.resolved) {
-                        if (result.value == null) {
-                            return null;
-                        }
-                        if (result.exception) {
-                            final String msg = new JSONCodec().dec().inflate().from(result.value).get(String.class);
-                            trace("Exception during agent communication: " + msg);
-                            throw new RuntimeException(msg);
-                        }
-                        if (type == byte[].class) {
-                            return (T) result.value;
-                        }
-                        return (T) new JSONCodec().dec().inflate().from(result.value).get(type);
+                        return (T) decodeResult(result.value, result.codec, result.exception, type);
                     }
                     long elapsedInNanos = System.nanoTime() - startInNanos;
                     long delayInMillis  = deadlineInMillis - TimeUnit.NANOSECONDS.toMillis(elapsedInNanos);
@@ -329,41 +599,39 @@ public class SocketRPC<L, R> extends Thread implements Closeable, RemoteRPC<L, R
         }
     }
 
-    private void executeCommand(final String cmd, final int id, final List<byte[]> args) throws Exception {
-        if (cmd.isEmpty()) {
-            response(id, args.get(0));
-        } else {
-            final Method m = getMethod(cmd, args.size());
-            if (m == null) {
+    private void executeCommand(final String cmd,
+                                final int id,
+                                final List<byte[]> args,
+                                final RpcCodec codec) throws Exception {
+        final Method m = getMethod(cmd, args.size());
+        if (m == null) {
+            return;
+        }
+        final Object[] parameters = new Object[args.size()];
+        for (int i = 0; i < args.size(); i++) {
+            final Class<?> type = m.getParameterTypes()[i];
+            if (type == byte[].class) {
+                parameters[i] = args.get(i);
+            } else {
+                parameters[i] = codec.decode(args.get(i), m.getGenericParameterTypes()[i]);
+            }
+        }
+        try {
+            final Object result = m.invoke(local, parameters);
+            if (m.getReturnType() == void.class) {
                 return;
             }
-            final Object[] parameters = new Object[args.size()];
-            for (int i = 0; i < args.size(); i++) {
-                final Class<?> type = m.getParameterTypes()[i];
-                if (type == byte[].class) {
-                    parameters[i] = args.get(i);
-                } else {
-                    parameters[i] = new JSONCodec().dec().inflate().from(args.get(i))
-                            .get(m.getGenericParameterTypes()[i]);
-                }
+            try {
+                send(id, null, new Object[] { result });
+            } catch (final Exception e) {
+                terminate();
             }
+        } catch (Throwable t) {
+            t = Exceptions.unrollCause(t, InvocationTargetException.class);
             try {
-                final Object result = m.invoke(local, parameters);
-                if (m.getReturnType() == void.class) {
-                    return;
-                }
-                try {
-                    send(id, null, new Object[] { result });
-                } catch (final Exception e) {
-                    terminate();
-                }
-            } catch (Throwable t) {
-                t = Exceptions.unrollCause(t, InvocationTargetException.class);
-                try {
-                    send(-id, null, new Object[] { t + "" });
-                } catch (final Exception e) {
-                    terminate();
-                }
+                send(-id, null, new Object[] { t + "" });
+            } catch (final Exception e) {
+                terminate();
             }
         }
     }
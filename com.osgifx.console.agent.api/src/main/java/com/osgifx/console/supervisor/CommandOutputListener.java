@@ -0,0 +1,43 @@
+/*******************************************************************************
+ * Copyright 2021-2023 Amit Kumar Mondal
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package com.osgifx.console.supervisor;
+
+import com.osgifx.console.agent.dto.XCommandResultDTO;
+
+/**
+ * This is used to receive the output of a remote command execution as soon as
+ * it is produced
+ *
+ * @see Supervisor#addCommandOutputListener(CommandOutputListener)
+ * @see Supervisor#removeCommandOutputListener(long)
+ */
+public interface CommandOutputListener {
+
+    /**
+     * The callback to be executed when a chunk of the output will be received
+     *
+     * @param chunk the chunk of the output
+     */
+    void onOutput(String chunk);
+
+    /**
+     * The callback to be executed when the command has completed. No further
+     * output will be received afterwards.
+     *
+     * @param result the result of the execution
+     */
+    void onCompleted(XCommandResultDTO result);
+}
@@ -15,9 +15,13 @@
  ******************************************************************************/
 package com.osgifx.console.supervisor;
 
+import java.util.List;
+
 import org.osgi.annotation.versioning.ProviderType;
 
 import com.osgifx.console.agent.Agent;
+import com.osgifx.console.agent.AsyncAgent;
+import com.osgifx.console.agent.dto.XCommandResultDTO;
 import com.osgifx.console.agent.dto.XEventDTO;
 import com.osgifx.console.agent.dto.XLogEntryDTO;
 
@@ -105,6 +109,44 @@ public interface Supervisor {
      */
     void logged(XLogEntryDTO event);
 
+    /**
+     * Callback method for a batch of OSGi Event Admin Events
+     *
+     * @param events the events in the order of their occurrence
+     * @param dropped the number of events the agent dropped since the previous
+     *            batch as the supervisor could not keep up
+     */
+    void onOSGiEventBatch(List<XEventDTO> events, long dropped);
+
+    /**
+     * Callback method for a batch of logs
+     *
+     * @param logs the logs in the order of their occurrence
+     * @param dropped the number of logs the agent dropped since the previous batch
+     *            as the supervisor could not keep up
+     */
+    void loggedBatch(List<XLogEntryDTO> logs, long dropped);
+
+    /**
+     * Callback method for the output of a streamed command execution. As the
+     * callbacks might be dispatched concurrently, the chunks are numbered such
+     * that they can be put back in order.
+     *
+     * @param id the identifier of the execution
+     * @param sequence the sequence number of the chunk starting with {@code 0}
+     * @param chunk the output produced since the previous chunk
+     */
+    void onCommandOutput(long id, long sequence, String chunk);
+
+    /**
+     * Callback method for the completion of a streamed command execution. The
+     * result reports the number of chunks pushed before such that the completion
+     * can be deferred until all of them have been received.
+     *
+     * @param result the result of the execution
+     */
+    void onCommandCompleted(XCommandResultDTO result);
+
     /**
      * Registers the specified listener to listen to the OSGi events from the remote
      * machine
@@ -135,10 +177,57 @@ public interface Supervisor {
      */
     void removeOSGiLogListener(LogEntryListener logEntryListener);
 
+    /**
+     * Registers the specified listener to receive the output of a streamed command
+     * execution. The listener is deregistered automatically as soon as the
+     * execution has completed.
+     *
+     * @param commandOutputListener the command output listener to register
+     * @return the identifier to pass on to the streamed command execution
+     */
+    long addCommandOutputListener(CommandOutputListener commandOutputListener);
+
+    /**
+     * Deregisters previously registered command output listener
+     *
+     * @param id the identifier of the execution the listener has been registered
+     *            for
+     */
+    void removeCommandOutputListener(long id);
+
     /**
      * Returns the associated agent
      *
      * @return the agent
      */
     Agent getAgent();
+
+    /**
+     * Returns the asynchronous view of the associated agent which allows
+     * pipelining multiple requests without blocking the calling threads
+     *
+     * @return the asynchronous agent
+     */
+    AsyncAgent getAsyncAgent();
+
+    /**
+     * Checks whether the associated agent supports the specified method. The
+     * agents silently ignore the calls to the methods they do not know, hence,
+     * the callers can fall back to the methods of older agents instead of waiting
+     * for a response that never arrives. The supported methods are probed once
+     * per connection and hence, the first check might block for a few seconds.
+     *
+     * @param method the name of the {@link Agent} method
+     * @return {@code true} if the agent supports the method, otherwise
+     *         {@code false}
+     */
+    boolean isAgentMethodSupported(String method);
+
+    /**
+     * Returns the statistics of the responses of the read-only agent calls that
+     * have been served from the cache of the supervisor
+     *
+     * @return the statistics of the current connection
+     */
+    AgentCacheStatsDTO getAgentCacheStats();
 }
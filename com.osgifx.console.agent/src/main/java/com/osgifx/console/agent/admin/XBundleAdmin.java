@@ -136,6 +136,21 @@ public final class XBundleAdmin {
         return dto;
     }
 
+    /**
+     * Creates a reference to the specified bundle which only comprises its
+     * identifier, symbolic name and version. The receiver is expected to resolve
+     * the remaining details from the already retrieved bundles.
+     */
+    public static XBundleDTO toReferenceDTO(final Bundle bundle) {
+        final XBundleDTO dto = new XBundleDTO();
+
+        dto.id           = bundle.getBundleId();
+        dto.symbolicName = bundle.getSymbolicName();
+        dto.version      = bundle.getVersion().toString();
+
+        return dto;
+    }
+
     private static long getStorageSize(final Bundle bundle) {
         final BundleContext bundleContext = bundle.getBundleContext();
         final String        bsn           = bundle.getSymbolicName();
@@ -34,6 +34,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -53,6 +54,7 @@ import org.osgi.util.promise.Promise;
 import com.j256.simplelogging.FluentLogger;
 import com.j256.simplelogging.LoggerFactory;
 import com.osgifx.console.agent.dto.XBundleInfoDTO;
+import com.osgifx.console.agent.dto.XBundleStartHistoryDTO;
 import com.osgifx.console.agent.dto.XComponentDTO;
 import com.osgifx.console.agent.dto.XReferenceDTO;
 import com.osgifx.console.agent.dto.XResultDTO;
@@ -204,6 +206,34 @@ public final class XComponentAdmin {
         return createResult(SUCCESS, "Component with name '" + name + "' has not been found");
     }
 
+    public void setComponentCounts(final Collection<XBundleStartHistoryDTO> histories) {
+        if (scr == null) {
+            logger.atWarn().msg(serviceUnavailable(SCR)).log();
+            return;
+        }
+        final Map<Long, XBundleStartHistoryDTO> index = new HashMap<>();
+        for (final XBundleStartHistoryDTO history : histories) {
+            index.put(history.id, history);
+        }
+        try {
+            for (final ComponentDescriptionDTO compDescDTO : scr.getComponentDescriptionDTOs()) {
+                final XBundleStartHistoryDTO history = index.get(compDescDTO.bundle.id);
+                if (history == null) {
+                    continue;
+                }
+                history.components++;
+                for (final ComponentConfigurationDTO compConfDTO : scr.getComponentConfigurationDTOs(compDescDTO)) {
+                    if (compConfDTO.state == ACTIVE) {
+                        history.activeComponents++;
+                        break;
+                    }
+                }
+            }
+        } catch (final Exception e) {
+            logger.atError().msg("Error occurred while counting the components of the bundles").throwable(e).log();
+        }
+    }
+
     private XComponentDTO toDTO(final ComponentConfigurationDTO compConfDTO,
                                 final ComponentDescriptionDTO compDescDTO) {
         final XComponentDTO  dto      = new XComponentDTO();
@@ -24,14 +24,18 @@ import static com.osgifx.console.agent.helper.OSGiCompendiumService.CM;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Dictionary;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Hashtable;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
 
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.InvalidSyntaxException;
@@ -168,28 +172,45 @@ public final class XConfigurationAdmin {
         return props;
     }
 
-    public void setComponentReferenceFilters(final XConfigurationDTO configuration) {
-        final List<XComponentReferenceFilterDTO> componentReferenceFilters = new ArrayList<>();
-        final List<XComponentDTO>                components                = componentAdmin.getComponents();
-        for (final XComponentDTO component : components) {
-            if (!matchPID(component, configuration)) {
-                continue;
+    public void setComponentReferenceFilters(final Collection<XConfigurationDTO> configurations) {
+        // the components are retrieved once and indexed by their configuration PIDs
+        // to avoid scanning all components for every single configuration
+        final List<XComponentDTO>        components = componentAdmin.getComponents();
+        final Map<String, List<Integer>> pidIndex   = indexByConfigurationPid(components);
+
+        for (final XConfigurationDTO configuration : configurations) {
+            // a component can refer to both the PID and the factory PID of the same
+            // configuration, hence, the matching components are collected in order
+            final Set<Integer> matches = new TreeSet<>();
+            matches.addAll(pidIndex.getOrDefault(configuration.pid, Collections.emptyList()));
+            matches.addAll(pidIndex.getOrDefault(configuration.factoryPid, Collections.emptyList()));
+
+            final List<XComponentReferenceFilterDTO> componentReferenceFilters = new ArrayList<>();
+            for (final int index : matches) {
+                final XComponentDTO                      component                   = components.get(index);
+                final List<XComponentReferenceFilterDTO> satisfiedReferenceFilters   = findSatisfiedReferenceFilters(
+                        component, configuration);
+                final List<XComponentReferenceFilterDTO> unsatisfiedReferenceFilters = findUnsatisfiedReferenceFilters(
+                        component, configuration);
+                componentReferenceFilters.addAll(satisfiedReferenceFilters);
+                componentReferenceFilters.addAll(unsatisfiedReferenceFilters);
             }
-            final List<XComponentReferenceFilterDTO> satisfiedReferenceFilters   = findSatisfiedReferenceFilters(
-                    component, configuration);
-            final List<XComponentReferenceFilterDTO> unsatisfiedReferenceFilters = findUnsatisfiedReferenceFilters(
-                    component, configuration);
-            componentReferenceFilters.addAll(satisfiedReferenceFilters);
-            componentReferenceFilters.addAll(unsatisfiedReferenceFilters);
+            configuration.componentReferenceFilters = componentReferenceFilters;
         }
-        configuration.componentReferenceFilters = componentReferenceFilters;
     }
 
-    private boolean matchPID(final XComponentDTO component, final XConfigurationDTO configuration) {
-        final boolean hasFactoryPID = component.configurationPid.contains(configuration.factoryPid);
-        final boolean hasConfigPID  = component.configurationPid.contains(configuration.pid);
-
-        return hasConfigPID || hasFactoryPID;
+    private static Map<String, List<Integer>> indexByConfigurationPid(final List<XComponentDTO> components) {
+        final Map<String, List<Integer>> index = new HashMap<>();
+        for (int i = 0; i < components.size(); i++) {
+            final List<String> pids = components.get(i).configurationPid;
+            if (pids == null) {
+                continue;
+            }
+            for (final String pid : new HashSet<>(pids)) {
+                index.computeIfAbsent(pid, p -> new ArrayList<>()).add(i);
+            }
+        }
+        return index;
     }
 
     private List<XComponentReferenceFilterDTO> findUnsatisfiedReferenceFilters(final XComponentDTO component,
@@ -22,10 +22,12 @@ import static com.osgifx.console.agent.helper.AgentHelper.createResult;
 import static com.osgifx.console.agent.helper.AgentHelper.serviceUnavailable;
 import static com.osgifx.console.agent.helper.OSGiCompendiumService.DMT;
 import static org.osgi.service.dmt.DmtSession.LOCK_TYPE_EXCLUSIVE;
+import static org.osgi.service.dmt.DmtSession.LOCK_TYPE_SHARED;
 import static org.osgi.service.dmt.MetaNode.CMD_GET;
 import static org.osgi.service.dmt.Uri.PATH_SEPARATOR;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 
@@ -45,7 +47,6 @@ import jakarta.inject.Inject;
 
 public final class XDmtAdmin {
 
-    private XDmtNodeDTO        parent;
     private final DmtAdmin     dmtAdmin;
     private final FluentLogger logger = LoggerFactory.getFluentLogger(getClass());
 
@@ -55,12 +56,37 @@ public final class XDmtAdmin {
     }
 
     public XDmtNodeDTO readDmtNode(final String rootURI) {
+        return readDmtNode(rootURI, -1, 0, 0);
+    }
+
+    public XDmtNodeDTO readDmtNode(final String rootURI, final int depth, final int offset, final int limit) {
         if (dmtAdmin == null) {
             logger.atWarn().msg(serviceUnavailable(DMT)).log();
             return null;
         }
-        processNode(rootURI, parent);
-        return parent;
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset must not be negative");
+        }
+        DmtSession session = null;
+        try {
+            // a single session is used to read the whole subtree
+            session = dmtAdmin.getSession(rootURI, LOCK_TYPE_SHARED);
+            if (!session.isNodeUri(rootURI)) {
+                return null;
+            }
+            return readNode(session, rootURI, true, depth, offset, limit);
+        } catch (final Exception e) {
+            logger.atError().msg("Error occurred while reading DMT node").throwable(e).log();
+            return null;
+        } finally {
+            if (session != null) {
+                try {
+                    session.close();
+                } catch (final DmtException e) {
+                    // nothing to do
+                }
+            }
+        }
     }
 
     public XResultDTO updateDmtNode(final String uri, final Object value, final DmtDataType format) {
@@ -127,32 +153,12 @@ public final class XDmtAdmin {
         }
     }
 
-    private void processNode(final String uri, final XDmtNodeDTO parent) {
-        try {
-            final DmtSession session = dmtAdmin.getSession(uri, LOCK_TYPE_EXCLUSIVE);
-            if (!session.isNodeUri(uri)) {
-                return;
-            }
-            if (parent == null) {
-                // it's a root node
-                this.parent = createNode(session, uri, null, true);
-            }
-            final XDmtNodeDTO startNode     = parent == null ? this.parent : createNode(session, uri, parent, false);
-            final String[]    childrenNodes = session.getChildNodeNames(uri);
-            session.close();
-            for (final String childNode : childrenNodes) {
-                final String childPath = uri.isEmpty() ? childNode : uri + PATH_SEPARATOR + childNode;
-                processNode(childPath, startNode);
-            }
-        } catch (final Exception e) {
-            logger.atError().msg("Error occurred").throwable(e).log();
-        }
-    }
-
-    private XDmtNodeDTO createNode(final DmtSession session,
-                                   final String uri,
-                                   final XDmtNodeDTO parent,
-                                   final boolean isRoot) throws DmtException {
+    private XDmtNodeDTO readNode(final DmtSession session,
+                                 final String uri,
+                                 final boolean isRoot,
+                                 final int depth,
+                                 final int offset,
+                                 final int limit) throws DmtException {
         final List<String> data = extractData(session, uri, isRoot);
         final XDmtNodeDTO  node = new XDmtNodeDTO();
 
@@ -162,8 +168,27 @@ public final class XDmtAdmin {
         node.createdAt = data.get(2);
         node.children  = new ArrayList<>();
 
-        if (parent != null) {
-            parent.children.add(node);
+        // the requested node itself might be a leaf, e.g. while invalidating a single leaf
+        if (session.isLeafNode(uri)) {
+            return node;
+        }
+        final String[] childNodes = session.getChildNodeNames(uri);
+        // sorted to provide stable pages of children
+        Arrays.sort(childNodes);
+        node.childCount = childNodes.length;
+        if (depth == 0) {
+            return node;
+        }
+        final int from = Math.min(offset, childNodes.length);
+        final int to   = limit <= 0 ? childNodes.length : (int) Math.min((long) from + limit, childNodes.length);
+        for (int i = from; i < to; i++) {
+            final String childPath = uri.isEmpty() ? childNodes[i] : uri + PATH_SEPARATOR + childNodes[i];
+            try {
+                // only the children of the requested node are paged
+                node.children.add(readNode(session, childPath, false, depth - 1, 0, 0));
+            } catch (final DmtException e) {
+                logger.atError().msg("Error occurred while reading DMT node '{}'").arg(childPath).throwable(e).log();
+            }
         }
         return node;
     }
@@ -16,6 +16,8 @@
 package com.osgifx.console.agent.admin;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
 import java.lang.management.GarbageCollectorMXBean;
 import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryMXBean;
@@ -26,7 +28,13 @@ import java.lang.reflect.Method;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 import javax.management.MBeanServer;
 
@@ -36,12 +44,25 @@ import com.osgifx.console.agent.dto.XHeapUsageDTO;
 import com.osgifx.console.agent.dto.XHeapUsageDTO.XGarbageCollectorMXBean;
 import com.osgifx.console.agent.dto.XHeapUsageDTO.XMemoryPoolMXBean;
 import com.osgifx.console.agent.dto.XHeapUsageDTO.XMemoryUsage;
+import com.osgifx.console.agent.dto.XHeapdumpDTO;
 
+import jakarta.inject.Singleton;
+
+@Singleton
 public final class XHeapAdmin {
 
-    private static final String    HOTSPOT_BEAN_NAME = "com.sun.management:type=HotSpotDiagnostic";
+    private static final String    HOTSPOT_BEAN_NAME     = "com.sun.management:type=HotSpotDiagnostic";
+    private static final int       MAX_CHUNK_SIZE        = 4 * 1024 * 1024;
+    private static final long      TRANSFER_IDLE_TIMEOUT = TimeUnit.MINUTES.toNanos(10);
     private static volatile Object hotspotMBean;
-    private final FluentLogger     logger            = LoggerFactory.getFluentLogger(getClass());
+
+    private final Map<String, HeapdumpTransfer> transfers = new ConcurrentHashMap<>();
+    private final FluentLogger                  logger    = LoggerFactory.getFluentLogger(getClass());
+
+    private static class HeapdumpTransfer {
+        File          file;
+        volatile long lastAccess;
+    }
 
     public XHeapUsageDTO init() {
         final XHeapUsageDTO heapUsage = new XHeapUsageDTO();
@@ -95,6 +116,85 @@ public final class XHeapAdmin {
     }
 
     public byte[] heapdump() {
+        final File heapdump = dumpHeap();
+        try {
+            return Files.readAllBytes(heapdump.toPath());
+        } catch (final RuntimeException re) {
+            throw re;
+        } catch (final Exception exp) {
+            throw new RuntimeException(exp);
+        } finally {
+            heapdump.delete();
+        }
+    }
+
+    public XHeapdumpDTO prepareHeapdump() {
+        releaseIdleTransfers();
+
+        final HeapdumpTransfer transfer = new HeapdumpTransfer();
+        transfer.file       = dumpHeap();
+        transfer.lastAccess = System.nanoTime();
+
+        final XHeapdumpDTO dto = new XHeapdumpDTO();
+        dto.id           = UUID.randomUUID().toString();
+        dto.size         = transfer.file.length();
+        dto.timestamp    = transfer.file.lastModified();
+        dto.maxChunkSize = MAX_CHUNK_SIZE;
+
+        transfers.put(dto.id, transfer);
+        logger.atInfo().msg("[OSGi.fx] Heapdump '{}' prepared for transfer ({} bytes)").arg(dto.id).arg(dto.size)
+                .log();
+        return dto;
+    }
+
+    public byte[] readHeapdumpChunk(final String id, final long offset, final int length) {
+        final HeapdumpTransfer transfer = transfers.get(id);
+        if (transfer == null) {
+            return null;
+        }
+        if (offset < 0 || length < 0) {
+            throw new IllegalArgumentException("Offset and length must not be negative");
+        }
+        transfer.lastAccess = System.nanoTime();
+        try (RandomAccessFile file = new RandomAccessFile(transfer.file, "r")) {
+            final long   remaining = Math.max(0, file.length() - offset);
+            final int    size      = (int) Math.min(Math.min(length, MAX_CHUNK_SIZE), remaining);
+            final byte[] chunk     = new byte[size];
+            file.seek(offset);
+            file.readFully(chunk);
+            return chunk;
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public boolean releaseHeapdump(final String id) {
+        final HeapdumpTransfer transfer = transfers.remove(id);
+        if (transfer == null) {
+            return false;
+        }
+        logger.atInfo().msg("[OSGi.fx] Heapdump '{}' released").arg(id).log();
+        return transfer.file.delete();
+    }
+
+    public void stop() {
+        transfers.values().forEach(t -> t.file.delete());
+        transfers.clear();
+    }
+
+    private void releaseIdleTransfers() {
+        final long now = System.nanoTime();
+        for (final Iterator<Entry<String, HeapdumpTransfer>> it = transfers.entrySet().iterator(); it.hasNext();) {
+            final Entry<String, HeapdumpTransfer> entry = it.next();
+            if (now - entry.getValue().lastAccess > TRANSFER_IDLE_TIMEOUT) {
+                it.remove();
+                entry.getValue().file.delete();
+                logger.atInfo().msg("[OSGi.fx] Idle heapdump '{}' released").arg(entry.getKey()).log();
+            }
+        }
+    }
+
+    private File dumpHeap() {
         final File location = new File(System.getProperty("user.dir"));
         final File heapdump = new File(location, "" + System.currentTimeMillis() + ".hprof");
 
@@ -103,14 +203,13 @@ public final class XHeapAdmin {
             final Class<?> clazz = Class.forName("com.sun.management.HotSpotDiagnosticMXBean");
             final Method   m     = clazz.getMethod("dumpHeap", String.class, boolean.class);
             m.invoke(hotspotMBean, heapdump.getAbsolutePath(), true);
-
-            return Files.readAllBytes(heapdump.toPath());
+            return heapdump;
         } catch (final RuntimeException re) {
+            heapdump.delete();
             throw re;
         } catch (final Exception exp) {
-            throw new RuntimeException(exp);
-        } finally {
             heapdump.delete();
+            throw new RuntimeException(exp);
         }
     }
 
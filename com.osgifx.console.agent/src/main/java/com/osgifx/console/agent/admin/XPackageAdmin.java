@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright 2021-2023 Amit Kumar Mondal
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package com.osgifx.console.agent.admin;
+
+import static java.util.Objects.requireNonNull;
+import static org.osgi.framework.Constants.VERSION_ATTRIBUTE;
+import static org.osgi.framework.wiring.BundleRevision.PACKAGE_NAMESPACE;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.wiring.BundleWire;
+import org.osgi.framework.wiring.BundleWiring;
+
+import com.j256.simplelogging.FluentLogger;
+import com.j256.simplelogging.LoggerFactory;
+import com.osgifx.console.agent.dto.XBundleInfoDTO;
+import com.osgifx.console.agent.dto.XPackageEntryDTO;
+import com.osgifx.console.agent.dto.XPackageIndexDTO;
+
+import jakarta.inject.Inject;
+
+public final class XPackageAdmin {
+
+    private final BundleContext context;
+    private final FluentLogger  logger = LoggerFactory.getFluentLogger(getClass());
+
+    @Inject
+    public XPackageAdmin(final BundleContext context) {
+        this.context = context;
+    }
+
+    public XPackageIndexDTO get() {
+        requireNonNull(context);
+        final XPackageIndexDTO index = new XPackageIndexDTO();
+        try {
+            final Map<String, Map<String, PackageWires>> packages = new LinkedHashMap<>();
+            final Map<Long, String>                      bsns     = new LinkedHashMap<>();
+
+            for (final Bundle bundle : context.getBundles()) {
+                // every package wire is required by exactly one bundle and hence visiting the
+                // required wires of all bundles reveals both sides of each wire exactly once
+                for (final BundleWire wire : getRequiredPackageWires(bundle)) {
+                    final Map<String, Object> attributes = wire.getCapability().getAttributes();
+                    final String              name       = (String) attributes.get(PACKAGE_NAMESPACE);
+                    final String              version    = attributes.get(VERSION_ATTRIBUTE).toString();
+                    final Bundle              exporter   = wire.getProvider().getBundle();
+                    final Bundle              importer   = wire.getRequirer().getBundle();
+                    final PackageWires        wires      = packages.computeIfAbsent(name, n -> new LinkedHashMap<>())
+                            .computeIfAbsent(version, v -> new PackageWires());
+
+                    wires.exporters.add(exporter.getBundleId());
+                    wires.importers.add(importer.getBundleId());
+
+                    bsns.putIfAbsent(exporter.getBundleId(), exporter.getSymbolicName());
+                    bsns.putIfAbsent(importer.getBundleId(), importer.getSymbolicName());
+                }
+            }
+            index.packages = new ArrayList<>();
+            for (final Map.Entry<String, Map<String, PackageWires>> pkg : packages.entrySet()) {
+                for (final Map.Entry<String, PackageWires> version : pkg.getValue().entrySet()) {
+                    index.packages.add(toDTO(pkg.getKey(), version.getKey(), version.getValue()));
+                }
+            }
+            index.bundles = new ArrayList<>(bsns.size());
+            for (final Map.Entry<Long, String> bsn : bsns.entrySet()) {
+                final XBundleInfoDTO dto = new XBundleInfoDTO();
+                dto.id           = bsn.getKey();
+                dto.symbolicName = bsn.getValue();
+
+                index.bundles.add(dto);
+            }
+        } catch (final Exception e) {
+            logger.atError().msg("Error occurred while indexing packages").throwable(e).log();
+            index.packages = Collections.emptyList();
+            index.bundles  = Collections.emptyList();
+        }
+        return index;
+    }
+
+    private List<BundleWire> getRequiredPackageWires(final Bundle bundle) {
+        try {
+            final BundleWiring bundleWiring = bundle.adapt(BundleWiring.class);
+            if (bundleWiring == null) {
+                return Collections.emptyList();
+            }
+            return bundleWiring.getRequiredWires(PACKAGE_NAMESPACE);
+        } catch (final Exception e) {
+            logger.atError().msg("The bundle '{}' cannot be adapted to retrieve the package wires")
+                    .arg(bundle.getSymbolicName()).throwable(e).log();
+            return Collections.emptyList();
+        }
+    }
+
+    private static XPackageEntryDTO toDTO(final String name, final String version, final PackageWires wires) {
+        final XPackageEntryDTO dto = new XPackageEntryDTO();
+
+        dto.name              = name;
+        dto.version           = version;
+        dto.exporters         = new ArrayList<>(wires.exporters);
+        dto.importers         = new ArrayList<>(wires.importers);
+        dto.isDuplicateExport = wires.exporters.size() > 1;
+
+        return dto;
+    }
+
+    private static final class PackageWires {
+        private final Set<Long> exporters = new LinkedHashSet<>();
+        private final Set<Long> importers = new LinkedHashSet<>();
+    }
+
+}
@@ -16,20 +16,22 @@
 package com.osgifx.console.agent.admin;
 
 import static java.util.Objects.requireNonNull;
-import static java.util.stream.Collectors.toList;
-import static java.util.stream.Collectors.toMap;
 import static org.osgi.framework.Constants.OBJECTCLASS;
 import static org.osgi.framework.Constants.SYSTEM_BUNDLE_ID;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Stream;
 
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleContext;
+import org.osgi.framework.Filter;
+import org.osgi.framework.FrameworkUtil;
+import org.osgi.framework.InvalidSyntaxException;
 import org.osgi.framework.dto.FrameworkDTO;
 import org.osgi.framework.dto.ServiceReferenceDTO;
 
@@ -37,6 +39,7 @@ import com.j256.simplelogging.FluentLogger;
 import com.j256.simplelogging.LoggerFactory;
 import com.osgifx.console.agent.dto.XBundleInfoDTO;
 import com.osgifx.console.agent.dto.XServiceDTO;
+import com.osgifx.console.agent.dto.XServicePageDTO;
 
 import jakarta.inject.Inject;
 
@@ -53,36 +56,97 @@ public final class XServiceAdmin {
     public List<XServiceDTO> get() {
         requireNonNull(context);
         try {
-            final FrameworkDTO dto = context.getBundle(SYSTEM_BUNDLE_ID).adapt(FrameworkDTO.class);
-            return dto.services.stream().map(s -> toDTO(s, context)).collect(toList());
+            final List<ServiceReferenceDTO> services = getServiceReferences();
+            final Map<Long, String>         bsns     = indexSymbolicNames();
+            final List<XServiceDTO>         dtos     = new ArrayList<>(services.size());
+            for (final ServiceReferenceDTO service : services) {
+                dtos.add(toDTO(service, bsns));
+            }
+            return dtos;
         } catch (final Exception e) {
             logger.atError().msg("Error occurred while retrieving services").throwable(e).log();
             return Collections.emptyList();
         }
     }
 
-    private XServiceDTO toDTO(final ServiceReferenceDTO refDTO, final BundleContext context) {
+    public XServicePageDTO get(final String filter, final int offset, final int limit) {
+        requireNonNull(context);
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset must not be negative");
+        }
+        final Filter serviceFilter;
+        try {
+            serviceFilter = filter == null || filter.trim().isEmpty() ? null : FrameworkUtil.createFilter(filter);
+        } catch (final InvalidSyntaxException e) {
+            throw new IllegalArgumentException("Invalid service filter '" + filter + "'", e);
+        }
+        final XServicePageDTO page = new XServicePageDTO();
+        page.offset = offset;
+        try {
+            final List<ServiceReferenceDTO> matched = new ArrayList<>();
+            for (final ServiceReferenceDTO service : getServiceReferences()) {
+                if (serviceFilter == null || serviceFilter.matches(service.properties)) {
+                    matched.add(service);
+                }
+            }
+            // service IDs are assigned in registration order which keeps the pages stable
+            matched.sort(Comparator.comparingLong(s -> s.id));
+
+            final int from = Math.min(offset, matched.size());
+            final int to   = limit <= 0 ? matched.size() : (int) Math.min((long) from + limit, matched.size());
+
+            final Map<Long, String> bsns = indexSymbolicNames();
+            page.total    = matched.size();
+            page.services = new ArrayList<>(to - from);
+            for (final ServiceReferenceDTO service : matched.subList(from, to)) {
+                page.services.add(toDTO(service, bsns));
+            }
+        } catch (final Exception e) {
+            logger.atError().msg("Error occurred while retrieving services").throwable(e).log();
+            page.services = Collections.emptyList();
+        }
+        return page;
+    }
+
+    private List<ServiceReferenceDTO> getServiceReferences() {
+        final FrameworkDTO dto = context.getBundle(SYSTEM_BUNDLE_ID).adapt(FrameworkDTO.class);
+        return dto.services;
+    }
+
+    private Map<Long, String> indexSymbolicNames() {
+        final Bundle[]          bundles = context.getBundles();
+        final Map<Long, String> bsns    = new HashMap<>((int) (bundles.length / 0.75f) + 1);
+        for (final Bundle bundle : bundles) {
+            bsns.put(bundle.getBundleId(), bundle.getSymbolicName());
+        }
+        return bsns;
+    }
+
+    private XServiceDTO toDTO(final ServiceReferenceDTO refDTO, final Map<Long, String> bsns) {
         final XServiceDTO dto = new XServiceDTO();
 
         final XBundleInfoDTO bundleInfo = new XBundleInfoDTO();
         bundleInfo.id           = refDTO.bundle;
-        bundleInfo.symbolicName = bsn(refDTO.bundle, context);
+        bundleInfo.symbolicName = bsns.get(refDTO.bundle);
 
         dto.id                = refDTO.id;
         dto.bundleId          = bundleInfo.id;
         dto.registeringBundle = bundleInfo.symbolicName;
-        // @formatter:off
-        dto.properties        = refDTO.properties.entrySet()
-                                                 .stream()
-                                                 .collect(
-                                                         toMap(Map.Entry::getKey, e -> arrayToString(e.getValue())));
-        dto.usingBundles      = getUsingBundles(refDTO.usingBundles, context);
+        dto.properties        = getProperties(refDTO.properties);
+        dto.usingBundles      = getUsingBundles(refDTO.usingBundles, bsns);
         dto.types             = getObjectClass(refDTO.properties);
-        // @formatter:on
 
         return dto;
     }
 
+    private Map<String, String> getProperties(final Map<String, Object> properties) {
+        final Map<String, String> props = new HashMap<>((int) (properties.size() / 0.75f) + 1);
+        for (final Map.Entry<String, Object> entry : properties.entrySet()) {
+            props.put(entry.getKey(), arrayToString(entry.getValue()));
+        }
+        return props;
+    }
+
     private List<String> getObjectClass(final Map<String, Object> properties) {
         final Object objectClass = properties.get(OBJECTCLASS);
         return Arrays.asList((String[]) objectClass);
@@ -95,28 +159,16 @@ public final class XServiceAdmin {
         return value.toString();
     }
 
-    private List<XBundleInfoDTO> getUsingBundles(final long[] usingBundles, final BundleContext context) {
-        final List<XBundleInfoDTO> bundles = new ArrayList<>();
+    private List<XBundleInfoDTO> getUsingBundles(final long[] usingBundles, final Map<Long, String> bsns) {
+        final List<XBundleInfoDTO> bundles = new ArrayList<>(usingBundles.length);
         for (final long id : usingBundles) {
-            final String bsn = bsn(id, context);
-
             final XBundleInfoDTO dto = new XBundleInfoDTO();
             dto.id           = id;
-            dto.symbolicName = bsn;
+            dto.symbolicName = bsns.get(id);
 
             bundles.add(dto);
         }
         return bundles;
     }
 
-    private String bsn(final long id, final BundleContext context) {
-        // @formatter:off
-        return Stream.of(context.getBundles())
-                     .filter(b -> b.getBundleId() == id)
-                     .map(Bundle::getSymbolicName)
-                     .findAny()
-                     .orElse(null);
-        // @formatter:on
-    }
-
 }
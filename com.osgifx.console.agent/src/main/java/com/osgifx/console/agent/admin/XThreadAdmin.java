@@ -18,12 +18,13 @@ package com.osgifx.console.agent.admin;
 import static java.util.stream.Collectors.toList;
 
 import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
 import java.lang.management.ThreadMXBean;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
+import java.util.stream.Stream;
 
 import com.j256.simplelogging.FluentLogger;
 import com.j256.simplelogging.LoggerFactory;
@@ -34,6 +35,8 @@ import jakarta.inject.Inject;
 
 public final class XThreadAdmin {
 
+    private static final long[] NO_DEADLOCKS = new long[0];
+
     private final PackageWirings wirings;
     private final FluentLogger   logger = LoggerFactory.getFluentLogger(getClass());
 
@@ -44,23 +47,68 @@ public final class XThreadAdmin {
 
     public List<XThreadDTO> get() {
         try {
-            final Map<Thread, StackTraceElement[]> threads    = Thread.getAllStackTraces();
-            final List<Thread>                     threadList = new ArrayList<>(threads.keySet());
-            return threadList.stream().map(this::toDTO).collect(toList());
+            final long[] deadlocks = findDeadlockedThreads();
+            return getAllThreads().stream().map(t -> toDTO(t, deadlocks)).collect(toList());
         } catch (final Exception e) {
             logger.atError().msg("Error occurred while retrieving threads").throwable(e).log();
             return Collections.emptyList();
         }
     }
 
-    private XThreadDTO toDTO(final Thread thread) {
+    public List<XThreadDTO> getDetails(final int maxStackDepth) {
+        final boolean isJmxWired = wirings.isJmxWired();
+        if (!isJmxWired) {
+            logger.atDebug().msg("JMX unavailable to retrieve the thread details").log();
+            return get();
+        }
+        try {
+            final ThreadMXBean bean      = ManagementFactory.getThreadMXBean();
+            final long[]       deadlocks = findDeadlockedThreads();
+            final List<Thread> threads   = getAllThreads();
+            final long[]       ids       = threads.stream().mapToLong(Thread::getId).toArray();
+            final ThreadInfo[] infos     = bean.getThreadInfo(ids, Math.max(0, maxStackDepth));
+            final boolean      cpuTime   = bean.isThreadCpuTimeSupported() && bean.isThreadCpuTimeEnabled();
+
+            final List<XThreadDTO> dtos = new ArrayList<>(threads.size());
+            for (int i = 0; i < threads.size(); i++) {
+                final XThreadDTO dto  = toDTO(threads.get(i), deadlocks);
+                final ThreadInfo info = infos[i];
+                // the thread has terminated in the meantime
+                if (info != null) {
+                    if (cpuTime) {
+                        dto.cpuTimeInNanos  = bean.getThreadCpuTime(dto.id);
+                        dto.userTimeInNanos = bean.getThreadUserTime(dto.id);
+                    } else {
+                        dto.cpuTimeInNanos  = -1;
+                        dto.userTimeInNanos = -1;
+                    }
+                    dto.blockedCount        = info.getBlockedCount();
+                    dto.blockedTimeInMillis = info.getBlockedTime();
+                    dto.waitedCount         = info.getWaitedCount();
+                    dto.waitedTimeInMillis  = info.getWaitedTime();
+                    dto.lockName            = info.getLockName();
+                    dto.lockOwnerId         = info.getLockOwnerId();
+                    dto.lockOwnerName       = info.getLockOwnerName();
+                    dto.stackTrace          = Stream.of(info.getStackTrace()).map(StackTraceElement::toString)
+                            .collect(toList());
+                }
+                dtos.add(dto);
+            }
+            return dtos;
+        } catch (final Exception e) {
+            logger.atError().msg("Error occurred while retrieving thread details").throwable(e).log();
+            return Collections.emptyList();
+        }
+    }
+
+    private XThreadDTO toDTO(final Thread thread, final long[] deadlocks) {
         final XThreadDTO dto = new XThreadDTO();
 
         dto.name          = thread.getName();
         dto.id            = thread.getId();
         dto.priority      = thread.getPriority();
         dto.state         = thread.getState().name();
-        dto.isDeadlocked  = isDeadlocked(thread.getId());
+        dto.isDeadlocked  = Arrays.binarySearch(deadlocks, thread.getId()) >= 0;
         dto.isInterrupted = thread.isInterrupted();
         dto.isAlive       = thread.isAlive();
         dto.isDaemon      = thread.isDaemon();
@@ -68,18 +116,42 @@ public final class XThreadAdmin {
         return dto;
     }
 
-    private boolean isDeadlocked(final long id) {
+    /**
+     * Scans for deadlocks only once per snapshot as it is an expensive operation
+     * which brings the JVM to a safepoint
+     *
+     * @return the sorted IDs of the deadlocked threads
+     */
+    private long[] findDeadlockedThreads() {
         final boolean isJmxWired = wirings.isJmxWired();
         if (isJmxWired) {
             final ThreadMXBean bean      = ManagementFactory.getThreadMXBean();
             final long[]       deadlocks = bean.findDeadlockedThreads();
             if (deadlocks == null) {
-                return false;
+                return NO_DEADLOCKS;
             }
-            return Arrays.stream(deadlocks).anyMatch(e -> e == id);
+            Arrays.sort(deadlocks);
+            return deadlocks;
+        }
+        logger.atDebug().msg("JMX unavailable to check for deadlocked threads").log();
+        return NO_DEADLOCKS;
+    }
+
+    /**
+     * Enumerates the live threads without capturing their stack traces in
+     * contrast to {@link Thread#getAllStackTraces()}
+     */
+    private static List<Thread> getAllThreads() {
+        ThreadGroup root = Thread.currentThread().getThreadGroup();
+        while (root.getParent() != null) {
+            root = root.getParent();
+        }
+        Thread[] threads = new Thread[root.activeCount() + 16];
+        int      count;
+        while ((count = root.enumerate(threads, true)) == threads.length) {
+            threads = new Thread[threads.length * 2];
         }
-        logger.atDebug().msg("JMX unavailable to check if thread [id: '%s'] is deadlocked").arg(id).log();
-        return false;
+        return Arrays.asList(threads).subList(0, count);
     }
 
 }
@@ -0,0 +1,177 @@
+/*******************************************************************************
+ * Copyright 2021-2023 Amit Kumar Mondal
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package com.osgifx.console.agent.handler;
+
+import static com.osgifx.console.agent.Agent.AGENT_PUSH_BATCH_SIZE_KEY;
+import static com.osgifx.console.agent.Agent.AGENT_PUSH_BUFFER_CAPACITY_KEY;
+import static com.osgifx.console.agent.Agent.AGENT_PUSH_FLUSH_INTERVAL_KEY;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import com.j256.simplelogging.FluentLogger;
+import com.j256.simplelogging.LoggerFactory;
+import com.osgifx.console.agent.helper.RingBuffer;
+import com.osgifx.console.agent.helper.ThreadFactoryBuilder;
+
+/**
+ * Decouples the delivery of the logs and events from the remote calls to the
+ * supervisor. The entries are buffered in a bounded {@link RingBuffer} and
+ * pushed by a dedicated thread as soon as either the batch size has been
+ * reached or the flush interval has elapsed.
+ * <p>
+ * If the supervisor cannot keep up, the buffer fills up and the new entries
+ * are dropped instead of stalling the delivering thread. The number of dropped
+ * entries is reported along with the next batch.
+ *
+ * @param <E> the type of the entries
+ */
+public final class BatchPublisher<E> implements Closeable {
+
+    /**
+     * Pushes a batch of entries to the supervisor
+     */
+    @FunctionalInterface
+    public interface BatchSender<E> {
+        void send(List<E> batch, long dropped);
+    }
+
+    private static final int  DEFAULT_BUFFER_CAPACITY = 8192;
+    private static final int  DEFAULT_BATCH_SIZE      = 256;
+    private static final long DEFAULT_FLUSH_INTERVAL  = 200;
+    private static final long CLOSE_TIMEOUT_IN_MILLIS = 2_000;
+
+    private final String         name;
+    private final int            batchSize;
+    private final long           flushIntervalNanos;
+    private final RingBuffer<E>  buffer;
+    private final BatchSender<E> batchSender;
+    private final Consumer<E>    entrySender;
+    private final Thread         flusher;
+    private final AtomicLong     dropped = new AtomicLong();
+    private final FluentLogger   logger  = LoggerFactory.getFluentLogger(getClass());
+
+    private volatile boolean batching;
+    private volatile boolean running = true;
+
+    /**
+     * Creates a publisher which pushes every entry individually until the
+     * supervisor declares its support for batches using {@link #enableBatching()}
+     *
+     * @param name the name of the publisher (used for the flushing thread)
+     * @param batchSender the sender to push the batches
+     * @param entrySender the sender to push the individual entries
+     */
+    public BatchPublisher(final String name, final BatchSender<E> batchSender, final Consumer<E> entrySender) {
+        this.name               = name;
+        this.batchSender        = batchSender;
+        this.entrySender        = entrySender;
+        this.batchSize          = Math.max(1, Integer.getInteger(AGENT_PUSH_BATCH_SIZE_KEY, DEFAULT_BATCH_SIZE));
+        this.flushIntervalNanos = MILLISECONDS.toNanos(
+                Math.max(1, Long.getLong(AGENT_PUSH_FLUSH_INTERVAL_KEY, DEFAULT_FLUSH_INTERVAL)));
+        this.buffer             = new RingBuffer<>(
+                Math.max(batchSize, Integer.getInteger(AGENT_PUSH_BUFFER_CAPACITY_KEY, DEFAULT_BUFFER_CAPACITY)));
+
+        // @formatter:off
+        flusher = new ThreadFactoryBuilder()
+                        .setThreadFactoryName("osgifx-agent-" + name)
+                        .setThreadNameFormat("-push-%d")
+                        .setDaemon(true)
+                        .build()
+                        .newThread(this::run);
+        // @formatter:on
+        flusher.start();
+    }
+
+    /**
+     * Buffers the specified entry for the next push. If the buffer is full, the
+     * entry is dropped.
+     *
+     * @param entry the entry to push
+     */
+    public void publish(final E entry) {
+        if (!running) {
+            return;
+        }
+        if (!buffer.offer(entry)) {
+            dropped.incrementAndGet();
+            return;
+        }
+        if (buffer.size() >= batchSize) {
+            LockSupport.unpark(flusher);
+        }
+    }
+
+    /**
+     * Pushes the subsequent entries in batches
+     */
+    public void enableBatching() {
+        batching = true;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join(CLOSE_TIMEOUT_IN_MILLIS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        while (running) {
+            LockSupport.parkNanos(this, flushIntervalNanos);
+            flush();
+        }
+        // push the remaining entries before stopping
+        flush();
+    }
+
+    private void flush() {
+        int drained;
+        do {
+            final List<E> batch = new ArrayList<>(Math.min(batchSize, buffer.size()));
+            drained = buffer.drainTo(batch, batchSize);
+
+            final long droppedSinceLastPush = dropped.getAndSet(0);
+            if (drained == 0 && droppedSinceLastPush == 0) {
+                return;
+            }
+            if (droppedSinceLastPush > 0) {
+                logger.atWarn().msg("[OSGi.fx] Dropped {} {} entries as the supervisor cannot keep up").arg(
+                        droppedSinceLastPush).arg(name).log();
+            }
+            try {
+                if (batching) {
+                    batchSender.send(batch, droppedSinceLastPush);
+                } else {
+                    batch.forEach(entrySender);
+                }
+            } catch (final Exception e) {
+                logger.atError().msg("[OSGi.fx] Cannot push {} {} entries").arg(drained).arg(name).throwable(e)
+                        .log();
+            }
+        } while (drained == batchSize);
+    }
+
+}
@@ -15,16 +15,26 @@
  ******************************************************************************/
 package com.osgifx.console.agent.handler;
 
+import static com.osgifx.console.agent.dto.XResultDTO.ERROR;
+import static com.osgifx.console.agent.dto.XResultDTO.SUCCESS;
+import static com.osgifx.console.agent.helper.AgentHelper.createResult;
+import static com.osgifx.console.agent.helper.AgentHelper.globToPattern;
 import static com.osgifx.console.agent.provider.AgentServer.PROPERTY_ENABLE_EVENTING;
+import static org.osgi.service.event.EventConstants.EVENT_FILTER;
 import static org.osgi.service.event.EventConstants.EVENT_TOPIC;
 
+import java.io.Closeable;
+import java.util.ArrayList;
 import java.util.Dictionary;
 import java.util.HashMap;
 import java.util.Hashtable;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 import org.osgi.framework.BundleContext;
+import org.osgi.framework.FrameworkUtil;
+import org.osgi.framework.InvalidSyntaxException;
 import org.osgi.framework.ServiceRegistration;
 import org.osgi.service.event.Event;
 import org.osgi.service.event.EventHandler;
@@ -32,42 +42,76 @@ import org.osgi.service.event.EventHandler;
 import com.j256.simplelogging.FluentLogger;
 import com.j256.simplelogging.LoggerFactory;
 import com.osgifx.console.agent.dto.XEventDTO;
+import com.osgifx.console.agent.dto.XEventSubscriptionDTO;
+import com.osgifx.console.agent.dto.XResultDTO;
 import com.osgifx.console.supervisor.Supervisor;
 
 import aQute.lib.converter.Converter;
 import aQute.lib.converter.TypeReference;
 import jakarta.inject.Inject;
 
-public final class OSGiEventHandler implements EventHandler {
+public final class OSGiEventHandler implements EventHandler, Closeable {
 
-    private final Supervisor    supervisor;
-    private final BundleContext context;
-    private final FluentLogger  logger = LoggerFactory.getFluentLogger(getClass());
+    private final BundleContext             context;
+    private final BatchPublisher<XEventDTO> publisher;
+    private final FluentLogger              logger       = LoggerFactory.getFluentLogger(getClass());
+    private volatile Subscription           subscription = Subscription.ALL;
+    private volatile ServiceRegistration<?> registration;
 
     @Inject
     public OSGiEventHandler(final BundleContext context, final Supervisor supervisor) {
-        this.context    = context;
-        this.supervisor = supervisor;
+        this.context   = context;
+        this.publisher = new BatchPublisher<>("event", supervisor::onOSGiEventBatch, supervisor::onOSGiEvent);
     }
 
     public ServiceRegistration<?> register() {
-        final Dictionary<String, Object> properties = new Hashtable<>();
-        properties.put(EVENT_TOPIC, "*");
-        return context.registerService(EventHandler.class, this, properties);
+        registration = context.registerService(EventHandler.class, this, subscription.properties());
+        return registration;
+    }
+
+    public XResultDTO updateSubscription(final XEventSubscriptionDTO dto) {
+        final Subscription newSubscription;
+        try {
+            newSubscription = dto == null ? Subscription.ALL : new Subscription(dto);
+        } catch (final IllegalArgumentException e) {
+            return createResult(ERROR, e.getMessage());
+        }
+        subscription = newSubscription;
+
+        final ServiceRegistration<?> reg = registration;
+        if (reg != null) {
+            try {
+                // lets the event admin skip the delivery of the non-matching events
+                reg.setProperties(newSubscription.properties());
+            } catch (final IllegalStateException e) {
+                // the handler has already been unregistered
+            }
+        }
+        return createResult(SUCCESS, "Event subscription has been updated");
     }
 
     @Override
     public void handleEvent(final Event event) {
+        final boolean isEventingEnabled = Boolean.getBoolean(PROPERTY_ENABLE_EVENTING);
+        if (!isEventingEnabled || !subscription.matches(event.getTopic())) {
+            return;
+        }
         final XEventDTO dto = new XEventDTO();
 
         dto.received   = System.currentTimeMillis();
         dto.properties = initProperties(event);
         dto.topic      = event.getTopic();
 
-        final boolean isLoggingEnabled = Boolean.getBoolean(PROPERTY_ENABLE_EVENTING);
-        if (isLoggingEnabled) {
-            supervisor.onOSGiEvent(dto);
-        }
+        publisher.publish(dto);
+    }
+
+    public void enableBatchedPush() {
+        publisher.enableBatching();
+    }
+
+    @Override
+    public void close() {
+        publisher.close();
     }
 
     private Map<String, String> initProperties(final Event event) {
@@ -123,4 +167,84 @@ public final class OSGiEventHandler implements EventHandler {
         return String.valueOf(propertyValue);
     }
 
+    /**
+     * The criteria of the console to match the events. The topics are handed over
+     * to the event admin unless these cannot be expressed as {@code event.topics}
+     * in which case these are matched by the handler itself.
+     */
+    private static final class Subscription {
+
+        static final Subscription ALL = new Subscription();
+
+        private final String[] topics;
+        private final String   filter;
+        private final Pattern  topicPattern;
+        private final Sampler  sampler;
+
+        private Subscription() {
+            topics       = new String[] { "*" };
+            filter       = null;
+            topicPattern = null;
+            sampler      = Sampler.UNLIMITED;
+        }
+
+        Subscription(final XEventSubscriptionDTO dto) {
+            final List<String> globs = new ArrayList<>();
+            if (dto.topics != null) {
+                for (final String topic : dto.topics) {
+                    if (topic != null && !topic.trim().isEmpty()) {
+                        globs.add(topic.trim());
+                    }
+                }
+            }
+            boolean isEventAdminTopics = true;
+            for (final String glob : globs) {
+                isEventAdminTopics &= isEventAdminTopic(glob);
+            }
+            if (globs.isEmpty() || !isEventAdminTopics) {
+                topics       = new String[] { "*" };
+                topicPattern = globToPattern(globs);
+            } else {
+                topics       = globs.toArray(new String[0]);
+                topicPattern = null;
+            }
+            filter = dto.filter == null || dto.filter.trim().isEmpty() ? null : dto.filter.trim();
+            if (filter != null) {
+                try {
+                    FrameworkUtil.createFilter(filter);
+                } catch (final InvalidSyntaxException e) {
+                    throw new IllegalArgumentException("Invalid event filter '" + filter + "'", e);
+                }
+            }
+            sampler = new Sampler(dto.maxRate, dto.samplingRatio);
+        }
+
+        Dictionary<String, Object> properties() {
+            final Dictionary<String, Object> properties = new Hashtable<>();
+            properties.put(EVENT_TOPIC, topics);
+            if (filter != null) {
+                properties.put(EVENT_FILTER, filter);
+            }
+            return properties;
+        }
+
+        boolean matches(final String topic) {
+            if (topicPattern != null && !topicPattern.matcher(topic).matches()) {
+                return false;
+            }
+            return sampler.accept();
+        }
+
+        /**
+         * The event admin only supports {@code *} as the last token of a topic
+         */
+        private static boolean isEventAdminTopic(final String glob) {
+            final int wildcard = glob.indexOf('*');
+            if (glob.indexOf('?') >= 0) {
+                return false;
+            }
+            return wildcard < 0 || "*".equals(glob) || wildcard == glob.length() - 1 && glob.endsWith("/*");
+        }
+    }
+
 }
@@ -15,15 +15,26 @@
  ******************************************************************************/
 package com.osgifx.console.agent.handler;
 
+import static com.osgifx.console.agent.Agent.AGENT_LOG_BUNDLE_DETAILS_KEY;
+import static com.osgifx.console.agent.dto.XResultDTO.ERROR;
+import static com.osgifx.console.agent.dto.XResultDTO.SUCCESS;
+import static com.osgifx.console.agent.helper.AgentHelper.createResult;
+import static com.osgifx.console.agent.helper.AgentHelper.globToPattern;
 import static com.osgifx.console.agent.provider.AgentServer.PROPERTY_ENABLE_LOGGING;
 
+import java.io.Closeable;
+import java.util.Arrays;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.regex.Pattern;
 
+import org.osgi.framework.Bundle;
 import org.osgi.service.log.LogEntry;
 import org.osgi.service.log.LogListener;
 
 import com.osgifx.console.agent.admin.XBundleAdmin;
 import com.osgifx.console.agent.dto.XLogEntryDTO;
+import com.osgifx.console.agent.dto.XLogSubscriptionDTO;
 import com.osgifx.console.agent.dto.XResultDTO;
 import com.osgifx.console.agent.helper.Reflect;
 import com.osgifx.console.agent.provider.BundleStartTimeCalculator;
@@ -32,32 +43,67 @@ import com.osgifx.console.supervisor.Supervisor;
 import aQute.bnd.exceptions.Exceptions;
 import jakarta.inject.Inject;
 
-public final class OSGiLogListener implements LogListener {
+public final class OSGiLogListener implements LogListener, Closeable {
 
-    private final Supervisor                supervisor;
-    private final BundleStartTimeCalculator bundleStartTimeCalculator;
+    private static final String[] LEVELS = { "AUDIT", "ERROR", "WARN", "INFO", "DEBUG", "TRACE" };
+
+    private final Supervisor                   supervisor;
+    private final BatchPublisher<XLogEntryDTO> publisher;
+    private final BundleStartTimeCalculator    bundleStartTimeCalculator;
+    private volatile Subscription              subscription = Subscription.ALL;
 
     @Inject
     public OSGiLogListener(final Supervisor supervisor, final BundleStartTimeCalculator bundleStartTimeCalculator) {
         this.supervisor                = supervisor;
         this.bundleStartTimeCalculator = bundleStartTimeCalculator;
+        this.publisher                 = supervisor == null ? null
+                : new BatchPublisher<>("log", supervisor::loggedBatch, supervisor::logged);
     }
 
     @Override
     public void logged(final LogEntry entry) {
         if (supervisor != null) {
             final boolean isLoggingEnabled = Boolean.getBoolean(PROPERTY_ENABLE_LOGGING);
-            if (isLoggingEnabled) {
-                supervisor.logged(toDTO(entry));
+            if (isLoggingEnabled && subscription.matches(entry)) {
+                publisher.publish(toDTO(entry));
             }
         }
     }
 
+    public XResultDTO updateSubscription(final XLogSubscriptionDTO dto) {
+        try {
+            subscription = dto == null ? Subscription.ALL : new Subscription(dto);
+        } catch (final IllegalArgumentException e) {
+            return createResult(ERROR, e.getMessage());
+        }
+        return createResult(SUCCESS, "Log subscription has been updated");
+    }
+
+    public void enableBatchedPush() {
+        if (publisher != null) {
+            publisher.enableBatching();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (publisher != null) {
+            publisher.close();
+        }
+    }
+
     @SuppressWarnings("deprecation")
     private XLogEntryDTO toDTO(final LogEntry entry) {
         final XLogEntryDTO dto = new XLogEntryDTO();
 
-        dto.bundle  = XBundleAdmin.toDTO(entry.getBundle(), bundleStartTimeCalculator);
+        // the complete bundle details are expensive to compute for every single entry
+        final boolean isBundleDetailsRequired = Boolean.getBoolean(AGENT_LOG_BUNDLE_DETAILS_KEY);
+        // entries logged outside of any bundle context do not refer to a bundle at all
+        final Bundle bundle = entry.getBundle();
+        if (bundle != null) {
+            dto.bundle = isBundleDetailsRequired ? XBundleAdmin.toDTO(bundle, bundleStartTimeCalculator)
+                    : XBundleAdmin.toReferenceDTO(bundle);
+        }
         dto.message = entry.getMessage();
 
         // must not use OSGi R7 reference to getLogLevel()
@@ -76,32 +122,17 @@ public final class OSGiLogListener implements LogListener {
         final int        resultLoggerName = loggerNameResult.result;
 
         if (resultLoggerName == XResultDTO.SUCCESS) {
-            dto.logger = threadInfoResult.response;
+            dto.logger = loggerNameResult.response;
         }
 
         return dto;
     }
 
-    private String getLevel(final int level) {
-        switch (level) {
-            case 0:
-                return "AUDIT";
-            case 1:
-                return "ERROR";
-            case 2:
-                return "WARN";
-            case 3:
-                return "INFO";
-            case 4:
-                return "DEBUG";
-            case 5:
-                return "TRACE";
-            default:
-                return "INFO";
-        }
+    private static String getLevel(final int level) {
+        return level >= 0 && level < LEVELS.length ? LEVELS[level] : "INFO";
     }
 
-    private XResultDTO executeR7method(final Object object, final String methodName) {
+    private static XResultDTO executeR7method(final Object object, final String methodName) {
         final XResultDTO dto = new XResultDTO();
         try {
             dto.response = Reflect.on(object).call(methodName).get();
@@ -112,4 +143,63 @@ public final class OSGiLogListener implements LogListener {
         return dto;
     }
 
+    /**
+     * The criteria of the console to match the log entries before these are
+     * converted to DTOs
+     */
+    private static final class Subscription {
+
+        static final Subscription ALL = new Subscription();
+
+        private final int     maxLevel;
+        private final Pattern bundles;
+        private final Pattern loggers;
+        private final Sampler sampler;
+
+        private Subscription() {
+            maxLevel = LEVELS.length - 1;
+            bundles  = null;
+            loggers  = null;
+            sampler  = Sampler.UNLIMITED;
+        }
+
+        Subscription(final XLogSubscriptionDTO dto) {
+            maxLevel = dto.minLevel == null ? LEVELS.length - 1 : parseLevel(dto.minLevel);
+            bundles  = globToPattern(dto.bundles);
+            loggers  = globToPattern(dto.loggers);
+            sampler  = new Sampler(dto.maxRate, dto.samplingRatio);
+        }
+
+        @SuppressWarnings("deprecation")
+        boolean matches(final LogEntry entry) {
+            if (entry.getLevel() > maxLevel) {
+                return false;
+            }
+            if (bundles != null) {
+                final Bundle bundle = entry.getBundle();
+                final String bsn    = bundle == null ? null : bundle.getSymbolicName();
+                if (bsn == null || !bundles.matcher(bsn).matches()) {
+                    return false;
+                }
+            }
+            if (loggers != null) {
+                // the logger names are only available since OSGi R7
+                final XResultDTO loggerName = executeR7method(entry, "getLoggerName");
+                if (loggerName.result != SUCCESS || loggerName.response == null
+                        || !loggers.matcher(loggerName.response).matches()) {
+                    return false;
+                }
+            }
+            return sampler.accept();
+        }
+
+        private static int parseLevel(final String level) {
+            final int index = Arrays.asList(LEVELS).indexOf(level.trim().toUpperCase(Locale.ROOT));
+            if (index < 0) {
+                throw new IllegalArgumentException("Unknown log level '" + level + "'");
+            }
+            return index;
+        }
+    }
+
 }
@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Copyright 2021-2023 Amit Kumar Mondal
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package com.osgifx.console.agent.handler;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Limits the entries matching a subscription to a maximum number per second
+ * and forwards only a random sample of them with a fixed ratio.
+ */
+final class Sampler {
+
+    static final Sampler UNLIMITED = new Sampler(0, 1);
+
+    private static final long WINDOW_IN_NANOS = SECONDS.toNanos(1);
+
+    private final int    maxRate;
+    private final double ratio;
+    private long         windowStart;
+    private int          count;
+
+    /**
+     * @param maxRate the maximum number of entries per second ({@code 0} if
+     *            unlimited)
+     * @param ratio the ratio of the entries to accept ({@code 0} or {@code 1} to
+     *            accept all)
+     */
+    Sampler(final int maxRate, final double ratio) {
+        if (maxRate < 0) {
+            throw new IllegalArgumentException("Maximum rate must not be negative");
+        }
+        if (ratio < 0 || ratio > 1) {
+            throw new IllegalArgumentException("Sampling ratio must be between 0 and 1");
+        }
+        this.maxRate     = maxRate;
+        this.ratio       = ratio == 0 ? 1 : ratio;
+        this.windowStart = System.nanoTime() - WINDOW_IN_NANOS;
+    }
+
+    boolean accept() {
+        if (ratio < 1 && ThreadLocalRandom.current().nextDouble() >= ratio) {
+            return false;
+        }
+        if (maxRate == 0) {
+            return true;
+        }
+        synchronized (this) {
+            final long now = System.nanoTime();
+            if (now - windowStart >= WINDOW_IN_NANOS) {
+                windowStart = now;
+                count       = 0;
+            }
+            if (count >= maxRate) {
+                return false;
+            }
+            count++;
+            return true;
+        }
+    }
+
+}
@@ -15,11 +15,13 @@
  ******************************************************************************/
 package com.osgifx.console.agent.helper;
 
+import java.util.Collection;
 import java.util.Dictionary;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 import com.osgifx.console.agent.dto.ConfigValue;
 import com.osgifx.console.agent.dto.XAttributeDefType;
@@ -65,6 +67,46 @@ public final class AgentHelper {
         return wirings.comprehensibleName + " bundle is not installed";
     }
 
+    /**
+     * Compiles the specified glob patterns supporting {@code *} and {@code ?} to a
+     * single regular expression matching any of them
+     *
+     * @param globs the glob patterns
+     * @return the compiled pattern or {@code null} if no pattern has been specified
+     */
+    public static Pattern globToPattern(final Collection<String> globs) {
+        if (globs == null) {
+            return null;
+        }
+        final StringBuilder regex = new StringBuilder();
+        for (final String glob : globs) {
+            if (glob == null || glob.trim().isEmpty()) {
+                continue;
+            }
+            final String pattern = glob.trim();
+            if (regex.length() > 0) {
+                regex.append('|');
+            }
+            regex.append("(?:");
+            int start = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                final char c = pattern.charAt(i);
+                if (c == '*' || c == '?') {
+                    if (i > start) {
+                        regex.append(Pattern.quote(pattern.substring(start, i)));
+                    }
+                    regex.append(c == '*' ? ".*" : ".");
+                    start = i + 1;
+                }
+            }
+            if (start < pattern.length()) {
+                regex.append(Pattern.quote(pattern.substring(start)));
+            }
+            regex.append(')');
+        }
+        return regex.length() == 0 ? null : Pattern.compile(regex.toString());
+    }
+
     public static Object convert(final ConfigValue entry) throws Exception {
         final Object            source = entry.value;
         final XAttributeDefType type   = entry.type;
@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright 2021-2023 Amit Kumar Mondal
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package com.osgifx.console.agent.helper;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded, lock-free ring buffer which can be filled by multiple producers
+ * and drained by a single consumer.
+ * <p>
+ * Every slot carries a sequence number which tells the producers and the
+ * consumer whether the slot is free to be written or ready to be read. Hence,
+ * neither side ever blocks: the producers fail fast if the buffer is full and
+ * the consumer stops draining if the next slot has not been published yet.
+ *
+ * @param <E> the type of the elements
+ */
+public final class RingBuffer<E> {
+
+    private final int                     mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray         sequences;
+    private final AtomicLong              head = new AtomicLong();
+    private final AtomicLong              tail = new AtomicLong();
+
+    /**
+     * Creates a ring buffer which is able to hold at least the specified number
+     * of elements (the capacity is rounded up to the next power of two)
+     *
+     * @param capacity the minimum capacity
+     */
+    public RingBuffer(final int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30");
+        }
+        final int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+
+        mask      = size - 1;
+        elements  = new AtomicReferenceArray<>(size);
+        sequences = new AtomicLongArray(size);
+
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds the element to the buffer if there is free space
+     *
+     * @param element the element to add (cannot be {@code null})
+     * @return {@code true} if the element has been added, otherwise {@code false}
+     *         if the buffer is full
+     */
+    public boolean offer(final E element) {
+        if (element == null) {
+            throw new NullPointerException("'element' cannot be null");
+        }
+        while (true) {
+            final long position = tail.get();
+            final int  index    = (int) position & mask;
+            final long sequence = sequences.get(index);
+
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements.lazySet(index, element);
+                    // publishes the element to the consumer
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+            } else if (sequence < position) {
+                // the consumer has not yet released this slot
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Moves at most the specified number of published elements to the given
+     * collection. This must only be invoked by a single consumer.
+     *
+     * @param collection the collection to add the elements to
+     * @param maxElements the maximum number of elements to move
+     * @return the number of moved elements
+     */
+    public int drainTo(final Collection<? super E> collection, final int maxElements) {
+        int count = 0;
+        while (count < maxElements) {
+            final long position = head.get();
+            final int  index    = (int) position & mask;
+
+            if (sequences.get(index) != position + 1) {
+                // empty or the producer has not finished publishing yet
+                break;
+            }
+            collection.add(elements.get(index));
+            elements.lazySet(index, null);
+            head.lazySet(position + 1);
+            // releases the slot for the next round of the producers
+            sequences.lazySet(index, position + mask + 1);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the approximate number of elements in the buffer
+     *
+     * @return the approximate number of elements
+     */
+    public int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    /**
+     * Returns the maximum number of elements the buffer can hold
+     *
+     * @return the capacity
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+}
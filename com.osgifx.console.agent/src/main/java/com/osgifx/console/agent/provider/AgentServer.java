@@ -45,6 +45,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintStream;
 import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
 import java.net.URL;
 import java.time.Duration;
 import java.util.AbstractMap;
@@ -106,6 +107,7 @@ import com.osgifx.console.agent.admin.XHttpAdmin;
 import com.osgifx.console.agent.admin.XLogReaderAdmin;
 import com.osgifx.console.agent.admin.XLoggerAdmin;
 import com.osgifx.console.agent.admin.XMetaTypeAdmin;
+import com.osgifx.console.agent.admin.XPackageAdmin;
 import com.osgifx.console.agent.admin.XPropertyAdmin;
 import com.osgifx.console.agent.admin.XServiceAdmin;
 import com.osgifx.console.agent.admin.XThreadAdmin;
@@ -115,20 +117,27 @@ import com.osgifx.console.agent.dto.ConfigValue;
 import com.osgifx.console.agent.dto.DmtDataType;
 import com.osgifx.console.agent.dto.RuntimeDTO;
 import com.osgifx.console.agent.dto.XBundleDTO;
+import com.osgifx.console.agent.dto.XBundleDeltaDTO;
 import com.osgifx.console.agent.dto.XBundleLoggerContextDTO;
+import com.osgifx.console.agent.dto.XBundleStartHistoryDTO;
 import com.osgifx.console.agent.dto.XComponentDTO;
 import com.osgifx.console.agent.dto.XConfigurationDTO;
 import com.osgifx.console.agent.dto.XDmtNodeDTO;
+import com.osgifx.console.agent.dto.XEventSubscriptionDTO;
 import com.osgifx.console.agent.dto.XHealthCheckDTO;
 import com.osgifx.console.agent.dto.XHealthCheckResultDTO;
 import com.osgifx.console.agent.dto.XHeapUsageDTO;
+import com.osgifx.console.agent.dto.XHeapdumpDTO;
 import com.osgifx.console.agent.dto.XHttpComponentDTO;
+import com.osgifx.console.agent.dto.XLogSubscriptionDTO;
 import com.osgifx.console.agent.dto.XMemoryInfoDTO;
+import com.osgifx.console.agent.dto.XPackageIndexDTO;
 import com.osgifx.console.agent.dto.XPropertyDTO;
 import com.osgifx.console.agent.dto.XResultDTO;
 import com.osgifx.console.agent.dto.XRoleDTO;
 import com.osgifx.console.agent.dto.XRoleDTO.Type;
 import com.osgifx.console.agent.dto.XServiceDTO;
+import com.osgifx.console.agent.dto.XServicePageDTO;
 import com.osgifx.console.agent.dto.XThreadDTO;
 import com.osgifx.console.agent.extension.AgentExtension;
 import com.osgifx.console.agent.handler.OSGiEventHandler;
@@ -156,6 +165,7 @@ public final class AgentServer implements Agent, Closeable {
 
     private static final long          RESULT_TIMEOUT           = Duration.ofSeconds(20).toMillis();
     private static final long          WATCHDOG_TIMEOUT         = Duration.ofSeconds(30).toMillis();
+    private static final long          STREAM_STOP_TIMEOUT      = Duration.ofSeconds(2).toMillis();
     private static final AtomicInteger sequence                 = new AtomicInteger(1000);
     private static final Pattern       BSN_PATTERN              = Pattern.compile("\\s*([^;\\s]+).*");
     public static final String         PROPERTY_ENABLE_LOGGING  = "osgi.fx.enable.logging";
@@ -172,9 +182,13 @@ public final class AgentServer implements Agent, Closeable {
 
     private Closeable              osgiLogListenerCloser;
     private ServiceRegistration<?> osgiEventListenerServiceReg;
+    private OSGiLogListener        osgiLogListener;
+    private OSGiEventHandler       osgiEventHandler;
+    private volatile boolean       batchedPush;
 
-    private final DI           di;
-    private final FluentLogger logger = LoggerFactory.getFluentLogger(getClass());
+    private final DI             di;
+    private final CommandStreams commandStreams = new CommandStreams(this::getSupervisor);
+    private final FluentLogger   logger         = LoggerFactory.getFluentLogger(getClass());
 
     public AgentServer(final DI di, final RpcType rpcType) {
         this.di      = di;
@@ -389,20 +403,39 @@ public final class AgentServer implements Agent, Closeable {
     }
 
     @Override
-    public String execCliCommand(final String command) {
-        requireNonNull(command, "CLI command cannot be null");
+    public void enableBatchedPush() {
+        batchedPush = true;
+        if (osgiLogListener != null) {
+            osgiLogListener.enableBatchedPush();
+        }
+        if (osgiEventHandler != null) {
+            osgiEventHandler.enableBatchedPush();
+        }
+    }
 
-        final List<String> commandEntries = new ArrayList<>();
-        if (OS.isFamilyWindows()) {
-            commandEntries.add("cmd.exe");
-            commandEntries.add("/C");
+    @Override
+    public XResultDTO updateLogSubscription(final XLogSubscriptionDTO subscription) {
+        if (osgiLogListener == null) {
+            logger.atWarn().msg(packageNotWired(LOG)).log();
+            return createResult(SKIPPED, packageNotWired(LOG));
         }
-        parseCommand(command, commandEntries);
+        return osgiLogListener.updateSubscription(subscription);
+    }
+
+    @Override
+    public XResultDTO updateEventSubscription(final XEventSubscriptionDTO subscription) {
+        if (osgiEventHandler == null) {
+            logger.atWarn().msg(packageNotWired(EVENT_ADMIN)).log();
+            return createResult(SKIPPED, packageNotWired(EVENT_ADMIN));
+        }
+        return osgiEventHandler.updateSubscription(subscription);
+    }
+
+    @Override
+    public String execCliCommand(final String command) {
+        requireNonNull(command, "CLI command cannot be null");
         try {
-            final CommandLine cmdLine = CommandLine.parse(commandEntries.get(0));
-            for (int i = 1; i < commandEntries.size(); i++) {
-                cmdLine.addArgument(commandEntries.get(i));
-            }
+            final CommandLine                 cmdLine       = toCommandLine(command);
             final DefaultExecuteResultHandler resultHandler = new DefaultExecuteResultHandler();
             final ExecuteWatchdog             watchdog      = new ExecuteWatchdog(WATCHDOG_TIMEOUT);
             final Executor                    executor      = new DefaultExecutor();
@@ -422,6 +455,89 @@ public final class AgentServer implements Agent, Closeable {
         }
     }
 
+    @Override
+    public XResultDTO execCliCommandStreamed(final long id, final String command, final long maxBytes) {
+        requireNonNull(command, "CLI command cannot be null");
+
+        final CommandLine cmdLine = toCommandLine(command);
+        return commandStreams.execute(id, maxBytes, execution -> {
+            final DefaultExecuteResultHandler resultHandler = new DefaultExecuteResultHandler();
+            final ExecuteWatchdog             watchdog      = new ExecuteWatchdog(ExecuteWatchdog.INFINITE_TIMEOUT);
+            final Executor                    executor      = new DefaultExecutor();
+            final PumpStreamHandler           streamHandler = new PumpStreamHandler(execution);
+
+            // the descendants of a stopped process might still hold its output open
+            streamHandler.setStopTimeout(STREAM_STOP_TIMEOUT);
+            // the exit code is reported instead of being interpreted
+            executor.setExitValues(null);
+            executor.setWatchdog(watchdog);
+            executor.setStreamHandler(streamHandler);
+            if (!execution.onStop(watchdog::destroyProcess)) {
+                return CommandStreams.NO_EXIT_CODE;
+            }
+            executor.execute(cmdLine, resultHandler);
+            resultHandler.waitFor();
+
+            final int exitCode = resultHandler.getExitValue();
+            if (exitCode == Executor.INVALID_EXITVALUE && resultHandler.getException() != null) {
+                throw resultHandler.getException();
+            }
+            return exitCode;
+        });
+    }
+
+    @Override
+    public XResultDTO execGogoCommandStreamed(final long id, final String command, final long maxBytes) {
+        requireNonNull(command, "Gogo command cannot be null");
+        try {
+            redirect(COMMAND_SESSION);
+        } catch (final Exception e) {
+            return createResult(ERROR, e.getMessage());
+        }
+        final Redirector gogo = redirector;
+        if (!(gogo instanceof GogoRedirector)) {
+            return createResult(SKIPPED, "Gogo is not present in this framework");
+        }
+        return commandStreams.execute(id, maxBytes, execution -> {
+            final Thread worker = Thread.currentThread();
+            if (!execution.onStop(worker::interrupt)) {
+                return CommandStreams.NO_EXIT_CODE;
+            }
+            final PrintStream out = new PrintStream(execution, true);
+            try {
+                ((GogoRedirector) gogo).execute(command, out);
+                return 0;
+            } catch (final Exception e) {
+                e.printStackTrace(out);
+                return 1;
+            } finally {
+                out.flush();
+            }
+        });
+    }
+
+    @Override
+    public boolean cancelCommand(final long id) {
+        return commandStreams.cancel(id);
+    }
+
+    private CommandLine toCommandLine(final String command) {
+        final List<String> commandEntries = new ArrayList<>();
+        if (OS.isFamilyWindows()) {
+            commandEntries.add("cmd.exe");
+            commandEntries.add("/C");
+        }
+        parseCommand(command, commandEntries);
+        if (commandEntries.isEmpty()) {
+            throw new IllegalArgumentException("CLI command cannot be empty");
+        }
+        final CommandLine cmdLine = CommandLine.parse(commandEntries.get(0));
+        for (int i = 1; i < commandEntries.size(); i++) {
+            cmdLine.addArgument(commandEntries.get(i));
+        }
+        return cmdLine;
+    }
+
     private List<String> parseCommand(String command, final List<String> commandEntries) {
         command = command.trim();
         if (command.isEmpty()) {
@@ -514,6 +630,7 @@ public final class AgentServer implements Agent, Closeable {
     public void close() throws IOException {
         try {
             cleanup(-2);
+            commandStreams.close();
 
             if (logReaderTracker != null) {
                 logReaderTracker.close();
@@ -524,6 +641,12 @@ public final class AgentServer implements Agent, Closeable {
             if (osgiLogListenerCloser != null) {
                 osgiLogListenerCloser.close();
             }
+            if (osgiEventHandler != null) {
+                osgiEventHandler.close();
+            }
+            if (osgiLogListener != null) {
+                osgiLogListener.close();
+            }
         } catch (final Exception e) {
             throw new IOException(e);
         }
@@ -557,6 +680,11 @@ public final class AgentServer implements Agent, Closeable {
         return true;
     }
 
+    @Override
+    public Set<String> getSupportedMethods() {
+        return Stream.of(Agent.class.getMethods()).map(Method::getName).collect(toSet());
+    }
+
     public void refresh(final boolean async) throws InterruptedException {
         final FrameworkWiring wiring = di.getInstance(BundleContext.class).getBundle(SYSTEM_BUNDLE_ID)
                 .adapt(FrameworkWiring.class);
@@ -622,6 +750,23 @@ public final class AgentServer implements Agent, Closeable {
         return di.getInstance(XBundleAdmin.class).get();
     }
 
+    @Override
+    public XBundleDeltaDTO getBundleDelta(final long sequence) {
+        return di.getInstance(BundleChangeTracker.class).getDelta(sequence);
+    }
+
+    @Override
+    public List<XBundleStartHistoryDTO> getBundleStartHistories(final int limit) {
+        final List<XBundleStartHistoryDTO> histories = di.getInstance(BundleStartTimeCalculator.class)
+                .getBundleStartHistories(limit);
+
+        final boolean isScrAvailable = di.getInstance(PackageWirings.class).isScrWired();
+        if (isScrAvailable) {
+            di.getInstance(XComponentAdmin.class).setComponentCounts(histories);
+        }
+        return histories;
+    }
+
     @Override
     public List<XComponentDTO> getAllComponents() {
         final boolean isScrAvailable = di.getInstance(PackageWirings.class).isScrWired();
@@ -645,7 +790,7 @@ public final class AgentServer implements Agent, Closeable {
             configs.addAll(di.getInstance(XMetaTypeAdmin.class).getConfigurations());
         }
         if (isScrAvailable) {
-            configs.forEach(c -> di.getInstance(XConfigurationAdmin.class).setComponentReferenceFilters(c));
+            di.getInstance(XConfigurationAdmin.class).setComponentReferenceFilters(configs);
         }
         return configs;
     }
@@ -660,11 +805,26 @@ public final class AgentServer implements Agent, Closeable {
         return di.getInstance(XServiceAdmin.class).get();
     }
 
+    @Override
+    public XServicePageDTO getServices(final String filter, final int offset, final int limit) {
+        return di.getInstance(XServiceAdmin.class).get(filter, offset, limit);
+    }
+
+    @Override
+    public XPackageIndexDTO getPackageIndex() {
+        return di.getInstance(XPackageAdmin.class).get();
+    }
+
     @Override
     public List<XThreadDTO> getAllThreads() {
         return di.getInstance(XThreadAdmin.class).get();
     }
 
+    @Override
+    public List<XThreadDTO> getThreadDetails(final int maxStackDepth) {
+        return di.getInstance(XThreadAdmin.class).getDetails(maxStackDepth);
+    }
+
     @Override
     public XDmtNodeDTO readDmtNode(final String rootURI) {
         requireNonNull(rootURI, "DMT node root URI cannot be null");
@@ -677,6 +837,18 @@ public final class AgentServer implements Agent, Closeable {
         return null;
     }
 
+    @Override
+    public XDmtNodeDTO readDmtNode(final String rootURI, final int depth, final int offset, final int limit) {
+        requireNonNull(rootURI, "DMT node root URI cannot be null");
+
+        final boolean isDmtAdminAvailable = di.getInstance(PackageWirings.class).isDmtAdminWired();
+        if (isDmtAdminAvailable) {
+            return di.getInstance(XDmtAdmin.class).readDmtNode(rootURI, depth, offset, limit);
+        }
+        logger.atWarn().msg(packageNotWired(DMT)).log();
+        return null;
+    }
+
     @Override
     public XResultDTO updateDmtNode(final String uri, final Object value, final DmtDataType format) {
         requireNonNull(uri, "DMT node URI cannot be null");
@@ -1003,6 +1175,7 @@ public final class AgentServer implements Agent, Closeable {
     }
 
     @Override
+    @Deprecated
     public byte[] heapdump() throws Exception {
         final boolean isJMXWired = di.getInstance(PackageWirings.class).isJmxWired();
         if (isJMXWired) {
@@ -1012,6 +1185,36 @@ public final class AgentServer implements Agent, Closeable {
         return null;
     }
 
+    @Override
+    public XHeapdumpDTO prepareHeapdump() throws Exception {
+        final boolean isJMXWired = di.getInstance(PackageWirings.class).isJmxWired();
+        if (isJMXWired) {
+            return di.getInstance(XHeapAdmin.class).prepareHeapdump();
+        }
+        logger.atWarn().msg(packageNotWired(JMX)).log();
+        return null;
+    }
+
+    @Override
+    public byte[] readHeapdumpChunk(final String id, final long offset, final int length) throws Exception {
+        final boolean isJMXWired = di.getInstance(PackageWirings.class).isJmxWired();
+        if (isJMXWired) {
+            return di.getInstance(XHeapAdmin.class).readHeapdumpChunk(id, offset, length);
+        }
+        logger.atWarn().msg(packageNotWired(JMX)).log();
+        return null;
+    }
+
+    @Override
+    public boolean releaseHeapdump(final String id) {
+        final boolean isJMXWired = di.getInstance(PackageWirings.class).isJmxWired();
+        if (isJMXWired) {
+            return di.getInstance(XHeapAdmin.class).releaseHeapdump(id);
+        }
+        logger.atWarn().msg(packageNotWired(JMX)).log();
+        return false;
+    }
+
     private long getSystemUptime() {
         final boolean isJMXWired = di.getInstance(PackageWirings.class).isJmxWired();
         if (isJMXWired) {
@@ -1075,7 +1278,12 @@ public final class AgentServer implements Agent, Closeable {
     private ServiceRegistration<?> initOSGiEventing() {
         final boolean isEventAdminAvailable = di.getInstance(PackageWirings.class).isEventAdminWired();
         if (isEventAdminAvailable) {
-            return di.getInstance(OSGiEventHandler.class).register();
+            // every session pushes the events to its own supervisor
+            osgiEventHandler = new OSGiEventHandler(di.getInstance(BundleContext.class), getSupervisor());
+            if (batchedPush) {
+                osgiEventHandler.enableBatchedPush();
+            }
+            return osgiEventHandler.register();
         }
         logger.atWarn().msg(packageNotWired(EVENT_ADMIN)).log();
         return null;
@@ -1084,7 +1292,12 @@ public final class AgentServer implements Agent, Closeable {
     private Closeable initOSGiLogging() {
         final boolean isLogAvailable = di.getInstance(PackageWirings.class).isLogWired();
         if (isLogAvailable) {
-            return trackLogReader(di.getInstance(OSGiLogListener.class));
+            // every session pushes the logs to its own supervisor
+            osgiLogListener = new OSGiLogListener(getSupervisor(), di.getInstance(BundleStartTimeCalculator.class));
+            if (batchedPush) {
+                osgiLogListener.enableBatchedPush();
+            }
+            return trackLogReader(osgiLogListener);
         }
         logger.atWarn().msg(packageNotWired(LOG)).log();
         return null;
@@ -0,0 +1,252 @@
+/*******************************************************************************
+ * Copyright 2021-2023 Amit Kumar Mondal
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package com.osgifx.console.agent.provider;
+
+import static java.util.stream.Collectors.toList;
+import static org.osgi.framework.BundleEvent.RESOLVED;
+import static org.osgi.framework.BundleEvent.UNINSTALLED;
+import static org.osgi.framework.Constants.SERVICE_ID;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleEvent;
+import org.osgi.framework.ServiceEvent;
+import org.osgi.framework.ServiceListener;
+import org.osgi.framework.ServiceReference;
+import org.osgi.framework.SynchronousBundleListener;
+import org.osgi.framework.wiring.BundleWire;
+import org.osgi.framework.wiring.BundleWiring;
+
+import com.osgifx.console.agent.admin.XBundleAdmin;
+import com.osgifx.console.agent.dto.XBundleDeltaDTO;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+/**
+ * Records the bundle changes with a sequence number such that the supervisor
+ * only needs to retrieve the bundles which have changed since its last
+ * retrieval.
+ * <p>
+ * The sequence numbers are seeded from the wall clock so that they keep
+ * increasing across agent restarts. A sequence number from an earlier run of
+ * the agent therefore always results in a complete delta.
+ * <p>
+ * The services of a bundle change without any bundle event. Hence, the
+ * registering bundle of a registered or unregistered service as well as the
+ * bundles using an unregistered service are recorded as changed too. As
+ * getting a service does not fire any event at all, the services used by each
+ * bundle are additionally compared with the ones of the previous delta.
+ */
+@Singleton
+public final class BundleChangeTracker implements SynchronousBundleListener, ServiceListener {
+
+    private static final int MAX_REMOVALS = 1024;
+
+    private final BundleContext             context;
+    private final BundleStartTimeCalculator bundleStartTimeCalculator;
+
+    // key: bundle ID, value: sequence number of the last change
+    private final Map<Long, Long>           changes  = new HashMap<>();
+    private final LinkedHashMap<Long, Long> removals = new LinkedHashMap<>();
+    // key: bundle ID, value: fingerprint of the used services
+    private final Map<Long, Integer>        usages   = new HashMap<>();
+    private long                            sequence;
+    private long                            oldestSequence;
+
+    @Inject
+    public BundleChangeTracker(final BundleContext context,
+                               final BundleStartTimeCalculator bundleStartTimeCalculator) {
+        this.context                   = context;
+        this.bundleStartTimeCalculator = bundleStartTimeCalculator;
+
+        sequence       = System.currentTimeMillis() * 1000;
+        oldestSequence = sequence;
+    }
+
+    public void start() {
+        context.addBundleListener(this);
+        context.addServiceListener(this);
+    }
+
+    public void stop() {
+        context.removeServiceListener(this);
+        context.removeBundleListener(this);
+    }
+
+    @Override
+    public synchronized void bundleChanged(final BundleEvent event) {
+        final long bundleId = event.getBundle().getBundleId();
+        final long current  = ++sequence;
+
+        if (event.getType() == UNINSTALLED) {
+            changes.remove(bundleId);
+            usages.remove(bundleId);
+            removals.put(bundleId, current);
+            if (removals.size() > MAX_REMOVALS) {
+                // the supervisors lagging behind the discarded removals require a complete delta
+                final Iterator<Entry<Long, Long>> it = removals.entrySet().iterator();
+                oldestSequence = it.next().getValue();
+                it.remove();
+            }
+            return;
+        }
+        changes.put(bundleId, current);
+        if (event.getType() == RESOLVED) {
+            // the providers of the new wires now have an additional requirer
+            for (final long providerId : getProviders(event.getBundle())) {
+                changes.put(providerId, current);
+            }
+        }
+    }
+
+    @Override
+    public void serviceChanged(final ServiceEvent event) {
+        final int type = event.getType();
+        if (type != ServiceEvent.REGISTERED && type != ServiceEvent.UNREGISTERING) {
+            return;
+        }
+        final ServiceReference<?> reference = event.getServiceReference();
+        final Bundle              bundle    = reference.getBundle();
+        final Bundle[]            users     = type == ServiceEvent.UNREGISTERING ? reference.getUsingBundles() : null;
+        synchronized (this) {
+            final long current = ++sequence;
+            if (bundle != null) {
+                changes.put(bundle.getBundleId(), current);
+            }
+            if (users != null) {
+                for (final Bundle user : users) {
+                    changes.put(user.getBundleId(), current);
+                }
+            }
+        }
+    }
+
+    public XBundleDeltaDTO getDelta(final long since) {
+        final XBundleDeltaDTO delta = new XBundleDeltaDTO();
+        final Set<Long>       changedIds;
+
+        // the used services are looked up before taking the lock for the same reason as the DTOs
+        final Map<Long, Integer> currentUsages = getUsages();
+        synchronized (this) {
+            recordUsages(currentUsages);
+            delta.sequence = sequence;
+            delta.complete = since < oldestSequence || since > sequence;
+            if (delta.complete) {
+                changedIds    = null;
+                delta.removed = new ArrayList<>();
+            } else {
+                changedIds    = idsChangedAfter(changes, since);
+                delta.removed = new ArrayList<>(idsChangedAfter(removals, since));
+            }
+        }
+        // the DTOs are created without holding the lock as it blocks the framework
+        if (delta.complete) {
+            // @formatter:off
+            delta.changed = Stream.of(context.getBundles())
+                                  .map(b -> XBundleAdmin.toDTO(b, bundleStartTimeCalculator))
+                                  .collect(toList());
+            // @formatter:on
+            return delta;
+        }
+        delta.changed = new ArrayList<>();
+        for (final long bundleId : changedIds) {
+            final Bundle bundle = context.getBundle(bundleId);
+            if (bundle == null) {
+                // uninstalled in the meantime
+                delta.removed.add(bundleId);
+            } else {
+                delta.changed.add(XBundleAdmin.toDTO(bundle, bundleStartTimeCalculator));
+            }
+        }
+        return delta;
+    }
+
+    private Map<Long, Integer> getUsages() {
+        final Map<Long, Integer> fingerprints = new HashMap<>();
+        for (final Bundle bundle : context.getBundles()) {
+            final ServiceReference<?>[] references;
+            try {
+                references = bundle.getServicesInUse();
+            } catch (final IllegalStateException e) {
+                // uninstalled in the meantime
+                continue;
+            }
+            int fingerprint = 0;
+            if (references != null) {
+                for (final ServiceReference<?> reference : references) {
+                    // the order of the services in use is not specified
+                    fingerprint += reference.getProperty(SERVICE_ID).hashCode();
+                }
+                fingerprint = 31 * fingerprint + references.length;
+            }
+            fingerprints.put(bundle.getBundleId(), fingerprint);
+        }
+        return fingerprints;
+    }
+
+    private void recordUsages(final Map<Long, Integer> currentUsages) {
+        long current = -1;
+        for (final Entry<Long, Integer> entry : currentUsages.entrySet()) {
+            final Integer previous = usages.put(entry.getKey(), entry.getValue());
+            if (previous != null && !previous.equals(entry.getValue())) {
+                if (current == -1) {
+                    current = ++sequence;
+                }
+                changes.put(entry.getKey(), current);
+            }
+        }
+    }
+
+    private static Set<Long> idsChangedAfter(final Map<Long, Long> changes, final long since) {
+        final Set<Long> ids = new HashSet<>();
+        for (final Entry<Long, Long> entry : changes.entrySet()) {
+            if (entry.getValue() > since) {
+                ids.add(entry.getKey());
+            }
+        }
+        return ids;
+    }
+
+    private static Collection<Long> getProviders(final Bundle bundle) {
+        final BundleWiring wiring = bundle.adapt(BundleWiring.class);
+        if (wiring == null) {
+            return new ArrayList<>();
+        }
+        final List<BundleWire> wires = wiring.getRequiredWires(null);
+        if (wires == null) {
+            return new ArrayList<>();
+        }
+        // @formatter:off
+        return wires.stream()
+                    .map(w -> w.getProvider().getBundle().getBundleId())
+                    .collect(toList());
+        // @formatter:on
+    }
+
+}
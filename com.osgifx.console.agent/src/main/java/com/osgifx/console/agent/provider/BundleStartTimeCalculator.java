@@ -18,26 +18,63 @@ package com.osgifx.console.agent.provider;
 import static java.util.stream.Collectors.toList;
 import static org.osgi.framework.BundleEvent.STARTED;
 import static org.osgi.framework.BundleEvent.STARTING;
+import static org.osgi.framework.BundleEvent.STOPPING;
+import static org.osgi.framework.BundleEvent.UNINSTALLED;
 import static org.osgi.framework.Constants.SYSTEM_BUNDLE_ID;
 
 import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.HashMap;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.BundleEvent;
+import org.osgi.framework.InvalidSyntaxException;
+import org.osgi.framework.ServiceEvent;
+import org.osgi.framework.ServiceListener;
 import org.osgi.framework.SynchronousBundleListener;
 
+import com.osgifx.console.agent.dto.XBundleStartDTO;
+import com.osgifx.console.agent.dto.XBundleStartHistoryDTO;
+
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 
+/**
+ * Records the most recent starts of every bundle together with the statistics
+ * of all its observed starts.
+ * <p>
+ * The histories are stored per bundle such that the bundle events of different
+ * bundles never contend for the same lock. The services registered by SCR on
+ * behalf of a bundle (identified by the {@code component.name} property) are
+ * correlated with the current start of the bundle which yields the time it
+ * took until its DS components had been registered.
+ * <p>
+ * <b>Note that,</b> SCR does not signal when it has finished processing a
+ * bundle and hence, the correlation is an approximation. After the bundle has
+ * been started, a registration only counts towards the start if it follows the
+ * previous one (or the start) within {@value #DS_QUIET_PERIOD_IN_MILLIS} ms and
+ * happens within {@value #DS_ACTIVATION_CUTOFF_IN_MILLIS} ms after the start.
+ * Components which get satisfied later on, for example, due to a configuration
+ * or a service of another bundle, are therefore not attributed to the start.
+ */
 @Singleton
-public final class BundleStartTimeCalculator implements SynchronousBundleListener {
+public final class BundleStartTimeCalculator implements SynchronousBundleListener, ServiceListener {
+
+    public static final String HISTORY_SIZE_PROPERTY = "osgi.fx.agent.bundle.start.history.size";
+
+    private static final int    DEFAULT_HISTORY_SIZE           = 10;
+    private static final String COMPONENT_FILTER               = "(component.name=*)";
+    private static final long   DS_QUIET_PERIOD_IN_MILLIS      = 2_000;
+    private static final long   DS_ACTIVATION_CUTOFF_IN_MILLIS = 30_000;
 
     public static final class BundleStartDuration {
 
@@ -64,80 +101,240 @@ public final class BundleStartTimeCalculator implements SynchronousBundleListene
         }
     }
 
-    private final Map<Long, StartTime> bundleToStartTime = new HashMap<>();
-    private final Clock                clock             = Clock.systemUTC();
-    private final long                 ourBundleId;
+    private final Map<Long, StartHistory> bundleToStartHistory = new ConcurrentHashMap<>();
+    private final Clock                   clock                = Clock.systemUTC();
+    private final long                    ourBundleId;
+    private final int                     historySize;
 
     @Inject
     public BundleStartTimeCalculator(final BundleContext bundleContext) {
         ourBundleId = bundleContext.getBundle().getBundleId();
+        historySize = getHistorySize(bundleContext);
         bundleContext.addBundleListener(this);
+        try {
+            bundleContext.addServiceListener(this, COMPONENT_FILTER);
+        } catch (final InvalidSyntaxException e) {
+            // cannot happen as the filter is constant
+            throw new IllegalStateException(e);
+        }
     }
 
     @Override
     public void bundleChanged(final BundleEvent event) {
-        final Bundle bundle = event.getBundle();
+        final Bundle bundle   = event.getBundle();
+        final long   bundleId = bundle.getBundleId();
 
         // this bundle is already starting by the time this is invoked. We also can't
         // get proper timing from the framework bundle
-        if (bundle.getBundleId() == SYSTEM_BUNDLE_ID || bundle.getBundleId() == ourBundleId) {
+        if (bundleId == SYSTEM_BUNDLE_ID || bundleId == ourBundleId) {
             return;
         }
+        switch (event.getType()) {
+            case STARTING:
+                bundleToStartHistory
+                        .computeIfAbsent(bundleId, id -> new StartHistory(bundle.getSymbolicName(), historySize))
+                        .starting(clock.millis());
+                break;
+            case STARTED:
+                final StartHistory startedHistory = bundleToStartHistory.get(bundleId);
+                if (startedHistory != null) {
+                    startedHistory.started(clock.millis());
+                }
+                break;
+            case STOPPING:
+                final StartHistory stoppingHistory = bundleToStartHistory.get(bundleId);
+                if (stoppingHistory != null) {
+                    stoppingHistory.stopping();
+                }
+                break;
+            case UNINSTALLED:
+                bundleToStartHistory.remove(bundleId);
+                break;
+            default:
+                break;
+        }
+    }
 
-        synchronized (bundleToStartTime) {
-            switch (event.getType()) {
-                case STARTING:
-                    bundleToStartTime.put(bundle.getBundleId(),
-                            new StartTime(bundle.getSymbolicName(), clock.millis()));
-                    break;
-                case STARTED:
-                    final StartTime startTime = bundleToStartTime.get(bundle.getBundleId());
-                    if (startTime == null) {
-                        return;
-                    }
-                    startTime.started(clock.millis());
-                    break;
-                default:
-                    break;
-            }
+    @Override
+    public void serviceChanged(final ServiceEvent event) {
+        if (event.getType() != ServiceEvent.REGISTERED) {
+            return;
+        }
+        final Bundle bundle = event.getServiceReference().getBundle();
+        if (bundle == null) {
+            return;
+        }
+        final StartHistory history = bundleToStartHistory.get(bundle.getBundleId());
+        if (history != null) {
+            history.componentRegistered(clock.millis());
         }
     }
 
     public List<BundleStartDuration> getBundleStartDurations() {
-        synchronized (bundleToStartTime) {
-            return bundleToStartTime.values().stream().map(StartTime::toBundleStartDuration).collect(toList());
+        // @formatter:off
+        return bundleToStartHistory.values()
+                                   .stream()
+                                   .map(StartHistory::toBundleStartDuration)
+                                   .filter(Optional::isPresent)
+                                   .map(Optional::get)
+                                   .collect(toList());
+        // @formatter:on
+    }
+
+    public Optional<BundleStartDuration> getBundleStartDuration(final long bundleId) {
+        final StartHistory history = bundleToStartHistory.get(bundleId);
+        return history == null ? Optional.empty() : history.toBundleStartDuration();
+    }
+
+    /**
+     * Returns the start histories sorted by the slowest start in descending
+     * order
+     *
+     * @param limit the maximum number of histories or a non-positive number for
+     *            all histories
+     * @return the start histories
+     */
+    public List<XBundleStartHistoryDTO> getBundleStartHistories(final int limit) {
+        final List<XBundleStartHistoryDTO> histories = new ArrayList<>();
+        for (final Map.Entry<Long, StartHistory> entry : bundleToStartHistory.entrySet()) {
+            final XBundleStartHistoryDTO dto = entry.getValue().toDTO(entry.getKey());
+            if (dto.startCount > 0) {
+                histories.add(dto);
+            }
         }
+        histories.sort(Comparator.comparingLong((final XBundleStartHistoryDTO h) -> h.maxStartDurationInMillis)
+                .reversed());
+        return limit > 0 && histories.size() > limit ? new ArrayList<>(histories.subList(0, limit)) : histories;
     }
-    
-    public Optional<BundleStartDuration> getBundleStartDuration(long bundleId) {
-        return Optional.ofNullable(bundleToStartTime.get(bundleId)).map(StartTime::toBundleStartDuration);
+
+    private static int getHistorySize(final BundleContext bundleContext) {
+        final String size = bundleContext.getProperty(HISTORY_SIZE_PROPERTY);
+        if (size == null) {
+            return DEFAULT_HISTORY_SIZE;
+        }
+        try {
+            return Math.max(1, Integer.parseInt(size.trim()));
+        } catch (final NumberFormatException e) {
+            return DEFAULT_HISTORY_SIZE;
+        }
     }
 
     static class StartTime {
-        private final String bundleSymbolicName;
-        private final long   startingTimestamp;
-        private long         startedTimestamp;
+        private final long startingTimestamp;
+        private long       startedTimestamp          = -1;
+        private long       lastComponentRegistration = -1;
+        private int        registeredComponents;
 
-        public StartTime(final String bundleSymbolicName, final long startingTimestamp) {
-            this.bundleSymbolicName = bundleSymbolicName;
-            this.startingTimestamp  = startingTimestamp;
+        StartTime(final long startingTimestamp) {
+            this.startingTimestamp = startingTimestamp;
         }
 
-        public long getDuration() {
+        long getDuration() {
             return startedTimestamp - startingTimestamp;
         }
 
-        public String getBundleSymbolicName() {
-            return bundleSymbolicName;
+        boolean isActivating(final long timestamp) {
+            if (startedTimestamp == -1) {
+                return true;
+            }
+            // SCR has settled once the registrations pause for the quiet period
+            final long lastActivity = Math.max(startedTimestamp, lastComponentRegistration);
+            return timestamp - lastActivity <= DS_QUIET_PERIOD_IN_MILLIS
+                    && timestamp - startedTimestamp <= DS_ACTIVATION_CUTOFF_IN_MILLIS;
+        }
+
+        long getDsActivationDuration() {
+            if (lastComponentRegistration == -1) {
+                return -1;
+            }
+            // SCR might have registered the components before this listener received the STARTED event
+            final long activatedAt = startedTimestamp == -1 ? startingTimestamp : startedTimestamp;
+            return Math.max(0, lastComponentRegistration - activatedAt);
+        }
+
+        XBundleStartDTO toDTO() {
+            final XBundleStartDTO dto = new XBundleStartDTO();
+
+            dto.startedAt                    = startingTimestamp;
+            dto.startDurationInMillis        = getDuration();
+            dto.dsActivationDurationInMillis = getDsActivationDuration();
+            dto.registeredComponents         = registeredComponents;
+
+            return dto;
         }
+    }
+
+    static class StartHistory {
+        private final String           bundleSymbolicName;
+        private final int              maxSize;
+        private final Deque<StartTime> starts = new ArrayDeque<>();
+        private StartTime              current;
+        private long                   count;
+        private long                   min    = Long.MAX_VALUE;
+        private long                   max;
+        private long                   total;
 
-        public void started(final long startedTimestamp) {
-            this.startedTimestamp = startedTimestamp;
+        StartHistory(final String bundleSymbolicName, final int maxSize) {
+            this.bundleSymbolicName = bundleSymbolicName;
+            this.maxSize            = maxSize;
         }
 
-        public BundleStartDuration toBundleStartDuration() {
-            return new BundleStartDuration(bundleSymbolicName, Instant.ofEpochMilli(startingTimestamp),
-                                           Duration.ofMillis(getDuration()));
+        synchronized void starting(final long timestamp) {
+            current = new StartTime(timestamp);
+        }
+
+        synchronized void started(final long timestamp) {
+            if (current == null || current.startedTimestamp != -1) {
+                return;
+            }
+            current.startedTimestamp = timestamp;
+
+            final long duration = current.getDuration();
+            count++;
+            total += duration;
+            min    = Math.min(min, duration);
+            max    = Math.max(max, duration);
+
+            if (starts.size() == maxSize) {
+                starts.removeFirst();
+            }
+            starts.addLast(current);
+        }
+
+        synchronized void stopping() {
+            current = null;
+        }
+
+        synchronized void componentRegistered(final long timestamp) {
+            if (current != null && current.isActivating(timestamp)) {
+                current.lastComponentRegistration = timestamp;
+                current.registeredComponents++;
+            }
+        }
+
+        synchronized Optional<BundleStartDuration> toBundleStartDuration() {
+            final StartTime last = starts.peekLast();
+            if (last == null) {
+                return Optional.empty();
+            }
+            return Optional.of(new BundleStartDuration(bundleSymbolicName, Instant.ofEpochMilli(last.startingTimestamp),
+                                                       Duration.ofMillis(last.getDuration())));
+        }
+
+        synchronized XBundleStartHistoryDTO toDTO(final long bundleId) {
+            final XBundleStartHistoryDTO dto = new XBundleStartHistoryDTO();
+
+            dto.id                       = bundleId;
+            dto.symbolicName             = bundleSymbolicName;
+            dto.startCount               = count;
+            dto.minStartDurationInMillis = count == 0 ? 0 : min;
+            dto.avgStartDurationInMillis = count == 0 ? 0 : total / count;
+            dto.maxStartDurationInMillis = max;
+            dto.starts                   = new ArrayList<>(starts.size());
+
+            // the most recent start comes first
+            starts.descendingIterator().forEachRemaining(start -> dto.starts.add(start.toDTO()));
+            return dto;
         }
     }
-}
\ No newline at end of file
+}
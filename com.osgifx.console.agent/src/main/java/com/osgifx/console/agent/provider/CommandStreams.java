@@ -0,0 +1,309 @@
+/*******************************************************************************
+ * Copyright 2021-2023 Amit Kumar Mondal
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package com.osgifx.console.agent.provider;
+
+import static com.osgifx.console.agent.dto.XResultDTO.ERROR;
+import static com.osgifx.console.agent.dto.XResultDTO.SUCCESS;
+import static com.osgifx.console.agent.helper.AgentHelper.createResult;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.io.Closeable;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Supplier;
+
+import com.j256.simplelogging.FluentLogger;
+import com.j256.simplelogging.LoggerFactory;
+import com.osgifx.console.agent.dto.XCommandResultDTO;
+import com.osgifx.console.agent.dto.XResultDTO;
+import com.osgifx.console.agent.helper.ThreadFactoryBuilder;
+import com.osgifx.console.supervisor.Supervisor;
+
+/**
+ * Executes the commands whose output is streamed to the supervisor. Every
+ * execution runs on its own thread and its output is buffered until either a
+ * chunk is complete or the flush interval has elapsed, so that a chatty command
+ * does not issue a remote call per line. The output beyond the byte limit of an
+ * execution is discarded and the execution gets stopped.
+ */
+final class CommandStreams implements Closeable {
+
+    /**
+     * Executes a command which writes its output to the specified execution
+     */
+    @FunctionalInterface
+    interface CommandTask {
+        int execute(CommandExecution execution) throws Exception;
+    }
+
+    static final int NO_EXIT_CODE = -1;
+
+    private static final long DEFAULT_MAX_BYTES = 8L * 1024 * 1024;
+    private static final int  CHUNK_SIZE        = 16 * 1024;
+    private static final long FLUSH_INTERVAL    = 200;
+
+    private final Supplier<Supervisor>        supervisor;
+    private final Map<Long, CommandExecution> executions = new ConcurrentHashMap<>();
+    private final FluentLogger                logger     = LoggerFactory.getFluentLogger(getClass());
+    private ExecutorService                   workers;
+    private ScheduledExecutorService          flusher;
+
+    CommandStreams(final Supplier<Supervisor> supervisor) {
+        this.supervisor = supervisor;
+    }
+
+    XResultDTO execute(final long id, final long maxBytes, final CommandTask task) {
+        final CommandExecution execution = new CommandExecution(id, maxBytes > 0 ? maxBytes : DEFAULT_MAX_BYTES);
+        if (executions.putIfAbsent(id, execution) != null) {
+            return createResult(ERROR, "Command execution '" + id + "' is already running");
+        }
+        try {
+            workers().execute(() -> run(execution, task));
+        } catch (final RejectedExecutionException e) {
+            executions.remove(id);
+            return createResult(ERROR, "Command execution '" + id + "' cannot be started as the agent is closing");
+        }
+        return createResult(SUCCESS, "Command execution '" + id + "' has been started");
+    }
+
+    boolean cancel(final long id) {
+        final CommandExecution execution = executions.get(id);
+        if (execution == null) {
+            return false;
+        }
+        execution.cancel();
+        return true;
+    }
+
+    @Override
+    public synchronized void close() {
+        executions.values().forEach(CommandExecution::cancel);
+        if (workers != null) {
+            workers.shutdownNow();
+            flusher.shutdownNow();
+        }
+    }
+
+    private synchronized ExecutorService workers() {
+        if (workers == null) {
+            // @formatter:off
+            workers = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+                                                        .setThreadFactoryName("osgifx-agent-command")
+                                                        .setThreadNameFormat("-%d")
+                                                        .setDaemon(true)
+                                                        .build());
+            flusher = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                                                        .setThreadFactoryName("osgifx-agent-command")
+                                                        .setThreadNameFormat("-flush-%d")
+                                                        .setDaemon(true)
+                                                        .build());
+            // @formatter:on
+            flusher.scheduleWithFixedDelay(() -> executions.values().forEach(CommandExecution::flushPending),
+                    FLUSH_INTERVAL, FLUSH_INTERVAL, MILLISECONDS);
+        }
+        return workers;
+    }
+
+    private void run(final CommandExecution execution, final CommandTask task) {
+        int    exitCode = NO_EXIT_CODE;
+        String error    = null;
+        try {
+            exitCode = task.execute(execution);
+        } catch (final InterruptedException e) {
+            error = "Command execution has been interrupted";
+        } catch (final Exception e) {
+            logger.atWarn().msg("[OSGi.fx] Command execution '{}' failed").arg(execution.id).throwable(e).log();
+            error = e.toString();
+        } finally {
+            execution.finish();
+            executions.remove(execution.id);
+        }
+        final XCommandResultDTO result = execution.complete(exitCode, error);
+        final Supervisor        remote = supervisor.get();
+        if (remote == null) {
+            return;
+        }
+        try {
+            remote.onCommandCompleted(result);
+        } catch (final Exception e) {
+            logger.atError().msg("[OSGi.fx] Cannot push the completion of command execution '{}'").arg(execution.id)
+                    .throwable(e).log();
+        }
+    }
+
+    /**
+     * The output of a single command execution which additionally keeps track of
+     * the actions to stop the command
+     */
+    final class CommandExecution extends OutputStream {
+
+        private final long           id;
+        private final long           maxBytes;
+        private final ByteBuffer     pending  = ByteBuffer.allocate(CHUNK_SIZE);
+        private final List<Runnable> stoppers = new ArrayList<>();
+        private final CharsetDecoder decoder  = Charset.defaultCharset().newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+        private long             bytes;
+        private long             chunks;
+        private boolean          truncated;
+        private boolean          completed;
+        private boolean          stopped;
+        private volatile boolean cancelled;
+
+        private CommandExecution(final long id, final long maxBytes) {
+            this.id       = id;
+            this.maxBytes = maxBytes;
+        }
+
+        /**
+         * Registers the action to stop the command
+         *
+         * @param stopper the action to stop the command
+         * @return {@code false} if the execution has already been stopped and the
+         *         command must not be started at all, otherwise {@code true}
+         */
+        boolean onStop(final Runnable stopper) {
+            synchronized (stoppers) {
+                if (stopped) {
+                    return false;
+                }
+                stoppers.add(stopper);
+                return true;
+            }
+        }
+
+        @Override
+        public void write(final int b) {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+            synchronized (this) {
+                if (truncated || completed) {
+                    return;
+                }
+                final int accepted = (int) Math.min(len, maxBytes - bytes);
+                bytes += accepted;
+
+                int offset    = off;
+                int remaining = accepted;
+                while (remaining > 0) {
+                    final int n = Math.min(remaining, pending.remaining());
+                    pending.put(b, offset, n);
+                    offset    += n;
+                    remaining -= n;
+                    if (!pending.hasRemaining()) {
+                        push(false);
+                    }
+                }
+                if (accepted == len) {
+                    return;
+                }
+                truncated = true;
+            }
+            logger.atInfo().msg("[OSGi.fx] Command execution '{}' exceeded {} output bytes").arg(id).arg(maxBytes)
+                    .log();
+            stop();
+        }
+
+        synchronized void flushPending() {
+            if (!completed && pending.position() > 0) {
+                push(false);
+            }
+        }
+
+        private void cancel() {
+            cancelled = true;
+            stop();
+        }
+
+        private void stop() {
+            synchronized (stoppers) {
+                if (stopped) {
+                    return;
+                }
+                stopped = true;
+                stoppers.forEach(Runnable::run);
+            }
+        }
+
+        private void finish() {
+            synchronized (stoppers) {
+                stopped = true;
+            }
+            // a stopper might have interrupted the worker which is reused afterwards
+            Thread.interrupted();
+        }
+
+        private synchronized XCommandResultDTO complete(final int exitCode, final String error) {
+            push(true);
+            completed = true;
+
+            final XCommandResultDTO result = new XCommandResultDTO();
+
+            result.id        = id;
+            result.exitCode  = exitCode;
+            result.bytes     = bytes;
+            result.chunks    = chunks;
+            result.truncated = truncated;
+            result.cancelled = cancelled;
+            result.error     = error;
+
+            return result;
+        }
+
+        private void push(final boolean endOfInput) {
+            pending.flip();
+            final CharBuffer chars = CharBuffer.allocate((int) (pending.remaining() * decoder.maxCharsPerByte()) + 1);
+            decoder.decode(pending, chars, endOfInput);
+            if (endOfInput) {
+                decoder.flush(chars);
+            }
+            // keeps the bytes of an incomplete character for the next chunk
+            pending.compact();
+            chars.flip();
+            if (!chars.hasRemaining()) {
+                return;
+            }
+            final Supervisor remote = supervisor.get();
+            try {
+                if (remote == null) {
+                    throw new IllegalStateException("Supervisor is not connected");
+                }
+                remote.onCommandOutput(id, chunks++, chars.toString());
+            } catch (final Exception e) {
+                logger.atError().msg("[OSGi.fx] Cannot push the output of command execution '{}'").arg(id)
+                        .throwable(e).log();
+                stop();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,73 @@
+/*******************************************************************************
+ * Copyright 2021-2023 Amit Kumar Mondal
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package com.osgifx.console.agent.redirector;
+
+import java.io.Closeable;
+
+import com.j256.simplelogging.FluentLogger;
+import com.j256.simplelogging.LoggerFactory;
+import com.osgifx.console.agent.helper.ThreadFactoryBuilder;
+import com.osgifx.console.agent.rpc.CoalescingBuffer;
+import com.osgifx.console.agent.rpc.CoalescingBuffer.Sink;
+
+/**
+ * Coalesces the text appended in quick succession and hands it over to the
+ * sink on a dedicated thread, so that the appending thread never waits for a
+ * remote call.
+ *
+ * @see CoalescingBuffer
+ */
+final class CoalescingSender implements Closeable {
+
+    private static final long CLOSE_TIMEOUT_IN_MILLIS = 500;
+
+    private final Thread           sender;
+    private final CoalescingBuffer buffer;
+    private final FluentLogger     logger = LoggerFactory.getFluentLogger(getClass());
+
+    CoalescingSender(final String name, final Sink sink, final long flushDelayMillis, final int maxSize) {
+        buffer = new CoalescingBuffer(flushDelayMillis, maxSize);
+
+        // @formatter:off
+        sender = new ThreadFactoryBuilder()
+                        .setThreadFactoryName("osgifx-agent-" + name)
+                        .setThreadNameFormat("-send-%d")
+                        .setDaemon(true)
+                        .build()
+                        .newThread(() -> buffer.drainTo(sink, this::logFailure));
+        // @formatter:on
+        sender.start();
+    }
+
+    void append(final CharSequence text) {
+        buffer.append(text);
+    }
+
+    @Override
+    public void close() {
+        buffer.close();
+        try {
+            sender.join(CLOSE_TIMEOUT_IN_MILLIS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void logFailure(final Exception e) {
+        logger.atError().msg("[OSGi.fx] Cannot send the redirected output").throwable(e).log();
+    }
+
+}
@@ -15,6 +15,7 @@
  ******************************************************************************/
 package com.osgifx.console.agent.redirector;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.lang.reflect.Method;
@@ -24,6 +25,7 @@ import java.util.List;
 
 import org.apache.felix.service.command.CommandProcessor;
 import org.apache.felix.service.command.CommandSession;
+import org.apache.felix.service.command.Converter;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.ServiceReference;
 import org.osgi.util.tracker.ServiceTracker;
@@ -102,6 +104,34 @@ public final class GogoRedirector implements Redirector {
         stdin.open(session);
     }
 
+    /**
+     * Executes the command in a dedicated session which writes its output to the
+     * specified stream instead of the redirected output
+     *
+     * @param command the command to execute
+     * @param out the stream to write the output to
+     * @throws Exception if the command fails
+     */
+    public void execute(final String command, final PrintStream out) throws Exception {
+        final CommandProcessor commandProcessor;
+        synchronized (this) {
+            commandProcessor = processor;
+        }
+        if (commandProcessor == null) {
+            throw new IllegalStateException("Gogo command processor is not available");
+        }
+        final CommandSession commandSession = commandProcessor.createSession(new ByteArrayInputStream(new byte[0]),
+                out, out);
+        try {
+            final Object result = commandSession.execute(command);
+            if (result != null) {
+                out.println(commandSession.format(result, Converter.INSPECT));
+            }
+        } finally {
+            commandSession.close();
+        }
+    }
+
     /*
      * Create a proxy on a class. This is to prevent class cast exceptions. We get
      * our Gogo likely from another class loader since the agent can reside on the
@@ -38,10 +38,16 @@ public final class SocketRedirector implements Redirector {
     // is the first byte that then is followed by some commands.
     private static final int IAC = 255;
 
-    private Socket           socket;
-    private PrintStream      in;
-    private Thread           out;
-    private volatile boolean quit;
+    // The output is pushed to the supervisor in batches of at most this many
+    // characters, at the latest after the flush delay
+    private static final int  MAX_BATCH_SIZE     = 8192;
+    private static final long FLUSH_DELAY_MILLIS = 20;
+
+    private Socket                 socket;
+    private PrintStream            in;
+    private Thread                 out;
+    private final CoalescingSender stdout;
+    private volatile boolean       quit;
 
     /**
      * Constructor
@@ -50,6 +56,8 @@ public final class SocketRedirector implements Redirector {
      * @param port the shell port
      */
     public SocketRedirector(final AgentServer agentServer, final int port) throws Exception {
+        stdout = new CoalescingSender("shell", text -> agentServer.getSupervisor().stdout(text), FLUSH_DELAY_MILLIS,
+                                      MAX_BATCH_SIZE);
         // We need a thread to read any output from the shell processor
         // which is then forwarded to the supervisor
         out = new Thread() {
@@ -71,8 +79,11 @@ public final class SocketRedirector implements Redirector {
                     final byte[] buffer = new byte[1000];
                     while (!isInterrupted() && !quit) {
                         try {
-                            final int           size = out.read(buffer);
-                            final StringBuilder sb   = new StringBuilder();
+                            final int size = out.read(buffer);
+                            if (size < 0) {
+                                break;
+                            }
+                            final StringBuilder sb = new StringBuilder(size);
                             for (int i = 0; i < size; i++) {
                                 int b = 0xFF & buffer[i];
 
@@ -91,9 +102,7 @@ public final class SocketRedirector implements Redirector {
                                     sb.append((char) b);
                                 }
                             }
-                            if (sb.length() > 0) {
-                                agentServer.getSupervisor().stdout(sb.toString());
-                            }
+                            stdout.append(sb);
                         } catch (final Exception e) {
                             break;
                         }
@@ -155,6 +164,7 @@ public final class SocketRedirector implements Redirector {
         } catch (final InterruptedException e) {
             Thread.currentThread().interrupt();
         }
+        stdout.close();
     }
 
     @Override
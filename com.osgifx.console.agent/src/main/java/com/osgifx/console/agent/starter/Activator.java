@@ -19,8 +19,11 @@ import static com.osgifx.console.agent.Agent.AGENT_MQTT_PROVIDER_DEFAULT_VALUE;
 import static com.osgifx.console.agent.Agent.AGENT_MQTT_PROVIDER_KEY;
 import static com.osgifx.console.agent.Agent.AGENT_MQTT_PUB_TOPIC_KEY;
 import static com.osgifx.console.agent.Agent.AGENT_MQTT_SUB_TOPIC_KEY;
+import static com.osgifx.console.agent.Agent.AGENT_SOCKET_IDLE_TIMEOUT_KEY;
+import static com.osgifx.console.agent.Agent.AGENT_SOCKET_MAX_SESSIONS_KEY;
 import static com.osgifx.console.agent.provider.AgentServer.RpcType.MQTT_RPC;
 import static com.osgifx.console.agent.provider.AgentServer.RpcType.SOCKET_RPC;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.osgi.framework.Constants.BUNDLE_ACTIVATOR;
 
@@ -31,7 +34,9 @@ import java.net.SocketException;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 
@@ -42,9 +47,11 @@ import org.osgi.framework.BundleContext;
 import com.j256.simplelogging.FluentLogger;
 import com.j256.simplelogging.LoggerFactory;
 import com.osgifx.console.agent.Agent;
+import com.osgifx.console.agent.admin.XHeapAdmin;
 import com.osgifx.console.agent.di.module.DIModule;
 import com.osgifx.console.agent.helper.ThreadFactoryBuilder;
 import com.osgifx.console.agent.provider.AgentServer;
+import com.osgifx.console.agent.provider.BundleChangeTracker;
 import com.osgifx.console.agent.provider.ClassloaderLeakDetector;
 import com.osgifx.console.agent.provider.PackageWirings;
 import com.osgifx.console.agent.rpc.RemoteRPC;
@@ -71,32 +78,56 @@ public final class Activator extends Thread implements BundleActivator {
     private static final String RPC_POOL_THREAD_NAME_SUFFIX         = "-%d";
     private static final String RPC_POOL_THREAD_NAME_PREFIX         = "osgifx-agent";
 
+    private static final int DEFAULT_MAX_SESSIONS            = 8;
+    private static final int DEFAULT_IDLE_TIMEOUT_IN_SECONDS = 300;
+    private static final int MAX_REAPER_PERIOD_IN_SECONDS    = 30;
+
     // @formatter:off
     private static final ThreadFactory THREAD_FACTORY = new ThreadFactoryBuilder()
                                                               .setThreadFactoryName(RPC_POOL_THREAD_NAME_PREFIX)
                                                               .setThreadNameFormat(RPC_POOL_THREAD_NAME_SUFFIX)
                                                               .setDaemon(true)
                                                               .build();
+
+    private static final ThreadFactory REAPER_THREAD_FACTORY = new ThreadFactoryBuilder()
+                                                                     .setThreadFactoryName(RPC_POOL_THREAD_NAME_PREFIX)
+                                                                     .setThreadNameFormat("-session-reaper-%d")
+                                                                     .setDaemon(true)
+                                                                     .build();
     // @formatter:on
 
-    private DIModule                module;
-    private ServerSocket            serverSocket;
-    private final FluentLogger      logger = LoggerFactory.getFluentLogger(getClass());
-    private final List<AgentServer> agents = new CopyOnWriteArrayList<>();
+    private DIModule                                 module;
+    private ServerSocket                             serverSocket;
+    private int                                      maxSessions;
+    private long                                     idleTimeout;
+    private ScheduledExecutorService                 reaper;
+    private final FluentLogger                       logger   = LoggerFactory.getFluentLogger(getClass());
+    private final List<AgentServer>                  agents   = new CopyOnWriteArrayList<>();
+    private final List<SocketRPC<Agent, Supervisor>> sessions = new CopyOnWriteArrayList<>();
 
     @Override
     public void start(final BundleContext bundleContext) throws Exception {
         module = new DIModule(bundleContext);
         module.di().getInstance(ClassloaderLeakDetector.class).start();
+        module.di().getInstance(BundleChangeTracker.class).start();
 
         try {
             final SocketContext socketContext = new SocketContext(bundleContext);
             serverSocket = socketContext.getSocket();
+            maxSessions  = getProperty(bundleContext, AGENT_SOCKET_MAX_SESSIONS_KEY, DEFAULT_MAX_SESSIONS);
+            idleTimeout  = SECONDS.toNanos(getProperty(bundleContext, AGENT_SOCKET_IDLE_TIMEOUT_KEY,
+                    DEFAULT_IDLE_TIMEOUT_IN_SECONDS));
+            if (idleTimeout > 0) {
+                final long period = Math.min(NANOSECONDS.toSeconds(idleTimeout), MAX_REAPER_PERIOD_IN_SECONDS);
+                reaper = Executors.newSingleThreadScheduledExecutor(REAPER_THREAD_FACTORY);
+                reaper.scheduleWithFixedDelay(this::closeIdleSessions, period, period, SECONDS);
+            }
             start();
 
             logger.atInfo().msg("[OSGi.fx] Socket agent configured").log();
             logger.atInfo().msg("[OSGi.fx] Host: {}").arg(socketContext.host()).log();
             logger.atInfo().msg("[OSGi.fx] Port: {}").arg(socketContext.port()).log();
+            logger.atInfo().msg("[OSGi.fx] Maximum sessions: {}").arg(maxSessions).log();
         } catch (final IllegalArgumentException e) {
             logger.atInfo().msg("[OSGi.fx] Socket agent not configured").log();
         }
@@ -142,7 +173,6 @@ public final class Activator extends Thread implements BundleActivator {
 
         module.bindInstance(AgentServer.class, agentServer);
         module.bindInstance(RemoteRPC.class, mqttRPC);
-        module.bindInstance(Supervisor.class, mqttRPC.getRemote());
 
         mqttRPC.open();
         agentServer.setEndpoint(mqttRPC);
@@ -158,10 +188,16 @@ public final class Activator extends Thread implements BundleActivator {
             while (!isInterrupted()) {
                 try {
                     final Socket socket = serverSocket.accept();
+                    if (sessions.size() >= maxSessions) {
+                        logger.atWarn().msg("[OSGi.fx] Rejecting connection from {} as {} sessions are already open")
+                                .arg(socket.getRemoteSocketAddress()).arg(sessions.size()).log();
+                        IO.close(socket);
+                        continue;
+                    }
                     // timeout to get interrupts
                     socket.setSoTimeout(1000);
 
-                    // create a new agent, and link it up.
+                    // create a new agent for every session, and link it up.
                     final AgentServer agentServer = new AgentServer(module.di(), SOCKET_RPC);
                     agents.add(agentServer);
 
@@ -172,15 +208,23 @@ public final class Activator extends Thread implements BundleActivator {
                                                                      @Override
                                                                      public void close() throws IOException {
                                                                          agents.remove(agentServer);
+                                                                         sessions.remove(this);
                                                                          super.close();
                                                                      }
                                                                  };
-                    module.bindInstance(AgentServer.class, agentServer);
-                    module.bindInstance(RemoteRPC.class, socketRPC);
-                    module.bindInstance(Supervisor.class, socketRPC.getRemote());
+                    sessions.add(socketRPC);
+                    try {
+                        agentServer.setEndpoint(socketRPC);
+                        // every session reads its requests in its own thread to not block further connections
+                        socketRPC.open();
+                    } catch (final Exception e) {
+                        // releases the session slot, the agent, the socket and the executor of the session
+                        IO.close(socketRPC);
+                        throw e;
+                    }
 
-                    agentServer.setEndpoint(socketRPC);
-                    socketRPC.run();
+                    logger.atInfo().msg("[OSGi.fx] Session opened for {} ({} open)")
+                            .arg(socket.getRemoteSocketAddress()).arg(sessions.size()).log();
                 } catch (final SocketException e) {
                     if (!isInterrupted()) {
                         logger.atWarn().msg("[OSGi.fx] Accepting agent requests").throwable(e).log();
@@ -199,15 +243,46 @@ public final class Activator extends Thread implements BundleActivator {
         }
     }
 
+    private void closeIdleSessions() {
+        final long now = System.nanoTime();
+        for (final SocketRPC<Agent, Supervisor> session : sessions) {
+            if (now - session.getLastActivity() > idleTimeout) {
+                logger.atInfo().msg("[OSGi.fx] Closing session idle for more than {} seconds")
+                        .arg(NANOSECONDS.toSeconds(idleTimeout)).log();
+                IO.close(session);
+            }
+        }
+    }
+
     @Override
     public void stop(final BundleContext context) throws Exception {
         interrupt();
         IO.close(serverSocket);
+        if (reaper != null) {
+            reaper.shutdownNow();
+        }
+        sessions.forEach(IO::close);
         agents.forEach(IO::close);
         module.di().getInstance(ClassloaderLeakDetector.class).stop();
+        module.di().getInstance(BundleChangeTracker.class).stop();
+        if (module.di().getInstance(PackageWirings.class).isJmxWired()) {
+            module.di().getInstance(XHeapAdmin.class).stop();
+        }
         module.stop();
     }
 
+    private static int getProperty(final BundleContext bundleContext, final String key, final int defaultValue) {
+        final String value = bundleContext.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (final NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
     public static ExecutorService newFixedThreadPool() {
         final ThreadPoolExecutor executor = new ThreadPoolExecutor(RPC_POOL_CORE_THREADS_SIZE,
                                                                    RPC_POOL_MAX_THREADS_SIZE,
@@ -55,6 +55,15 @@ public interface DataProvider {
      */
     void retrieveInfo(String id, boolean isAsync);
 
+    /**
+     * Sets the informations shown by the visible view such that they are
+     * retrieved before all the other informations
+     *
+     * @param ids the identifiers of the informations or none if the visible view
+     *            does not show any of them
+     */
+    void setVisibleInfo(String... ids);
+
     /**
      * Returns the observable list of bundles
      *
@@ -169,6 +178,19 @@ public interface DataProvider {
      */
     CompletableFuture<XDmtNodeDTO> readDmtNode(String rootURI);
 
+    /**
+     * Returns the DMT node information of the specified node together with its
+     * descendants up to the specified depth
+     *
+     * @param rootURI the URI of the node
+     * @param depth the number of levels of descendants to read
+     * @param offset the number of children of the node to skip
+     * @param limit the maximum number of children of the node to read
+     * @return the DMT node information
+     * @see com.osgifx.console.agent.Agent#readDmtNode(String, int, int, int)
+     */
+    CompletableFuture<XDmtNodeDTO> readDmtNode(String rootURI, int depth, int offset, int limit);
+
     /**
      * Returns the runtime DTOs together
      *
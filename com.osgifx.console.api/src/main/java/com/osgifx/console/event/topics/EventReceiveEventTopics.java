@@ -21,7 +21,8 @@ public final class EventReceiveEventTopics {
         throw new IllegalAccessError("Cannot be instantiated");
     }
 
-    public static final String CLEAR_EVENTS_TOPIC = "com/osgifx/clear/events";
+    public static final String CLEAR_EVENTS_TOPIC        = "com/osgifx/clear/events";
+    public static final String LOAD_EVENTS_HISTORY_TOPIC = "com/osgifx/load/events/history";
 
     public static final String EVENT_RECEIVE_EVENT_TOPIC_PREFIX  = "osgi/fx/event/receive/";
     public static final String EVENT_RECEIVE_EVENT_TOPICS        = EVENT_RECEIVE_EVENT_TOPIC_PREFIX + "*";
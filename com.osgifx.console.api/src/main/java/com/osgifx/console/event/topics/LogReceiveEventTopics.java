@@ -21,7 +21,8 @@ public final class LogReceiveEventTopics {
         throw new IllegalAccessError("Cannot be instantiated");
     }
 
-    public static final String CLEAR_LOGS_TOPIC = "com/osgifx/clear/logs";
+    public static final String CLEAR_LOGS_TOPIC        = "com/osgifx/clear/logs";
+    public static final String LOAD_LOGS_HISTORY_TOPIC = "com/osgifx/load/logs/history";
 
     public static final String LOG_RECEIVE_EVENT_TOPIC_PREFIX  = "osgi/fx/log/receive/";
     public static final String LOG_RECEIVE_EVENT_TOPICS        = LOG_RECEIVE_EVENT_TOPIC_PREFIX + "*";
@@ -29,6 +29,7 @@ import org.osgi.annotation.bundle.Header;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.FrameworkUtil;
 
+import com.osgifx.console.application.profiler.StartupProfiler;
 import com.osgifx.console.application.ui.ConsoleMaskerPaneProvider;
 import com.osgifx.console.application.ui.ConsoleStatusBarProvider;
 import com.osgifx.console.ui.ConsoleMaskerPane;
@@ -39,12 +40,16 @@ public final class FxStarter extends DependencyActivatorBase {
 
     @Override
     public void init(final BundleContext context, final DependencyManager manager) throws Exception {
+        // started as early as possible to observe the start of the rest of the console bundles
+        final var profiler = new StartupProfiler(context);
+        profiler.start();
+
         // @formatter:off
         manager.add(createComponent()
                       .setInterface(
                               StartupProgressTrackerService.class,
                               FrameworkUtil.asDictionary(Map.of(SERVICE_RANKING, 100)))
-                      .setImplementation(FxStartupTracker.class)
+                      .setImplementation(new FxStartupTracker(context, profiler))
                       .setCallbacks("init", null, null, null)
                .add(createServiceDependency()
                       .setService(LoggerFactory.class)
@@ -23,15 +23,40 @@ import static org.eclipse.fx.ui.services.startup.StartupProgressTrackerService.D
 import static org.eclipse.fx.ui.services.startup.StartupProgressTrackerService.DefaultProgressState.WORKBENCH_GUI_SHOWING;
 import static org.eclipse.fx.ui.services.startup.StartupProgressTrackerService.DefaultProgressState.WORKBENCH_GUI_SHOWN;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+
 import org.eclipse.fx.core.app.ApplicationContext;
 import org.eclipse.fx.core.log.FluentLogger;
 import org.eclipse.fx.core.log.LoggerFactory;
 import org.eclipse.fx.ui.services.startup.StartupProgressTrackerService;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleException;
+
+import com.osgifx.console.application.profiler.StartupProfileDTO;
+import com.osgifx.console.application.profiler.StartupProfileExporter;
+import com.osgifx.console.application.profiler.StartupProfiler;
 
 public final class FxStartupTracker implements StartupProgressTrackerService {
 
-    private LoggerFactory factory;
-    private FluentLogger  logger;
+    /** the directory to export the startup profile to, defaults to the log directory */
+    public static final String PROFILE_DIRECTORY_PROPERTY = "osgifx.startup.profile.dir";
+    /** shuts the console down as soon as the startup profile has been exported (used in CI) */
+    public static final String PROFILE_EXIT_PROPERTY      = "osgifx.startup.profile.exit";
+
+    private static final String LOG_FILE_LOCATION_PROPERTY = "org.apache.sling.commons.log.file";
+
+    private final BundleContext   context;
+    private final StartupProfiler profiler;
+    private LoggerFactory         factory;
+    private FluentLogger          logger;
+
+    public FxStartupTracker(final BundleContext context, final StartupProfiler profiler) {
+        this.context  = context;
+        this.profiler = profiler;
+    }
 
     public void init() {
         logger = FluentLogger.of(factory.createLogger(getClass().getName()));
@@ -44,6 +69,7 @@ public final class FxStartupTracker implements StartupProgressTrackerService {
 
     @Override
     public void stateReached(final ProgressState state) {
+        profiler.phaseReached(String.valueOf(state));
         if (state == JAVAFX_INITIALIZED) {
             logger.atInfo().log(
                     "[StartUp] The JavaFX subsystem has been initialized. This state reached on JavaFX event thread");
@@ -63,10 +89,48 @@ public final class FxStartupTracker implements StartupProgressTrackerService {
         }
         if (state == WORKBENCH_GUI_SHOWN) {
             logger.atInfo().log("[StartUp] The workbench UI is shown");
+            profiler.complete().ifPresent(profile -> CompletableFuture.runAsync(() -> export(profile)));
         }
         if (state == LOCATION_CHECK_FAILED) {
             logger.atInfo().log("[StartUp] State reached when check for workspace could not be locked");
         }
     }
 
+    private void export(final StartupProfileDTO profile) {
+        logger.atInfo().log("[StartUp] First frame shown %d ms after JVM start (framework started after %d ms)",
+                profile.firstFrameShown, profile.frameworkStarted);
+        final var directory = getProfileDirectory();
+        if (directory == null) {
+            logger.atWarning().log("[StartUp] Startup profile cannot be exported as no directory is configured");
+        } else {
+            try {
+                final var report = StartupProfileExporter.export(profile, directory);
+                logger.atInfo().log("[StartUp] Startup profile has been exported to '%s'", report);
+            } catch (final IOException e) {
+                logger.atError().withException(e).log("[StartUp] Startup profile cannot be exported");
+            }
+        }
+        if (Boolean.parseBoolean(context.getProperty(PROFILE_EXIT_PROPERTY))) {
+            try {
+                logger.atInfo().log("[StartUp] Shutting down as the startup profile has been exported");
+                context.getBundle(0).stop();
+            } catch (final BundleException e) {
+                logger.atError().withException(e).log("[StartUp] Framework cannot be stopped");
+            }
+        }
+    }
+
+    private Path getProfileDirectory() {
+        final var directory = context.getProperty(PROFILE_DIRECTORY_PROPERTY);
+        if (directory != null) {
+            return Path.of(directory);
+        }
+        final var logFile = context.getProperty(LOG_FILE_LOCATION_PROPERTY);
+        if (logFile == null) {
+            return null;
+        }
+        final var logDirectory = new File(logFile).getParentFile();
+        return logDirectory == null ? null : logDirectory.toPath();
+    }
+
 }
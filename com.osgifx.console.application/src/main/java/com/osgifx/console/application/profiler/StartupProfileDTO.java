@@ -0,0 +1,61 @@
+/*******************************************************************************
+ * Copyright 2021-2023 Amit Kumar Mondal
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package com.osgifx.console.application.profiler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class StartupProfileDTO {
+
+    /** epoch millis at which the JVM has been started, all offsets are relative to it */
+    public long                    jvmStartTime;
+    /** offset at which the profiler started recording */
+    public long                    profilerAttached;
+    /** offset at which the framework reported the completion of its start */
+    public long                    frameworkStarted = -1;
+    /** offset at which the first frame of the workbench has been shown */
+    public long                    firstFrameShown  = -1;
+    public List<PhaseDTO>          phases           = new ArrayList<>();
+    public List<BundleStartDTO>    bundles          = new ArrayList<>();
+    public List<ComponentStartDTO> components       = new ArrayList<>();
+    public List<EventDTO>          events           = new ArrayList<>();
+
+    public static final class PhaseDTO {
+        public String name;
+        public long   offset;
+    }
+
+    public static final class BundleStartDTO {
+        public long   id;
+        public String symbolicName;
+        public long   starting;
+        public long   started;
+        public long   duration;
+    }
+
+    public static final class ComponentStartDTO {
+        public String name;
+        public long   bundleId;
+        public long   offset;
+    }
+
+    public static final class EventDTO {
+        public long   offset;
+        public String type;
+        public String name;
+    }
+
+}
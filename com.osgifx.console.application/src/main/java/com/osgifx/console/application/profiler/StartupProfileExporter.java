@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Copyright 2021-2023 Amit Kumar Mondal
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package com.osgifx.console.application.profiler;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.google.gson.GsonBuilder;
+import com.osgifx.console.application.profiler.StartupProfileDTO.BundleStartDTO;
+
+/**
+ * Exports a recorded startup profile as JSON to be consumed by the CI and as a
+ * plain text timeline to be read by humans.
+ */
+public final class StartupProfileExporter {
+
+    public static final String JSON_REPORT     = "startup-profile.json";
+    public static final String TIMELINE_REPORT = "startup-profile.txt";
+
+    private static final int TIMELINE_WIDTH  = 60;
+    private static final int SLOWEST_BUNDLES = 25;
+
+    private StartupProfileExporter() {
+        throw new IllegalAccessError("Cannot be instantiated");
+    }
+
+    /**
+     * Writes the JSON report and the timeline to the specified directory
+     *
+     * @param profile the profile to export
+     * @param directory the directory to write the reports to
+     * @return the path of the JSON report
+     * @throws IOException if the reports cannot be written
+     */
+    public static Path export(final StartupProfileDTO profile, final Path directory) throws IOException {
+        Files.createDirectories(directory);
+
+        final var json = new GsonBuilder().setPrettyPrinting().create().toJson(profile);
+        final var path = directory.resolve(JSON_REPORT);
+        Files.writeString(path, json);
+        Files.writeString(directory.resolve(TIMELINE_REPORT), toTimeline(profile));
+        return path;
+    }
+
+    public static String toTimeline(final StartupProfileDTO profile) {
+        final var end      = Math.max(1, profile.firstFrameShown);
+        final var timeline = new StringBuilder();
+
+        timeline.append("OSGi.fx startup profile (offsets in ms relative to the JVM start)")
+                .append(System.lineSeparator());
+        timeline.append(System.lineSeparator());
+        appendOffset(timeline, profile.profilerAttached, "Profiler attached");
+        appendOffset(timeline, profile.frameworkStarted, "Framework started");
+        appendOffset(timeline, profile.firstFrameShown, "First frame shown");
+        timeline.append(System.lineSeparator());
+
+        timeline.append("Phases").append(System.lineSeparator());
+        for (final var phase : profile.phases) {
+            appendOffset(timeline, phase.offset, phase.name);
+        }
+        timeline.append(System.lineSeparator());
+
+        timeline.append("Slowest bundle starts").append(System.lineSeparator());
+        profile.bundles.stream().limit(SLOWEST_BUNDLES).forEach(bundle -> appendBar(timeline, bundle, end));
+        timeline.append(System.lineSeparator());
+
+        timeline.append("Events").append(System.lineSeparator());
+        for (final var event : profile.events) {
+            timeline.append(String.format("  %+8d  %-22s %s", event.offset, event.type, event.name))
+                    .append(System.lineSeparator());
+        }
+        return timeline.toString();
+    }
+
+    private static void appendOffset(final StringBuilder timeline, final long offset, final String label) {
+        if (offset >= 0) {
+            timeline.append(String.format("  %+8d  %s", offset, label)).append(System.lineSeparator());
+        }
+    }
+
+    private static void appendBar(final StringBuilder timeline, final BundleStartDTO bundle, final long end) {
+        final var from = (int) Math.min(TIMELINE_WIDTH - 1, bundle.starting * TIMELINE_WIDTH / end);
+        final var to   = (int) Math.min(TIMELINE_WIDTH, Math.max(from + 1, bundle.started * TIMELINE_WIDTH / end));
+        final var bar  = " ".repeat(from) + "#".repeat(to - from) + " ".repeat(TIMELINE_WIDTH - to);
+        timeline.append(String.format("  [%s] %+8d %6d ms  %s", bar, bundle.starting, bundle.duration,
+                bundle.symbolicName)).append(System.lineSeparator());
+    }
+
+}
@@ -0,0 +1,221 @@
+/*******************************************************************************
+ * Copyright 2021-2023 Amit Kumar Mondal
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package com.osgifx.console.application.profiler;
+
+import static org.osgi.service.component.ComponentConstants.COMPONENT_NAME;
+
+import java.lang.management.ManagementFactory;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleEvent;
+import org.osgi.framework.FrameworkEvent;
+import org.osgi.framework.FrameworkListener;
+import org.osgi.framework.InvalidSyntaxException;
+import org.osgi.framework.ServiceEvent;
+import org.osgi.framework.ServiceListener;
+import org.osgi.framework.SynchronousBundleListener;
+
+import com.osgifx.console.application.profiler.StartupProfileDTO.BundleStartDTO;
+import com.osgifx.console.application.profiler.StartupProfileDTO.ComponentStartDTO;
+import com.osgifx.console.application.profiler.StartupProfileDTO.EventDTO;
+import com.osgifx.console.application.profiler.StartupProfileDTO.PhaseDTO;
+
+/**
+ * Records the timestamps of the console startup from the activation of the
+ * application bundle until the first frame of the workbench has been shown.
+ * <p>
+ * Bundles that have been started before the application bundle are only
+ * listed as already active since their transitions cannot be observed
+ * anymore. DS components are recorded as soon as their services get
+ * registered.
+ */
+public final class StartupProfiler {
+
+    private static final String COMPONENT_FILTER = "(" + COMPONENT_NAME + "=*)";
+
+    private final BundleContext             context;
+    private final long                      jvmStartTime;
+    private final long                      attachedTime;
+    private final Queue<Event>              events    = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean             completed = new AtomicBoolean();
+    private final SynchronousBundleListener bundleListener;
+    private final FrameworkListener         frameworkListener;
+    private final ServiceListener           serviceListener;
+
+    private record Event(long time, String type, String name, long bundleId) {
+    }
+
+    public StartupProfiler(final BundleContext context) {
+        this.context      = context;
+        jvmStartTime      = ManagementFactory.getRuntimeMXBean().getStartTime();
+        attachedTime      = System.currentTimeMillis();
+        bundleListener    = this::bundleChanged;
+        frameworkListener = this::frameworkEvent;
+        serviceListener   = this::serviceChanged;
+    }
+
+    public void start() {
+        record(attachedTime, "PROFILER_ATTACHED", context.getBundle().getSymbolicName(), context.getBundle());
+        for (final Bundle bundle : context.getBundles()) {
+            if (bundle.getState() == Bundle.ACTIVE) {
+                record(attachedTime, "BUNDLE_ALREADY_ACTIVE", bundle.getSymbolicName(), bundle);
+            }
+        }
+        context.addBundleListener(bundleListener);
+        context.addFrameworkListener(frameworkListener);
+        try {
+            context.addServiceListener(serviceListener, COMPONENT_FILTER);
+        } catch (final InvalidSyntaxException e) {
+            // cannot happen as the filter is constant
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Records the specified startup phase
+     *
+     * @param phase the name of the phase
+     */
+    public void phaseReached(final String phase) {
+        record(System.currentTimeMillis(), "PHASE", phase, context.getBundle());
+    }
+
+    /**
+     * Records the first frame and stops recording any further event
+     *
+     * @return the recorded profile or an empty optional if the profile has
+     *         already been completed
+     */
+    public Optional<StartupProfileDTO> complete() {
+        if (!completed.compareAndSet(false, true)) {
+            return Optional.empty();
+        }
+        record(System.currentTimeMillis(), "FIRST_FRAME_SHOWN", "workbench", context.getBundle());
+        try {
+            context.removeBundleListener(bundleListener);
+            context.removeFrameworkListener(frameworkListener);
+            context.removeServiceListener(serviceListener);
+        } catch (final IllegalStateException e) {
+            // the bundle context is not valid anymore
+        }
+        return Optional.of(toDTO());
+    }
+
+    private void bundleChanged(final BundleEvent event) {
+        final var type = switch (event.getType()) {
+            case BundleEvent.STARTING -> "BUNDLE_STARTING";
+            case BundleEvent.STARTED -> "BUNDLE_STARTED";
+            default -> null;
+        };
+        if (type != null) {
+            final var bundle = event.getBundle();
+            record(System.currentTimeMillis(), type, bundle.getSymbolicName(), bundle);
+        }
+    }
+
+    private void frameworkEvent(final FrameworkEvent event) {
+        final var type = switch (event.getType()) {
+            case FrameworkEvent.STARTED -> "FRAMEWORK_STARTED";
+            case FrameworkEvent.STARTLEVEL_CHANGED -> "STARTLEVEL_CHANGED";
+            default -> null;
+        };
+        if (type != null) {
+            record(System.currentTimeMillis(), type, "system", event.getBundle());
+        }
+    }
+
+    private void serviceChanged(final ServiceEvent event) {
+        if (event.getType() == ServiceEvent.REGISTERED) {
+            final var reference = event.getServiceReference();
+            record(System.currentTimeMillis(), "COMPONENT_REGISTERED",
+                    String.valueOf(reference.getProperty(COMPONENT_NAME)), reference.getBundle());
+        }
+    }
+
+    private void record(final long time, final String type, final String name, final Bundle bundle) {
+        if (!completed.get() || "FIRST_FRAME_SHOWN".equals(type)) {
+            events.add(new Event(time, type, name, bundle == null ? -1 : bundle.getBundleId()));
+        }
+    }
+
+    private StartupProfileDTO toDTO() {
+        final var dto = new StartupProfileDTO();
+        dto.jvmStartTime     = jvmStartTime;
+        dto.profilerAttached = attachedTime - jvmStartTime;
+
+        final Map<Long, BundleStartDTO> bundles = new HashMap<>();
+        for (final Event event : events) {
+            final var offset = event.time() - jvmStartTime;
+
+            final var eventDTO = new EventDTO();
+            eventDTO.offset = offset;
+            eventDTO.type   = event.type();
+            eventDTO.name   = event.name();
+            dto.events.add(eventDTO);
+
+            switch (event.type()) {
+                case "FRAMEWORK_STARTED" -> dto.frameworkStarted = offset;
+                case "FIRST_FRAME_SHOWN" -> dto.firstFrameShown = offset;
+                case "PHASE" -> {
+                    final var phase = new PhaseDTO();
+                    phase.name   = event.name();
+                    phase.offset = offset;
+                    dto.phases.add(phase);
+                }
+                case "COMPONENT_REGISTERED" -> {
+                    final var component = new ComponentStartDTO();
+                    component.name     = event.name();
+                    component.bundleId = event.bundleId();
+                    component.offset   = offset;
+                    dto.components.add(component);
+                }
+                case "BUNDLE_STARTING" -> {
+                    final var bundle = new BundleStartDTO();
+                    bundle.id           = event.bundleId();
+                    bundle.symbolicName = event.name();
+                    bundle.starting     = offset;
+                    bundle.started      = -1;
+                    bundles.put(bundle.id, bundle);
+                }
+                case "BUNDLE_STARTED" -> {
+                    final var bundle = bundles.get(event.bundleId());
+                    if (bundle != null) {
+                        bundle.started  = offset;
+                        bundle.duration = offset - bundle.starting;
+                    }
+                }
+                default -> {
+                    // no aggregation required
+                }
+            }
+        }
+        dto.events.sort(Comparator.comparingLong(e -> e.offset));
+        dto.phases.sort(Comparator.comparingLong(p -> p.offset));
+        dto.components.sort(Comparator.comparingLong(c -> c.offset));
+        dto.bundles.addAll(bundles.values());
+        dto.bundles.sort(Comparator.comparingLong((BundleStartDTO b) -> b.duration).reversed());
+        return dto;
+    }
+
+}
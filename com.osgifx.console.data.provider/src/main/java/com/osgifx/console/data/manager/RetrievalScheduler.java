@@ -0,0 +1,222 @@
+/*******************************************************************************
+ * Copyright 2021-2023 Amit Kumar Mondal
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package com.osgifx.console.data.manager;
+
+import static java.util.Comparator.comparingInt;
+import static java.util.Comparator.comparingLong;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.eclipse.fx.core.log.FluentLogger;
+
+import com.google.common.collect.Maps;
+import com.osgifx.console.executor.Executor;
+
+/**
+ * Schedules the retrievals of the runtime information suppliers. The pending
+ * retrievals are started in the order of their priorities and only a bounded
+ * number of them is in flight at any time, so that the section the user is
+ * looking at does not queue up behind the bulk sections. Concurrent requests
+ * for the same supplier share the pending or running retrieval.
+ */
+final class RetrievalScheduler {
+
+    static final int PRIORITY_VISIBLE = 0;
+    static final int PRIORITY_BULK    = 1;
+
+    private record Retrieval(String id,
+                             RuntimeInfoSupplier supplier,
+                             int priority,
+                             long sequence,
+                             long enqueuedAt,
+                             CompletableFuture<Void> result) {
+    }
+
+    private record Timing(int count, long lastNanos, long maxNanos, long waitNanos) {
+
+        Timing add(final long nanos, final long waited) {
+            return new Timing(count + 1, nanos, Math.max(maxNanos, nanos), waited);
+        }
+
+        @Override
+        public String toString() {
+            return NANOSECONDS.toMillis(lastNanos) + " ms (max " + NANOSECONDS.toMillis(maxNanos) + " ms, waited "
+                    + NANOSECONDS.toMillis(waitNanos) + " ms)";
+        }
+    }
+
+    private final Executor                             executor;
+    private final FluentLogger                         logger;
+    private final Map<String, Timing>                  timings  = new ConcurrentHashMap<>();
+    private final Map<String, Retrieval>               inFlight = Maps.newHashMap();
+    private final Map<String, CompletableFuture<Void>> calls    = Maps.newHashMap();
+    private final PriorityQueue<Retrieval>             pending;
+    private int                                        maxConcurrency;
+    private int                                        running;
+    private long                                       sequence;
+    private long                                       generation;
+
+    RetrievalScheduler(final Executor executor, final FluentLogger logger, final int maxConcurrency) {
+        this.executor       = executor;
+        this.logger         = logger;
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.pending        = new PriorityQueue<>(comparingInt(Retrieval::priority).thenComparingLong(Retrieval::sequence));
+    }
+
+    synchronized void setMaxConcurrency(final int maxConcurrency) {
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        drain();
+    }
+
+    /**
+     * Schedules the retrieval of the specified supplier unless it is already
+     * pending or running. A pending retrieval is moved ahead if it is requested
+     * again with a higher priority.
+     *
+     * @param id the supplier ID
+     * @param supplier the supplier
+     * @param priority the priority (lower values are started first)
+     * @return the future which completes once the information has been retrieved
+     */
+    synchronized CompletableFuture<Void> submit(final String id,
+                                                final RuntimeInfoSupplier supplier,
+                                                final int priority) {
+        final var existing = inFlight.get(id);
+        if (existing != null) {
+            promote(existing, priority);
+            return existing.result();
+        }
+        final var retrieval = new Retrieval(id, supplier, priority, sequence++, System.nanoTime(),
+                                            new CompletableFuture<>());
+        inFlight.put(id, retrieval);
+        pending.add(retrieval);
+        drain();
+        return retrieval.result();
+    }
+
+    /**
+     * Moves the pending retrievals of the specified suppliers ahead, for example,
+     * as soon as the user switches to the view showing them
+     *
+     * @param ids the supplier IDs
+     */
+    synchronized void prioritize(final Collection<String> ids) {
+        for (final String id : ids) {
+            final var existing = inFlight.get(id);
+            if (existing != null) {
+                promote(existing, PRIORITY_VISIBLE);
+            }
+        }
+    }
+
+    /**
+     * Cancels all pending and running retrievals, for example, as soon as the
+     * agent gets disconnected. The results of the running retrievals are
+     * discarded.
+     */
+    synchronized void cancelAll() {
+        generation++;
+        running = 0;
+        pending.clear();
+        calls.values().forEach(call -> call.cancel(true));
+        calls.clear();
+        inFlight.values().forEach(retrieval -> retrieval.result().cancel(false));
+        inFlight.clear();
+    }
+
+    /**
+     * Returns the durations of the last retrievals of all suppliers, the slowest
+     * first
+     */
+    String timings() {
+        // @formatter:off
+        return timings.entrySet()
+                      .stream()
+                      .sorted(Map.Entry.<String, Timing> comparingByValue(comparingLong(Timing::lastNanos)).reversed())
+                      .map(e -> e.getKey() + ": " + e.getValue())
+                      .collect(Collectors.joining(", "));
+        // @formatter:on
+    }
+
+    private void promote(final Retrieval existing, final int priority) {
+        if (priority < existing.priority() && pending.remove(existing)) {
+            final var promoted = new Retrieval(existing.id(), existing.supplier(), priority, existing.sequence(),
+                                               existing.enqueuedAt(), existing.result());
+            inFlight.put(existing.id(), promoted);
+            pending.add(promoted);
+        }
+    }
+
+    private void drain() {
+        while (running < maxConcurrency && !pending.isEmpty()) {
+            start(pending.poll());
+        }
+    }
+
+    private void start(final Retrieval retrieval) {
+        running++;
+        final var currentGeneration = generation;
+        executor.runAsync(() -> {
+            final var               startedAt = System.nanoTime();
+            CompletableFuture<Void> call;
+            try {
+                call = retrieval.supplier().retrieveAsync();
+            } catch (final Exception e) {
+                call = CompletableFuture.failedFuture(e);
+            }
+            synchronized (this) {
+                if (currentGeneration != generation) {
+                    call.cancel(true);
+                    return;
+                }
+                calls.put(retrieval.id(), call);
+            }
+            call.whenComplete((result, error) -> complete(retrieval, currentGeneration, startedAt, error));
+        });
+    }
+
+    private void complete(final Retrieval retrieval,
+                          final long retrievalGeneration,
+                          final long startedAt,
+                          final Throwable error) {
+        final var took   = System.nanoTime() - startedAt;
+        final var waited = startedAt - retrieval.enqueuedAt();
+        synchronized (this) {
+            if (retrievalGeneration != generation) {
+                return;
+            }
+            running--;
+            calls.remove(retrieval.id());
+            inFlight.remove(retrieval.id());
+            drain();
+        }
+        final var timing = timings.merge(retrieval.id(), new Timing(1, took, took, waited),
+                (previous, current) -> previous.add(took, waited));
+        logger.atDebug().log("Runtime information of '%s' has been retrieved in %s", retrieval.id(), timing);
+        if (error == null) {
+            retrieval.result().complete(null);
+        } else {
+            retrieval.result().completeExceptionally(error);
+        }
+    }
+
+}
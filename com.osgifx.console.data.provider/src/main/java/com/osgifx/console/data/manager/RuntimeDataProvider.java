@@ -15,6 +15,9 @@
  ******************************************************************************/
 package com.osgifx.console.data.manager;
 
+import static com.osgifx.console.data.manager.RetrievalScheduler.PRIORITY_BULK;
+import static com.osgifx.console.data.manager.RetrievalScheduler.PRIORITY_VISIBLE;
+import static com.osgifx.console.data.manager.RuntimeDataProvider.PID;
 import static com.osgifx.console.data.manager.RuntimeInfoSupplier.PROPERTY_ID;
 import static com.osgifx.console.data.supplier.BundlesInfoSupplier.BUNDLES_ID;
 import static com.osgifx.console.data.supplier.ComponentsInfoSupplier.COMPONENTS_ID;
@@ -31,14 +34,19 @@ import static com.osgifx.console.data.supplier.RolesInfoSupplier.ROLES_ID;
 import static com.osgifx.console.data.supplier.ServicesInfoSupplier.SERVICES_ID;
 import static com.osgifx.console.data.supplier.ThreadsInfoSupplier.THREADS_ID;
 import static com.osgifx.console.event.topics.DataRetrievedEventTopics.DATA_RETRIEVED_ALL_TOPIC;
+import static com.osgifx.console.supervisor.Supervisor.AGENT_DISCONNECTED_EVENT_TOPIC;
 import static org.osgi.service.component.annotations.ReferenceCardinality.MULTIPLE;
 import static org.osgi.service.component.annotations.ReferenceCardinality.OPTIONAL;
 import static org.osgi.service.component.annotations.ReferencePolicy.DYNAMIC;
 import static org.osgi.service.component.annotations.ReferencePolicyOption.GREEDY;
 
+import java.util.Arrays;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.fx.core.log.FluentLogger;
@@ -46,8 +54,12 @@ import org.eclipse.fx.core.log.LoggerFactory;
 import org.osgi.framework.ServiceReference;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Modified;
 import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.event.Event;
 import org.osgi.service.event.EventAdmin;
+import org.osgi.service.event.EventHandler;
+import org.osgi.service.event.propertytypes.EventTopics;
 
 import com.google.mu.util.stream.BiCollectors;
 import com.google.mu.util.stream.BiStream;
@@ -75,24 +87,46 @@ import com.osgifx.console.supervisor.Supervisor;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
-@Component
+@Component(configurationPid = PID)
 @SuppressWarnings("unchecked")
-public final class RuntimeDataProvider implements DataProvider {
+@EventTopics(AGENT_DISCONNECTED_EVENT_TOPIC)
+public final class RuntimeDataProvider implements DataProvider, EventHandler {
+
+    static final String PID = "osgi.fx.data.retrieval";
+
+    @interface Configuration {
+        int max_concurrency() default 4;
+    }
 
     @Reference
     private LoggerFactory                          factory;
     @Reference
-    private Executor                               executor;
-    @Reference
     private EventAdmin                             eventAdmin;
+    @Reference
+    private Executor                               executor;
     @Reference(cardinality = OPTIONAL, policyOption = GREEDY)
     private volatile Supervisor                    supervisor;
     private FluentLogger                           logger;
+    private RetrievalScheduler                     scheduler;
+    private volatile Set<String>                   visibleIds    = Set.of();
     private final Map<String, RuntimeInfoSupplier> infoSuppliers = new ConcurrentHashMap<>();
 
     @Activate
-    public void activate() {
-        logger = FluentLogger.of(factory.createLogger(getClass().getName()));
+    public void activate(final Configuration configuration) {
+        logger    = FluentLogger.of(factory.createLogger(getClass().getName()));
+        scheduler = new RetrievalScheduler(executor, logger, configuration.max_concurrency());
+    }
+
+    @Modified
+    void modified(final Configuration configuration) {
+        scheduler.setMaxConcurrency(configuration.max_concurrency());
+    }
+
+    @Override
+    public void handleEvent(final Event event) {
+        // the responses of the disconnected agent are of no use anymore
+        scheduler.cancelAll();
+        logger.atInfo().log("Pending runtime information retrievals have been cancelled");
     }
 
     @Reference(cardinality = MULTIPLE, policy = DYNAMIC)
@@ -111,21 +145,23 @@ public final class RuntimeDataProvider implements DataProvider {
         // @formatter:off
         if (id == null) {
             if (isAsync) {
+                // the section the user is looking at is retrieved first
                 final var futures =
                         BiStream.from(infoSuppliers)
-                                .mapValues((k, v) -> executor.runAsync(v::retrieve))
+                                .mapValues((k, v) -> retrieveAsync(k, v, visibleIds.contains(k) ? PRIORITY_VISIBLE : PRIORITY_BULK))
                                 .collect(BiCollectors.toMap());
 
                 CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[0]))
                                  .thenRunAsync(() -> RuntimeInfoSupplier.sendEvent(eventAdmin, DATA_RETRIEVED_ALL_TOPIC))
-                                 .thenRunAsync(() -> logger.atInfo().log("All runtime informations have been retrieved successfully (async)"));
+                                 .thenRunAsync(() -> logger.atInfo().log("All runtime informations have been retrieved successfully (async)"))
+                                 .thenRunAsync(() -> logger.atInfo().log("Retrieval times (slowest first) - %s", scheduler.timings()));
             } else {
                 infoSuppliers.forEach((k, v) -> v.retrieve());
                 RuntimeInfoSupplier.sendEvent(eventAdmin, DATA_RETRIEVED_ALL_TOPIC);
                 logger.atInfo().log("All runtime informations have been retrieved successfully (sync)");
             }
         } else if (isAsync) {
-            executor.runAsync(() -> retrieve(id))
+            retrieveAsync(id)
                     .thenRunAsync(() -> logger.atInfo().log("Runtime information of '%s' has been retrieved successfully (async)", id));
         } else {
             retrieve(id);
@@ -134,6 +170,13 @@ public final class RuntimeDataProvider implements DataProvider {
         // @formatter:on
     }
 
+    @Override
+    public void setVisibleInfo(final String... ids) {
+        visibleIds = Set.copyOf(Arrays.asList(ids));
+        // the view might have become visible while the bulk retrieval is still pending
+        scheduler.prioritize(visibleIds);
+    }
+
     @Override
     public ObservableList<XBundleDTO> bundles() {
         return (ObservableList<XBundleDTO>) supply(BUNDLES_ID);
@@ -206,42 +249,55 @@ public final class RuntimeDataProvider implements DataProvider {
 
     @Override
     public CompletableFuture<XMemoryInfoDTO> memory() {
-        final var agent = supervisor.getAgent();
+        final var agent = supervisor.getAsyncAgent();
         if (agent == null) {
             logger.atWarning().log("Agent not connected");
             return null;
         }
-        return executor.supplyAsync(agent::getMemoryInfo);
+        return agent.getMemoryInfo();
     }
 
     @Override
     public CompletableFuture<XDmtNodeDTO> readDmtNode(final String rootURI) {
-        final var agent = supervisor.getAgent();
+        final var agent = supervisor.getAsyncAgent();
         if (agent == null) {
             logger.atWarning().log("Agent not connected");
             return null;
         }
-        return executor.supplyAsync(() -> agent.readDmtNode(rootURI));
+        return agent.readDmtNode(rootURI);
+    }
+
+    @Override
+    public CompletableFuture<XDmtNodeDTO> readDmtNode(final String rootURI,
+                                                      final int depth,
+                                                      final int offset,
+                                                      final int limit) {
+        final var agent = supervisor.getAsyncAgent();
+        if (agent == null) {
+            logger.atWarning().log("Agent not connected");
+            return null;
+        }
+        return agent.readDmtNode(rootURI, depth, offset, limit);
     }
 
     @Override
     public CompletableFuture<RuntimeDTO> readRuntimeDTO() {
-        final var agent = supervisor.getAgent();
+        final var agent = supervisor.getAsyncAgent();
         if (agent == null) {
             logger.atWarning().log("Agent not connected");
             return null;
         }
-        return executor.supplyAsync(agent::getRuntimeDTO);
+        return agent.getRuntimeDTO();
     }
 
     @Override
     public CompletableFuture<XHeapUsageDTO> heapUsage() {
-        final var agent = supervisor.getAgent();
+        final var agent = supervisor.getAsyncAgent();
         if (agent == null) {
             logger.atWarning().log("Agent not connected");
             return null;
         }
-        return executor.supplyAsync(agent::getHeapUsage);
+        return agent.getHeapUsage();
     }
 
     private ObservableList<?> supply(final String id) {
@@ -267,4 +323,27 @@ public final class RuntimeDataProvider implements DataProvider {
         }
     }
 
+    private CompletableFuture<Void> retrieveAsync(final String id) {
+        final var supplier = infoSuppliers.get(id);
+        if (supplier == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return retrieveAsync(id, supplier, PRIORITY_VISIBLE);
+    }
+
+    private CompletableFuture<Void> retrieveAsync(final String id,
+                                                  final RuntimeInfoSupplier supplier,
+                                                  final int priority) {
+        // the suppliers do not occupy any thread while waiting for the remote agent to respond
+        return scheduler.submit(id, supplier, priority).exceptionally(e -> {
+            final var cause = e instanceof CompletionException ? e.getCause() : e;
+            if (cause instanceof CancellationException) {
+                logger.atInfo().log("Retrieval of runtime information of '%s' has been cancelled", id);
+            } else {
+                logger.atError().withException(cause).log("Runtime information of '%s' cannot be retrieved", id);
+            }
+            return null;
+        });
+    }
+
 }
@@ -16,6 +16,7 @@
 package com.osgifx.console.data.manager;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.osgi.service.event.Event;
 import org.osgi.service.event.EventAdmin;
@@ -31,6 +32,18 @@ public interface RuntimeInfoSupplier {
      */
     void retrieve();
 
+    /**
+     * Retrieves from the remote runtime without occupying any thread while
+     * waiting for the response. The default implementation retrieves
+     * synchronously.
+     *
+     * @return the future which completes once the information has been retrieved
+     */
+    default CompletableFuture<Void> retrieveAsync() {
+        retrieve();
+        return CompletableFuture.completedFuture(null);
+    }
+
     /**
      * Returns the observable list
      */
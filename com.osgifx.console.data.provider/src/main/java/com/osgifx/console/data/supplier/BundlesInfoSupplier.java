@@ -24,6 +24,11 @@ import static javafx.collections.FXCollections.observableArrayList;
 import static org.osgi.service.component.annotations.ReferenceCardinality.OPTIONAL;
 import static org.osgi.service.component.annotations.ReferencePolicyOption.GREEDY;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.concurrent.CompletableFuture;
+
 import org.eclipse.fx.core.ThreadSynchronize;
 import org.eclipse.fx.core.log.FluentLogger;
 import org.eclipse.fx.core.log.LoggerFactory;
@@ -37,6 +42,7 @@ import org.osgi.service.event.EventHandler;
 import org.osgi.service.event.propertytypes.EventTopics;
 
 import com.osgifx.console.agent.dto.XBundleDTO;
+import com.osgifx.console.agent.dto.XBundleDeltaDTO;
 import com.osgifx.console.data.manager.RuntimeInfoSupplier;
 import com.osgifx.console.executor.Executor;
 import com.osgifx.console.supervisor.Supervisor;
@@ -62,6 +68,7 @@ public final class BundlesInfoSupplier implements RuntimeInfoSupplier, EventHand
     @Reference(cardinality = OPTIONAL, policyOption = GREEDY)
     private volatile Supervisor supervisor;
     private FluentLogger        logger;
+    private volatile long       sequence = -1;
 
     private final ObservableList<XBundleDTO> bundles = observableArrayList();
 
@@ -71,16 +78,92 @@ public final class BundlesInfoSupplier implements RuntimeInfoSupplier, EventHand
     }
 
     @Override
-    public synchronized void retrieve() {
-        logger.atInfo().log("Retrieving bundles info from remote runtime");
+    public void retrieve() {
+        retrieveAsync().join();
+    }
+
+    @Override
+    public CompletableFuture<Void> retrieveAsync() {
+        logger.atInfo().log("Retrieving bundles info from remote runtime (async)");
+        final var agent = supervisor.getAsyncAgent();
+        if (agent == null) {
+            logger.atWarning().log("Agent not connected");
+            return CompletableFuture.completedFuture(null);
+        }
+        if (!isDeltaSupported()) {
+            return agent.getAllBundles().thenAccept(this::update);
+        }
+        // the complete delta also records the sequence number for the subsequent deltas
+        return agent.getBundleDelta(-1).thenCompose(delta -> {
+            if (delta != null) {
+                update(delta);
+                return CompletableFuture.completedFuture(null);
+            }
+            logger.atWarning().log("Bundle changes could not be retrieved, retrieving all bundles instead");
+            return agent.getAllBundles().thenAccept(this::update);
+        });
+    }
+
+    private synchronized void update(final Collection<XBundleDTO> result) {
+        bundles.setAll(makeNullSafe(result));
+        sequence = -1;
+        RuntimeInfoSupplier.sendEvent(eventAdmin, DATA_RETRIEVED_BUNDLES_TOPIC);
+        logger.atInfo().log("Bundles info retrieved successfully");
+    }
+
+    private void retrieveDelta() {
+        if (sequence == -1 || !isDeltaSupported()) {
+            retrieve();
+            return;
+        }
+        retrieveChanges();
+    }
+
+    private synchronized void retrieveChanges() {
+        logger.atInfo().log("Retrieving bundle changes from remote runtime");
         final var agent = supervisor.getAgent();
         if (agent == null) {
             logger.atWarning().log("Agent not connected");
             return;
         }
-        bundles.setAll(makeNullSafe(agent.getAllBundles()));
+        final var delta = agent.getBundleDelta(sequence);
+        if (delta == null) {
+            logger.atWarning().log("Bundle changes could not be retrieved, retrieving all bundles instead");
+            update(agent.getAllBundles());
+            return;
+        }
+        update(delta);
+    }
+
+    private boolean isDeltaSupported() {
+        // older agents only provide all the bundles at once
+        return supervisor.isAgentMethodSupported("getBundleDelta");
+    }
+
+    private synchronized void update(final XBundleDeltaDTO delta) {
+        if (delta.complete) {
+            bundles.setAll(makeNullSafe(delta.changed));
+        } else {
+            final var removed = new HashSet<>(makeNullSafe(delta.removed));
+            bundles.removeIf(b -> removed.contains(b.id));
+
+            // key: bundle ID, value: index in the table
+            final var indices = new HashMap<Long, Integer>();
+            for (var i = 0; i < bundles.size(); i++) {
+                indices.put(bundles.get(i).id, i);
+            }
+            for (final XBundleDTO bundle : makeNullSafe(delta.changed)) {
+                final var index = indices.get(bundle.id);
+                if (index == null) {
+                    bundles.add(bundle);
+                } else {
+                    bundles.set(index, bundle);
+                }
+            }
+        }
+        sequence = delta.sequence;
         RuntimeInfoSupplier.sendEvent(eventAdmin, DATA_RETRIEVED_BUNDLES_TOPIC);
-        logger.atInfo().log("Bundles info retrieved successfully");
+        logger.atInfo().log("Bundle changes retrieved successfully (complete: %s)", delta.complete);
     }
 
     @Override
@@ -91,10 +174,12 @@ public final class BundlesInfoSupplier implements RuntimeInfoSupplier, EventHand
     @Override
     public void handleEvent(final Event event) {
         if (AGENT_DISCONNECTED_EVENT_TOPIC.equals(event.getTopic())) {
+            sequence = -1;
             threadSync.asyncExec(bundles::clear);
             return;
         }
-        executor.runAsync(this::retrieve);
+        // only the bundles changed by the action need to be retrieved
+        executor.runAsync(this::retrieveDelta);
     }
 
 }
@@ -25,6 +25,9 @@ import static javafx.collections.FXCollections.observableArrayList;
 import static org.osgi.service.component.annotations.ReferenceCardinality.OPTIONAL;
 import static org.osgi.service.component.annotations.ReferencePolicyOption.GREEDY;
 
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+
 import org.eclipse.fx.core.ThreadSynchronize;
 import org.eclipse.fx.core.log.FluentLogger;
 import org.eclipse.fx.core.log.LoggerFactory;
@@ -79,7 +82,22 @@ public final class ConfigurationsInfoSupplier implements RuntimeInfoSupplier, Ev
             logger.atWarning().log("Agent not connected");
             return;
         }
-        configurations.setAll(makeNullSafe(agent.getAllConfigurations()));
+        update(agent.getAllConfigurations());
+    }
+
+    @Override
+    public CompletableFuture<Void> retrieveAsync() {
+        logger.atInfo().log("Retrieving configurations info from remote runtime (async)");
+        final var agent = supervisor.getAsyncAgent();
+        if (agent == null) {
+            logger.atWarning().log("Agent not connected");
+            return CompletableFuture.completedFuture(null);
+        }
+        return agent.getAllConfigurations().thenAccept(this::update);
+    }
+
+    private synchronized void update(final Collection<XConfigurationDTO> result) {
+        configurations.setAll(makeNullSafe(result));
         RuntimeInfoSupplier.sendEvent(eventAdmin, DATA_RETRIEVED_CONFIGURATIONS_TOPIC);
         logger.atInfo().log("Configurations info retrieved successfully");
     }
@@ -17,19 +17,18 @@ package com.osgifx.console.data.supplier;
 
 import static com.osgifx.console.data.supplier.EventsInfoSupplier.EVENTS_ID;
 import static com.osgifx.console.data.supplier.EventsInfoSupplier.PID;
+import static com.osgifx.console.data.supplier.EventsInfoSupplier.STORE_PID;
 import static com.osgifx.console.event.topics.EventReceiveEventTopics.CLEAR_EVENTS_TOPIC;
+import static com.osgifx.console.event.topics.EventReceiveEventTopics.LOAD_EVENTS_HISTORY_TOPIC;
+import static com.osgifx.console.supervisor.Supervisor.AGENT_CONNECTED_EVENT_TOPIC;
 import static com.osgifx.console.supervisor.Supervisor.AGENT_DISCONNECTED_EVENT_TOPIC;
-import static com.osgifx.console.supervisor.Supervisor.EVENT_LISTENER_REMOVED_EVENT_TOPIC;
-import static javafx.collections.FXCollections.observableArrayList;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.osgi.service.component.annotations.ReferenceCardinality.OPTIONAL;
 import static org.osgi.service.component.annotations.ReferencePolicyOption.GREEDY;
 
-import java.time.Duration;
 import java.util.Collection;
+import java.util.List;
 import java.util.Set;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 
 import org.eclipse.fx.core.ThreadSynchronize;
 import org.eclipse.fx.core.log.FluentLogger;
@@ -46,8 +45,9 @@ import org.osgi.service.event.propertytypes.EventTopics;
 
 import com.google.common.collect.Sets;
 import com.osgifx.console.agent.dto.XEventDTO;
+import com.osgifx.console.agent.dto.XEventSubscriptionDTO;
+import com.osgifx.console.agent.dto.XResultDTO;
 import com.osgifx.console.data.manager.RuntimeInfoSupplier;
-import com.osgifx.console.executor.Executor;
 import com.osgifx.console.supervisor.EventListener;
 import com.osgifx.console.supervisor.Supervisor;
 
@@ -55,49 +55,58 @@ import javafx.collections.ObservableList;
 
 @ServiceRanking(112)
 @SupplierID(EVENTS_ID)
-@Component(configurationPid = PID)
-@EventTopics({ AGENT_DISCONNECTED_EVENT_TOPIC, CLEAR_EVENTS_TOPIC, EVENT_LISTENER_REMOVED_EVENT_TOPIC })
+@Component(configurationPid = { PID, STORE_PID })
+@EventTopics({ AGENT_CONNECTED_EVENT_TOPIC, AGENT_DISCONNECTED_EVENT_TOPIC, CLEAR_EVENTS_TOPIC,
+               LOAD_EVENTS_HISTORY_TOPIC })
 public final class EventsInfoSupplier implements RuntimeInfoSupplier, EventListener, EventHandler {
 
-    static final String PID = "event.receive.topics";
+    static final String PID       = "event.receive.topics";
+    static final String STORE_PID = "osgi.fx.events";
 
     @interface Configuration {
         String[] topics();
+
+        int store_capacity() default 100_000;
+
+        // 0 discards the evicted entries
+        int store_spill_capacity() default 0;
+
+        int store_history_page_size() default 10_000;
     }
 
     public static final String EVENTS_ID = "events";
 
-    private static final int CACHE_INVALIDATE_INITIAL_DELAY = 0;
-    private static final int CACHE_INVALIDATE_DELAY         = 5;
-    private static final int CACHE_INVALIDATE_THRESHOLD     = 100;
-    private static final int CACHE_INVALIDATE_RANGE_START   = 0;
-    private static final int CACHE_INVALIDATE_RANGE_END     = 50;
+    private static final long SUBSCRIPTION_TIMEOUT_SECONDS = 30;
 
     @Reference
-    private LoggerFactory               factory;
-    @Reference
-    private Executor                    executor;
+    private LoggerFactory             factory;
     @Reference
-    private ThreadSynchronize           threadSync;
+    private ThreadSynchronize         threadSync;
     @Reference(cardinality = OPTIONAL, policyOption = GREEDY)
-    private volatile Supervisor         supervisor;
-    private FluentLogger                logger;
-    private volatile ScheduledFuture<?> future;
-    private Configuration               configuration;
-    private final Lock                  lock = new ReentrantLock();
-
-    private final ObservableList<XEventDTO> events = observableArrayList();
+    private volatile Supervisor       supervisor;
+    private FluentLogger              logger;
+    private volatile Configuration    configuration;
+    private RingBufferList<XEventDTO> events;
 
     @Activate
     @Modified
     void init(final Configuration configuration) {
         this.configuration = configuration;
-        logger             = FluentLogger.of(factory.createLogger(getClass().getName()));
+        if (events == null) {
+            logger = FluentLogger.of(factory.createLogger(getClass().getName()));
+            events = new RingBufferList<>(XEventDTO.class, EVENTS_ID, configuration.store_capacity(), threadSync,
+                                          logger);
+        }
+        final var store = events;
+        threadSync.asyncExec(
+                () -> store.configure(configuration.store_capacity(), configuration.store_spill_capacity()));
+        updateSubscription();
     }
 
     @Deactivate
     void deactivate() {
-        cancelCacheInvalidationJob();
+        final var store = events;
+        threadSync.asyncExec(store::close);
     }
 
     @Override
@@ -112,55 +121,52 @@ public final class EventsInfoSupplier implements RuntimeInfoSupplier, EventListe
 
     @Override
     public void onEvent(final XEventDTO event) {
-        if (future == null) {
-            executor.scheduleWithFixedDelay(() -> {
-                lock.lock();
-                try {
-                    final var size = events.size();
-                    if (size > CACHE_INVALIDATE_THRESHOLD) {
-                        events.remove(CACHE_INVALIDATE_RANGE_START, CACHE_INVALIDATE_RANGE_END);
-                    }
-                } finally {
-                    lock.unlock();
-                }
-            }, Duration.ofSeconds(CACHE_INVALIDATE_INITIAL_DELAY), Duration.ofSeconds(CACHE_INVALIDATE_DELAY));
-        }
-        lock.lock();
-        try {
-            events.add(event);
-        } finally {
-            lock.unlock();
-        }
+        events.offer(event);
     }
 
     @Override
     public Collection<String> topics() {
-        return configuration != null ? Sets.newHashSet(configuration.topics()) : Set.of();
+        final var config = configuration;
+        return config != null && config.topics() != null ? Sets.newHashSet(config.topics()) : Set.of();
     }
 
     @Override
     public void handleEvent(final Event event) {
         switch (event.getTopic()) {
-            case AGENT_DISCONNECTED_EVENT_TOPIC:
-                cancelCacheInvalidationJob();
-                threadSync.asyncExec(events::clear);
+            case AGENT_CONNECTED_EVENT_TOPIC:
+                updateSubscription();
                 break;
-            case EVENT_LISTENER_REMOVED_EVENT_TOPIC:
-                cancelCacheInvalidationJob();
-                break;
-            case CLEAR_EVENTS_TOPIC:
+            case AGENT_DISCONNECTED_EVENT_TOPIC, CLEAR_EVENTS_TOPIC:
                 threadSync.asyncExec(events::clear);
                 break;
+            case LOAD_EVENTS_HISTORY_TOPIC:
+                threadSync.asyncExec(() -> events.loadHistory(configuration.store_history_page_size()));
+                break;
             default:
                 break;
         }
     }
 
-    private void cancelCacheInvalidationJob() {
-        if (future != null) {
-            future.cancel(true);
-            future = null;
+    private void updateSubscription() {
+        final var agent = supervisor == null ? null : supervisor.getAsyncAgent();
+        if (agent == null) {
+            return;
         }
+        // lets the agent drop the events of the topics nobody is interested in
+        final var subscription = new XEventSubscriptionDTO();
+        subscription.topics = List.copyOf(topics());
+        // older agents silently ignore the call and push all events whose topics are then
+        // only matched by the console, hence no thread waits for the response
+        agent.updateEventSubscription(subscription).orTimeout(SUBSCRIPTION_TIMEOUT_SECONDS, SECONDS)
+                .whenComplete((result, e) -> {
+                    if (e != null || result == null) {
+                        logger.atInfo().log("Agent does not support event subscriptions");
+                    } else if (result.result != XResultDTO.SUCCESS) {
+                        logger.atWarning().log("Event subscription could not be updated: %s", result.response);
+                    } else {
+                        logger.atInfo().log("Event subscription has been updated to topics %s", subscription.topics);
+                    }
+                });
     }
 
 }
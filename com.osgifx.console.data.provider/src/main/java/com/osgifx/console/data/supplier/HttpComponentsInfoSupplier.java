@@ -26,6 +26,9 @@ import static javafx.collections.FXCollections.observableArrayList;
 import static org.osgi.service.component.annotations.ReferenceCardinality.OPTIONAL;
 import static org.osgi.service.component.annotations.ReferencePolicyOption.GREEDY;
 
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+
 import org.eclipse.fx.core.ThreadSynchronize;
 import org.eclipse.fx.core.log.FluentLogger;
 import org.eclipse.fx.core.log.LoggerFactory;
@@ -86,7 +89,22 @@ public final class HttpComponentsInfoSupplier implements RuntimeInfoSupplier, Ev
             logger.atWarning().log("Agent not connected");
             return;
         }
-        httpComponents.setAll(makeNullSafe(agent.getHttpComponents()));
+        update(agent.getHttpComponents());
+    }
+
+    @Override
+    public CompletableFuture<Void> retrieveAsync() {
+        logger.atInfo().log("Retrieving HTTP components info from remote runtime (async)");
+        final var agent = supervisor.getAsyncAgent();
+        if (agent == null) {
+            logger.atWarning().log("Agent not connected");
+            return CompletableFuture.completedFuture(null);
+        }
+        return agent.getHttpComponents().thenAccept(this::update);
+    }
+
+    private synchronized void update(final Collection<XHttpComponentDTO> result) {
+        httpComponents.setAll(makeNullSafe(result));
         RuntimeInfoSupplier.sendEvent(eventAdmin, DATA_RETRIEVED_HTTP_TOPIC);
         logger.atInfo().log("HTTP components info retrieved successfully");
     }
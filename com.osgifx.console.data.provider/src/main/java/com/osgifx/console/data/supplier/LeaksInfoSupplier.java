@@ -24,6 +24,9 @@ import static javafx.collections.FXCollections.observableArrayList;
 import static org.osgi.service.component.annotations.ReferenceCardinality.OPTIONAL;
 import static org.osgi.service.component.annotations.ReferencePolicyOption.GREEDY;
 
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+
 import org.eclipse.fx.core.ThreadSynchronize;
 import org.eclipse.fx.core.log.FluentLogger;
 import org.eclipse.fx.core.log.LoggerFactory;
@@ -78,7 +81,22 @@ public final class LeaksInfoSupplier implements RuntimeInfoSupplier, EventHandle
             logger.atWarning().log("Agent not connected");
             return;
         }
-        leaks.setAll(makeNullSafe(agent.getClassloaderLeaks()));
+        update(agent.getClassloaderLeaks());
+    }
+
+    @Override
+    public CompletableFuture<Void> retrieveAsync() {
+        logger.atInfo().log("Retrieving classloader leaks info from remote runtime (async)");
+        final var agent = supervisor.getAsyncAgent();
+        if (agent == null) {
+            logger.atWarning().log("Agent not connected");
+            return CompletableFuture.completedFuture(null);
+        }
+        return agent.getClassloaderLeaks().thenAccept(this::update);
+    }
+
+    private synchronized void update(final Collection<XBundleDTO> result) {
+        leaks.setAll(makeNullSafe(result));
         RuntimeInfoSupplier.sendEvent(eventAdmin, DATA_RETRIEVED_LEAKS_TOPIC);
         logger.atInfo().log("Classloader leaks info retrieved successfully");
     }
@@ -15,18 +15,21 @@
  ******************************************************************************/
 package com.osgifx.console.data.supplier;
 
+import static com.osgifx.console.data.supplier.BundlesInfoSupplier.BUNDLES_ID;
 import static com.osgifx.console.data.supplier.LogsInfoSupplier.LOGS_ID;
+import static com.osgifx.console.data.supplier.LogsInfoSupplier.PID;
+import static com.osgifx.console.event.topics.DataRetrievedEventTopics.DATA_RETRIEVED_BUNDLES_TOPIC;
 import static com.osgifx.console.event.topics.LogReceiveEventTopics.CLEAR_LOGS_TOPIC;
+import static com.osgifx.console.event.topics.LogReceiveEventTopics.LOAD_LOGS_HISTORY_TOPIC;
 import static com.osgifx.console.supervisor.Supervisor.AGENT_DISCONNECTED_EVENT_TOPIC;
-import static com.osgifx.console.supervisor.Supervisor.LOG_LISTENER_REMOVED_EVENT_TOPIC;
-import static javafx.collections.FXCollections.observableArrayList;
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toMap;
 import static org.osgi.service.component.annotations.ReferenceCardinality.OPTIONAL;
 import static org.osgi.service.component.annotations.ReferencePolicyOption.GREEDY;
 
-import java.time.Duration;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Objects;
 
 import org.eclipse.fx.core.ThreadSynchronize;
 import org.eclipse.fx.core.log.FluentLogger;
@@ -34,56 +37,74 @@ import org.eclipse.fx.core.log.LoggerFactory;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
 import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.propertytypes.ServiceRanking;
 import org.osgi.service.event.Event;
 import org.osgi.service.event.EventHandler;
 import org.osgi.service.event.propertytypes.EventTopics;
 
+import com.osgifx.console.agent.dto.XBundleDTO;
 import com.osgifx.console.agent.dto.XLogEntryDTO;
 import com.osgifx.console.data.manager.RuntimeInfoSupplier;
-import com.osgifx.console.executor.Executor;
 import com.osgifx.console.supervisor.LogEntryListener;
 import com.osgifx.console.supervisor.Supervisor;
 
 import javafx.collections.ObservableList;
 
-@Component
 @ServiceRanking(113)
 @SupplierID(LOGS_ID)
-@EventTopics({ AGENT_DISCONNECTED_EVENT_TOPIC, CLEAR_LOGS_TOPIC, LOG_LISTENER_REMOVED_EVENT_TOPIC })
+@Component(configurationPid = PID)
+@EventTopics({ AGENT_DISCONNECTED_EVENT_TOPIC, CLEAR_LOGS_TOPIC, LOAD_LOGS_HISTORY_TOPIC,
+               DATA_RETRIEVED_BUNDLES_TOPIC })
 public final class LogsInfoSupplier implements RuntimeInfoSupplier, LogEntryListener, EventHandler {
 
-    public static final String LOGS_ID = "logs";
+    static final String PID = "osgi.fx.logs";
 
-    private static final int CACHE_INVALIDATE_INITIAL_DELAY = 0;
-    private static final int CACHE_INVALIDATE_DELAY         = 5;
-    private static final int CACHE_INVALIDATE_THRESHOLD     = 100;
-    private static final int CACHE_INVALIDATE_RANGE_START   = 0;
-    private static final int CACHE_INVALIDATE_RANGE_END     = 50;
+    @interface Configuration {
+        int store_capacity() default 100_000;
+
+        // 0 discards the evicted entries
+        int store_spill_capacity() default 0;
+
+        int store_history_page_size() default 10_000;
+    }
+
+    public static final String LOGS_ID = "logs";
 
     @Reference
-    private LoggerFactory               factory;
-    @Reference
-    private Executor                    executor;
+    private LoggerFactory                factory;
     @Reference
-    private ThreadSynchronize           threadSync;
+    private ThreadSynchronize            threadSync;
     @Reference(cardinality = OPTIONAL, policyOption = GREEDY)
-    private volatile Supervisor         supervisor;
-    private FluentLogger                logger;
-    private volatile ScheduledFuture<?> future;
-    private final Lock                  lock = new ReentrantLock();
+    private volatile Supervisor          supervisor;
+    @Reference(target = "(" + PROPERTY_ID + "=" + BUNDLES_ID + ")")
+    private RuntimeInfoSupplier          bundlesSupplier;
+    private FluentLogger                 logger;
+    private volatile Configuration       configuration;
+    private RingBufferList<XLogEntryDTO> logs;
 
-    private final ObservableList<XLogEntryDTO> logs = observableArrayList();
+    // key: bundle ID, value: the bundle details retrieved by the bundles supplier
+    private volatile Map<Long, XBundleDTO> bundles = Map.of();
 
     @Activate
-    void init() {
-        logger = FluentLogger.of(factory.createLogger(getClass().getName()));
+    @Modified
+    void init(final Configuration configuration) {
+        this.configuration = configuration;
+        if (logs == null) {
+            logger = FluentLogger.of(factory.createLogger(getClass().getName()));
+            logs   = new RingBufferList<>(XLogEntryDTO.class, LOGS_ID, configuration.store_capacity(), threadSync,
+                                          logger);
+        }
+        final var store = logs;
+        threadSync.asyncExec(
+                () -> store.configure(configuration.store_capacity(), configuration.store_spill_capacity()));
     }
 
     @Deactivate
     void deactivate() {
-        cancelCacheInvalidationJob();
+        final var store = logs;
+        threadSync.asyncExec(store::close);
     }
 
     @Override
@@ -98,50 +119,62 @@ public final class LogsInfoSupplier implements RuntimeInfoSupplier, LogEntryList
 
     @Override
     public void logged(final XLogEntryDTO logEntry) {
-        if (future == null) {
-            executor.scheduleWithFixedDelay(() -> {
-                lock.lock();
-                try {
-                    final var size = logs.size();
-                    if (size > CACHE_INVALIDATE_THRESHOLD) {
-                        logs.remove(CACHE_INVALIDATE_RANGE_START, CACHE_INVALIDATE_RANGE_END);
-                    }
-                } finally {
-                    lock.unlock();
-                }
-            }, Duration.ofSeconds(CACHE_INVALIDATE_INITIAL_DELAY), Duration.ofSeconds(CACHE_INVALIDATE_DELAY));
-        }
-        lock.lock();
-        try {
-            logs.add(logEntry);
-        } finally {
-            lock.unlock();
-        }
+        resolveBundle(logEntry);
+        logs.offer(logEntry);
     }
 
     @Override
     public void handleEvent(final Event event) {
         switch (event.getTopic()) {
             case AGENT_DISCONNECTED_EVENT_TOPIC:
-                cancelCacheInvalidationJob();
+                bundles = Map.of();
                 threadSync.asyncExec(logs::clear);
                 break;
-            case LOG_LISTENER_REMOVED_EVENT_TOPIC:
-                cancelCacheInvalidationJob();
+            case DATA_RETRIEVED_BUNDLES_TOPIC:
+                indexBundles();
                 break;
             case CLEAR_LOGS_TOPIC:
                 threadSync.asyncExec(logs::clear);
                 break;
+            case LOAD_LOGS_HISTORY_TOPIC:
+                threadSync.asyncExec(() -> logs.loadHistory(configuration.store_history_page_size()));
+                break;
             default:
                 break;
         }
     }
 
-    private void cancelCacheInvalidationJob() {
-        if (future != null) {
-            future.cancel(true);
-            future = null;
+    /**
+     * The agent only refers to the bundle of a log entry by default, hence, the
+     * details are taken from the bundles which have already been retrieved
+     */
+    private void resolveBundle(final XLogEntryDTO logEntry) {
+        final var reference = logEntry.bundle;
+        if (reference == null) {
+            return;
+        }
+        if (bundles.isEmpty()) {
+            indexBundles();
         }
+        final var bundle = bundles.get(reference.id);
+        // @formatter:off
+        if (bundle != null
+                && Objects.equals(bundle.symbolicName, reference.symbolicName)
+                && Objects.equals(bundle.version, reference.version)) {
+            logEntry.bundle = bundle;
+        }
+        // @formatter:on
+    }
+
+    private void indexBundles() {
+        // copy first as the bundles get replaced concurrently
+        final var retrievedBundles = new ArrayList<>(bundlesSupplier.supply());
+        // @formatter:off
+        bundles = retrievedBundles.stream()
+                                  .filter(Objects::nonNull)
+                                  .map(XBundleDTO.class::cast)
+                                  .collect(toMap(b -> b.id, identity(), (b1, b2) -> b2));
+        // @formatter:on
     }
 
 }
@@ -25,6 +25,7 @@ import static org.osgi.service.component.annotations.ReferencePolicyOption.GREED
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.eclipse.fx.core.ThreadSynchronize;
 import org.eclipse.fx.core.log.FluentLogger;
@@ -41,13 +42,15 @@ import org.osgi.service.event.propertytypes.EventTopics;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.osgifx.console.agent.dto.XBundleDTO;
+import com.osgifx.console.agent.dto.XBundleInfoDTO;
 import com.osgifx.console.agent.dto.XPackageDTO;
+import com.osgifx.console.agent.dto.XPackageEntryDTO;
+import com.osgifx.console.agent.dto.XPackageIndexDTO;
 import com.osgifx.console.data.manager.RuntimeInfoSupplier;
 import com.osgifx.console.data.provider.PackageDTO;
 import com.osgifx.console.executor.Executor;
 import com.osgifx.console.supervisor.Supervisor;
 
-import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
 @Component
@@ -85,11 +88,52 @@ public final class PackagesInfoSupplier implements RuntimeInfoSupplier, EventHan
             logger.atWarning().log("Agent not connected");
             return;
         }
-        packages.setAll(preparePackages(agent.getAllBundles()));
+        if (!isIndexSupported()) {
+            update(agent.getAllBundles());
+            return;
+        }
+        update(agent.getPackageIndex());
+    }
+
+    @Override
+    public CompletableFuture<Void> retrieveAsync() {
+        logger.atInfo().log("Retrieving packages info from remote runtime (async)");
+        final var agent = supervisor.getAsyncAgent();
+        if (agent == null) {
+            logger.atWarning().log("Agent not connected");
+            return CompletableFuture.completedFuture(null);
+        }
+        if (!isIndexSupported()) {
+            return agent.getAllBundles().thenAccept(this::update);
+        }
+        return agent.getPackageIndex().thenAccept(this::update);
+    }
+
+    private boolean isIndexSupported() {
+        // older agents do not compute the package index and hence, it is derived from all bundles
+        return supervisor.isAgentMethodSupported("getPackageIndex");
+    }
+
+    private synchronized void update(final XPackageIndexDTO index) {
+        if (index == null) {
+            logger.atWarning().log("Packages info could not be retrieved");
+            return;
+        }
+        packages.setAll(preparePackages(index));
         RuntimeInfoSupplier.sendEvent(eventAdmin, DATA_RETRIEVED_PACKAGES_TOPIC);
         logger.atInfo().log("Packages info retrieved successfully");
     }
 
+    private synchronized void update(final List<XBundleDTO> bundles) {
+        if (bundles == null) {
+            logger.atWarning().log("Packages info could not be retrieved");
+            return;
+        }
+        packages.setAll(preparePackages(bundles));
+        RuntimeInfoSupplier.sendEvent(eventAdmin, DATA_RETRIEVED_PACKAGES_TOPIC);
+        logger.atInfo().log("Packages info retrieved successfully (derived from bundles)");
+    }
+
     @Override
     public ObservableList<?> supply() {
         return packages;
@@ -104,7 +148,34 @@ public final class PackagesInfoSupplier implements RuntimeInfoSupplier, EventHan
         executor.runAsync(this::retrieve);
     }
 
-    private synchronized ObservableList<PackageDTO> preparePackages(final List<XBundleDTO> bundles) {
+    private List<PackageDTO> preparePackages(final XPackageIndexDTO index) {
+        // the views only show the identities of the exporters and importers which are hence shared by all packages
+        final Map<Long, XBundleDTO> bundles = Maps.newHashMap();
+        for (final XBundleInfoDTO info : index.bundles) {
+            final var bundle = new XBundleDTO();
+
+            bundle.id           = info.id;
+            bundle.symbolicName = info.symbolicName;
+
+            bundles.put(info.id, bundle);
+        }
+        final List<PackageDTO> packages = Lists.newArrayListWithCapacity(index.packages.size());
+        for (final XPackageEntryDTO entry : index.packages) {
+            final var pkg = new PackageDTO();
+
+            pkg.name              = entry.name;
+            pkg.version           = entry.version;
+            pkg.isDuplicateExport = entry.isDuplicateExport;
+
+            entry.exporters.forEach(id -> pkg.exporters.add(bundles.get(id)));
+            entry.importers.forEach(id -> pkg.importers.add(bundles.get(id)));
+
+            packages.add(pkg);
+        }
+        return packages;
+    }
+
+    private List<PackageDTO> preparePackages(final List<XBundleDTO> bundles) {
         final List<PackageDTO>        packages      = Lists.newArrayList();
         final Map<String, PackageDTO> finalPackages = Maps.newHashMap();   // key: package name, value: PackageDTO
 
@@ -134,7 +205,7 @@ public final class PackagesInfoSupplier implements RuntimeInfoSupplier, EventHan
                 pkg.isDuplicateExport = true;
             }
         }
-        return FXCollections.observableArrayList(finalPackages.values());
+        return Lists.newArrayList(finalPackages.values());
     }
 
     private List<PackageDTO> toPackageDTOs(final List<XPackageDTO> exportedPackages) {
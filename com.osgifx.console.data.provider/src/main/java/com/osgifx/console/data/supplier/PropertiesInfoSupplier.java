@@ -23,6 +23,9 @@ import static javafx.collections.FXCollections.observableArrayList;
 import static org.osgi.service.component.annotations.ReferenceCardinality.OPTIONAL;
 import static org.osgi.service.component.annotations.ReferencePolicyOption.GREEDY;
 
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+
 import org.eclipse.fx.core.ThreadSynchronize;
 import org.eclipse.fx.core.log.FluentLogger;
 import org.eclipse.fx.core.log.LoggerFactory;
@@ -74,7 +77,22 @@ public final class PropertiesInfoSupplier implements RuntimeInfoSupplier, EventH
             logger.atWarning().log("Agent not connected");
             return;
         }
-        properties.setAll(makeNullSafe(agent.getAllProperties()));
+        update(agent.getAllProperties());
+    }
+
+    @Override
+    public CompletableFuture<Void> retrieveAsync() {
+        logger.atInfo().log("Retrieving properties info from remote runtime (async)");
+        final var agent = supervisor.getAsyncAgent();
+        if (agent == null) {
+            logger.atWarning().log("Agent not connected");
+            return CompletableFuture.completedFuture(null);
+        }
+        return agent.getAllProperties().thenAccept(this::update);
+    }
+
+    private synchronized void update(final Collection<XPropertyDTO> result) {
+        properties.setAll(makeNullSafe(result));
         RuntimeInfoSupplier.sendEvent(eventAdmin, DATA_RETRIEVED_PROPERTIES_TOPIC);
         logger.atInfo().log("Properties info retrieved successfully");
     }
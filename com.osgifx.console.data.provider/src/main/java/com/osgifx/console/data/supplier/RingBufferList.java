@@ -0,0 +1,295 @@
+/*******************************************************************************
+ * Copyright 2021-2023 Amit Kumar Mondal
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package com.osgifx.console.data.supplier;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.fx.core.ThreadSynchronize;
+import org.eclipse.fx.core.log.FluentLogger;
+
+import javafx.collections.ObservableListBase;
+
+/**
+ * Fixed-capacity ring buffer exposed as a read-only observable list. Entries
+ * can be offered from any thread and are published on the JavaFX application
+ * thread in batches, hence a burst of entries results in a single list change
+ * per pulse.
+ * <p>
+ * Once the capacity is reached, the oldest entries are evicted. If a spill
+ * capacity is configured, the evicted entries are written to a
+ * {@link SpillSegment} from where they can be loaded back in front of the
+ * buffered entries. While such history is shown, the evicted entries remain
+ * visible as part of it. The history never holds more entries than the spill
+ * capacity, that is, its oldest entries are dropped as further entries get
+ * evicted.
+ * <p>
+ * Apart from {@link #offer(Object)}, all methods must be invoked on the JavaFX
+ * application thread.
+ */
+final class RingBufferList<E> extends ObservableListBase<E> {
+
+    private final Class<E>          type;
+    private final String            name;
+    private final FluentLogger      logger;
+    private final ThreadSynchronize threadSync;
+    private final Queue<E>          pending        = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean     flushScheduled = new AtomicBoolean();
+
+    private Object[]        elements;
+    private int             head;
+    private int             size;
+    private SpillSegment<E> spillSegment;
+    private final List<E>   history = new ArrayList<>();
+    // the index of the first history entry in the spill segment
+    private int historyStart;
+    // invalidates the pending history loads
+    private int generation;
+
+    RingBufferList(final Class<E> type,
+                   final String name,
+                   final int capacity,
+                   final ThreadSynchronize threadSync,
+                   final FluentLogger logger) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.type       = type;
+        this.name       = name;
+        this.logger     = logger;
+        this.threadSync = threadSync;
+        this.elements   = new Object[capacity];
+    }
+
+    /**
+     * Appends the specified entry with the next pulse. This method can be invoked
+     * from any thread.
+     *
+     * @param entry the entry to append
+     */
+    void offer(final E entry) {
+        pending.add(entry);
+        if (flushScheduled.compareAndSet(false, true)) {
+            threadSync.asyncExec(this::flush);
+        }
+    }
+
+    @Override
+    public E get(final int index) {
+        Objects.checkIndex(index, size());
+        final var historySize = history.size();
+        if (index < historySize) {
+            return history.get(index);
+        }
+        return element(index - historySize);
+    }
+
+    @Override
+    public int size() {
+        return history.size() + size;
+    }
+
+    @Override
+    public void clear() {
+        pending.clear();
+        generation++;
+        final List<E> removed = new ArrayList<>(this);
+        history.clear();
+        Arrays.fill(elements, null);
+        head = size = 0;
+        if (spillSegment != null) {
+            spillSegment.clear();
+        }
+        historyStart = 0;
+        if (!removed.isEmpty()) {
+            beginChange();
+            nextRemove(0, removed);
+            endChange();
+        }
+    }
+
+    /**
+     * Updates the capacities of the buffer and the spill segment
+     *
+     * @param capacity the maximum number of buffered entries
+     * @param spillCapacity the maximum number of spilled entries or {@code 0} to
+     *            discard the evicted entries
+     */
+    void configure(final int capacity, final int spillCapacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        final var currentSpillCapacity = spillSegment == null ? 0 : spillSegment.capacity();
+        if (spillCapacity != currentSpillCapacity) {
+            clearHistory();
+            if (spillSegment != null) {
+                spillSegment.close();
+            }
+            spillSegment = spillCapacity > 0 ? new SpillSegment<>(type, name, spillCapacity, logger) : null;
+            historyStart = 0;
+            generation++;
+        }
+        if (capacity != elements.length) {
+            final var evicted  = removeOldest(Math.max(0, size - capacity));
+            final var resized  = new Object[capacity];
+            for (var i = 0; i < size; i++) {
+                resized[i] = element(i);
+            }
+            elements = resized;
+            head     = 0;
+            publish(evicted, List.of(), List.of());
+        }
+    }
+
+    /**
+     * Loads the specified number of spilled entries in front of the already
+     * shown entries
+     *
+     * @param count the maximum number of entries to load
+     */
+    void loadHistory(final int count) {
+        if (spillSegment == null || historyStart == 0) {
+            return;
+        }
+        final var to      = historyStart;
+        final var from    = Math.max(0, to - count);
+        final var current = generation;
+        historyStart = from;
+        spillSegment.read(from, to).thenAccept(entries -> threadSync.asyncExec(() -> {
+            if (current != generation || entries.isEmpty()) {
+                return;
+            }
+            history.addAll(0, entries);
+            beginChange();
+            nextAdd(0, entries.size());
+            endChange();
+        }));
+    }
+
+    void close() {
+        pending.clear();
+        if (spillSegment != null) {
+            spillSegment.close();
+            spillSegment = null;
+        }
+    }
+
+    private void flush() {
+        flushScheduled.set(false);
+        final List<E> batch = new ArrayList<>();
+        for (E entry; (entry = pending.poll()) != null;) {
+            batch.add(entry);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        // the entries beyond the capacity are evicted right away
+        final var overflow = Math.max(0, batch.size() - elements.length);
+        final var incoming = batch.subList(overflow, batch.size());
+        final var evicted  = removeOldest(Math.max(0, size + incoming.size() - elements.length));
+        publish(evicted, batch.subList(0, overflow), incoming);
+    }
+
+    private void publish(final List<E> evicted, final List<E> overflow, final List<E> incoming) {
+        final var historyShown = !history.isEmpty();
+        beginChange();
+        try {
+            if (historyShown) {
+                // the evicted entries keep their positions as part of the history
+                final var from = history.size() + evicted.size();
+                history.addAll(evicted);
+                history.addAll(overflow);
+                if (!overflow.isEmpty()) {
+                    nextAdd(from, from + overflow.size());
+                }
+                trimHistory();
+            } else if (!evicted.isEmpty()) {
+                nextRemove(0, evicted);
+            }
+            final var from = size();
+            for (final E entry : incoming) {
+                elements[(head + size++) % elements.length] = entry;
+            }
+            if (!incoming.isEmpty()) {
+                nextAdd(from, size());
+            }
+        } finally {
+            endChange();
+        }
+        spill(evicted, overflow, historyShown);
+    }
+
+    private void spill(final List<E> evicted, final List<E> overflow, final boolean historyShown) {
+        if (spillSegment == null || evicted.isEmpty() && overflow.isEmpty()) {
+            return;
+        }
+        final List<E> entries = new ArrayList<>(evicted.size() + overflow.size());
+        entries.addAll(evicted);
+        entries.addAll(overflow);
+        if (spillSegment.append(entries)) {
+            // the shown history is no longer backed by the segment
+            generation++;
+            historyStart = historyShown ? 0 : spillSegment.size();
+        } else if (!historyShown) {
+            historyStart = spillSegment.size();
+        }
+    }
+
+    private List<E> removeOldest(final int count) {
+        final List<E> removed = new ArrayList<>(count);
+        for (var i = 0; i < count; i++) {
+            removed.add(element(0));
+            elements[head] = null;
+            head           = (head + 1) % elements.length;
+            size--;
+        }
+        return removed;
+    }
+
+    private void trimHistory() {
+        // the segment has rolled over before the history exceeds its capacity and hence,
+        // the dropped entries cannot be loaded back either
+        final var excess = history.size() - spillSegment.capacity();
+        if (excess <= 0) {
+            return;
+        }
+        final var dropped = history.subList(0, excess);
+        nextRemove(0, new ArrayList<>(dropped));
+        dropped.clear();
+    }
+
+    private void clearHistory() {
+        if (history.isEmpty()) {
+            return;
+        }
+        final List<E> removed = new ArrayList<>(history);
+        history.clear();
+        beginChange();
+        nextRemove(0, removed);
+        endChange();
+    }
+
+    @SuppressWarnings("unchecked")
+    private E element(final int index) {
+        return (E) elements[(head + index) % elements.length];
+    }
+
+}
@@ -27,6 +27,9 @@ import static javafx.collections.FXCollections.observableArrayList;
 import static org.osgi.service.component.annotations.ReferenceCardinality.OPTIONAL;
 import static org.osgi.service.component.annotations.ReferencePolicyOption.GREEDY;
 
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+
 import org.eclipse.fx.core.ThreadSynchronize;
 import org.eclipse.fx.core.log.FluentLogger;
 import org.eclipse.fx.core.log.LoggerFactory;
@@ -88,7 +91,22 @@ public final class RolesInfoSupplier implements RuntimeInfoSupplier, EventHandle
             logger.atWarning().log("Agent not connected");
             return;
         }
-        roles.setAll(makeNullSafe(agent.getAllRoles()));
+        update(agent.getAllRoles());
+    }
+
+    @Override
+    public CompletableFuture<Void> retrieveAsync() {
+        logger.atInfo().log("Retrieving roles info from remote runtime (async)");
+        final var agent = supervisor.getAsyncAgent();
+        if (agent == null) {
+            logger.atWarning().log("Agent not connected");
+            return CompletableFuture.completedFuture(null);
+        }
+        return agent.getAllRoles().thenAccept(this::update);
+    }
+
+    private synchronized void update(final Collection<XRoleDTO> result) {
+        roles.setAll(makeNullSafe(result));
         RuntimeInfoSupplier.sendEvent(eventAdmin, DATA_RETRIEVED_ROLES_TOPIC);
         logger.atInfo().log("Roles info retrieved successfully");
     }
@@ -26,6 +26,11 @@ import static javafx.collections.FXCollections.observableArrayList;
 import static org.osgi.service.component.annotations.ReferenceCardinality.OPTIONAL;
 import static org.osgi.service.component.annotations.ReferencePolicyOption.GREEDY;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.eclipse.fx.core.ThreadSynchronize;
 import org.eclipse.fx.core.log.FluentLogger;
 import org.eclipse.fx.core.log.LoggerFactory;
@@ -38,6 +43,7 @@ import org.osgi.service.event.EventAdmin;
 import org.osgi.service.event.EventHandler;
 import org.osgi.service.event.propertytypes.EventTopics;
 
+import com.osgifx.console.agent.AsyncAgent;
 import com.osgifx.console.agent.dto.XServiceDTO;
 import com.osgifx.console.data.manager.RuntimeInfoSupplier;
 import com.osgifx.console.executor.Executor;
@@ -59,6 +65,8 @@ public final class ServicesInfoSupplier implements RuntimeInfoSupplier, EventHan
 
     public static final String SERVICES_ID = "services";
 
+    private static final int PAGE_SIZE = 200;
+
     @Reference
     private LoggerFactory       factory;
     @Reference
@@ -71,7 +79,8 @@ public final class ServicesInfoSupplier implements RuntimeInfoSupplier, EventHan
     private volatile Supervisor supervisor;
     private FluentLogger        logger;
 
-    private final ObservableList<XServiceDTO> services = observableArrayList();
+    private final ObservableList<XServiceDTO> services   = observableArrayList();
+    private final AtomicInteger               retrievals = new AtomicInteger();
 
     @Activate
     void activate() {
@@ -79,14 +88,62 @@ public final class ServicesInfoSupplier implements RuntimeInfoSupplier, EventHan
     }
 
     @Override
-    public synchronized void retrieve() {
-        logger.atInfo().log("Retrieving services info from remote runtime");
-        final var agent = supervisor.getAgent();
+    public void retrieve() {
+        retrieveAsync().join();
+    }
+
+    @Override
+    public CompletableFuture<Void> retrieveAsync() {
+        logger.atInfo().log("Retrieving services info from remote runtime (async)");
+        final var agent = supervisor.getAsyncAgent();
         if (agent == null) {
             logger.atWarning().log("Agent is not connected");
-            return;
+            return CompletableFuture.completedFuture(null);
+        }
+        if (!supervisor.isAgentMethodSupported("getServices")) {
+            // older agents only serve all services at once
+            return agent.getAllServices().thenAccept(this::update);
+        }
+        return retrievePages(agent, retrievals.incrementAndGet(), -1);
+    }
+
+    /**
+     * Retrieves the services with IDs greater than the specified one page by
+     * page. The pages are requested by service ID rather than by offset, so that
+     * the services registered or unregistered in between do not shift the pages.
+     */
+    private CompletableFuture<Void> retrievePages(final AsyncAgent agent, final int retrieval, final long lastId) {
+        final var filter = "(service.id>=" + (lastId + 1) + ")";
+        return agent.getServices(filter, 0, PAGE_SIZE).thenCompose(page -> {
+            if (page == null || page.services == null) {
+                logger.atWarning().log("Services info could not be retrieved");
+                return CompletableFuture.completedFuture(null);
+            }
+            final var isLastPage = page.services.isEmpty() || page.services.size() >= page.total;
+            if (!append(retrieval, lastId == -1, page.services) || isLastPage) {
+                return CompletableFuture.completedFuture(null);
+            }
+            return retrievePages(agent, retrieval, page.services.get(page.services.size() - 1).id);
+        });
+    }
+
+    private synchronized boolean append(final int retrieval, final boolean isFirstPage, final List<XServiceDTO> page) {
+        // a newer retrieval has been started in the meantime
+        if (retrieval != retrievals.get()) {
+            return false;
         }
-        services.setAll(makeNullSafe(agent.getAllServices()));
+        if (isFirstPage) {
+            services.setAll(page);
+        } else {
+            services.addAll(page);
+        }
+        RuntimeInfoSupplier.sendEvent(eventAdmin, DATA_RETRIEVED_SERVICES_TOPIC);
+        logger.atInfo().log("Services info page of %s services retrieved successfully", page.size());
+        return true;
+    }
+
+    private synchronized void update(final Collection<XServiceDTO> result) {
+        services.setAll(makeNullSafe(result));
         RuntimeInfoSupplier.sendEvent(eventAdmin, DATA_RETRIEVED_SERVICES_TOPIC);
         logger.atInfo().log("Services info retrieved successfully");
     }
@@ -99,6 +156,7 @@ public final class ServicesInfoSupplier implements RuntimeInfoSupplier, EventHan
     @Override
     public void handleEvent(final Event event) {
         if (AGENT_DISCONNECTED_EVENT_TOPIC.equals(event.getTopic())) {
+            retrievals.incrementAndGet();
             threadSync.asyncExec(services::clear);
             return;
         }
@@ -0,0 +1,205 @@
+/*******************************************************************************
+ * Copyright 2021-2023 Amit Kumar Mondal
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package com.osgifx.console.data.supplier;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory.Builder;
+import org.eclipse.fx.core.log.FluentLogger;
+
+import com.google.gson.Gson;
+
+/**
+ * Temporary file which keeps the entries evicted from a {@link RingBufferList}
+ * so that they can be loaded back on demand. The entries are stored as JSON
+ * lines and indexed by their file offsets.
+ * <p>
+ * The segment is confined to the thread of its owner while all file accesses
+ * are performed in order on a dedicated writer thread. Once the segment
+ * reaches its capacity, it rolls over and starts afresh.
+ */
+final class SpillSegment<E> {
+
+    private final Class<E>        type;
+    private final String          name;
+    private final int             capacity;
+    private final FluentLogger    logger;
+    private final Gson            gson;
+    private final ExecutorService writer;
+
+    // the number of entries that have been handed over to the writer
+    private int size;
+
+    // the following fields are only accessed by the writer thread
+    private Path             path;
+    private RandomAccessFile file;
+    private long[]           offsets = new long[1024];
+    private int              written;
+
+    SpillSegment(final Class<E> type, final String name, final int capacity, final FluentLogger logger) {
+        this.type     = type;
+        this.name     = name;
+        this.capacity = capacity;
+        this.logger   = logger;
+        this.gson     = new Gson();
+        this.writer   = Executors.newSingleThreadExecutor(
+                new Builder().namingPattern("fx-" + name + "-spill").daemon(true).build());
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Appends the specified entries to the segment
+     *
+     * @param entries the entries to append
+     * @return {@code true} if the segment had to roll over and all previously
+     *         appended entries are gone, otherwise {@code false}
+     */
+    boolean append(final List<E> entries) {
+        final var count  = entries.size();
+        final var rolled = size + count > capacity;
+        final var copy   = List.copyOf(count > capacity ? entries.subList(count - capacity, count) : entries);
+        size = rolled ? copy.size() : size + copy.size();
+        writer.execute(() -> {
+            if (rolled) {
+                truncate();
+            }
+            write(copy);
+        });
+        return rolled;
+    }
+
+    /**
+     * Reads the entries in the specified range which must have been appended
+     * before
+     *
+     * @param from the index of the first entry (inclusive)
+     * @param to the index of the last entry (exclusive)
+     * @return the entries in the order they have been appended
+     */
+    CompletableFuture<List<E>> read(final int from, final int to) {
+        return CompletableFuture.supplyAsync(() -> readRange(from, to), writer);
+    }
+
+    void clear() {
+        size = 0;
+        writer.execute(this::truncate);
+    }
+
+    void close() {
+        writer.execute(() -> {
+            closeFile();
+            if (path != null) {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (final IOException e) {
+                    logger.atWarning().withException(e).log("Spill file '%s' could not be deleted", path);
+                }
+            }
+        });
+        writer.shutdown();
+    }
+
+    private void write(final List<E> entries) {
+        try {
+            if (file == null) {
+                path = Files.createTempFile("osgifx-" + name + "-", ".jsonl");
+                path.toFile().deleteOnExit();
+                file = new RandomAccessFile(path.toFile(), "rw");
+            }
+            final var out    = new ByteArrayOutputStream();
+            var       offset = file.length();
+            for (final E entry : entries) {
+                if (written == offsets.length) {
+                    offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                }
+                offsets[written++] = offset;
+
+                final var line = (gson.toJson(entry) + '\n').getBytes(UTF_8);
+                out.write(line, 0, line.length);
+                offset += line.length;
+            }
+            file.seek(file.length());
+            file.write(out.toByteArray());
+        } catch (final IOException e) {
+            logger.atError().withException(e).log("Entries could not be spilled to '%s'", path);
+        }
+    }
+
+    private List<E> readRange(final int from, final int to) {
+        final var end = Math.min(to, written);
+        if (file == null || from >= end) {
+            return List.of();
+        }
+        try {
+            final var start  = offsets[from];
+            final var length = (int) ((end < written ? offsets[end] : file.length()) - start);
+            final var bytes  = new byte[length];
+            file.seek(start);
+            file.readFully(bytes);
+
+            final List<E> entries = new ArrayList<>(end - from);
+            for (final String line : new String(bytes, UTF_8).split("\n")) {
+                entries.add(gson.fromJson(line, type));
+            }
+            return entries;
+        } catch (final IOException e) {
+            logger.atError().withException(e).log("Spilled entries could not be read from '%s'", path);
+            return List.of();
+        }
+    }
+
+    private void truncate() {
+        written = 0;
+        if (file != null) {
+            try {
+                file.setLength(0);
+            } catch (final IOException e) {
+                logger.atError().withException(e).log("Spill file '%s' could not be truncated", path);
+            }
+        }
+    }
+
+    private void closeFile() {
+        if (file != null) {
+            try {
+                file.close();
+            } catch (final IOException e) {
+                // nothing to do as the file is deleted anyway
+            }
+            file = null;
+        }
+    }
+
+}
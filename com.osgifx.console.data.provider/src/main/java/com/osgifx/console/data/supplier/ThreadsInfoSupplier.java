@@ -17,12 +17,18 @@ package com.osgifx.console.data.supplier;
 
 import static com.osgifx.console.data.supplier.ThreadsInfoSupplier.THREADS_ID;
 import static com.osgifx.console.event.topics.DataRetrievedEventTopics.DATA_RETRIEVED_THREADS_TOPIC;
+import static com.osgifx.console.event.topics.ThreadDetailsEventTopics.THREAD_DETAILS_DISABLED_TOPIC;
+import static com.osgifx.console.event.topics.ThreadDetailsEventTopics.THREAD_DETAILS_ENABLED_TOPIC;
+import static com.osgifx.console.event.topics.ThreadDetailsEventTopics.THREAD_DETAILS_EVENT_TOPICS;
 import static com.osgifx.console.supervisor.Supervisor.AGENT_DISCONNECTED_EVENT_TOPIC;
 import static com.osgifx.console.util.fx.ConsoleFxHelper.makeNullSafe;
 import static javafx.collections.FXCollections.observableArrayList;
 import static org.osgi.service.component.annotations.ReferenceCardinality.OPTIONAL;
 import static org.osgi.service.component.annotations.ReferencePolicyOption.GREEDY;
 
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+
 import org.eclipse.fx.core.ThreadSynchronize;
 import org.eclipse.fx.core.log.FluentLogger;
 import org.eclipse.fx.core.log.LoggerFactory;
@@ -44,11 +50,13 @@ import javafx.collections.ObservableList;
 @Component
 @ServiceRanking(106)
 @SupplierID(THREADS_ID)
-@EventTopics(AGENT_DISCONNECTED_EVENT_TOPIC)
+@EventTopics({ AGENT_DISCONNECTED_EVENT_TOPIC, THREAD_DETAILS_EVENT_TOPICS })
 public final class ThreadsInfoSupplier implements RuntimeInfoSupplier, EventHandler {
 
     public static final String THREADS_ID = "threads";
 
+    private static final int MAX_STACK_DEPTH = 64;
+
     @Reference
     private LoggerFactory       factory;
     @Reference
@@ -58,6 +66,7 @@ public final class ThreadsInfoSupplier implements RuntimeInfoSupplier, EventHand
     @Reference(cardinality = OPTIONAL, policyOption = GREEDY)
     private volatile Supervisor supervisor;
     private FluentLogger        logger;
+    private volatile boolean    isDetailsEnabled;
 
     private final ObservableList<XThreadDTO> threads = observableArrayList();
 
@@ -74,7 +83,23 @@ public final class ThreadsInfoSupplier implements RuntimeInfoSupplier, EventHand
             logger.atWarning().log("Agent not connected");
             return;
         }
-        threads.setAll(makeNullSafe(agent.getAllThreads()));
+        update(isDetailsEnabled ? agent.getThreadDetails(MAX_STACK_DEPTH) : agent.getAllThreads());
+    }
+
+    @Override
+    public CompletableFuture<Void> retrieveAsync() {
+        logger.atInfo().log("Retrieving threads info from remote runtime (async)");
+        final var agent = supervisor.getAsyncAgent();
+        if (agent == null) {
+            logger.atWarning().log("Agent not connected");
+            return CompletableFuture.completedFuture(null);
+        }
+        final var result = isDetailsEnabled ? agent.getThreadDetails(MAX_STACK_DEPTH) : agent.getAllThreads();
+        return result.thenAccept(this::update);
+    }
+
+    private synchronized void update(final Collection<XThreadDTO> result) {
+        threads.setAll(makeNullSafe(result));
         RuntimeInfoSupplier.sendEvent(eventAdmin, DATA_RETRIEVED_THREADS_TOPIC);
         logger.atInfo().log("Threads info retrieved successfully");
     }
@@ -86,6 +111,19 @@ public final class ThreadsInfoSupplier implements RuntimeInfoSupplier, EventHand
 
     @Override
     public void handleEvent(final Event event) {
-        threadSync.asyncExec(threads::clear);
+        switch (event.getTopic()) {
+            case AGENT_DISCONNECTED_EVENT_TOPIC:
+                isDetailsEnabled = false;
+                threadSync.asyncExec(threads::clear);
+                break;
+            case THREAD_DETAILS_ENABLED_TOPIC:
+                isDetailsEnabled = true;
+                break;
+            case THREAD_DETAILS_DISABLED_TOPIC:
+                isDetailsEnabled = false;
+                break;
+            default:
+                break;
+        }
     }
 }
@@ -0,0 +1,244 @@
+/*******************************************************************************
+ * Copyright 2021-2023 Amit Kumar Mondal
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package com.osgifx.console.smartgraph.graphview;
+
+import static com.osgifx.console.smartgraph.graphview.UtilitiesPoint2D.attractiveFunction;
+import static com.osgifx.console.smartgraph.graphview.UtilitiesPoint2D.repellingFunction;
+
+/**
+ * Force-directed layout which approximates the repulsion between all vertices
+ * with a Barnes-Hut quad-tree. Distant groups of vertices are treated as a
+ * single body at their center of mass which reduces the cost of a layout step
+ * from O(n^2) to O(n log n).
+ * <p>
+ * The distance a vertex may move in a step is limited by a temperature which
+ * the caller lowers with every step, so the layout settles even if the forces
+ * keep oscillating in a crowded plot area.
+ * <p>
+ * A step only operates on a {@link Snapshot} of the vertex positions and can
+ * therefore be computed outside of the JavaFX application thread.
+ */
+final class SmartForceDirectedLayout {
+
+    /**
+     * Ratio of the cell size to the distance of a vertex below which the cell is
+     * approximated by its center of mass, {@code 0} falls back to the exact
+     * computation
+     */
+    private static final double THETA = 0.8;
+
+    // bounds the tree depth for coincident vertices
+    private static final int MAX_TREE_DEPTH = 24;
+
+    private final double repulsionForce;
+    private final double attractionForce;
+    private final double attractionScale;
+
+    /**
+     * Positions of the vertices to lay out along with their adjacency
+     *
+     * @param x the x coordinates of the vertex centers
+     * @param y the y coordinates of the vertex centers
+     * @param radii the radii of the vertices
+     * @param adjacency the indices of the adjacent vertices of each vertex
+     * @param width the width of the plot area
+     * @param height the height of the plot area
+     * @param temperature the maximum distance a vertex may move in a step
+     */
+    record Snapshot(double[] x,
+                    double[] y,
+                    double[] radii,
+                    int[][] adjacency,
+                    double width,
+                    double height,
+                    double temperature) {
+    }
+
+    /**
+     * Positions of the vertices after a layout step
+     *
+     * @param x the x coordinates of the vertex centers
+     * @param y the y coordinates of the vertex centers
+     * @param maxDisplacement the largest distance a vertex has moved in this step
+     */
+    record Result(double[] x, double[] y, double maxDisplacement) {
+    }
+
+    SmartForceDirectedLayout(final double repulsionForce, final double attractionForce, final double attractionScale) {
+        this.repulsionForce  = repulsionForce;
+        this.attractionForce = attractionForce;
+        this.attractionScale = attractionScale;
+    }
+
+    /**
+     * Computes the positions of the vertices after applying the repelling and
+     * attractive forces once. The positions are constrained to the plot area.
+     *
+     * @param snapshot the current positions
+     * @return the updated positions
+     */
+    Result step(final Snapshot snapshot) {
+        final var x     = snapshot.x();
+        final var y     = snapshot.y();
+        final var count = x.length;
+        final var root  = Cell.build(x, y);
+        final var newX  = new double[count];
+        final var newY  = new double[count];
+        final var force = new double[2];
+
+        var maxDisplacement = 0.0;
+        for (var i = 0; i < count; i++) {
+            force[0] = force[1] = 0;
+            if (root != null) {
+                repel(root, i, x[i], y[i], force);
+            }
+            for (final int j : snapshot.adjacency()[i]) {
+                final var dx       = x[j] - x[i];
+                final var dy       = y[j] - y[i];
+                final var distance = Math.sqrt(dx * dx + dy * dy);
+                if (i == j || distance == 0) {
+                    continue;
+                }
+                final var factor = attractiveFunction(distance, count, attractionForce, attractionScale);
+                force[0] += dx / distance * factor;
+                force[1] += dy / distance * factor;
+            }
+            final var magnitude = Math.hypot(force[0], force[1]);
+            if (magnitude > snapshot.temperature()) {
+                force[0] *= snapshot.temperature() / magnitude;
+                force[1] *= snapshot.temperature() / magnitude;
+            }
+            final var radius = snapshot.radii()[i];
+            newX[i] = bound(x[i] + force[0], radius, snapshot.width() - radius);
+            newY[i] = bound(y[i] + force[1], radius, snapshot.height() - radius);
+
+            maxDisplacement = Math.max(maxDisplacement, Math.hypot(newX[i] - x[i], newY[i] - y[i]));
+        }
+        return new Result(newX, newY, maxDisplacement);
+    }
+
+    private void repel(final Cell cell, final int vertex, final double x, final double y, final double[] force) {
+        if (cell.children == null && cell.body == vertex) {
+            return;
+        }
+        final var dx       = cell.massX - x;
+        final var dy       = cell.massY - y;
+        final var distance = Math.sqrt(dx * dx + dy * dy);
+        if (cell.children == null || cell.size < THETA * distance) {
+            if (distance == 0) {
+                return;
+            }
+            final var factor = -repellingFunction(distance, repulsionForce) * cell.mass;
+            force[0] += dx / distance * factor;
+            force[1] += dy / distance * factor;
+            return;
+        }
+        for (final Cell child : cell.children) {
+            if (child != null) {
+                repel(child, vertex, x, y, force);
+            }
+        }
+    }
+
+    private static double bound(final double value, final double min, final double max) {
+        if (value < min) {
+            return min;
+        }
+        if (value > max) {
+            return max;
+        }
+        return value;
+    }
+
+    /**
+     * Square region of the quad-tree which aggregates the mass of all vertices
+     * within
+     */
+    private static final class Cell {
+
+        final double centerX;
+        final double centerY;
+        final double size;
+        final int    depth;
+
+        int     body = -1;
+        int     mass;
+        double  massX;
+        double  massY;
+        Cell[]  children;
+
+        Cell(final double centerX, final double centerY, final double size, final int depth) {
+            this.centerX = centerX;
+            this.centerY = centerY;
+            this.size    = size;
+            this.depth   = depth;
+        }
+
+        static Cell build(final double[] x, final double[] y) {
+            if (x.length == 0) {
+                return null;
+            }
+            double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE, maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+            for (var i = 0; i < x.length; i++) {
+                minX = Math.min(minX, x[i]);
+                minY = Math.min(minY, y[i]);
+                maxX = Math.max(maxX, x[i]);
+                maxY = Math.max(maxY, y[i]);
+            }
+            final var size = Math.max(maxX - minX, maxY - minY) + 1;
+            final var root = new Cell((minX + maxX) / 2, (minY + maxY) / 2, size, 0);
+            for (var i = 0; i < x.length; i++) {
+                root.insert(i, x[i], y[i]);
+            }
+            return root;
+        }
+
+        void insert(final int vertex, final double x, final double y) {
+            if (mass == 0) {
+                body  = vertex;
+                mass  = 1;
+                massX = x;
+                massY = y;
+                return;
+            }
+            if (children == null && depth < MAX_TREE_DEPTH) {
+                children = new Cell[4];
+                insertIntoChild(body, massX, massY);
+                body = -1;
+            }
+            massX = (massX * mass + x) / (mass + 1);
+            massY = (massY * mass + y) / (mass + 1);
+            mass++;
+            if (children != null) {
+                insertIntoChild(vertex, x, y);
+            }
+            // otherwise the coincident vertex is merged into this leaf
+        }
+
+        private void insertIntoChild(final int vertex, final double x, final double y) {
+            final var east     = x >= centerX;
+            final var south    = y >= centerY;
+            final var quadrant = (east ? 1 : 0) + (south ? 2 : 0);
+            if (children[quadrant] == null) {
+                final var quarter = size / 4;
+                children[quadrant] = new Cell(centerX + (east ? quarter : -quarter),
+                                              centerY + (south ? quarter : -quarter), size / 2, depth + 1);
+            }
+            children[quadrant].insert(vertex, x, y);
+        }
+    }
+
+}
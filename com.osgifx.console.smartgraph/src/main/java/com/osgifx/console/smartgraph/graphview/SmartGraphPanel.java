@@ -19,18 +19,21 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Verify.verify;
 import static com.google.common.base.Verify.verifyNotNull;
 import static com.osgifx.console.smartgraph.graphview.UtilitiesJavaFX.pick;
-import static com.osgifx.console.smartgraph.graphview.UtilitiesPoint2D.attractiveForce;
-import static com.osgifx.console.smartgraph.graphview.UtilitiesPoint2D.repellingForce;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.net.MalformedURLException;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -105,14 +108,24 @@ public class SmartGraphPanel<V, E> extends Pane {
     /*
      * AUTOMATIC LAYOUT RELATED ATTRIBUTES
      */
-    public final BooleanProperty automaticLayoutProperty;
-    private AnimationTimer       timer;
-    private final double         repulsionForce;
-    private final double         attractionForce;
-    private final double         attractionScale;
-
-    // This value was obtained experimentally
-    private static final int AUTOMATIC_LAYOUT_ITERATIONS = 20;
+    public final BooleanProperty           automaticLayoutProperty;
+    private AnimationTimer                 timer;
+    private final SmartForceDirectedLayout layout;
+    private LayoutStep<V>                  layoutStep;
+    private double                         layoutTemperature;
+    private int                            layoutStableSteps;
+
+    // These values were obtained experimentally
+    private static final double LAYOUT_COOLING_FACTOR = 0.97;
+    private static final double LAYOUT_CONVERGENCE    = 0.5;
+    private static final int    LAYOUT_STABLE_STEPS   = 30;
+
+    // the layout steps of all panels are computed off the JavaFX application thread
+    private static final ExecutorService LAYOUT_EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        final var thread = new Thread(r, "smartgraph-layout");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     /**
      * Constructs a visualization of the graph referenced by <code>theGraph</code>,
@@ -185,9 +198,9 @@ public class SmartGraphPanel<V, E> extends Pane {
 
         this.edgesWithArrows = this.graphProperties.getUseEdgeArrow();
 
-        this.repulsionForce  = this.graphProperties.getRepulsionForce();
-        this.attractionForce = this.graphProperties.getAttractionForce();
-        this.attractionScale = this.graphProperties.getAttractionScale();
+        this.layout = new SmartForceDirectedLayout(this.graphProperties.getRepulsionForce(),
+                                                   this.graphProperties.getAttractionForce(),
+                                                   this.graphProperties.getAttractionScale());
 
         vertexNodes = Maps.newHashMap();
         edgeNodes   = Maps.newHashMap();
@@ -212,21 +225,95 @@ public class SmartGraphPanel<V, E> extends Pane {
         this.automaticLayoutProperty = new SimpleBooleanProperty(false);
         this.automaticLayoutProperty.addListener((observable, oldValue, newValue) -> {
             if (newValue) {
-                timer.start();
+                startLayout();
             } else {
-                timer.stop();
+                stopLayout();
             }
         });
 
     }
 
+    /**
+     * Invoked on every frame. The positions computed by the previous layout step
+     * are published to the vertices and the next step is handed over to the layout
+     * thread. A frame is skipped if the previous step is still being computed.
+     */
     private synchronized void runLayoutIteration() {
-        for (var i = 0; i < AUTOMATIC_LAYOUT_ITERATIONS; i++) {
-            resetForces();
-            computeForces();
-            updateForces();
+        if (layoutStep != null) {
+            final var result = layoutStep.result();
+            if (!result.isDone()) {
+                return;
+            }
+            if (result.isCompletedExceptionally()) {
+                Logger.getLogger(SmartGraphPanel.class.getName()).log(Level.SEVERE, "Automatic layout failed");
+                automaticLayoutProperty.set(false);
+                return;
+            }
+            final var positions = result.join();
+            final var nodes     = layoutStep.nodes();
+            for (var i = 0; i < nodes.size(); i++) {
+                nodes.get(i).setPosition(positions.x()[i], positions.y()[i]);
+            }
+            // the layout stops by itself once the vertices have settled
+            if (positions.maxDisplacement() >= LAYOUT_CONVERGENCE) {
+                layoutStableSteps = 0;
+            } else if (++layoutStableSteps >= LAYOUT_STABLE_STEPS) {
+                automaticLayoutProperty.set(false);
+                return;
+            }
+            layoutTemperature *= LAYOUT_COOLING_FACTOR;
+        }
+        final var nodes    = new ArrayList<>(vertexNodes.values());
+        final var snapshot = takeLayoutSnapshot(nodes);
+        final var result   = CompletableFuture.supplyAsync(() -> layout.step(snapshot), LAYOUT_EXECUTOR);
+        layoutStep = new LayoutStep<>(nodes, result);
+    }
+
+    private synchronized void startLayout() {
+        final var bounds = getLayoutBounds();
+        layoutStep        = null;
+        layoutStableSteps = 0;
+        // the layout bounds are not yet known if the panel has not been laid out
+        layoutTemperature = Math.max(Math.max(bounds.getWidth(), bounds.getHeight()),
+                Math.max(getPrefWidth(), getPrefHeight())) / 4;
+        timer.start();
+    }
+
+    private synchronized void stopLayout() {
+        timer.stop();
+        if (layoutStep != null) {
+            layoutStep.result().cancel(false);
+            layoutStep = null;
         }
-        applyForces();
+    }
+
+    private SmartForceDirectedLayout.Snapshot takeLayoutSnapshot(final List<SmartGraphVertexNode<V>> nodes) {
+        final Map<SmartGraphVertexNode<V>, Integer> indices = Maps.newHashMapWithExpectedSize(nodes.size());
+        for (var i = 0; i < nodes.size(); i++) {
+            indices.put(nodes.get(i), i);
+        }
+        final var x         = new double[nodes.size()];
+        final var y         = new double[nodes.size()];
+        final var radii     = new double[nodes.size()];
+        final var adjacency = new int[nodes.size()][];
+        for (var i = 0; i < nodes.size(); i++) {
+            final var node = nodes.get(i);
+            x[i]         = node.getCenterX();
+            y[i]         = node.getCenterY();
+            radii[i]     = node.getRadius();
+            // opt to use the internal adjacency, because a vertex can be removed from the
+            // underlying graph before we have the chance to remove it from our internal data
+            // structure
+            adjacency[i] = node.getAdjacentVertices().stream().map(indices::get).filter(Objects::nonNull)
+                    .mapToInt(Integer::intValue).toArray();
+        }
+        final var bounds = getLayoutBounds();
+        return new SmartForceDirectedLayout.Snapshot(x, y, radii, adjacency, bounds.getWidth(), bounds.getHeight(),
+                                                     layoutTemperature);
+    }
+
+    private record LayoutStep<V>(List<SmartGraphVertexNode<V>> nodes,
+                                 CompletableFuture<SmartForceDirectedLayout.Result> result) {
     }
 
     /**
@@ -256,7 +343,7 @@ public class SmartGraphPanel<V, E> extends Pane {
             // apply random placement
             new SmartRandomPlacementStrategy().place(width, height, this.theGraph, this.vertexNodes.values());
             // start automatic layout
-            timer.start();
+            automaticLayoutProperty.set(true);
         }
         this.initialized = true;
     }
@@ -271,7 +358,8 @@ public class SmartGraphPanel<V, E> extends Pane {
     }
 
     /**
-     * Toggle the automatic layout of vertices.
+     * Toggle the automatic layout of vertices. The automatic layout is disabled
+     * again as soon as the vertices have settled.
      *
      * @param value true if enabling; false, otherwise
      */
@@ -744,65 +832,6 @@ public class SmartGraphPanel<V, E> extends Pane {
         return new BoundingBox(minX, minY, maxX - minX, maxY - minY);
     }
 
-    /*
-     * AUTOMATIC LAYOUT
-     */
-    private void computeForces() {
-        for (final SmartGraphVertexNode<V> v : vertexNodes.values()) {
-            for (final SmartGraphVertexNode<V> other : vertexNodes.values()) {
-                if (v == other) {
-                    continue; // NOP
-                }
-
-                // double k = Math.sqrt(getWidth() * getHeight() / graphVertexMap.size());
-                final var repellingForce = repellingForce(v.getUpdatedPosition(), other.getUpdatedPosition(),
-                        this.repulsionForce);
-
-                double deltaForceX = 0, deltaForceY = 0;
-
-                // compute attractive and reppeling forces
-                // opt to use internal areAdjacent check, because a vertex can be removed from
-                // the underlying graph before we have the chance to remove it from our
-                // internal data structure
-                if (areAdjacent(v, other)) {
-
-                    final var attractiveForce = attractiveForce(v.getUpdatedPosition(), other.getUpdatedPosition(),
-                            vertexNodes.size(), this.attractionForce, this.attractionScale);
-
-                    deltaForceX = attractiveForce.getX() + repellingForce.getX();
-                    deltaForceY = attractiveForce.getY() + repellingForce.getY();
-                } else {
-                    deltaForceX = repellingForce.getX();
-                    deltaForceY = repellingForce.getY();
-                }
-
-                v.addForceVector(deltaForceX, deltaForceY);
-            }
-        }
-    }
-
-    private boolean areAdjacent(final SmartGraphVertexNode<V> v, final SmartGraphVertexNode<V> u) {
-        return v.isAdjacentTo(u);
-    }
-
-    private void updateForces() {
-        vertexNodes.values().forEach(v -> {
-            v.updateDelta();
-        });
-    }
-
-    private void applyForces() {
-        vertexNodes.values().forEach(v -> {
-            v.moveFromForces();
-        });
-    }
-
-    private void resetForces() {
-        vertexNodes.values().forEach(v -> {
-            v.resetForces();
-        });
-    }
-
     private int getTotalEdgesBetween(final Vertex<V> v, final Vertex<V> u) {
         // TODO: It may be necessary to adjust this method if you use another Graph
         // variant, e.g., Digraph (directed graph)
@@ -49,12 +49,6 @@ public class SmartGraphVertexNode<T> extends Circle implements SmartGraphVertex<
     private SmartLabel attachedLabel = null;
     private boolean    isDragging    = false;
 
-    /*
-     * Automatic layout functionality members
-     */
-    private final PointVector forceVector     = new PointVector(0, 0);
-    private final PointVector updatedPosition = new PointVector(0, 0);
-
     /* Styling proxy */
     private final SmartStyleProxy styleProxy;
 
@@ -117,6 +111,15 @@ public class SmartGraphVertexNode<T> extends Circle implements SmartGraphVertex<
         return this.adjacentVertices.removeAll(col);
     }
 
+    /**
+     * Returns the internal list of adjacent vertices.
+     *
+     * @return the adjacent vertices
+     */
+    Set<SmartGraphVertexNode<T>> getAdjacentVertices() {
+        return this.adjacentVertices;
+    }
+
     /**
      * Checks whether <code>v</code> is adjacent this instance.
      *
@@ -171,76 +174,6 @@ public class SmartGraphVertexNode<T> extends Circle implements SmartGraphVertex<
         setPosition(p.getX(), p.getY());
     }
 
-    /**
-     * Resets the current computed external force vector.
-     *
-     */
-    public void resetForces() {
-        forceVector.x     = forceVector.y = 0;
-        updatedPosition.x = getCenterX();
-        updatedPosition.y = getCenterY();
-    }
-
-    /**
-     * Adds the vector represented by <code>(x,y)</code> to the current external
-     * force vector.
-     *
-     * @param x x-component of the force vector
-     * @param y y-component of the force vector
-     *
-     */
-    public void addForceVector(final double x, final double y) {
-        forceVector.x += x;
-        forceVector.y += y;
-    }
-
-    /**
-     * Returns the current external force vector.
-     *
-     * @return force vector
-     */
-    public Point2D getForceVector() {
-        return new Point2D(forceVector.x, forceVector.y);
-    }
-
-    /**
-     * Returns the future position of the vertex.
-     *
-     * @return future position
-     */
-    public Point2D getUpdatedPosition() {
-        return new Point2D(updatedPosition.x, updatedPosition.y);
-    }
-
-    /**
-     * Updates the future position according to the current internal force vector.
-     *
-     * @see SmartGraphPanel#updateForces()
-     */
-    public void updateDelta() {
-        updatedPosition.x = updatedPosition.x /* + speed */ + forceVector.x;
-        updatedPosition.y = updatedPosition.y + forceVector.y;
-    }
-
-    /**
-     * Moves the vertex position to the computed future position.
-     * <p>
-     * Moves are constrained within the parent pane dimensions.
-     *
-     * @see SmartGraphPanel#applyForces()
-     */
-    public void moveFromForces() {
-
-        // limit movement to parent bounds
-        final var height = getParent().getLayoutBounds().getHeight();
-        final var width  = getParent().getLayoutBounds().getWidth();
-
-        updatedPosition.x = boundCenterCoordinate(updatedPosition.x, 0, width);
-        updatedPosition.y = boundCenterCoordinate(updatedPosition.y, 0, height);
-
-        setPosition(updatedPosition.x, updatedPosition.y);
-    }
-
     /**
      * Make a node movable by dragging it around with the mouse primary button.
      */
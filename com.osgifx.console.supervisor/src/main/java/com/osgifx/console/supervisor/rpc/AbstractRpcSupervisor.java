@@ -139,10 +139,12 @@ public abstract class AbstractRpcSupervisor<S, A> {
                         final var socket = sf == null ? new Socket() : sf.createSocket();
                         socket.connect(new InetSocketAddress(host, port), Math.max(timeout, 0));
 
-                        final var executor = newFixedThreadPool("fx-supervisor-socket-%d");
-                        remoteRPC = new SocketRPC<>(agent, supervisor, socket, executor);
-                        this.setRemoteRPC(remoteRPC);
-                        remoteRPC.open();
+                        final var executor  = newFixedThreadPool("fx-supervisor-socket-%d");
+                        final var socketRPC = new SocketRPC<>(agent, supervisor, socket, executor);
+                        this.setRemoteRPC(socketRPC);
+                        socketRPC.open();
+                        // older agents ignore the offer and continue using the default codec
+                        socketRPC.offerCodecs();
                         return null;
                     } catch (final ConnectException e) {
                         clearSSLProperties();
@@ -201,10 +203,12 @@ public abstract class AbstractRpcSupervisor<S, A> {
                 .run(bundleContext);
 
         final var executor = newFixedThreadPool("fx-supervisor-mqtt-%d");
-        remoteRPC = new MqttRPC<>(bundleContext, agent, supervisor, connection.subTopic(), connection.pubTopic(),
-                                  executor);
-        this.setRemoteRPC(remoteRPC);
-        remoteRPC.open();
+        final var mqttRPC  = new MqttRPC<>(bundleContext, agent, supervisor, connection.subTopic(),
+                                           connection.pubTopic(), executor);
+        this.setRemoteRPC(mqttRPC);
+        mqttRPC.open();
+        // older agents ignore the offer and continue using the JSON messages
+        mqttRPC.offerBinaryFrames();
 
         return result;
     }
@@ -218,6 +222,10 @@ public abstract class AbstractRpcSupervisor<S, A> {
         return agent;
     }
 
+    public <T> T getAsyncAgent(final Class<T> asyncAgent) {
+        return remoteRPC == null ? null : remoteRPC.getAsyncRemote(asyncAgent);
+    }
+
     public boolean isOpen() {
         return remoteRPC.isOpen();
     }
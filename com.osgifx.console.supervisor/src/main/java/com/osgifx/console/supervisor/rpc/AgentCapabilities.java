@@ -0,0 +1,58 @@
+/*******************************************************************************
+ * Copyright 2021-2023 Amit Kumar Mondal
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package com.osgifx.console.supervisor.rpc;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.osgifx.console.agent.Agent;
+import com.osgifx.console.agent.AsyncAgent;
+
+/**
+ * Probes the methods supported by the agent of a connection once. The agents
+ * which predate the probe silently ignore it just like any other unknown method
+ * and hence, they are identified by the missing response. The probe itself is
+ * cheap, so that a new agent answers well within the deadline even while it is
+ * busy with other requests.
+ */
+final class AgentCapabilities {
+
+    static final Duration PROBE_TIMEOUT = Duration.ofSeconds(5);
+
+    private final Agent                          delegate;
+    private final CompletableFuture<Set<String>> supportedMethods;
+
+    AgentCapabilities(final Agent delegate, final AsyncAgent asyncDelegate) {
+        this.delegate    = delegate;
+        // @formatter:off
+        supportedMethods = asyncDelegate.getSupportedMethods()
+                                        .orTimeout(PROBE_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)
+                                        .exceptionally(e -> null)
+                                        .thenApply(methods -> methods == null ? Set.of() : Set.copyOf(methods));
+        // @formatter:on
+    }
+
+    boolean isFor(final Agent delegate) {
+        return this.delegate == delegate;
+    }
+
+    boolean isSupported(final String method) {
+        return supportedMethods.join().contains(method);
+    }
+
+}
@@ -0,0 +1,242 @@
+/*******************************************************************************
+ * Copyright 2021-2023 Amit Kumar Mondal
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package com.osgifx.console.supervisor.rpc;
+
+import static java.time.Duration.ofSeconds;
+import static java.util.Map.entry;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.osgifx.console.agent.Agent;
+import com.osgifx.console.agent.AsyncAgent;
+import com.osgifx.console.supervisor.AgentCacheStatsDTO;
+
+/**
+ * Caches the responses of the read-only agent calls for a short time, so that
+ * the views requesting the same information over a slow link share a single
+ * remote call. Concurrent identical calls wait for the same response. Any call
+ * which is not read-only invalidates the cache as it might have changed the
+ * remote runtime.
+ */
+final class AgentResponseCache {
+
+    // @formatter:off
+    static final Map<String, Duration> DEFAULT_TTLS = Map.ofEntries(
+            entry("getAllBundles",           ofSeconds(5)),
+            entry("getAllComponents",        ofSeconds(5)),
+            entry("getAllConfigurations",    ofSeconds(5)),
+            entry("getAllServices",          ofSeconds(5)),
+            entry("getServices",             ofSeconds(5)),
+            entry("getPackageIndex",         ofSeconds(5)),
+            entry("getBundleStartHistories", ofSeconds(5)),
+            entry("getRuntimeDTO",           ofSeconds(5)),
+            entry("getAllRoles",             ofSeconds(10)),
+            entry("getAllHealthChecks",      ofSeconds(10)),
+            entry("getHttpComponents",       ofSeconds(10)),
+            entry("getBundleLoggerContexts", ofSeconds(10)),
+            entry("getClassloaderLeaks",     ofSeconds(10)),
+            entry("getAllProperties",        ofSeconds(30)),
+            entry("getGogoCommands",         ofSeconds(60)));
+    // @formatter:on
+
+    private static final List<String> READ_ONLY_PREFIXES = List.of("get", "read", "is", "ping");
+
+    private record Key(String method, List<Object> args) {
+    }
+
+    private static final class Entry {
+        private final CompletableFuture<Object> response = new CompletableFuture<>();
+        private volatile long                   expiresAt;
+
+        boolean isValid(final long now) {
+            return !response.isDone() || now - expiresAt < 0;
+        }
+    }
+
+    private final Agent                  delegate;
+    private final Agent                  agent;
+    private final AsyncAgent             asyncAgent;
+    private final Map<String, Duration>  ttls;
+    private final Map<Key, Entry>        entries       = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> hits          = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> misses        = new ConcurrentHashMap<>();
+    private final LongAdder              invalidations = new LongAdder();
+
+    AgentResponseCache(final Agent delegate, final AsyncAgent asyncDelegate, final Map<String, Duration> ttls) {
+        this.delegate   = delegate;
+        this.ttls       = ttls;
+        this.agent      = proxy(Agent.class, delegate, false);
+        this.asyncAgent = asyncDelegate == null ? null : proxy(AsyncAgent.class, asyncDelegate, true);
+    }
+
+    boolean isFor(final Agent delegate) {
+        return this.delegate == delegate;
+    }
+
+    Agent agent() {
+        return agent;
+    }
+
+    AsyncAgent asyncAgent() {
+        return asyncAgent;
+    }
+
+    void invalidate() {
+        entries.clear();
+        invalidations.increment();
+    }
+
+    AgentCacheStatsDTO stats() {
+        final var stats = new AgentCacheStatsDTO();
+
+        stats.hitsByMethod   = sum(hits);
+        stats.missesByMethod = sum(misses);
+        stats.hits           = stats.hitsByMethod.values().stream().mapToLong(Long::longValue).sum();
+        stats.misses         = stats.missesByMethod.values().stream().mapToLong(Long::longValue).sum();
+        stats.invalidations  = invalidations.sum();
+
+        return stats;
+    }
+
+    private <T> T proxy(final Class<T> type, final Object target, final boolean async) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class) {
+                        return method.invoke(target, args);
+                    }
+                    final var ttl = ttls.get(method.getName());
+                    if (ttl != null) {
+                        return cached(target, method, args, ttl, async);
+                    }
+                    if (isReadOnly(method.getName())) {
+                        return invoke(target, method, args);
+                    }
+                    try {
+                        return invoke(target, method, args);
+                    } finally {
+                        invalidate();
+                    }
+                }));
+    }
+
+    private Object cached(final Object target,
+                          final Method method,
+                          final Object[] args,
+                          final Duration ttl,
+                          final boolean async) throws Throwable {
+        final var key     = new Key(method.getName(), args == null ? List.of() : Arrays.asList(args));
+        final var now     = System.nanoTime();
+        final var created = new Entry();
+        final var entry   = entries.compute(key,
+                (k, existing) -> existing != null && existing.isValid(now) ? existing : created);
+        if (entry == created) {
+            counter(misses, key.method()).increment();
+            fetch(key, entry, target, method, args, ttl, async);
+        } else {
+            counter(hits, key.method()).increment();
+        }
+        // the callers must not be able to modify the shared responses
+        if (async) {
+            return entry.response.thenApply(AgentResponseCache::copy);
+        }
+        try {
+            return copy(entry.response.join());
+        } catch (final CompletionException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void fetch(final Key key,
+                       final Entry entry,
+                       final Object target,
+                       final Method method,
+                       final Object[] args,
+                       final Duration ttl,
+                       final boolean async) {
+        final var response = entry.response;
+        // failed or missing (for example, timed out) responses must not be served to the
+        // subsequent calls
+        response.whenComplete((r, e) -> {
+            if (e != null || r == null) {
+                entries.remove(key, entry);
+            }
+        });
+        try {
+            final var result = invoke(target, method, args);
+            if (async) {
+                ((CompletableFuture<?>) result).whenComplete((r, e) -> {
+                    if (e == null) {
+                        entry.expiresAt = System.nanoTime() + ttl.toNanos();
+                        response.complete(r);
+                    } else {
+                        response.completeExceptionally(e);
+                    }
+                });
+            } else {
+                entry.expiresAt = System.nanoTime() + ttl.toNanos();
+                response.complete(result);
+            }
+        } catch (final Throwable e) {
+            response.completeExceptionally(e);
+        }
+    }
+
+    private static Object invoke(final Object target, final Method method, final Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (final InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static boolean isReadOnly(final String method) {
+        return READ_ONLY_PREFIXES.stream().anyMatch(method::startsWith);
+    }
+
+    private static Object copy(final Object response) {
+        if (response instanceof final List<?> list) {
+            return new ArrayList<>(list);
+        }
+        if (response instanceof final Set<?> set) {
+            return new HashSet<>(set);
+        }
+        return response;
+    }
+
+    private static LongAdder counter(final Map<String, LongAdder> counters, final String method) {
+        return counters.computeIfAbsent(method, m -> new LongAdder());
+    }
+
+    private static Map<String, Long> sum(final Map<String, LongAdder> counters) {
+        final Map<String, Long> sums = new ConcurrentHashMap<>();
+        counters.forEach((method, counter) -> sums.put(method, counter.sum()));
+        return sums;
+    }
+
+}
@@ -0,0 +1,74 @@
+/*******************************************************************************
+ * Copyright 2021-2023 Amit Kumar Mondal
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package com.osgifx.console.supervisor.rpc;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.osgifx.console.agent.dto.XCommandResultDTO;
+import com.osgifx.console.supervisor.CommandOutputListener;
+
+/**
+ * Restores the order of the output chunks of a streamed command execution.
+ * The supervisor callbacks are dispatched on a thread pool, hence, the chunks
+ * and the completion might arrive in any order. The chunks are delivered to the
+ * listener in the order of their sequence numbers and the completion is
+ * deferred until all the chunks reported by the result have been delivered.
+ */
+final class OrderedCommandOutput {
+
+    private final CommandOutputListener listener;
+    private final Map<Long, String>     pending = new HashMap<>();
+    private long                        next;
+    private XCommandResultDTO           result;
+
+    OrderedCommandOutput(final CommandOutputListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * @return {@code true} if the execution has been completed
+     */
+    synchronized boolean onOutput(final long sequence, final String chunk) {
+        if (sequence < next) {
+            return false;
+        }
+        pending.put(sequence, chunk);
+        String current;
+        while ((current = pending.remove(next)) != null) {
+            next++;
+            listener.onOutput(current);
+        }
+        return tryComplete();
+    }
+
+    /**
+     * @return {@code true} if the execution has been completed
+     */
+    synchronized boolean onCompleted(final XCommandResultDTO result) {
+        this.result = result;
+        return tryComplete();
+    }
+
+    private boolean tryComplete() {
+        if (result == null || next < result.chunks) {
+            return false;
+        }
+        listener.onCompleted(result);
+        return true;
+    }
+
+}
@@ -16,10 +16,14 @@
 package com.osgifx.console.supervisor.rpc;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.osgifx.console.event.topics.BundleActionEventTopics.BUNDLE_ACTION_EVENT_TOPICS;
+import static com.osgifx.console.event.topics.ComponentActionEventTopics.COMPONENT_ACTION_EVENT_TOPICS;
+import static com.osgifx.console.event.topics.ConfigurationActionEventTopics.CONFIGURATION_ACTION_EVENT_TOPICS;
 import static com.osgifx.console.supervisor.Supervisor.RpcType.MQTT_RPC;
 import static com.osgifx.console.supervisor.Supervisor.RpcType.SOCKET_RPC;
 import static com.osgifx.console.supervisor.rpc.RpcSupervisor.CONDITION_ID_VALUE;
 import static com.osgifx.console.supervisor.rpc.RpcSupervisor.MQTT_CONNECTION_LISTENER_FILTER_PROP;
+import static com.osgifx.console.supervisor.rpc.RpcSupervisor.PID;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.osgi.service.component.annotations.ReferenceCardinality.OPTIONAL;
 import static org.osgi.service.component.annotations.ReferencePolicyOption.GREEDY;
@@ -27,11 +31,14 @@ import static org.osgi.service.condition.Condition.CONDITION_ID;
 
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.time.Duration;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.aries.component.dsl.OSGi;
 import org.apache.aries.component.dsl.OSGiResult;
@@ -42,20 +49,26 @@ import org.osgi.service.cm.ConfigurationAdmin;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
 import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.propertytypes.SatisfyingConditionTarget;
 import org.osgi.service.event.Event;
 import org.osgi.service.event.EventAdmin;
+import org.osgi.service.event.EventHandler;
+import org.osgi.service.event.propertytypes.EventTopics;
 import org.osgi.service.messaging.MessageSubscription;
 
 import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.mu.util.Substring;
 import com.hivemq.client.mqtt.lifecycle.MqttClientConnectedContext;
 import com.hivemq.client.mqtt.lifecycle.MqttClientConnectedListener;
 import com.hivemq.client.mqtt.lifecycle.MqttClientDisconnectedContext;
 import com.hivemq.client.mqtt.lifecycle.MqttClientDisconnectedListener;
 import com.osgifx.console.agent.Agent;
+import com.osgifx.console.agent.AsyncAgent;
+import com.osgifx.console.agent.dto.XCommandResultDTO;
 import com.osgifx.console.agent.dto.XEventDTO;
 import com.osgifx.console.agent.dto.XLogEntryDTO;
 import com.osgifx.console.agent.rpc.mqtt.MqttRPC;
@@ -63,16 +76,28 @@ import com.osgifx.console.agent.rpc.mqtt.SimpleMqtt5Publisher;
 import com.osgifx.console.agent.rpc.mqtt.SimpleMqtt5Subscriber;
 import com.osgifx.console.agent.rpc.mqtt.api.Mqtt5Publisher;
 import com.osgifx.console.agent.rpc.mqtt.api.Mqtt5Subscriber;
+import com.osgifx.console.supervisor.AgentCacheStatsDTO;
+import com.osgifx.console.supervisor.CommandOutputListener;
 import com.osgifx.console.supervisor.EventListener;
 import com.osgifx.console.supervisor.LogEntryListener;
 import com.osgifx.console.supervisor.MqttConnection;
 import com.osgifx.console.supervisor.SocketConnection;
 import com.osgifx.console.supervisor.Supervisor;
 
-@Component(property = MQTT_CONNECTION_LISTENER_FILTER_PROP)
+@Component(configurationPid = PID, property = MQTT_CONNECTION_LISTENER_FILTER_PROP)
 @SatisfyingConditionTarget("(" + CONDITION_ID + "=" + CONDITION_ID_VALUE + ")")
+@EventTopics({ BUNDLE_ACTION_EVENT_TOPICS, COMPONENT_ACTION_EVENT_TOPICS, CONFIGURATION_ACTION_EVENT_TOPICS })
 public final class RpcSupervisor extends AbstractRpcSupervisor<Supervisor, Agent>
-        implements Supervisor, MqttClientConnectedListener, MqttClientDisconnectedListener {
+        implements Supervisor, MqttClientConnectedListener, MqttClientDisconnectedListener, EventHandler {
+
+    static final String PID = "osgi.fx.agent.cache";
+
+    @interface Configuration {
+        boolean enabled() default true;
+
+        // entries in the form of 'method=milliseconds' overriding the default TTLs
+        String[] ttls() default {};
+    }
 
     public static final String CONDITION_ID_VALUE                    = "rpc-agent";
     public static final String MQTT_CONDITION_ID                     = "mqtt-messaging";
@@ -82,13 +107,18 @@ public final class RpcSupervisor extends AbstractRpcSupervisor<Supervisor, Agent
             + MQTT_CONNECTION_LISTENER_FILTER_VALUE;
     public static final String MQTT_CONNECTION_LISTENER_FILTER       = "(" + MQTT_CONNECTION_LISTENER_FILTER_PROP + ")";
 
+    private static final Duration DEFAULT_STDIN_FLUSH_DELAY = Duration.ofMillis(20);
+
     private Appendable                 stdout;
     private Appendable                 stderr;
     private int                        shell = -100;
     private CompletableFuture<Boolean> mqttConnectionPromise;
+    private StdinForwarder             stdinForwarder;
 
-    private final List<EventListener>    eventListeners    = Lists.newCopyOnWriteArrayList();
-    private final List<LogEntryListener> logEntryListeners = Lists.newCopyOnWriteArrayList();
+    private final List<EventListener>             eventListeners         = Lists.newCopyOnWriteArrayList();
+    private final List<LogEntryListener>          logEntryListeners      = Lists.newCopyOnWriteArrayList();
+    private final Map<Long, OrderedCommandOutput> commandOutputListeners = Maps.newConcurrentMap();
+    private final AtomicLong                      commandIds             = new AtomicLong();
 
     @Reference
     private LoggerFactory factory;
@@ -108,16 +138,28 @@ public final class RpcSupervisor extends AbstractRpcSupervisor<Supervisor, Agent
     private BundleContext context;
     private OSGiResult    mqttMessagingCondition;
 
+    private volatile Map<String, Duration> cacheTTLs;
+    private volatile AgentResponseCache    responseCache;
+    private volatile AgentCapabilities     capabilities;
+
     @Activate
-    void activate(final BundleContext context) {
+    void activate(final BundleContext context, final Configuration configuration) {
         this.context = context;
         logger       = FluentLogger.of(factory.createLogger(getClass().getName()));
+        cacheTTLs    = initCacheTTLs(configuration);
 
         // register the required MQTT services
         pubReg = OSGi.register(Mqtt5Publisher.class, new SimpleMqtt5Publisher(context), null).run(context);
         subReg = OSGi.register(Mqtt5Subscriber.class, new SimpleMqtt5Subscriber(context), null).run(context);
     }
 
+    @Modified
+    void modified(final Configuration configuration) {
+        cacheTTLs     = initCacheTTLs(configuration);
+        // the cache gets recreated with the new TTLs on the next agent call
+        responseCache = null;
+    }
+
     @Deactivate
     void deactivate() {
         // this will be called when the agent is disconnected to deregister the service
@@ -134,10 +176,67 @@ public final class RpcSupervisor extends AbstractRpcSupervisor<Supervisor, Agent
         return remoteRPC instanceof MqttRPC<Supervisor, Agent> ? MQTT_RPC : SOCKET_RPC;
     }
 
+    @Override
+    public Agent getAgent() {
+        final var cache = getResponseCache();
+        return cache == null ? null : cache.agent();
+    }
+
+    @Override
+    public AsyncAgent getAsyncAgent() {
+        final var cache = getResponseCache();
+        return cache == null ? null : cache.asyncAgent();
+    }
+
+    @Override
+    public boolean isAgentMethodSupported(final String method) {
+        final var agent      = super.getAgent();
+        final var asyncAgent = super.getAsyncAgent(AsyncAgent.class);
+        if (agent == null || asyncAgent == null) {
+            return false;
+        }
+        var current = capabilities;
+        if (current == null || !current.isFor(agent)) {
+            synchronized (this) {
+                current = capabilities;
+                if (current == null || !current.isFor(agent)) {
+                    // every connection gets probed once
+                    current      = new AgentCapabilities(agent, asyncAgent);
+                    capabilities = current;
+                }
+            }
+        }
+        return current.isSupported(method);
+    }
+
+    @Override
+    public AgentCacheStatsDTO getAgentCacheStats() {
+        final var cache = getResponseCache();
+        if (cache == null) {
+            final var stats = new AgentCacheStatsDTO();
+            stats.hitsByMethod   = Map.of();
+            stats.missesByMethod = Map.of();
+            return stats;
+        }
+        return cache.stats();
+    }
+
+    @Override
+    public void handleEvent(final Event event) {
+        // the actions performed on the remote runtime render the cached responses stale
+        final var cache = responseCache;
+        if (cache != null) {
+            cache.invalidate();
+            logger.atDebug().log("Agent response cache has been invalidated due to '%s'", event.getTopic());
+        }
+    }
+
     @Override
     public void connect(final SocketConnection socketConnection) throws Exception {
         checkNotNull(socketConnection, "'socketConnection' cannot be null");
         connectToSocket(Agent.class, this, socketConnection);
+        // older agents ignore this and continue pushing the entries individually
+        getAgent().enableBatchedPush();
     }
 
     @Override
@@ -156,6 +255,8 @@ public final class RpcSupervisor extends AbstractRpcSupervisor<Supervisor, Agent
                                               MQTT_CONDITION_ID);
             // @formatter:on
             mqttConnectionPromise.get(mqttConnection.timeout(), MILLISECONDS);
+            // older agents ignore this and continue pushing the entries individually
+            getAgent().enableBatchedPush();
 
             final var lwtTopic = mqttConnection.lwtTopic();
             if (subscriber != null && !Strings.isNullOrEmpty(lwtTopic)) {
@@ -203,6 +304,43 @@ public final class RpcSupervisor extends AbstractRpcSupervisor<Supervisor, Agent
         logEntryListeners.forEach(listener -> listener.logged(logEvent));
     }
 
+    @Override
+    public void onOSGiEventBatch(final List<XEventDTO> events, final long dropped) {
+        checkNotNull(events, "'events' cannot be null");
+        if (dropped > 0) {
+            logger.atWarning().log("Remote agent dropped %s events as the console could not keep up", dropped);
+        }
+        events.forEach(this::onOSGiEvent);
+    }
+
+    @Override
+    public void loggedBatch(final List<XLogEntryDTO> logs, final long dropped) {
+        checkNotNull(logs, "'logs' cannot be null");
+        if (dropped > 0) {
+            logger.atWarning().log("Remote agent dropped %s logs as the console could not keep up", dropped);
+        }
+        logs.forEach(this::logged);
+    }
+
+    @Override
+    public void onCommandOutput(final long id, final long sequence, final String chunk) {
+        checkNotNull(chunk, "'chunk' cannot be null");
+        final var output = commandOutputListeners.get(id);
+        if (output != null && output.onOutput(sequence, chunk)) {
+            commandOutputListeners.remove(id);
+        }
+    }
+
+    @Override
+    public void onCommandCompleted(final XCommandResultDTO result) {
+        checkNotNull(result, "'result' cannot be null");
+        // the completion might overtake the last chunks and is hence deferred until they have arrived
+        final var output = commandOutputListeners.get(result.id);
+        if (output != null && output.onCompleted(result)) {
+            commandOutputListeners.remove(result.id);
+        }
+    }
+
     @Override
     public void addOSGiEventListener(final EventListener eventListener) {
         checkNotNull(eventListener, "'logEntryListener' cannot be null");
@@ -237,6 +375,19 @@ public final class RpcSupervisor extends AbstractRpcSupervisor<Supervisor, Agent
         sendEvent(LOG_LISTENER_REMOVED_EVENT_TOPIC);
     }
 
+    @Override
+    public long addCommandOutputListener(final CommandOutputListener commandOutputListener) {
+        checkNotNull(commandOutputListener, "'commandOutputListener' cannot be null");
+        final var id = commandIds.incrementAndGet();
+        commandOutputListeners.put(id, new OrderedCommandOutput(commandOutputListener));
+        return id;
+    }
+
+    @Override
+    public void removeCommandOutputListener(final long id) {
+        commandOutputListeners.remove(id);
+    }
+
     @Override
     public synchronized void onConnected(final MqttClientConnectedContext context) {
         logger.atInfo().log("Successfully connected to '%s'", context.getClientConfig().getServerHost());
@@ -261,34 +412,20 @@ public final class RpcSupervisor extends AbstractRpcSupervisor<Supervisor, Agent
     }
 
     public void setStdin(final InputStream in) throws Exception {
-        final var isr = new InputStreamReader(in);
-
-        final Thread stdin = new Thread("stdin") {
-            @Override
-            public void run() {
-                final var sb = new StringBuilder();
-                while (!isInterrupted()) {
-                    try {
-                        if (isr.ready()) {
-                            final var read = isr.read();
-                            if (read < 0) {
-                                return;
-                            }
-                            sb.append((char) read);
-                        } else if (sb.length() == 0) {
-                            sleep(100);
-                        } else {
-                            getAgent().stdin(sb.toString());
-                            sb.setLength(0);
-                        }
-                    } catch (final Exception e) {
-                        Thread.currentThread().interrupt();
-                        e.printStackTrace();
-                    }
-                }
-            }
-        };
-        stdin.start();
+        setStdin(in, DEFAULT_STDIN_FLUSH_DELAY);
+    }
+
+    /**
+     * Forwards the specified input to the remote agent
+     *
+     * @param in the input to forward
+     * @param flushDelay the maximum time to wait for further characters before
+     *            forwarding an incomplete line
+     */
+    public synchronized void setStdin(final InputStream in, final Duration flushDelay) throws Exception {
+        Optional.ofNullable(stdinForwarder).ifPresent(StdinForwarder::close);
+        stdinForwarder = new StdinForwarder(new InputStreamReader(in), text -> getAgent().stdin(text), flushDelay,
+                                            logger);
     }
 
     public void setStreams(final Appendable out, final Appendable err) throws Exception {
@@ -321,6 +458,12 @@ public final class RpcSupervisor extends AbstractRpcSupervisor<Supervisor, Agent
             remoteRPC.close();
         }
         mqttConnectionPromise = null;
+        // the completion of the running commands cannot be received anymore
+        commandOutputListeners.clear();
+        synchronized (this) {
+            Optional.ofNullable(stdinForwarder).ifPresent(StdinForwarder::close);
+            stdinForwarder = null;
+        }
         // this will be called when the agent is disconnected to deregister the service
         Optional.ofNullable(mqttMessagingCondition).ifPresent(OSGiResult::close);
         mqttMessagingCondition = null;
@@ -333,6 +476,52 @@ public final class RpcSupervisor extends AbstractRpcSupervisor<Supervisor, Agent
         }
     }
 
+    private AgentResponseCache getResponseCache() {
+        final var agent = super.getAgent();
+        if (agent == null || super.getAsyncAgent(AsyncAgent.class) == null) {
+            return null;
+        }
+        var cache = responseCache;
+        if (cache == null || !cache.isFor(agent)) {
+            synchronized (this) {
+                cache = responseCache;
+                if (cache == null || !cache.isFor(agent)) {
+                    // every connection starts with an empty cache
+                    cache         = new AgentResponseCache(agent, super.getAsyncAgent(AsyncAgent.class), cacheTTLs);
+                    responseCache = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    private Map<String, Duration> initCacheTTLs(final Configuration configuration) {
+        if (!configuration.enabled()) {
+            return Map.of();
+        }
+        final Map<String, Duration> ttls = new HashMap<>(AgentResponseCache.DEFAULT_TTLS);
+        for (final String entry : configuration.ttls()) {
+            final var separator = entry.indexOf('=');
+            if (separator < 0) {
+                logger.atWarning().log("Invalid agent response cache TTL '%s'", entry);
+                continue;
+            }
+            final var method = entry.substring(0, separator).strip();
+            try {
+                final var ttl = Long.parseLong(entry.substring(separator + 1).strip());
+                // a TTL of 0 disables the caching of the method
+                if (ttl > 0) {
+                    ttls.put(method, Duration.ofMillis(ttl));
+                } else {
+                    ttls.remove(method);
+                }
+            } catch (final NumberFormatException e) {
+                logger.atWarning().log("Invalid agent response cache TTL '%s'", entry);
+            }
+        }
+        return Map.copyOf(ttls);
+    }
+
     private static boolean matchTopic(final String receivedEventTopic, final Collection<String> listenerTopics) {
         if (listenerTopics.contains("*")) {
             return true;
@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright 2021-2023 Amit Kumar Mondal
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package com.osgifx.console.supervisor.rpc;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.time.Duration;
+
+import org.eclipse.fx.core.log.FluentLogger;
+
+import com.osgifx.console.agent.rpc.CoalescingBuffer;
+import com.osgifx.console.agent.rpc.CoalescingBuffer.Sink;
+
+/**
+ * Forwards the characters read from a local input to the remote agent. The
+ * input is read with blocking reads and the characters are coalesced into a
+ * single remote call which is sent as soon as a line is complete, otherwise
+ * after the flush delay.
+ *
+ * @see CoalescingBuffer
+ */
+final class StdinForwarder implements Closeable {
+
+    private static final int BUFFER_SIZE = 1024;
+
+    private final Reader           reader;
+    private final FluentLogger     logger;
+    private final CoalescingBuffer buffer;
+
+    StdinForwarder(final Reader reader, final Sink sink, final Duration flushDelay, final FluentLogger logger) {
+        this.reader = reader;
+        this.logger = logger;
+        this.buffer = new CoalescingBuffer(flushDelay.toMillis(), Integer.MAX_VALUE);
+
+        final var readerThread = new Thread(this::read, "stdin");
+        final var senderThread = new Thread(() -> buffer.drainTo(sink, this::logFailure), "stdin-sender");
+        readerThread.setDaemon(true);
+        senderThread.setDaemon(true);
+        readerThread.start();
+        senderThread.start();
+    }
+
+    @Override
+    public void close() {
+        // blocking reads cannot be interrupted and hence the reader ends with its next read
+        buffer.close();
+    }
+
+    private void read() {
+        final var chars = new char[BUFFER_SIZE];
+        try {
+            int read;
+            while ((read = reader.read(chars)) >= 0) {
+                if (!buffer.append(CharBuffer.wrap(chars, 0, read))) {
+                    return;
+                }
+            }
+        } catch (final IOException e) {
+            logger.atWarning().withException(e).log("Standard input cannot be read anymore");
+        } finally {
+            buffer.close();
+        }
+    }
+
+    private void logFailure(final Exception e) {
+        logger.atError().withException(e).log("Standard input cannot be forwarded to the remote agent");
+    }
+
+}
@@ -16,44 +16,63 @@
 package com.osgifx.console.supervisor.snapshot;
 
 import static com.osgifx.console.supervisor.snapshot.SnapshotAgent.PID;
+import static java.util.stream.Collectors.toSet;
+import static org.osgi.framework.Constants.OBJECTCLASS;
+import static org.osgi.framework.Constants.SERVICE_BUNDLEID;
+import static org.osgi.framework.Constants.SERVICE_ID;
 
-import java.io.FileReader;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Stream;
 
-import org.eclipse.fx.core.ExceptionUtils;
+import org.osgi.framework.Filter;
+import org.osgi.framework.FrameworkUtil;
+import org.osgi.framework.InvalidSyntaxException;
 import org.osgi.framework.dto.BundleDTO;
 import org.osgi.framework.wiring.dto.BundleRevisionDTO;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Modified;
 
-import com.google.gson.Gson;
-import com.google.gson.stream.JsonReader;
 import com.osgifx.console.agent.Agent;
 import com.osgifx.console.agent.dto.ConfigValue;
 import com.osgifx.console.agent.dto.DmtDataType;
 import com.osgifx.console.agent.dto.RuntimeDTO;
 import com.osgifx.console.agent.dto.XBundleDTO;
+import com.osgifx.console.agent.dto.XBundleDeltaDTO;
+import com.osgifx.console.agent.dto.XBundleInfoDTO;
 import com.osgifx.console.agent.dto.XBundleLoggerContextDTO;
+import com.osgifx.console.agent.dto.XBundleStartDTO;
+import com.osgifx.console.agent.dto.XBundleStartHistoryDTO;
 import com.osgifx.console.agent.dto.XComponentDTO;
 import com.osgifx.console.agent.dto.XConfigurationDTO;
 import com.osgifx.console.agent.dto.XDmtNodeDTO;
+import com.osgifx.console.agent.dto.XEventSubscriptionDTO;
 import com.osgifx.console.agent.dto.XHealthCheckDTO;
 import com.osgifx.console.agent.dto.XHealthCheckResultDTO;
 import com.osgifx.console.agent.dto.XHeapUsageDTO;
+import com.osgifx.console.agent.dto.XHeapdumpDTO;
 import com.osgifx.console.agent.dto.XHttpComponentDTO;
+import com.osgifx.console.agent.dto.XLogSubscriptionDTO;
 import com.osgifx.console.agent.dto.XMemoryInfoDTO;
+import com.osgifx.console.agent.dto.XPackageDTO;
+import com.osgifx.console.agent.dto.XPackageEntryDTO;
+import com.osgifx.console.agent.dto.XPackageIndexDTO;
 import com.osgifx.console.agent.dto.XPropertyDTO;
 import com.osgifx.console.agent.dto.XResultDTO;
 import com.osgifx.console.agent.dto.XRoleDTO;
 import com.osgifx.console.agent.dto.XRoleDTO.Type;
 import com.osgifx.console.agent.dto.XServiceDTO;
+import com.osgifx.console.agent.dto.XServicePageDTO;
 import com.osgifx.console.agent.dto.XThreadDTO;
-import com.osgifx.console.dto.SnapshotDTO;
 
 @Component(service = { SnapshotAgent.class, Agent.class }, configurationPid = PID)
 public final class SnapshotAgent implements Agent {
@@ -64,7 +83,7 @@ public final class SnapshotAgent implements Agent {
         String location();
     }
 
-    private volatile SnapshotDTO snapshotDTO;
+    private volatile SnapshotArchive snapshot;
 
     @Activate
     @Modified
@@ -72,13 +91,12 @@ public final class SnapshotAgent implements Agent {
         if (configuration.location() == null) {
             return;
         }
-        final var gson = new Gson();
-        try {
-            final var reader = new JsonReader(new FileReader(configuration.location()));
-            snapshotDTO = gson.fromJson(reader, SnapshotDTO.class);
-        } catch (final Exception e) {
-            throw ExceptionUtils.wrap(e);
-        }
+        snapshot = SnapshotArchive.open(configuration.location());
+    }
+
+    private <T> T section(final String name) {
+        final var archive = snapshot;
+        return archive == null ? null : archive.section(name);
     }
 
     @Override
@@ -136,6 +154,21 @@ public final class SnapshotAgent implements Agent {
         return null;
     }
 
+    @Override
+    public XResultDTO execCliCommandStreamed(final long id, final String command, final long maxBytes) {
+        return null;
+    }
+
+    @Override
+    public XResultDTO execGogoCommandStreamed(final long id, final String command, final long maxBytes) {
+        return null;
+    }
+
+    @Override
+    public boolean cancelCommand(final long id) {
+        return false;
+    }
+
     @Override
     public void disconnect() throws Exception {
         // nothing to do
@@ -146,39 +179,240 @@ public final class SnapshotAgent implements Agent {
         return true;
     }
 
+    @Override
+    public Set<String> getSupportedMethods() {
+        return Stream.of(Agent.class.getMethods()).map(Method::getName).collect(toSet());
+    }
+
     @Override
     public List<XBundleDTO> getAllBundles() {
-        return snapshotDTO.bundles;
+        return section("bundles");
+    }
+
+    @Override
+    public XBundleDeltaDTO getBundleDelta(final long sequence) {
+        final var delta = new XBundleDeltaDTO();
+
+        delta.complete = true;
+        delta.changed  = section("bundles");
+        delta.removed  = List.of();
+
+        return delta;
+    }
+
+    @Override
+    public List<XBundleStartHistoryDTO> getBundleStartHistories(final int limit) {
+        final List<XBundleDTO> bundles = section("bundles");
+        if (bundles == null) {
+            return null;
+        }
+        // the snapshot only contains the last start duration of every bundle
+        final Map<Long, XBundleStartHistoryDTO> histories = new LinkedHashMap<>();
+        for (final XBundleDTO bundle : bundles) {
+            if (bundle.startDurationInMillis < 0) {
+                continue;
+            }
+            final var start = new XBundleStartDTO();
+            start.startedAt                    = -1;
+            start.startDurationInMillis        = bundle.startDurationInMillis;
+            start.dsActivationDurationInMillis = -1;
+
+            final var history = new XBundleStartHistoryDTO();
+            history.id                       = bundle.id;
+            history.symbolicName             = bundle.symbolicName;
+            history.startCount               = 1;
+            history.minStartDurationInMillis = bundle.startDurationInMillis;
+            history.avgStartDurationInMillis = bundle.startDurationInMillis;
+            history.maxStartDurationInMillis = bundle.startDurationInMillis;
+            history.starts                   = List.of(start);
+
+            histories.put(bundle.id, history);
+        }
+        final List<XComponentDTO> components = section("components");
+        if (components != null) {
+            for (final XComponentDTO component : components) {
+                final var history = histories.get(component.registeringBundleId);
+                if (history != null) {
+                    history.components++;
+                    if ("ACTIVE".equals(component.state)) {
+                        history.activeComponents++;
+                    }
+                }
+            }
+        }
+        // @formatter:off
+        return histories.values()
+                        .stream()
+                        .sorted(Comparator.comparingLong((XBundleStartHistoryDTO h) -> h.maxStartDurationInMillis)
+                                          .reversed())
+                        .limit(limit > 0 ? limit : Long.MAX_VALUE)
+                        .toList();
+        // @formatter:on
     }
 
     @Override
     public List<XComponentDTO> getAllComponents() {
-        return snapshotDTO.components;
+        return section("components");
     }
 
     @Override
     public List<XConfigurationDTO> getAllConfigurations() {
-        return snapshotDTO.configurations;
+        return section("configurations");
     }
 
     @Override
     public List<XPropertyDTO> getAllProperties() {
-        return snapshotDTO.properties;
+        return section("properties");
     }
 
     @Override
     public List<XServiceDTO> getAllServices() {
-        return snapshotDTO.services;
+        return section("services");
+    }
+
+    @Override
+    public XServicePageDTO getServices(final String filter, final int offset, final int limit) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset must not be negative");
+        }
+        final Filter serviceFilter;
+        try {
+            serviceFilter = filter == null || filter.isBlank() ? null : FrameworkUtil.createFilter(filter);
+        } catch (final InvalidSyntaxException e) {
+            throw new IllegalArgumentException("Invalid service filter '" + filter + "'", e);
+        }
+        final List<XServiceDTO> services = section("services");
+        final var               matched  = services.stream()
+                .filter(s -> serviceFilter == null || serviceFilter.matches(toProperties(s)))
+                .sorted(Comparator.comparingLong(s -> s.id)).toList();
+        final var from = Math.min(offset, matched.size());
+        final var to   = limit <= 0 ? matched.size() : (int) Math.min((long) from + limit, matched.size());
+        final var page = new XServicePageDTO();
+
+        page.total    = matched.size();
+        page.offset   = offset;
+        page.services = matched.subList(from, to);
+
+        return page;
+    }
+
+    @Override
+    public XPackageIndexDTO getPackageIndex() {
+        final List<XBundleDTO> bundles = section("bundles");
+        if (bundles == null) {
+            return null;
+        }
+        // the snapshot does not contain the wires and hence the index is derived from the wired packages of the bundles
+        final Map<String, XPackageEntryDTO> packages = new LinkedHashMap<>();
+        final Map<Long, XBundleInfoDTO>     infos    = new LinkedHashMap<>();
+        for (final XBundleDTO bundle : bundles) {
+            for (final XPackageDTO pkg : bundle.exportedPackages) {
+                indexPackage(packages, pkg).exporters.add(bundle.id);
+                infos.computeIfAbsent(bundle.id, id -> toBundleInfo(bundle));
+            }
+            for (final XPackageDTO pkg : bundle.importedPackages) {
+                indexPackage(packages, pkg).importers.add(bundle.id);
+                infos.computeIfAbsent(bundle.id, id -> toBundleInfo(bundle));
+            }
+        }
+        final var index = new XPackageIndexDTO();
+
+        index.packages = new ArrayList<>(packages.values());
+        index.bundles  = new ArrayList<>(infos.values());
+
+        index.packages.forEach(entry -> entry.isDuplicateExport = entry.exporters.size() > 1);
+        return index;
+    }
+
+    private static XPackageEntryDTO indexPackage(final Map<String, XPackageEntryDTO> packages, final XPackageDTO pkg) {
+        return packages.computeIfAbsent(pkg.name + ":" + pkg.version, k -> {
+            final var entry = new XPackageEntryDTO();
+
+            entry.name      = pkg.name;
+            entry.version   = pkg.version;
+            entry.exporters = new ArrayList<>();
+            entry.importers = new ArrayList<>();
+
+            return entry;
+        });
+    }
+
+    private static XBundleInfoDTO toBundleInfo(final XBundleDTO bundle) {
+        final var info = new XBundleInfoDTO();
+
+        info.id           = bundle.id;
+        info.symbolicName = bundle.symbolicName;
+
+        return info;
+    }
+
+    private static Map<String, Object> toProperties(final XServiceDTO service) {
+        final Map<String, Object> properties = new HashMap<>(service.properties);
+        // the captured properties are stringified and hence restore the ones used for filtering
+        properties.put(OBJECTCLASS, service.types.toArray(new String[0]));
+        properties.put(SERVICE_ID, service.id);
+        properties.put(SERVICE_BUNDLEID, service.bundleId);
+        return properties;
     }
 
     @Override
     public List<XThreadDTO> getAllThreads() {
-        return snapshotDTO.threads;
+        return section("threads");
+    }
+
+    @Override
+    public List<XThreadDTO> getThreadDetails(final int maxStackDepth) {
+        return section("threads");
     }
 
     @Override
     public XDmtNodeDTO readDmtNode(final String rootURI) {
-        return snapshotDTO.dmtNodes;
+        return section("dmtNodes");
+    }
+
+    @Override
+    public XDmtNodeDTO readDmtNode(final String rootURI, final int depth, final int offset, final int limit) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset must not be negative");
+        }
+        final var node = findDmtNode(section("dmtNodes"), rootURI);
+        return node == null ? null : copyDmtNode(node, depth, offset, limit);
+    }
+
+    private static XDmtNodeDTO findDmtNode(final XDmtNodeDTO node, final String uri) {
+        if (node == null || uri.equals(node.uri)) {
+            return node;
+        }
+        for (final XDmtNodeDTO child : node.children) {
+            if (uri.startsWith(child.uri)) {
+                final var found = findDmtNode(child, uri);
+                if (found != null) {
+                    return found;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static XDmtNodeDTO copyDmtNode(final XDmtNodeDTO node, final int depth, final int offset, final int limit) {
+        final var copy = new XDmtNodeDTO();
+
+        copy.uri        = node.uri;
+        copy.value      = node.value;
+        copy.format     = node.format;
+        copy.createdAt  = node.createdAt;
+        copy.childCount = node.children.size();
+        copy.children   = new ArrayList<>();
+
+        if (depth != 0) {
+            final var from = Math.min(offset, node.children.size());
+            final var to   = limit <= 0 ? node.children.size()
+                    : (int) Math.min((long) from + limit, node.children.size());
+            for (final XDmtNodeDTO child : node.children.subList(from, to)) {
+                copy.children.add(copyDmtNode(child, depth - 1, 0, 0));
+            }
+        }
+        return copy;
     }
 
     @Override
@@ -243,7 +477,7 @@ public final class SnapshotAgent implements Agent {
 
     @Override
     public XMemoryInfoDTO getMemoryInfo() {
-        return snapshotDTO.memoryInfo;
+        return section("memoryInfo");
     }
 
     @Override
@@ -268,12 +502,12 @@ public final class SnapshotAgent implements Agent {
 
     @Override
     public List<XRoleDTO> getAllRoles() {
-        return snapshotDTO.roles;
+        return section("roles");
     }
 
     @Override
     public List<XHealthCheckDTO> getAllHealthChecks() {
-        return snapshotDTO.healthChecks;
+        return section("healthChecks");
     }
 
     @Override
@@ -288,34 +522,50 @@ public final class SnapshotAgent implements Agent {
 
     @Override
     public Set<XBundleDTO> getClassloaderLeaks() {
-        return snapshotDTO.classloaderLeaks;
+        return section("classloaderLeaks");
     }
 
     @Override
     public List<XHttpComponentDTO> getHttpComponents() {
-        return snapshotDTO.httpComponents;
+        return section("httpComponents");
     }
 
     @Override
     public List<XBundleLoggerContextDTO> getBundleLoggerContexts() {
-        return snapshotDTO.bundleLoggerContexts;
+        return section("bundleLoggerContexts");
     }
 
     @Override
     public XHeapUsageDTO getHeapUsage() {
-        return snapshotDTO.heapUsage;
+        return section("heapUsage");
     }
 
     @Override
     public RuntimeDTO getRuntimeDTO() {
-        return snapshotDTO.runtime;
+        return section("runtime");
     }
 
     @Override
+    @Deprecated
     public byte[] heapdump() throws Exception {
         return null;
     }
 
+    @Override
+    public XHeapdumpDTO prepareHeapdump() throws Exception {
+        return null;
+    }
+
+    @Override
+    public byte[] readHeapdumpChunk(final String id, final long offset, final int length) throws Exception {
+        return null;
+    }
+
+    @Override
+    public boolean releaseHeapdump(final String id) {
+        return false;
+    }
+
     @Override
     public void gc() {
         // nothing to do
@@ -351,4 +601,19 @@ public final class SnapshotAgent implements Agent {
         // nothing to do
     }
 
+    @Override
+    public void enableBatchedPush() {
+        // nothing to do
+    }
+
+    @Override
+    public XResultDTO updateLogSubscription(final XLogSubscriptionDTO subscription) {
+        return null;
+    }
+
+    @Override
+    public XResultDTO updateEventSubscription(final XEventSubscriptionDTO subscription) {
+        return null;
+    }
+
 }
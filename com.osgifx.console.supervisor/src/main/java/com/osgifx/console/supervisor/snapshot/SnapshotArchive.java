@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * Copyright 2021-2023 Amit Kumar Mondal
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package com.osgifx.console.supervisor.snapshot;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.FileReader;
+import java.io.InputStreamReader;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipFile;
+
+import org.eclipse.fx.core.ExceptionUtils;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.osgifx.console.dto.SnapshotDTO;
+
+/**
+ * Provides the sections of a captured snapshot. A snapshot is a zip archive
+ * containing one JSON entry per field of {@link SnapshotDTO}, for example
+ * {@code bundles.json}, and each section is only parsed on its first access.
+ * Snapshots captured by earlier versions, that is, a single JSON document, are
+ * still supported but parsed completely when opened.
+ */
+final class SnapshotArchive {
+
+    public static final String SECTION_EXTENSION = ".json";
+
+    private final String                        location;
+    private final SnapshotDTO                   legacySnapshot;
+    private final Gson                          gson     = new Gson();
+    private final Map<String, Optional<Object>> sections = new ConcurrentHashMap<>();
+
+    private SnapshotArchive(final String location, final SnapshotDTO legacySnapshot) {
+        this.location       = location;
+        this.legacySnapshot = legacySnapshot;
+    }
+
+    public static SnapshotArchive open(final String location) {
+        try {
+            if (location.endsWith(SECTION_EXTENSION)) {
+                try (var reader = new JsonReader(new FileReader(location, UTF_8))) {
+                    return new SnapshotArchive(location, new Gson().fromJson(reader, SnapshotDTO.class));
+                }
+            }
+            // only reads the central directory to verify the archive
+            try (var zip = new ZipFile(location)) {
+                return new SnapshotArchive(location, null);
+            }
+        } catch (final Exception e) {
+            throw ExceptionUtils.wrap(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T section(final String name) {
+        return (T) sections.computeIfAbsent(name, n -> Optional.ofNullable(read(n))).orElse(null);
+    }
+
+    private Object read(final String name) {
+        try {
+            final var field = SnapshotDTO.class.getField(name);
+            if (legacySnapshot != null) {
+                return field.get(legacySnapshot);
+            }
+            try (var zip = new ZipFile(location)) {
+                final var entry = zip.getEntry(name + SECTION_EXTENSION);
+                if (entry == null) {
+                    return null;
+                }
+                try (var reader = new JsonReader(new InputStreamReader(zip.getInputStream(entry), UTF_8))) {
+                    return gson.fromJson(reader, field.getGenericType());
+                }
+            }
+        } catch (final Exception e) {
+            throw ExceptionUtils.wrap(e);
+        }
+    }
+
+}
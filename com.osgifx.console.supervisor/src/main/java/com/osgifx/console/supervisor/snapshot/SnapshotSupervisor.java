@@ -19,6 +19,10 @@ import static com.osgifx.console.supervisor.snapshot.SnapshotSupervisor.CONDITIO
 import static org.osgi.service.condition.Condition.CONDITION_ID;
 
 import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.eclipse.fx.core.log.FluentLogger;
 import org.eclipse.fx.core.log.LoggerFactory;
@@ -30,8 +34,12 @@ import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.propertytypes.SatisfyingConditionTarget;
 
 import com.osgifx.console.agent.Agent;
+import com.osgifx.console.agent.AsyncAgent;
+import com.osgifx.console.agent.dto.XCommandResultDTO;
 import com.osgifx.console.agent.dto.XEventDTO;
 import com.osgifx.console.agent.dto.XLogEntryDTO;
+import com.osgifx.console.supervisor.AgentCacheStatsDTO;
+import com.osgifx.console.supervisor.CommandOutputListener;
 import com.osgifx.console.supervisor.EventListener;
 import com.osgifx.console.supervisor.LogEntryListener;
 import com.osgifx.console.supervisor.MqttConnection;
@@ -53,10 +61,12 @@ public final class SnapshotSupervisor implements Supervisor {
 
     @Reference
     private ConfigurationAdmin configAdmin;
+    private AsyncAgent         asyncAgent;
 
     @Activate
     void activate() {
-        logger = FluentLogger.of(factory.createLogger(getClass().getName()));
+        logger     = FluentLogger.of(factory.createLogger(getClass().getName()));
+        asyncAgent = createAsyncAgent();
     }
 
     @Deactivate
@@ -105,6 +115,26 @@ public final class SnapshotSupervisor implements Supervisor {
         logger.atInfo().log(NOT_IMPLEMENTED_LOG);
     }
 
+    @Override
+    public void onOSGiEventBatch(final List<XEventDTO> events, final long dropped) {
+        logger.atInfo().log(NOT_IMPLEMENTED_LOG);
+    }
+
+    @Override
+    public void loggedBatch(final List<XLogEntryDTO> logs, final long dropped) {
+        logger.atInfo().log(NOT_IMPLEMENTED_LOG);
+    }
+
+    @Override
+    public void onCommandOutput(final long id, final long sequence, final String chunk) {
+        logger.atInfo().log(NOT_IMPLEMENTED_LOG);
+    }
+
+    @Override
+    public void onCommandCompleted(final XCommandResultDTO result) {
+        logger.atInfo().log(NOT_IMPLEMENTED_LOG);
+    }
+
     @Override
     public void addOSGiEventListener(final EventListener eventListener) {
         logger.atInfo().log(NOT_IMPLEMENTED_LOG);
@@ -125,9 +155,52 @@ public final class SnapshotSupervisor implements Supervisor {
         logger.atInfo().log(NOT_IMPLEMENTED_LOG);
     }
 
+    @Override
+    public long addCommandOutputListener(final CommandOutputListener commandOutputListener) {
+        logger.atInfo().log(NOT_IMPLEMENTED_LOG);
+        return -1;
+    }
+
+    @Override
+    public void removeCommandOutputListener(final long id) {
+        logger.atInfo().log(NOT_IMPLEMENTED_LOG);
+    }
+
     @Override
     public Agent getAgent() {
         return agent;
     }
 
+    @Override
+    public AsyncAgent getAsyncAgent() {
+        return asyncAgent;
+    }
+
+    @Override
+    public boolean isAgentMethodSupported(final String method) {
+        // the snapshot agent serves all methods from the snapshot
+        return true;
+    }
+
+    @Override
+    public AgentCacheStatsDTO getAgentCacheStats() {
+        // the snapshot is already in memory and hence, nothing gets cached
+        final var stats = new AgentCacheStatsDTO();
+        stats.hitsByMethod   = Map.of();
+        stats.missesByMethod = Map.of();
+        return stats;
+    }
+
+    private AsyncAgent createAsyncAgent() {
+        // the snapshot is already in memory and hence, the futures get completed immediately
+        return (AsyncAgent) Proxy.newProxyInstance(AsyncAgent.class.getClassLoader(),
+                new Class<?>[] { AsyncAgent.class }, (proxy, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class) {
+                        return method.invoke(agent, args);
+                    }
+                    final var syncMethod = Agent.class.getMethod(method.getName(), method.getParameterTypes());
+                    return CompletableFuture.completedFuture(syncMethod.invoke(agent, args));
+                });
+    }
+
 }
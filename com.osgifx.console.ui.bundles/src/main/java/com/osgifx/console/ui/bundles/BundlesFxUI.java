@@ -25,6 +25,8 @@ import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 import javax.inject.Named;
 
+import org.eclipse.e4.core.contexts.ContextInjectionFactory;
+import org.eclipse.e4.core.contexts.IEclipseContext;
 import org.eclipse.e4.core.di.annotations.Optional;
 import org.eclipse.e4.core.di.extensions.OSGiBundle;
 import org.eclipse.e4.core.services.events.IEventBroker;
@@ -40,6 +42,7 @@ import com.osgifx.console.dto.SearchFilterDTO;
 import com.osgifx.console.executor.Executor;
 import com.osgifx.console.ui.ConsoleMaskerPane;
 import com.osgifx.console.ui.ConsoleStatusBar;
+import com.osgifx.console.ui.bundles.dialog.SlowestBundlesDialog;
 import com.osgifx.console.util.fx.Fx;
 import com.osgifx.console.util.fx.FxDialog;
 
@@ -75,6 +78,8 @@ public final class BundlesFxUI {
     private ConsoleMaskerPane progressPane;
     @Inject
     private DataProvider      dataProvider;
+    @Inject
+    private IEclipseContext   eclipseContext;
     private SearchFilterDTO   searchFilter;
 
     @PostConstruct
@@ -85,6 +90,7 @@ public final class BundlesFxUI {
 
     @Focus
     public void onFocus() {
+        dataProvider.setVisibleInfo("bundles");
         if (isConnected) {
             refreshData();
         }
@@ -156,8 +162,10 @@ public final class BundlesFxUI {
         statusBar.clearAllInRight();
         statusBar.addTo(parent);
         if (isConnected) {
+            statusBar.addToRight(initSlowestBundlesButton());
             final var node = Fx.initStatusBarButton(this::refreshData, "Refresh", "REFRESH");
             if (!isSnapshotAgent) {
+                statusBar.addToRight(new Separator(VERTICAL));
                 statusBar.addToRight(node);
             }
         }
@@ -174,11 +182,24 @@ public final class BundlesFxUI {
                     }), "Reset Search Filter", "CLOSE", Color.RED);
             statusBar.addToRight(searchFilterResetNode);
             statusBar.addToRight(new Separator(VERTICAL));
+            statusBar.addToRight(initSlowestBundlesButton());
+            statusBar.addToRight(new Separator(VERTICAL));
             final var refreshNode = Fx.initStatusBarButton(this::refreshData, "Refresh", "REFRESH");
             statusBar.addToRight(refreshNode);
         }
     }
 
+    private Node initSlowestBundlesButton() {
+        return Fx.initStatusBarButton(this::showSlowestBundlesDialog, "Slowest Bundles", "CLOCK_ALT");
+    }
+
+    private void showSlowestBundlesDialog() {
+        final var dialog = new SlowestBundlesDialog();
+        ContextInjectionFactory.inject(dialog, eclipseContext);
+        dialog.init();
+        dialog.showAndWait();
+    }
+
     private void refreshData() {
         dataProvider.retrieveInfo("bundles", true);
     }
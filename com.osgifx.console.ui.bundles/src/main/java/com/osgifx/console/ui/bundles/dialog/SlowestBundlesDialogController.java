@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright 2021-2023 Amit Kumar Mondal
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package com.osgifx.console.ui.bundles.dialog;
+
+import javax.inject.Inject;
+
+import org.eclipse.e4.core.di.annotations.Optional;
+import org.eclipse.fx.core.ThreadSynchronize;
+import org.eclipse.fx.core.log.FluentLogger;
+import org.eclipse.fx.core.log.Log;
+
+import com.osgifx.console.agent.dto.XBundleStartHistoryDTO;
+import com.osgifx.console.executor.Executor;
+import com.osgifx.console.supervisor.Supervisor;
+import com.osgifx.console.util.fx.DTOCellValueFactory;
+import com.osgifx.console.util.fx.Fx;
+
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.fxml.FXML;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+
+public final class SlowestBundlesDialogController {
+
+    private static final int    LIMIT         = 50;
+    private static final String NOT_SUPPORTED = "Bundle start histories are not supported by the agent";
+
+    @Log
+    @Inject
+    private FluentLogger                                logger;
+    @FXML
+    private TableView<XBundleStartHistoryDTO>           table;
+    @FXML
+    private TableColumn<XBundleStartHistoryDTO, Long>   idColumn;
+    @FXML
+    private TableColumn<XBundleStartHistoryDTO, String> bsnColumn;
+    @FXML
+    private TableColumn<XBundleStartHistoryDTO, Long>   startsColumn;
+    @FXML
+    private TableColumn<XBundleStartHistoryDTO, Long>   lastColumn;
+    @FXML
+    private TableColumn<XBundleStartHistoryDTO, Long>   minColumn;
+    @FXML
+    private TableColumn<XBundleStartHistoryDTO, Long>   avgColumn;
+    @FXML
+    private TableColumn<XBundleStartHistoryDTO, Long>   maxColumn;
+    @FXML
+    private TableColumn<XBundleStartHistoryDTO, String> dsActivationColumn;
+    @FXML
+    private TableColumn<XBundleStartHistoryDTO, String> componentsColumn;
+    @Inject
+    @Optional
+    private Supervisor                                  supervisor;
+    @Inject
+    private ThreadSynchronize                           threadSync;
+    @Inject
+    private Executor                                    executor;
+
+    @FXML
+    public void initialize() {
+        initCells();
+        Fx.addContextMenuToCopyContent(table);
+
+        final var agent = supervisor == null ? null : supervisor.getAsyncAgent();
+        if (agent == null) {
+            Fx.addTablePlaceholderWhenDisconnected(table);
+            return;
+        }
+        executor.runAsync(() -> {
+            // agents older than the console do not record the start histories and never reply to the request
+            if (!supervisor.isAgentMethodSupported("getBundleStartHistories")) {
+                threadSync.asyncExec(() -> table.setPlaceholder(new Label(NOT_SUPPORTED)));
+                return;
+            }
+            agent.getBundleStartHistories(LIMIT).whenComplete((histories, e) -> threadSync.asyncExec(() -> {
+                if (e != null) {
+                    logger.atError().withException(e).log("Bundle start histories cannot be retrieved");
+                    table.setPlaceholder(new Label("Bundle start histories cannot be retrieved"));
+                    return;
+                }
+                if (histories != null) {
+                    table.getItems().setAll(histories);
+                }
+            }));
+        });
+        logger.atDebug().log("FXML controller has been initialized");
+    }
+
+    private void initCells() {
+        idColumn.setCellValueFactory(new DTOCellValueFactory<>("id", Long.class));
+        bsnColumn.setCellValueFactory(new DTOCellValueFactory<>("symbolicName", String.class));
+        startsColumn.setCellValueFactory(new DTOCellValueFactory<>("startCount", Long.class));
+        minColumn.setCellValueFactory(new DTOCellValueFactory<>("minStartDurationInMillis", Long.class));
+        avgColumn.setCellValueFactory(new DTOCellValueFactory<>("avgStartDurationInMillis", Long.class));
+        maxColumn.setCellValueFactory(new DTOCellValueFactory<>("maxStartDurationInMillis", Long.class));
+
+        // the most recent start comes first
+        lastColumn.setCellValueFactory(p -> new ReadOnlyObjectWrapper<>(
+                p.getValue().starts.isEmpty() ? null : p.getValue().starts.get(0).startDurationInMillis));
+        dsActivationColumn.setCellValueFactory(p -> {
+            final var starts = p.getValue().starts;
+            final var value  = starts.isEmpty() ? -1 : starts.get(0).dsActivationDurationInMillis;
+            return new ReadOnlyObjectWrapper<>(value < 0 ? "" : String.valueOf(value));
+        });
+        componentsColumn.setCellValueFactory(p -> new ReadOnlyObjectWrapper<>(
+                p.getValue().components == 0 ? "" : p.getValue().activeComponents + "/" + p.getValue().components));
+    }
+
+}
@@ -85,6 +85,7 @@ public final class ComponentsFxUI {
 
     @Focus
     public void onFocus() {
+        dataProvider.setVisibleInfo("components");
         if (isConnected) {
             refreshData();
         }
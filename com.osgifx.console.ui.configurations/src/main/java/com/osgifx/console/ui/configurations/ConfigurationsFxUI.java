@@ -85,6 +85,7 @@ public final class ConfigurationsFxUI {
 
     @Focus
     public void onFocus() {
+        dataProvider.setVisibleInfo("configurations");
         if (isConnected) {
             refreshData();
         }
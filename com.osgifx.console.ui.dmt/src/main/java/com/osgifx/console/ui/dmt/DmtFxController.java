@@ -43,16 +43,21 @@ import com.osgifx.console.executor.Executor;
 import com.osgifx.console.supervisor.Supervisor;
 import com.osgifx.console.util.fx.Fx;
 
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
 import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
 import javafx.scene.control.TextField;
+import javafx.scene.control.TreeItem;
 import javafx.scene.control.TreeView;
 import javafx.scene.input.KeyCode;
 
 public final class DmtFxController {
 
     private static final String ROOT_DMT_NODE = ".";
+    private static final int    PAGE_SIZE     = 200;
+    private static final String LOADING_TEXT  = "Loading...";
 
     @Log
     @Inject
@@ -83,7 +88,8 @@ public final class DmtFxController {
     @Named("is_snapshot_agent")
     private boolean           isSnapshotAgent;
 
-    private final Map<FilterableTreeItem<String>, XDmtNodeDTO> items = Maps.newHashMap();
+    private final Map<TreeItem<String>, XDmtNodeDTO> items       = Maps.newHashMap();
+    private final Map<TreeItem<String>, Runnable>    pageLoaders = Maps.newHashMap();
 
     @FXML
     public void initialize() {
@@ -104,7 +110,7 @@ public final class DmtFxController {
     }
 
     private void initTree() {
-        final var promise = dataProvider.readDmtNode(ROOT_DMT_NODE);
+        final var promise = dataProvider.readDmtNode(ROOT_DMT_NODE, 1, 0, PAGE_SIZE);
         if (promise == null) {
             return;
         }
@@ -113,10 +119,15 @@ public final class DmtFxController {
                 return;
             }
             threadSync.asyncExec(() -> {
+                items.clear();
+                pageLoaders.clear();
+
                 final var rootItem = new FilterableTreeItem<>(node.uri);
+                items.put(rootItem, node);
+                appendChildren(rootItem, node, 0);
                 rootItem.setExpanded(true);
                 dmtTree.setRoot(rootItem);
-                initDmtTree(node, rootItem);
+                addDoubleClickEvent();
 
                 searchBox.setOnKeyPressed(event -> {
                     if (event.getCode() == KeyCode.ENTER) {
@@ -129,6 +140,89 @@ public final class DmtFxController {
 
     }
 
+    /**
+     * Re-reads the specified node to reflect its updated value without
+     * reloading the whole tree
+     *
+     * @param uri the URI of the updated node
+     */
+    public void invalidate(final String uri) {
+        final var item = items.entrySet().stream().filter(e -> e.getValue().uri.equals(uri)).map(Map.Entry::getKey)
+                .findAny();
+        if (item.isEmpty()) {
+            updateModel();
+            return;
+        }
+        final var promise = dataProvider.readDmtNode(uri, 0, 0, 0);
+        if (promise == null) {
+            return;
+        }
+        promise.thenAccept(node -> threadSync.asyncExec(() -> {
+            if (node == null) {
+                updateModel();
+                return;
+            }
+            final var treeItem = item.get();
+            node.childCount = items.get(treeItem).childCount;
+            items.put(treeItem, node);
+            treeItem.setValue(initItemText(node));
+        }));
+    }
+
+    private FilterableTreeItem<String> createItem(final XDmtNodeDTO dmtNode) {
+        final var item = new FilterableTreeItem<>(initItemText(dmtNode));
+        items.put(item, dmtNode);
+        if (dmtNode.childCount > 0) {
+            // the children are only fetched on the first expansion and remain cached afterwards
+            item.getInternalChildren().add(new FilterableTreeItem<>(LOADING_TEXT));
+            item.expandedProperty().addListener(new ChangeListener<Boolean>() {
+                @Override
+                public void changed(final ObservableValue<? extends Boolean> observable,
+                                    final Boolean oldValue,
+                                    final Boolean newValue) {
+                    if (newValue) {
+                        observable.removeListener(this);
+                        loadChildren(item, dmtNode, 0);
+                    }
+                }
+            });
+        }
+        return item;
+    }
+
+    private void loadChildren(final FilterableTreeItem<String> item, final XDmtNodeDTO dmtNode, final int offset) {
+        final var promise = dataProvider.readDmtNode(dmtNode.uri, 1, offset, PAGE_SIZE);
+        if (promise == null) {
+            return;
+        }
+        promise.thenAccept(node -> {
+            if (node == null) {
+                return;
+            }
+            threadSync.asyncExec(() -> appendChildren(item, node, offset));
+        });
+    }
+
+    private void appendChildren(final FilterableTreeItem<String> item, final XDmtNodeDTO dmtNode, final int offset) {
+        final var children = item.getInternalChildren();
+        // removes the loading and paging placeholders
+        children.removeIf(child -> !items.containsKey(child));
+        for (final XDmtNodeDTO child : dmtNode.children) {
+            children.add(createItem(child));
+        }
+        final var loaded = offset + dmtNode.children.size();
+        if (loaded < dmtNode.childCount) {
+            final var remaining = dmtNode.childCount - loaded;
+            final var pageItem  = new FilterableTreeItem<>(
+                    "Double-click to load " + Math.min(remaining, PAGE_SIZE) + " of " + remaining + " more nodes");
+            pageLoaders.put(pageItem, () -> {
+                pageItem.setValue(LOADING_TEXT);
+                loadChildren(item, dmtNode, loaded);
+            });
+            children.add(pageItem);
+        }
+    }
+
     private void performSearch(final FilterableTreeItem<String> rootItem) {
         final Task<Void> task = new Task<>() {
 
@@ -149,35 +243,23 @@ public final class DmtFxController {
         executor.runAsync(task);
     }
 
-    private void initDmtTree(final XDmtNodeDTO dmtNode, final FilterableTreeItem<String> parent) {
-        var node = parent;
-        if (!ROOT_DMT_NODE.equals(dmtNode.uri)) {
-            node = new FilterableTreeItem<>(initItemText(dmtNode));
-            addDoubleClickEvent();
-            items.put(node, dmtNode);
-            parent.getInternalChildren().add(node);
-        }
-        if (!dmtNode.children.isEmpty()) {
-            for (final XDmtNodeDTO child : dmtNode.children) {
-                initDmtTree(child, node);
-            }
-        }
-    }
-
     private void addDoubleClickEvent() {
-        if (!isSnapshotAgent) {
-            dmtTree.setOnMouseClicked(mouseEvent -> {
-                // double click
-                if (mouseEvent.getClickCount() == 2) {
-                    final var item = dmtTree.getSelectionModel().getSelectedItem();
-                    final var node = items.get(item);
-                    if (node != null && !node.children.isEmpty()) {
-                        return;
-                    }
-                    showDialog(node);
+        dmtTree.setOnMouseClicked(mouseEvent -> {
+            // double click
+            if (mouseEvent.getClickCount() == 2) {
+                final var item       = dmtTree.getSelectionModel().getSelectedItem();
+                final var pageLoader = pageLoaders.remove(item);
+                if (pageLoader != null) {
+                    pageLoader.run();
+                    return;
                 }
-            });
-        }
+                final var node = items.get(item);
+                if (isSnapshotAgent || node == null || node.childCount > 0) {
+                    return;
+                }
+                showDialog(node);
+            }
+        });
     }
 
     private void showDialog(final XDmtNodeDTO node) {
@@ -91,7 +91,11 @@ public final class DmtFxUI {
     @Optional
     private void updateOnDmtNodeUpdatedEvent(@UIEventTopic(DMT_UPDATED_EVENT_TOPIC) final String data) {
         logger.atInfo().log("DMT node updated event received");
-        createControls();
+        if (fxController == null) {
+            createControls();
+        } else {
+            fxController.invalidate(data);
+        }
     }
 
     private void createControls() {
@@ -15,74 +15,33 @@
  ******************************************************************************/
 package com.osgifx.console.ui.graph;
 
-import java.util.Collection;
-
-import org.jgrapht.GraphPath;
 import org.jgrapht.graph.DefaultEdge;
 
 import com.osgifx.console.smartgraph.graph.DigraphEdgeList;
-import com.osgifx.console.smartgraph.graph.Edge;
 import com.osgifx.console.smartgraph.graph.Graph;
-import com.osgifx.console.smartgraph.graph.Vertex;
 
 public final class FxBundleGraph {
 
     Graph<BundleVertex, String> graph;
 
-    public FxBundleGraph(final Collection<GraphPath<BundleVertex, DefaultEdge>> graphPaths) {
-        graph = buildGraph(graphPaths);
+    public FxBundleGraph(final org.jgrapht.Graph<BundleVertex, DefaultEdge> graph) {
+        this.graph = buildGraph(graph);
     }
 
     public Graph<BundleVertex, String> getGraph() {
         return graph;
     }
 
-    private Graph<BundleVertex, String> buildGraph(final Collection<GraphPath<BundleVertex, DefaultEdge>> graphPaths) {
+    private Graph<BundleVertex, String> buildGraph(final org.jgrapht.Graph<BundleVertex, DefaultEdge> jgraph) {
         final Graph<BundleVertex, String> graph = new DigraphEdgeList<>();
-        for (final GraphPath<BundleVertex, DefaultEdge> path : graphPaths) {
-            for (final DefaultEdge edge : path.getEdgeList()) {
-                final var source = path.getGraph().getEdgeSource(edge);
-                final var target = path.getGraph().getEdgeTarget(edge);
-                if (graph.vertices().stream().noneMatch(v -> v.element().equals(source))) {
-                    graph.insertVertex(source);
-                }
-                if (graph.vertices().stream().noneMatch(v -> v.element().equals(target))) {
-                    graph.insertVertex(target);
-                }
-                if (!containsEdge(graph.edges(), source, target)) {
-                    graph.insertEdge(source, target, source + "->" + target);
-                }
-            }
+        // the source graph neither contains duplicate vertices nor parallel edges
+        jgraph.vertexSet().forEach(graph::insertVertex);
+        for (final DefaultEdge edge : jgraph.edgeSet()) {
+            final var source = jgraph.getEdgeSource(edge);
+            final var target = jgraph.getEdgeTarget(edge);
+            graph.insertEdge(source, target, source + "->" + target);
         }
         return graph;
     }
 
-    private boolean containsEdge(final Collection<Edge<String, BundleVertex>> edges,
-                                 final BundleVertex source,
-                                 final BundleVertex target) {
-        var isEdgeFound = false;
-        for (final Edge<String, BundleVertex> edge : edges) {
-            var isEdgeSourceFound = false;
-            var isEdgeTargetFound = false;
-            for (final Vertex<BundleVertex> vertex : edge.vertices()) {
-                if (isSameVertex(vertex, source)) {
-                    isEdgeSourceFound = true;
-                }
-            }
-            for (final Vertex<BundleVertex> vertex : edge.vertices()) {
-                if (isSameVertex(vertex, target)) {
-                    isEdgeTargetFound = true;
-                }
-            }
-            if (isEdgeSourceFound && isEdgeTargetFound) {
-                isEdgeFound = true;
-            }
-        }
-        return isEdgeFound;
-    }
-
-    private boolean isSameVertex(final Vertex<BundleVertex> vertex, final BundleVertex check) {
-        return vertex.element().equals(check);
-    }
-
 }
@@ -15,12 +15,13 @@
  ******************************************************************************/
 package com.osgifx.console.ui.graph;
 
+import static com.osgifx.console.ui.graph.GraphHelper.DEPTH_LIMITS;
 import static com.osgifx.console.ui.graph.GraphHelper.generateDotFileName;
+import static com.osgifx.console.ui.graph.GraphHelper.toMaxDepth;
 import static javafx.scene.control.SelectionMode.MULTIPLE;
 import static org.controlsfx.control.SegmentedButton.STYLE_CLASS_DARK;
 
 import java.io.File;
-import java.util.Collection;
 import java.util.Comparator;
 import java.util.concurrent.Future;
 import java.util.stream.Stream;
@@ -35,7 +36,6 @@ import org.eclipse.fx.core.ThreadSynchronize;
 import org.eclipse.fx.core.log.FluentLogger;
 import org.eclipse.fx.core.log.Log;
 import org.jgrapht.Graph;
-import org.jgrapht.GraphPath;
 import org.jgrapht.graph.DefaultEdge;
 import org.jgrapht.nio.ExportException;
 import org.jgrapht.nio.dot.DOTExporter;
@@ -85,6 +85,8 @@ public final class GraphFxBundleController implements GraphController {
     @FXML
     private ChoiceBox<String>         wiringSelection;
     @FXML
+    private ChoiceBox<String>         depthSelection;
+    @FXML
     private BorderPane                graphPane;
     @Inject
     private DataProvider              dataProvider;
@@ -133,6 +135,8 @@ public final class GraphFxBundleController implements GraphController {
     private void initWiringSelection() {
         wiringSelection.getItems().addAll("Find all bundles that are required by", "Find all bundles that require");
         wiringSelection.getSelectionModel().select(0);
+        depthSelection.getItems().addAll(DEPTH_LIMITS);
+        depthSelection.getSelectionModel().select(0);
     }
 
     private void addExportToDotContextMenu() {
@@ -219,15 +223,17 @@ public final class GraphFxBundleController implements GraphController {
             protected Void call() throws Exception {
                 progressPane.setVisible(true);
                 final var selection = wiringSelection.getSelectionModel().getSelectedIndex();
+                final var maxDepth  = toMaxDepth(depthSelection.getSelectionModel().getSelectedIndex());
 
-                final Collection<GraphPath<BundleVertex, DefaultEdge>> dependencies;
+                final Graph<BundleVertex, DefaultEdge> dependencies;
                 if (selection == 0) {
-                    logger.atInfo().log("Generating all graph paths for bundles that are required by '%s'",
+                    logger.atInfo().log("Generating dependency closure for bundles that are required by '%s'",
                             selectedBundles);
-                    dependencies = runtimeGraph.getAllBundlesThatAreRequiredBy(selectedBundles);
+                    dependencies = runtimeGraph.getAllBundlesThatAreRequiredBy(selectedBundles, maxDepth);
                 } else {
-                    logger.atInfo().log("Generating all graph paths for bundles that require '%s'", selectedBundles);
-                    dependencies = runtimeGraph.getAllBundlesThatRequire(selectedBundles);
+                    logger.atInfo().log("Generating dependency closure for bundles that require '%s'",
+                            selectedBundles);
+                    dependencies = runtimeGraph.getAllBundlesThatRequire(selectedBundles, maxDepth);
                 }
                 fxGraph = new FxBundleGraph(dependencies);
                 return null;
@@ -15,12 +15,13 @@
  ******************************************************************************/
 package com.osgifx.console.ui.graph;
 
+import static com.osgifx.console.ui.graph.GraphHelper.DEPTH_LIMITS;
 import static com.osgifx.console.ui.graph.GraphHelper.generateDotFileName;
+import static com.osgifx.console.ui.graph.GraphHelper.toMaxDepth;
 import static javafx.scene.control.SelectionMode.MULTIPLE;
 import static org.controlsfx.control.SegmentedButton.STYLE_CLASS_DARK;
 
 import java.io.File;
-import java.util.Collection;
 import java.util.Comparator;
 import java.util.concurrent.Future;
 import java.util.stream.Stream;
@@ -35,7 +36,6 @@ import org.eclipse.fx.core.ThreadSynchronize;
 import org.eclipse.fx.core.log.FluentLogger;
 import org.eclipse.fx.core.log.Log;
 import org.jgrapht.Graph;
-import org.jgrapht.GraphPath;
 import org.jgrapht.graph.DefaultEdge;
 import org.jgrapht.nio.ExportException;
 import org.jgrapht.nio.dot.DOTExporter;
@@ -86,6 +86,8 @@ public final class GraphFxComponentController implements GraphController {
     @FXML
     private ChoiceBox<String>            wiringSelection;
     @FXML
+    private ChoiceBox<String>            depthSelection;
+    @FXML
     private BorderPane                   graphPane;
     @Inject
     private DataProvider                 dataProvider;
@@ -134,11 +136,14 @@ public final class GraphFxComponentController implements GraphController {
     private void initWiringSelection() {
         wiringSelection.getItems().addAll("Find all components that are required by", "Find all component cycles");
         wiringSelection.getSelectionModel().select(0);
+        depthSelection.getItems().addAll(DEPTH_LIMITS);
+        depthSelection.getSelectionModel().select(0);
         wiringSelection.getSelectionModel().selectedIndexProperty()
                 .addListener((ChangeListener<Number>) (observable, oldValue, newValue) -> {
                     final var condition = newValue.intValue() == 1;
 
                     searchText.setDisable(condition);
+                    depthSelection.setDisable(condition);
                     componentsList.setDisable(condition);
                     componentsList.getCheckModel().clearChecks();
                 });
@@ -216,6 +221,7 @@ public final class GraphFxComponentController implements GraphController {
     private void generateGraph(final ActionEvent event) {
         logger.atInfo().log("Generating graph for components");
         final var selection          = wiringSelection.getSelectionModel().getSelectedIndex();
+        final var maxDepth           = toMaxDepth(depthSelection.getSelectionModel().getSelectedIndex());
         final var selectedComponents = Lists.newArrayList(componentsList.getCheckModel().getCheckedItems());
         if (selectedComponents.isEmpty() && selection == 0) {
             logger.atInfo().log("No component has been selected. Skipped graph generation.");
@@ -229,10 +235,10 @@ public final class GraphFxComponentController implements GraphController {
                 progressPane.setVisible(true);
 
                 if (selection == 0) {
-                    logger.atDebug().log("Generating all graph paths for service components that are required by '%s'",
+                    logger.atDebug().log("Generating dependency closure for components that are required by '%s'",
                             selectedComponents);
-                    final Collection<GraphPath<ComponentVertex, DefaultEdge>> dependencies = runtimeGraph
-                            .getAllServiceComponentsThatAreRequiredBy(selectedComponents);
+                    final var dependencies = runtimeGraph.getAllServiceComponentsThatAreRequiredBy(selectedComponents,
+                            maxDepth);
                     fxGraph = new FxComponentGraph(dependencies);
                 } else {
                     logger.atDebug().log("Generating service component cycles");
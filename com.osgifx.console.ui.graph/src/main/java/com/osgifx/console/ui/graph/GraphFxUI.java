@@ -93,6 +93,7 @@ public final class GraphFxUI {
 
     @Focus
     public void onFocus() {
+        dataProvider.setVisibleInfo("bundles", "components");
         if (isConnected) {
             dataProvider.retrieveInfo("bundles", true);
             dataProvider.retrieveInfo("components", true);
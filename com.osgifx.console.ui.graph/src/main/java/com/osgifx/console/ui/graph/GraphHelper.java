@@ -16,16 +16,25 @@
 package com.osgifx.console.ui.graph;
 
 import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
 import java.util.Date;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
 
+import org.jgrapht.graph.AsSubgraph;
 import org.jgrapht.graph.DefaultDirectedGraph;
 import org.jgrapht.graph.DefaultEdge;
 
+import com.google.common.collect.Sets;
 import com.osgifx.console.smartgraph.graph.Edge;
 import com.osgifx.console.smartgraph.graph.Graph;
 
 public final class GraphHelper {
 
+    public static final List<String> DEPTH_LIMITS = List.of("All Levels", "1 Level", "2 Levels", "3 Levels",
+            "4 Levels", "5 Levels");
+
     private GraphHelper() {
         throw new IllegalAccessError("Cannot be instantiated");
     }
@@ -42,6 +51,44 @@ public final class GraphHelper {
         return graph;
     }
 
+    /**
+     * Computes the subgraph induced by all vertices that are reachable from the
+     * specified roots. The traversal is a breadth-first search which visits
+     * every vertex and edge at most once, in contrast to enumerating all
+     * directed paths which grows exponentially with the graph density.
+     *
+     * @param graph the graph to traverse
+     * @param roots the vertices of the graph to start the traversal from
+     * @param maxDepth the maximum number of hops from the roots or a negative
+     *            value to traverse the complete transitive closure
+     * @return the induced subgraph of the roots and all their reachable vertices
+     */
+    public static <V> org.jgrapht.Graph<V, DefaultEdge> reachableSubgraph(final org.jgrapht.Graph<V, DefaultEdge> graph,
+                                                                          final Set<V> roots,
+                                                                          final int maxDepth) {
+        final Set<V>   reachable = Sets.newHashSet(roots);
+        final Deque<V> frontier  = new ArrayDeque<>(roots);
+        var            depth     = 0;
+        while (!frontier.isEmpty() && (maxDepth < 0 || depth < maxDepth)) {
+            for (var i = frontier.size(); i > 0; i--) {
+                final var vertex = frontier.poll();
+                for (final DefaultEdge edge : graph.outgoingEdgesOf(vertex)) {
+                    final var target = graph.getEdgeTarget(edge);
+                    if (reachable.add(target)) {
+                        frontier.add(target);
+                    }
+                }
+            }
+            depth++;
+        }
+        return new AsSubgraph<>(graph, reachable);
+    }
+
+    public static int toMaxDepth(final int depthSelection) {
+        // the first choice denotes the complete transitive closure
+        return depthSelection <= 0 ? -1 : depthSelection;
+    }
+
     public static String generateDotFileName(final String prefix) {
         final var timeStamp = new SimpleDateFormat("yyyy-MM-dd_HH:mm:ss").format(new Date());
         return "OSGi.fx_" + prefix + "_" + timeStamp + ".dot";
@@ -18,6 +18,7 @@ package com.osgifx.console.ui.graph;
 import static com.google.common.base.Functions.identity;
 import static com.osgifx.console.event.topics.DataRetrievedEventTopics.DATA_RETRIEVED_BUNDLES_TOPIC;
 import static com.osgifx.console.ui.graph.BundleVertex.VERTEX_ID_FUNCTION;
+import static com.osgifx.console.ui.graph.GraphHelper.reachableSubgraph;
 import static java.util.stream.Collectors.toMap;
 
 import java.util.Collection;
@@ -32,11 +33,10 @@ import org.eclipse.e4.core.di.annotations.Creatable;
 import org.eclipse.e4.core.di.annotations.Optional;
 import org.eclipse.e4.core.di.extensions.EventTopic;
 import org.jgrapht.Graph;
-import org.jgrapht.GraphPath;
-import org.jgrapht.alg.shortestpath.AllDirectedPaths;
 import org.jgrapht.graph.DefaultDirectedGraph;
 import org.jgrapht.graph.DefaultEdge;
 
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.osgifx.console.agent.dto.XBundleDTO;
 import com.osgifx.console.agent.dto.XBundleInfoDTO;
@@ -52,12 +52,16 @@ public final class RuntimeBundleGraph {
     private Graph<BundleVertex, DefaultEdge> providerGraph;
     private Graph<BundleVertex, DefaultEdge> requirerGraph;
 
+    // the closures are views of the current graphs and hence discarded as soon as the graphs get rebuilt
+    private final Map<Selection, Graph<BundleVertex, DefaultEdge>> closures = Maps.newConcurrentMap();
+
     @PostConstruct
     public void init() {
         final var bundles = dataProvider.bundles();
         bundleMap     = processBundles(bundles);
         providerGraph = buildGraph(bundles, Strategy.PROVIDER);
         requirerGraph = buildGraph(bundles, Strategy.REQUIRER);
+        closures.clear();
     }
 
     @Inject
@@ -66,35 +70,55 @@ public final class RuntimeBundleGraph {
         init();
     }
 
-    public Collection<GraphPath<BundleVertex, DefaultEdge>> getAllBundlesThatRequire(final Collection<XBundleDTO> bundles) {
-        return getDirectedPaths(bundles, Strategy.PROVIDER);
+    /**
+     * Returns the subgraph of all bundles that transitively require any of the
+     * specified bundles
+     *
+     * @param bundles the selected bundles
+     * @param maxDepth the maximum number of wiring hops from the selected
+     *            bundles or a negative value for the complete closure
+     * @return the induced subgraph of the selected and the requiring bundles
+     */
+    public Graph<BundleVertex, DefaultEdge> getAllBundlesThatRequire(final Collection<XBundleDTO> bundles,
+                                                                     final int maxDepth) {
+        return getReachableSubgraph(bundles, Strategy.PROVIDER, maxDepth);
     }
 
-    public Collection<GraphPath<BundleVertex, DefaultEdge>> getAllBundlesThatAreRequiredBy(final Collection<XBundleDTO> bundles) {
-        return getDirectedPaths(bundles, Strategy.REQUIRER);
+    /**
+     * Returns the subgraph of all bundles that are transitively required by any
+     * of the specified bundles
+     *
+     * @param bundles the selected bundles
+     * @param maxDepth the maximum number of wiring hops from the selected
+     *            bundles or a negative value for the complete closure
+     * @return the induced subgraph of the selected and the required bundles
+     */
+    public Graph<BundleVertex, DefaultEdge> getAllBundlesThatAreRequiredBy(final Collection<XBundleDTO> bundles,
+                                                                           final int maxDepth) {
+        return getReachableSubgraph(bundles, Strategy.REQUIRER, maxDepth);
     }
 
-    public Collection<GraphPath<BundleVertex, DefaultEdge>> getDirectedPaths(final Collection<XBundleDTO> bundles,
-                                                                             final Strategy strategy) {
-        if (bundles.isEmpty()) {
-            return List.of();
-        }
+    private Graph<BundleVertex, DefaultEdge> getReachableSubgraph(final Collection<XBundleDTO> bundles,
+                                                                  final Strategy strategy,
+                                                                  final int maxDepth) {
         final Graph<BundleVertex, DefaultEdge> graph;
         if (strategy == Strategy.REQUIRER) {
             graph = requirerGraph;
         } else {
             graph = providerGraph;
         }
-        final Set<BundleVertex> vertices = Sets.newHashSet();
+        final Set<BundleVertex> roots = Sets.newHashSet();
         for (final XBundleDTO bundle : bundles) {
-            final var bundleVertex = new BundleVertex(bundle.symbolicName, bundle.id);
-            if (graph.containsVertex(bundleVertex)) {
-                final var vertex = graph.vertexSet().stream().filter(bundleVertex::equals).findAny().orElse(null);
-                vertices.add(vertex);
+            final var vertex = new BundleVertex(bundle.symbolicName, bundle.id);
+            if (graph.containsVertex(vertex)) {
+                roots.add(vertex);
             }
         }
-        final var paths = new AllDirectedPaths<>(graph);
-        return paths.getAllPaths(vertices, graph.vertexSet(), true, null);
+        if (roots.isEmpty()) {
+            return new DefaultDirectedGraph<>(DefaultEdge.class);
+        }
+        final var selection = new Selection(strategy, roots, Math.max(maxDepth, -1));
+        return closures.computeIfAbsent(selection, s -> reachableSubgraph(graph, roots, s.maxDepth()));
     }
 
     private Map<String, XBundleDTO> processBundles(final List<XBundleDTO> bundles) {
@@ -146,4 +170,7 @@ public final class RuntimeBundleGraph {
         REQUIRER
     }
 
+    private record Selection(Strategy strategy, Set<BundleVertex> roots, int maxDepth) {
+    }
+
 }
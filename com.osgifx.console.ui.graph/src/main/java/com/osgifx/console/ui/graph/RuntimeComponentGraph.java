@@ -16,10 +16,12 @@
 package com.osgifx.console.ui.graph;
 
 import static com.osgifx.console.event.topics.DataRetrievedEventTopics.DATA_RETRIEVED_COMPONENTS_TOPIC;
+import static com.osgifx.console.ui.graph.GraphHelper.reachableSubgraph;
 
 import java.util.AbstractMap.SimpleEntry;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 
@@ -30,14 +32,13 @@ import org.eclipse.e4.core.di.annotations.Creatable;
 import org.eclipse.e4.core.di.annotations.Optional;
 import org.eclipse.e4.core.di.extensions.EventTopic;
 import org.jgrapht.Graph;
-import org.jgrapht.GraphPath;
 import org.jgrapht.alg.cycle.TarjanSimpleCycles;
-import org.jgrapht.alg.shortestpath.AllDirectedPaths;
 import org.jgrapht.graph.DefaultDirectedGraph;
 import org.jgrapht.graph.DefaultEdge;
 import org.osgi.framework.dto.ServiceReferenceDTO;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.osgifx.console.agent.dto.XComponentDTO;
 import com.osgifx.console.agent.dto.XSatisfiedReferenceDTO;
@@ -51,9 +52,13 @@ public final class RuntimeComponentGraph {
     private DataProvider                        dataProvider;
     private Graph<ComponentVertex, DefaultEdge> requirerGraph;
 
+    // the closures are views of the current graph and hence discarded as soon as the graph gets rebuilt
+    private final Map<Selection, Graph<ComponentVertex, DefaultEdge>> closures = Maps.newConcurrentMap();
+
     @PostConstruct
     public void init() {
         requirerGraph = buildGraph(dataProvider.components());
+        closures.clear();
     }
 
     @Inject
@@ -62,21 +67,30 @@ public final class RuntimeComponentGraph {
         init();
     }
 
-    public List<GraphPath<ComponentVertex, DefaultEdge>> getAllServiceComponentsThatAreRequiredBy(final Collection<XComponentDTO> components) {
-        if (components.isEmpty()) {
-            return List.of();
-        }
-        final Set<ComponentVertex> vertices = Sets.newHashSet();
+    /**
+     * Returns the subgraph of all service components that are transitively
+     * required by any of the specified components
+     *
+     * @param components the selected components
+     * @param maxDepth the maximum number of reference hops from the selected
+     *            components or a negative value for the complete closure
+     * @return the induced subgraph of the selected and the required components
+     */
+    public Graph<ComponentVertex, DefaultEdge> getAllServiceComponentsThatAreRequiredBy(final Collection<XComponentDTO> components,
+                                                                                        final int maxDepth) {
+        final var                  graph = requirerGraph;
+        final Set<ComponentVertex> roots = Sets.newHashSet();
         for (final XComponentDTO component : components) {
-            final var componentVertex = toVertex(component);
-            if (requirerGraph.containsVertex(componentVertex)) {
-                final var vertex = requirerGraph.vertexSet().stream().filter(componentVertex::equals).findAny()
-                        .orElse(null);
-                vertices.add(vertex);
+            final var vertex = toVertex(component);
+            if (graph.containsVertex(vertex)) {
+                roots.add(vertex);
             }
         }
-        final var paths = new AllDirectedPaths<>(requirerGraph);
-        return paths.getAllPaths(vertices, requirerGraph.vertexSet(), true, null);
+        if (roots.isEmpty()) {
+            return new DefaultDirectedGraph<>(DefaultEdge.class);
+        }
+        final var selection = new Selection(roots, Math.max(maxDepth, -1));
+        return closures.computeIfAbsent(selection, s -> reachableSubgraph(graph, roots, s.maxDepth()));
     }
 
     public Graph<ComponentVertex, DefaultEdge> getAllCycles() {
@@ -118,6 +132,10 @@ public final class RuntimeComponentGraph {
 
     private void prepareEdges(final List<XComponentDTO> components,
                               final List<Entry<XComponentDTO, XComponentDTO>> edges) {
+        final Map<String, XComponentDTO> componentsByName = Maps.newHashMapWithExpectedSize(components.size());
+        for (final XComponentDTO component : components) {
+            componentsByName.putIfAbsent(component.name, component);
+        }
         for (final XComponentDTO sourceComponent : components) {
             final var boundServices         = sourceComponent.satisfiedReferences;
             final var componentNameProperty = "component.name";
@@ -130,21 +148,20 @@ public final class RuntimeComponentGraph {
                     if (property == null) { // not a DS component
                         continue;
                     }
-                    targetComponent = findComponentByName(components, property);
+                    targetComponent = componentsByName.get(property);
                     edges.add(new SimpleEntry<>(sourceComponent, targetComponent));
                 }
             }
         }
     }
 
-    private XComponentDTO findComponentByName(final List<XComponentDTO> components, final String name) {
-        return components.stream().filter(c -> name.equals(c.name)).findAny().orElse(null);
-    }
-
     private ComponentVertex toVertex(final XComponentDTO component) {
         return new ComponentVertex(component.name);
     }
 
+    private record Selection(Set<ComponentVertex> roots, int maxDepth) {
+    }
+
     public static class CircularLinkedList {
 
         private CircularLinkedList() {
@@ -74,6 +74,7 @@ public final class HealthCheckFxUI {
 
     @Focus
     public void onFocus() {
+        dataProvider.setVisibleInfo("healthchecks");
         if (isConnected) {
             refreshData();
         }
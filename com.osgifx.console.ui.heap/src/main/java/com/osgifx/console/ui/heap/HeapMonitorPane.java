@@ -15,8 +15,13 @@
  ******************************************************************************/
 package com.osgifx.console.ui.heap;
 
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.WRITE;
+
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Supplier;
@@ -26,7 +31,6 @@ import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 import javax.inject.Named;
 
-import org.apache.commons.io.FileUtils;
 import org.controlsfx.dialog.ProgressDialog;
 import org.eclipse.e4.core.di.annotations.Creatable;
 import org.eclipse.e4.core.di.annotations.Optional;
@@ -39,6 +43,7 @@ import com.osgifx.console.agent.dto.XHeapUsageDTO;
 import com.osgifx.console.agent.dto.XHeapUsageDTO.XGarbageCollectorMXBean;
 import com.osgifx.console.agent.dto.XHeapUsageDTO.XMemoryPoolMXBean;
 import com.osgifx.console.agent.dto.XHeapUsageDTO.XMemoryUsage;
+import com.osgifx.console.agent.dto.XHeapdumpDTO;
 import com.osgifx.console.data.provider.DataProvider;
 import com.osgifx.console.executor.Executor;
 import com.osgifx.console.supervisor.Supervisor;
@@ -79,7 +84,8 @@ import javafx.util.Duration;
 @Creatable
 public final class HeapMonitorPane extends BorderPane {
 
-    private static final double REFRESH_DELAY = 2;
+    private static final double REFRESH_DELAY          = 2;
+    private static final int    MAX_CHUNK_READ_RETRIES = 3;
 
     private final List<HeapMonitorChart> memoryUsageCharts = Lists.newArrayList();
     private final StringProperty         totalUsedHeap     = new SimpleStringProperty();
@@ -314,39 +320,90 @@ public final class HeapMonitorPane extends BorderPane {
         }
         final var agent = supervisor.getAgent();
 
-        final Task<byte[]> heapdumpTask = new Task<>() {
+        final Task<File> heapdumpTask = new Task<>() {
 
             @Override
-            protected byte[] call() throws Exception {
+            protected File call() throws Exception {
+                XHeapdumpDTO heapdump     = null;
+                File         heapdumpFile = null;
                 try {
                     updateMessage("Capturing heapdump");
-                    return agent.heapdump();
+                    heapdump = agent.prepareHeapdump();
+                    if (heapdump == null) {
+                        throw new IllegalStateException("Heapdump cannot be captured in the remote runtime");
+                    }
+                    heapdumpFile = new File(location, IO.prepareFilenameFor("hprof"));
+                    transferHeapdump(heapdump, heapdumpFile);
+                    return heapdumpFile;
                 } catch (final Exception e) {
+                    if (heapdumpFile != null) {
+                        heapdumpFile.delete();
+                    }
+                    if (isCancelled()) {
+                        logger.atInfo().log("Heapdump transfer has been cancelled");
+                        throw e;
+                    }
                     logger.atError().withException(e).log("Cannot capture heapdump");
                     threadSync.asyncExec(() -> {
                         progressDialog.close();
                         FxDialog.showExceptionDialog(e, getClass().getClassLoader());
                     });
                     throw e;
+                } finally {
+                    if (heapdump != null) {
+                        agent.releaseHeapdump(heapdump.id);
+                    }
+                }
+            }
+
+            private void transferHeapdump(final XHeapdumpDTO heapdump, final File heapdumpFile) throws IOException {
+                final var totalSize = formatByteSize(heapdump.size);
+                try (var channel = FileChannel.open(heapdumpFile.toPath(), CREATE_NEW, WRITE)) {
+                    var offset  = 0L;
+                    var retries = 0;
+                    // the next chunk is only requested once the previous one has been written to disk
+                    while (offset < heapdump.size) {
+                        if (isCancelled()) {
+                            throw new IOException("Heapdump transfer has been cancelled");
+                        }
+                        final var chunk = readChunk(heapdump, offset);
+                        if (chunk == null || chunk.length == 0) {
+                            // resume from the last successfully written offset
+                            if (++retries > MAX_CHUNK_READ_RETRIES) {
+                                throw new IOException("Heapdump transfer failed at offset " + offset);
+                            }
+                            logger.atWarn().log("Retrying heapdump chunk transfer at offset %s", offset);
+                            continue;
+                        }
+                        retries = 0;
+                        final var buffer = ByteBuffer.wrap(chunk);
+                        while (buffer.hasRemaining()) {
+                            channel.write(buffer);
+                        }
+                        offset += chunk.length;
+                        updateProgress(offset, heapdump.size);
+                        updateMessage("Transferring heapdump (" + formatByteSize(offset) + " / " + totalSize + ")");
+                    }
+                }
+            }
+
+            private byte[] readChunk(final XHeapdumpDTO heapdump, final long offset) {
+                try {
+                    return agent.readHeapdumpChunk(heapdump.id, offset, heapdump.maxChunkSize);
+                } catch (final Exception e) {
+                    logger.atWarn().withException(e).log("Cannot read heapdump chunk at offset %s", offset);
+                    return null;
                 }
             }
         };
-        heapdumpTask.valueProperty().addListener((ChangeListener<byte[]>) (obs, oldValue, newValue) -> {
+        heapdumpTask.valueProperty().addListener((ChangeListener<File>) (obs, oldValue, newValue) -> {
             if (newValue != null) {
-                threadSync.asyncExec(() -> {
-                    try {
-                        final var heapdumpFile = new File(location, IO.prepareFilenameFor("hprof"));
-                        FileUtils.writeByteArrayToFile(heapdumpFile, newValue);
-                        threadSync.asyncExec(() -> Fx.showSuccessNotification("Heapdump Successfully Captured",
-                                heapdumpFile.getAbsolutePath()));
-                    } catch (final IOException e) {
-                        FxDialog.showExceptionDialog(e, getClass().getClassLoader());
-                    }
-                });
+                threadSync.asyncExec(() -> Fx.showSuccessNotification("Heapdump Successfully Captured",
+                        newValue.getAbsolutePath()));
             }
         });
         final var taskFuture = executor.runAsync(heapdumpTask);
-        progressDialog = FxDialog.showProgressDialog("Capture Snapshpt", heapdumpTask, getClass().getClassLoader(),
+        progressDialog = FxDialog.showProgressDialog("Capture Heapdump", heapdumpTask, getClass().getClassLoader(),
                 () -> taskFuture.cancel(true));
     }
 
@@ -75,6 +75,7 @@ public final class HttpFxUI {
 
     @Focus
     public void onFocus() {
+        dataProvider.setVisibleInfo("http");
         if (isConnected) {
             refreshData();
         }
@@ -74,6 +74,7 @@ public final class LeaksFxUI {
 
     @Focus
     public void onFocus() {
+        dataProvider.setVisibleInfo("leaks");
         if (isConnected) {
             refreshData();
         }
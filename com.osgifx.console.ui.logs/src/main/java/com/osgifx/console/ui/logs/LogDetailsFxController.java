@@ -62,7 +62,7 @@ public final class LogDetailsFxController {
         levelLabel.setText(logEntry.level);
         loggerLabel.setText(logEntry.logger);
         threadLabel.setText(logEntry.threadInfo);
-        bundleLabel.setText(logEntry.bundle.symbolicName);
+        bundleLabel.setText(logEntry.bundle == null ? "" : logEntry.bundle.symbolicName);
         messageText.setText(logEntry.message);
         if (logEntry.exception != null) {
             exceptionText.setText(logEntry.exception);
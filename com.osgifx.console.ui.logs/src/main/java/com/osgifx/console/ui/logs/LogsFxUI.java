@@ -76,6 +76,7 @@ public final class LogsFxUI {
 
     @Focus
     public void onFocus() {
+        dataProvider.setVisibleInfo("loggerContexts");
         if (isConnected) {
             refreshData();
         }
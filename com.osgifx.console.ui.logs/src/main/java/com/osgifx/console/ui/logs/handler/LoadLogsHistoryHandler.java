@@ -0,0 +1,73 @@
+/*******************************************************************************
+ * Copyright 2021-2023 Amit Kumar Mondal
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package com.osgifx.console.ui.logs.handler;
+
+import static com.osgifx.console.event.topics.LogReceiveEventTopics.LOAD_LOGS_HISTORY_TOPIC;
+
+import java.io.IOException;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.eclipse.e4.core.di.annotations.CanExecute;
+import org.eclipse.e4.core.di.annotations.Execute;
+import org.eclipse.e4.core.services.events.IEventBroker;
+import org.eclipse.fx.core.log.FluentLogger;
+import org.eclipse.fx.core.log.Log;
+import org.osgi.service.cm.ConfigurationAdmin;
+
+public final class LoadLogsHistoryHandler {
+
+    private static final String PID = "osgi.fx.logs";
+
+    @Log
+    @Inject
+    private FluentLogger       logger;
+    @Inject
+    @Named("is_connected")
+    private boolean            isConnected;
+    @Inject
+    @Named("is_snapshot_agent")
+    private boolean            isSnapshotAgent;
+    @Inject
+    private IEventBroker       eventBroker;
+    @Inject
+    private ConfigurationAdmin configAdmin;
+
+    @Execute
+    public void execute() {
+        eventBroker.post(LOAD_LOGS_HISTORY_TOPIC, "");
+        logger.atInfo().log("Load logs history command sent");
+    }
+
+    @CanExecute
+    public boolean canExecute() {
+        return isConnected && !isSnapshotAgent && isSpillEnabled();
+    }
+
+    private boolean isSpillEnabled() {
+        // evicted logs are discarded unless a spill capacity is configured
+        try {
+            final var properties = configAdmin.getConfiguration(PID, "?").getProperties();
+            final var capacity   = properties == null ? null : properties.get("store.spill.capacity");
+            return capacity != null && Integer.parseInt(capacity.toString()) > 0;
+        } catch (final IOException | NumberFormatException e) {
+            logger.atError().withException(e).log("Cannot retrieve configuration '%s'", PID);
+            return false;
+        }
+    }
+
+}
@@ -135,6 +135,8 @@ public final class OverviewFxUI {
 
     @Focus
     public void onFocus(final BorderPane parent) {
+        // the overview is derived from the bundles
+        dataProvider.setVisibleInfo("bundles");
         if (isRealtimeUpdateRunning.get()) {
             // This is required as a workaround to ensure that after the tab gets focused,
             // the CSS overridden problem gets overridden once again with the TileFX
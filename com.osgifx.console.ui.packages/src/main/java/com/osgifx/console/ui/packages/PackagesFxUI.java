@@ -85,6 +85,7 @@ public final class PackagesFxUI {
 
     @Focus
     public void onFocus() {
+        dataProvider.setVisibleInfo("packages");
         if (isConnected) {
             refreshData();
         }
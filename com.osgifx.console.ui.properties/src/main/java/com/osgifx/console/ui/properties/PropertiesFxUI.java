@@ -74,6 +74,7 @@ public final class PropertiesFxUI {
 
     @Focus
     public void onFocus() {
+        dataProvider.setVisibleInfo("properties");
         if (isConnected) {
             refreshData();
         }
@@ -74,6 +74,7 @@ public final class RolesFxUI {
 
     @Focus
     public void onFocus() {
+        dataProvider.setVisibleInfo("roles");
         if (isConnected) {
             refreshData();
         }
@@ -85,6 +85,7 @@ public final class ServicesFxUI {
 
     @Focus
     public void onFocus() {
+        dataProvider.setVisibleInfo("services");
         if (isConnected) {
             refreshData();
         }
@@ -15,9 +15,23 @@
  ******************************************************************************/
 package com.osgifx.console.ui.snapshot.handler;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.IOException;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
 import java.nio.file.Files;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeoutException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -31,8 +45,7 @@ import org.eclipse.fx.core.log.FluentLogger;
 import org.eclipse.fx.core.log.Log;
 
 import com.google.gson.Gson;
-import com.osgifx.console.agent.Agent;
-import com.osgifx.console.dto.SnapshotDTO;
+import com.osgifx.console.agent.AsyncAgent;
 import com.osgifx.console.executor.Executor;
 import com.osgifx.console.supervisor.Supervisor;
 import com.osgifx.console.util.fx.Fx;
@@ -45,6 +58,10 @@ import javafx.stage.DirectoryChooser;
 
 public final class SnapshotCaptureHandler {
 
+    private static final String   SNAPSHOT_EXTENSION = "zip";
+    private static final String   SECTION_EXTENSION  = ".json";
+    private static final Duration SNAPSHOT_TIMEOUT   = Duration.ofMinutes(5);
+
     @Log
     @Inject
     private FluentLogger      logger;
@@ -70,13 +87,13 @@ public final class SnapshotCaptureHandler {
         if (location == null) {
             return;
         }
-        final Task<String> snapshotTask = new Task<>() {
+        final Task<File> snapshotTask = new Task<>() {
 
             @Override
-            protected String call() throws Exception {
+            protected File call() throws Exception {
                 try {
                     updateMessage("Capturing snapshot of the remote runtime");
-                    return snapshot();
+                    return snapshot(location);
                 } catch (final Exception e) {
                     logger.atError().withException(e).log("Cannot capture snapshot");
                     threadSync.asyncExec(() -> {
@@ -88,17 +105,10 @@ public final class SnapshotCaptureHandler {
             }
         };
 
-        snapshotTask.valueProperty().addListener((ChangeListener<String>) (obs, oldValue, newValue) -> {
+        snapshotTask.valueProperty().addListener((ChangeListener<File>) (obs, oldValue, newValue) -> {
             if (newValue != null) {
-                threadSync.asyncExec(() -> {
-                    try {
-                        final var jsonSnapshot = new File(location, IO.prepareFilenameFor("json"));
-                        Files.write(jsonSnapshot.toPath(), newValue.getBytes());
-                        Fx.showSuccessNotification("Snapshot Successfully Captured", jsonSnapshot.getAbsolutePath());
-                    } catch (final IOException e) {
-                        FxDialog.showExceptionDialog(e, getClass().getClassLoader());
-                    }
-                });
+                threadSync.asyncExec(
+                        () -> Fx.showSuccessNotification("Snapshot Successfully Captured", newValue.getAbsolutePath()));
             }
         });
         final var taskFuture = executor.runAsync(snapshotTask);
@@ -106,34 +116,56 @@ public final class SnapshotCaptureHandler {
                 () -> taskFuture.cancel(true));
     }
 
-    private String snapshot() {
-        Agent agent = null;
-        if (supervisor == null || (agent = supervisor.getAgent()) == null) {
+    private File snapshot(final File location) throws Exception {
+        AsyncAgent agent = null;
+        if (supervisor == null || (agent = supervisor.getAsyncAgent()) == null) {
             return null;
         }
-        final var dto = new SnapshotDTO();
-
-        dto.bundles              = agent.getAllBundles();
-        dto.components           = agent.getAllComponents();
-        dto.configurations       = agent.getAllConfigurations();
-        dto.properties           = agent.getAllProperties();
-        dto.services             = agent.getAllServices();
-        dto.threads              = agent.getAllThreads();
-        dto.dmtNodes             = agent.readDmtNode(".");
-        dto.memoryInfo           = agent.getMemoryInfo();
-        dto.roles                = agent.getAllRoles();
-        dto.healthChecks         = agent.getAllHealthChecks();
-        dto.classloaderLeaks     = agent.getClassloaderLeaks();
-        dto.httpComponents       = agent.getHttpComponents();
-        dto.bundleLoggerContexts = agent.getBundleLoggerContexts();
-        dto.heapUsage            = agent.getHeapUsage();
-        dto.runtime              = agent.getRuntimeDTO();
-
-        try {
-            return new Gson().toJson(dto);
+        // all sections are requested at once and each entry is named after its field in SnapshotDTO
+        final Map<String, CompletableFuture<?>> sections = new LinkedHashMap<>();
+
+        sections.put("bundles", agent.getAllBundles());
+        sections.put("components", agent.getAllComponents());
+        sections.put("configurations", agent.getAllConfigurations());
+        sections.put("properties", agent.getAllProperties());
+        sections.put("services", agent.getAllServices());
+        sections.put("threads", agent.getAllThreads());
+        sections.put("dmtNodes", agent.readDmtNode("."));
+        sections.put("memoryInfo", agent.getMemoryInfo());
+        sections.put("roles", agent.getAllRoles());
+        sections.put("healthChecks", agent.getAllHealthChecks());
+        sections.put("classloaderLeaks", agent.getClassloaderLeaks());
+        sections.put("httpComponents", agent.getHttpComponents());
+        sections.put("bundleLoggerContexts", agent.getBundleLoggerContexts());
+        sections.put("heapUsage", agent.getHeapUsage());
+        sections.put("runtime", agent.getRuntimeDTO());
+
+        // the sections are written in the order their responses arrive
+        final BlockingQueue<String> completed = new LinkedBlockingQueue<>();
+        sections.forEach((name, future) -> future.whenComplete((value, e) -> completed.add(name)));
+
+        final var snapshot = new File(location, IO.prepareFilenameFor(SNAPSHOT_EXTENSION));
+        final var gson     = new Gson();
+        final var deadline = System.nanoTime() + SNAPSHOT_TIMEOUT.toNanos();
+        try (var out = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(snapshot)))) {
+            final var writer = new OutputStreamWriter(out, UTF_8);
+            for (var i = 0; i < sections.size(); i++) {
+                final var name = completed.poll(deadline - System.nanoTime(), NANOSECONDS);
+                if (name == null) {
+                    throw new TimeoutException("Snapshot could not be captured within " + SNAPSHOT_TIMEOUT);
+                }
+                final var value = sections.get(name).get();
+                out.putNextEntry(new ZipEntry(name + SECTION_EXTENSION));
+                gson.toJson(value, writer);
+                writer.flush();
+                out.closeEntry();
+            }
         } catch (final Exception e) {
-            return null;
+            sections.values().forEach(f -> f.cancel(true));
+            Files.deleteIfExists(snapshot.toPath());
+            throw e;
         }
+        return snapshot;
     }
 
     @CanExecute
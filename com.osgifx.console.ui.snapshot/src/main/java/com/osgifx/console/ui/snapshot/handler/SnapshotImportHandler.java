@@ -85,7 +85,8 @@ public final class SnapshotImportHandler {
     @Execute
     public void execute() {
         final var bundleChooser = new FileChooser();
-        bundleChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Snapshots (.json)", "*.json"));
+        bundleChooser.getExtensionFilters()
+                .add(new FileChooser.ExtensionFilter("Snapshots (.zip, .json)", "*.zip", "*.json"));
         final var snapshot = bundleChooser.showOpenDialog(null);
 
         if (snapshot != null) {
@@ -19,15 +19,18 @@ import javax.inject.Inject;
 import javax.inject.Named;
 
 import org.eclipse.e4.core.di.annotations.Optional;
+import org.eclipse.fx.core.ThreadSynchronize;
 import org.eclipse.fx.core.log.FluentLogger;
 import org.eclipse.fx.core.log.Log;
 
 import com.google.common.base.Throwables;
 import com.osgifx.console.agent.Agent;
+import com.osgifx.console.agent.dto.XCommandResultDTO;
+import com.osgifx.console.agent.dto.XResultDTO;
 import com.osgifx.console.executor.Executor;
+import com.osgifx.console.supervisor.CommandOutputListener;
 import com.osgifx.console.supervisor.Supervisor;
 
-import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.scene.control.TextArea;
 import javafx.scene.control.TextField;
@@ -35,25 +38,30 @@ import javafx.scene.input.KeyEvent;
 
 public final class TerminalFxController {
 
+    private static final long MAX_OUTPUT_BYTES = 2L * 1024 * 1024;
+
     @Log
     @Inject
-    private FluentLogger    logger;
+    private FluentLogger      logger;
     @FXML
-    private TextField       input;
+    private TextField         input;
     @FXML
-    private TextArea        output;
+    private TextArea          output;
     @Inject
-    private Executor        executor;
+    private Executor          executor;
     @Inject
     @Optional
-    private Supervisor      supervisor;
+    private Supervisor        supervisor;
     @Inject
-    private TerminalHistory history;
+    private TerminalHistory   history;
     @Inject
     @Named("is_snapshot_agent")
-    private boolean         isSnapshotAgent;
-    private Agent           agent;
-    private int             historyPointer;
+    private boolean           isSnapshotAgent;
+    @Inject
+    private ThreadSynchronize threadSync;
+    private Agent             agent;
+    private int               historyPointer;
+    private volatile long     runningCommand = -1;
 
     @FXML
     public void initialize() {
@@ -68,6 +76,11 @@ public final class TerminalFxController {
     @FXML
     private synchronized void handleInput(final KeyEvent keyEvent) {
         switch (keyEvent.getCode()) {
+            case C:
+                if (keyEvent.isControlDown()) {
+                    cancelCommand();
+                }
+                break;
             case ENTER:
                 final var command = input.getText();
                 if ("clear".equals(command)) {
@@ -105,38 +118,121 @@ public final class TerminalFxController {
     }
 
     private void executeCliCommand(final String command) {
-        final Task<String> task = new Task<>() {
+        history.add(command);
+        historyPointer = history.size();
+        input.clear();
+        if (isSnapshotAgent) {
+            logger.atWarning().log("No command execution in snapshot agent mode");
+            appendOutput("You cannot execute command in snapshot agent mode");
+            return;
+        }
+        if (agent == null) {
+            logger.atWarning().log("Agent is not connected");
+            appendOutput("Agent is not connected");
+            return;
+        }
+        final var id = supervisor.addCommandOutputListener(new CommandOutputListener() {
 
             @Override
-            protected String call() throws Exception {
-                String outputText;
-                try {
-                    if (isSnapshotAgent) {
-                        logger.atWarning().log("No command execution in snapshot agent mode");
-                        outputText = "You cannot execute command in snapshot agent mode";
-                    } else if (agent == null || (outputText = agent.execCliCommand(command)) == null) {
-                        logger.atWarning().log("Agent is not connected");
-                        outputText = "Agent is not connected";
-                    } else {
-                        logger.atInfo().log("Command '%s' has been successfully executed", command);
-                    }
-                } catch (final Exception e) {
-                    logger.atInfo().withException(e).log("Command '%s' cannot be executed properly", command);
-                    outputText = Throwables.getStackTraceAsString(e);
+            public void onOutput(final String chunk) {
+                threadSync.asyncExec(() -> output.appendText(chunk));
+            }
+
+            @Override
+            public void onCompleted(final XCommandResultDTO result) {
+                finishCommand(result.id, summarize(result));
+                logger.atInfo().log("Command '%s' has been completed with exit code %s", command, result.exitCode);
+            }
+        });
+        runningCommand = id;
+        executor.runAsync(() -> {
+            if (!supervisor.isAgentMethodSupported("execCliCommandStreamed")) {
+                // older agents only support the execution with the complete output
+                supervisor.removeCommandOutputListener(id);
+                finishCommand(id, executeBuffered(command));
+                return;
+            }
+            try {
+                final var result = agent.execCliCommandStreamed(id, command, MAX_OUTPUT_BYTES);
+                if (result == null || result.result != XResultDTO.SUCCESS) {
+                    supervisor.removeCommandOutputListener(id);
+                    final var reason = result == null ? "Command could not be started" : result.response;
+                    finishCommand(id, reason);
+                    return;
                 }
-                return outputText;
+                logger.atInfo().log("Command '%s' has been started", command);
+            } catch (final Exception e) {
+                supervisor.removeCommandOutputListener(id);
+                logger.atInfo().withException(e).log("Command '%s' cannot be executed properly", command);
+                finishCommand(id, Throwables.getStackTraceAsString(e));
+            }
+        });
+    }
+
+    private String executeBuffered(final String command) {
+        try {
+            final var outputText = agent.execCliCommand(command);
+            if (outputText == null) {
+                logger.atWarning().log("Agent is not connected");
+                return "Agent is not connected";
             }
-        };
-
-        task.setOnSucceeded(t -> {
-            output.appendText(task.getValue());
-            output.appendText(System.lineSeparator());
-            history.add(command);
-            historyPointer = history.size();
-            input.clear();
-            logger.atDebug().log("Task for command '%s' has been succeeded", command);
+            logger.atInfo().log("Command '%s' has been successfully executed", command);
+            return outputText;
+        } catch (final Exception e) {
+            logger.atInfo().withException(e).log("Command '%s' cannot be executed properly", command);
+            return Throwables.getStackTraceAsString(e);
+        }
+    }
+
+    private void cancelCommand() {
+        final var id = runningCommand;
+        if (id == -1) {
+            return;
+        }
+        executor.runAsync(() -> {
+            if (agent.cancelCommand(id)) {
+                logger.atInfo().log("Command execution '%s' has been cancelled", id);
+            }
+        });
+    }
+
+    private void finishCommand(final long id, final String text) {
+        threadSync.asyncExec(() -> {
+            if (runningCommand == id) {
+                runningCommand = -1;
+            }
+            appendOutput(text);
         });
-        executor.runAsync(task);
+    }
+
+    private void appendOutput(final String text) {
+        final var lines = new StringBuilder();
+        // the streamed output does not necessarily end with a line break
+        if (output.getLength() > 0 && !output.getText().endsWith("\n")) {
+            lines.append(System.lineSeparator());
+        }
+        lines.append(text);
+        if (!text.isEmpty() && !text.endsWith("\n")) {
+            lines.append(System.lineSeparator());
+        }
+        output.appendText(lines.toString());
+    }
+
+    private static String summarize(final XCommandResultDTO result) {
+        final var summary = new StringBuilder();
+        if (result.error != null) {
+            summary.append(result.error).append(System.lineSeparator());
+        }
+        if (result.truncated) {
+            summary.append("[output truncated after ").append(result.bytes).append(" bytes]")
+                    .append(System.lineSeparator());
+        }
+        if (result.cancelled) {
+            summary.append("[cancelled]").append(System.lineSeparator());
+        } else if (result.exitCode > 0) {
+            summary.append("[exit code ").append(result.exitCode).append("]").append(System.lineSeparator());
+        }
+        return summary.toString();
     }
 
 }
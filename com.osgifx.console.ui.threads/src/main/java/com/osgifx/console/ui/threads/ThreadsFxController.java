@@ -15,10 +15,13 @@
  ******************************************************************************/
 package com.osgifx.console.ui.threads;
 
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
 import javax.inject.Inject;
 import javax.inject.Named;
 
 import org.controlsfx.control.table.TableFilter;
+import org.controlsfx.control.table.TableRowExpanderColumn;
 import org.eclipse.fx.core.log.FluentLogger;
 import org.eclipse.fx.core.log.Log;
 
@@ -27,9 +30,12 @@ import com.osgifx.console.data.provider.DataProvider;
 import com.osgifx.console.util.fx.DTOCellValueFactory;
 import com.osgifx.console.util.fx.Fx;
 
+import javafx.beans.property.SimpleStringProperty;
 import javafx.fxml.FXML;
+import javafx.scene.control.Label;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
+import javafx.scene.control.TextArea;
 import javafx.scene.paint.Color;
 
 public final class ThreadsFxController {
@@ -55,6 +61,14 @@ public final class ThreadsFxController {
     private TableColumn<XThreadDTO, String> isDaemonColumn;
     @FXML
     private TableColumn<XThreadDTO, String> isDeadlockedColumn;
+    @FXML
+    private TableColumn<XThreadDTO, String> cpuTimeColumn;
+    @FXML
+    private TableColumn<XThreadDTO, String> blockedCountColumn;
+    @FXML
+    private TableColumn<XThreadDTO, String> waitedCountColumn;
+    @FXML
+    private TableColumn<XThreadDTO, String> lockOwnerColumn;
     @Inject
     @Named("is_connected")
     private boolean                         isConnected;
@@ -90,8 +104,42 @@ public final class ThreadsFxController {
         isDeadlockedColumn.setCellValueFactory(new DTOCellValueFactory<>("isDeadlocked", String.class));
         Fx.addCellFactory(isDeadlockedColumn, b -> b.isDeadlocked, Color.RED, Color.BLACK);
 
+        // the following are only available if the thread details have been retrieved
+        cpuTimeColumn.setCellValueFactory(p -> toDetail(p.getValue(), toMillis(p.getValue().cpuTimeInNanos)));
+        blockedCountColumn.setCellValueFactory(p -> toDetail(p.getValue(), p.getValue().blockedCount));
+        waitedCountColumn.setCellValueFactory(p -> toDetail(p.getValue(), p.getValue().waitedCount));
+        lockOwnerColumn.setCellValueFactory(p -> {
+            final var thread = p.getValue();
+            if (thread.lockOwnerName == null) {
+                return new SimpleStringProperty("");
+            }
+            return new SimpleStringProperty(thread.lockOwnerName + " [" + thread.lockOwnerId + "]");
+        });
+
+        final var expanderColumn = new TableRowExpanderColumn<XThreadDTO>(current -> {
+            final var thread = current.getValue();
+            if (thread.stackTrace == null) {
+                return new Label("Enable the thread details to capture the stack trace");
+            }
+            final var stackTrace = new TextArea(String.join(System.lineSeparator(), thread.stackTrace));
+            stackTrace.setEditable(false);
+            return stackTrace;
+        });
+        table.getColumns().add(0, expanderColumn);
+
         table.setItems(dataProvider.threads());
         TableFilter.forTableView(table).lazy(true).apply();
     }
 
+    private static SimpleStringProperty toDetail(final XThreadDTO thread, final long value) {
+        if (thread.stackTrace == null || value < 0) {
+            return new SimpleStringProperty("");
+        }
+        return new SimpleStringProperty(String.valueOf(value));
+    }
+
+    private static long toMillis(final long nanos) {
+        return nanos < 0 ? -1 : NANOSECONDS.toMillis(nanos);
+    }
+
 }
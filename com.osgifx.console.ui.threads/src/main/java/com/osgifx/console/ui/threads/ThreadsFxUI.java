@@ -16,6 +16,8 @@
 package com.osgifx.console.ui.threads;
 
 import static com.osgifx.console.constants.FxConstants.ROOT_FXML;
+import static com.osgifx.console.event.topics.ThreadDetailsEventTopics.THREAD_DETAILS_DISABLED_TOPIC;
+import static com.osgifx.console.event.topics.ThreadDetailsEventTopics.THREAD_DETAILS_ENABLED_TOPIC;
 import static com.osgifx.console.supervisor.Supervisor.AGENT_CONNECTED_EVENT_TOPIC;
 import static com.osgifx.console.supervisor.Supervisor.AGENT_DISCONNECTED_EVENT_TOPIC;
 
@@ -25,6 +27,7 @@ import javax.inject.Named;
 
 import org.eclipse.e4.core.di.annotations.Optional;
 import org.eclipse.e4.core.di.extensions.OSGiBundle;
+import org.eclipse.e4.core.services.events.IEventBroker;
 import org.eclipse.e4.ui.di.Focus;
 import org.eclipse.e4.ui.di.UIEventTopic;
 import org.eclipse.fx.core.di.LocalInstance;
@@ -65,6 +68,9 @@ public final class ThreadsFxUI {
     private ConsoleMaskerPane progressPane;
     @Inject
     private DataProvider      dataProvider;
+    @Inject
+    private IEventBroker      eventBroker;
+    private boolean           isDetailsEnabled;
 
     @PostConstruct
     public void postConstruct(final BorderPane parent, @LocalInstance final FXMLLoader loader) {
@@ -74,6 +80,7 @@ public final class ThreadsFxUI {
 
     @Focus
     public void onFocus() {
+        dataProvider.setVisibleInfo("threads");
         if (isConnected) {
             refreshData();
         }
@@ -94,6 +101,7 @@ public final class ThreadsFxUI {
                                                 final BorderPane parent,
                                                 @LocalInstance final FXMLLoader loader) {
         logger.atInfo().log("Agent disconnected event received");
+        isDetailsEnabled = false;
         createControls(parent, loader);
     }
 
@@ -127,8 +135,11 @@ public final class ThreadsFxUI {
         statusBar.clearAllInRight();
         statusBar.addTo(parent);
         if (isConnected) {
-            final var node = Fx.initStatusBarButton(this::refreshData, "Refresh", "REFRESH");
+            final var node        = Fx.initStatusBarButton(this::refreshData, "Refresh", "REFRESH");
+            final var detailsNode = Fx.initStatusBarButton(this::toggleDetails,
+                    "Toggle Thread Details (CPU Time, Contention, Locks and Stack Traces)", "TACHOMETER");
             if (!isSnapshotAgent) {
+                statusBar.addToRight(detailsNode);
                 statusBar.addToRight(node);
             }
         }
@@ -138,4 +149,12 @@ public final class ThreadsFxUI {
         dataProvider.retrieveInfo("threads", true);
     }
 
+    private void toggleDetails() {
+        isDetailsEnabled = !isDetailsEnabled;
+        // sent synchronously to ensure that the subsequent retrieval considers it
+        eventBroker.send(isDetailsEnabled ? THREAD_DETAILS_ENABLED_TOPIC : THREAD_DETAILS_DISABLED_TOPIC, "");
+        logger.atInfo().log("Thread details have been %s", isDetailsEnabled ? "enabled" : "disabled");
+        refreshData();
+    }
+
 }
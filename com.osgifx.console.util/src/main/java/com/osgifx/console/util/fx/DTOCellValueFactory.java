@@ -15,6 +15,13 @@
  ******************************************************************************/
 package com.osgifx.console.util.fx;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 import org.osgi.util.converter.Converter;
@@ -27,6 +34,20 @@ import javafx.util.Callback;
 
 public final class DTOCellValueFactory<S, T> implements Callback<CellDataFeatures<S, T>, ObservableValue<T>> {
 
+    /**
+     * Field accessors shared by all factories, keyed by the DTO class and the
+     * property name. A missing or inaccessible field is cached as an empty
+     * accessor to avoid repeated lookups.
+     */
+    private static final ClassValue<Map<String, Optional<MethodHandle>>> ACCESSORS = new ClassValue<>() {
+        @Override
+        protected Map<String, Optional<MethodHandle>> computeValue(final Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private static final MethodType ACCESSOR_TYPE = MethodType.methodType(Object.class, Object.class);
+
     private final Class<T>  clazz;
     private final String    property;
     private final Converter converter;
@@ -45,13 +66,12 @@ public final class DTOCellValueFactory<S, T> implements Callback<CellDataFeature
 
     @Override
     public ObservableValue<T> call(final CellDataFeatures<S, T> celldata) {
-        final var source = celldata.getValue();
-        T         value  = null;
-        try {
-            final var field = source.getClass().getField(property);
-            value = converter.convert(field.get(source)).to(clazz);
-        } catch (NoSuchFieldException | SecurityException | IllegalArgumentException | IllegalAccessException e) {
-            // nothing to do as we have to check for the null value replacer
+        final var source   = celldata.getValue();
+        final var accessor = ACCESSORS.get(source.getClass()).computeIfAbsent(property,
+                p -> findAccessor(source.getClass(), p));
+        T         value    = null;
+        if (accessor.isPresent()) {
+            value = getValue(accessor.get(), source);
         }
         if (value == null && nullValueReplacer != null) {
             value = nullValueReplacer.apply(source);
@@ -59,4 +79,32 @@ public final class DTOCellValueFactory<S, T> implements Callback<CellDataFeature
         return new ReadOnlyObjectWrapper<>(value);
     }
 
+    private T getValue(final MethodHandle accessor, final S source) {
+        final Object fieldValue;
+        try {
+            fieldValue = accessor.invokeExact((Object) source);
+        } catch (final Throwable e) {
+            // nothing to do as we have to check for the null value replacer
+            return null;
+        }
+        // most of the columns display the field as is and hence do not require any conversion
+        if (fieldValue == null || clazz.isInstance(fieldValue)) {
+            return clazz.cast(fieldValue);
+        }
+        return converter.convert(fieldValue).to(clazz);
+    }
+
+    private static Optional<MethodHandle> findAccessor(final Class<?> type, final String property) {
+        try {
+            final var field  = type.getField(property);
+            var       getter = MethodHandles.publicLookup().unreflectGetter(field);
+            if (Modifier.isStatic(field.getModifiers())) {
+                getter = MethodHandles.dropArguments(getter, 0, Object.class);
+            }
+            return Optional.of(getter.asType(ACCESSOR_TYPE));
+        } catch (NoSuchFieldException | SecurityException | IllegalAccessException e) {
+            return Optional.empty();
+        }
+    }
+
 }